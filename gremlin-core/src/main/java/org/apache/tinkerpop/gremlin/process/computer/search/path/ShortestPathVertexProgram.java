@@ -42,16 +42,17 @@ import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.TraverserSe
 import org.apache.tinkerpop.gremlin.process.traversal.util.PureTraversal;
 import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
-import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.VertexProperty;
 import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 import org.apache.tinkerpop.gremlin.structure.util.reference.ReferenceFactory;
+import org.apache.tinkerpop.gremlin.structure.util.reference.ReferenceVertex;
 import org.apache.tinkerpop.gremlin.util.NumberHelper;
 import org.javatuples.Pair;
 import org.javatuples.Triplet;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -62,12 +63,20 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.BinaryOperator;
 import java.util.function.Function;
 
 /**
+ * Finds all shortest paths from the source vertices to the target vertices. Vertices only exchange messages of the
+ * source vertex identifier, the predecessor and the distance and keep the predecessors on their shortest paths from each
+ * source vertex, where the predecessor is the identifier of the adjacent vertex or the edge to it if edges are included.
+ * Once the search is done, the paths are reconstructed backwards from the target vertices by sending the partial paths
+ * to the predecessors until they reach the source vertex, so that only complete paths are moved into the memory.
+ * Distances must not be negative.
+ *
  * @author Daniel Kuppitz (http://gremlin.guru)
  */
-public class ShortestPathVertexProgram implements VertexProgram<Triplet<Path, Edge, Number>> {
+public class ShortestPathVertexProgram implements VertexProgram<Triplet<Object, Object, Number>> {
 
     @SuppressWarnings("WeakerAccess")
     public static final String SHORTEST_PATHS = "gremlin.shortestPathVertexProgram.shortestPaths";
@@ -78,14 +87,18 @@ public class ShortestPathVertexProgram implements VertexProgram<Triplet<Path, Ed
     private static final String DISTANCE_TRAVERSAL = "gremlin.shortestPathVertexProgram.distanceTraversal";
     private static final String MAX_DISTANCE = "gremlin.shortestPathVertexProgram.maxDistance";
     private static final String INCLUDE_EDGES = "gremlin.shortestPathVertexProgram.includeEdges";
+    private static final String LANDMARK_PROPERTY = "gremlin.shortestPathVertexProgram.landmarkProperty";
 
     private static final String STATE = "gremlin.shortestPathVertexProgram.state";
     private static final String PATHS = "gremlin.shortestPathVertexProgram.paths";
     private static final String VOTE_TO_HALT = "gremlin.shortestPathVertexProgram.voteToHalt";
+    private static final String TARGETS = "gremlin.shortestPathVertexProgram.targets";
+    private static final String BEST_DISTANCES = "gremlin.shortestPathVertexProgram.bestDistances";
 
     private static final int SEARCH = 0;
     private static final int COLLECT_PATHS = 1;
     private static final int UPDATE_HALTED_TRAVERSERS = 2;
+    private static final int RECONSTRUCT_PATHS = 3;
 
     public static final PureTraversal<Vertex, ?> DEFAULT_VERTEX_FILTER_TRAVERSAL = new PureTraversal<>(
             __.<Vertex> identity().asAdmin()); // todo: new IdentityTraversal<>()
@@ -105,6 +118,8 @@ public class ShortestPathVertexProgram implements VertexProgram<Triplet<Path, Ed
     private boolean distanceEqualsNumberOfHops;
     private boolean includeEdges;
     private boolean standalone;
+    private String landmarkProperty;
+    private boolean prune;
 
     private static final Set<VertexComputeKey> VERTEX_COMPUTE_KEYS = new HashSet<>(Arrays.asList(
             VertexComputeKey.of(PATHS, true),
@@ -138,8 +153,15 @@ public class ShortestPathVertexProgram implements VertexProgram<Triplet<Path, Ed
 
         this.distanceEqualsNumberOfHops = this.distanceTraversal.equals(DEFAULT_DISTANCE_TRAVERSAL);
         this.includeEdges = configuration.getBoolean(INCLUDE_EDGES, false);
+        this.landmarkProperty = configuration.getString(LANDMARK_PROPERTY, null);
         this.standalone = !configuration.containsKey(VertexProgramStep.ROOT_TRAVERSAL);
 
+        // Pruning is only safe if distances can never decrease along a path, which is always true for hop counts and
+        // assumed to be true once the user provides landmark distances. It's also only worth the memory overhead if
+        // the set of target vertices is restricted.
+        this.prune = !this.targetVertexFilterTraversal.equals(DEFAULT_VERTEX_FILTER_TRAVERSAL) &&
+                (this.distanceEqualsNumberOfHops || this.landmarkProperty != null);
+
         if (!this.standalone) {
             this.traversal = PureTraversal.loadState(configuration, VertexProgramStep.ROOT_TRAVERSAL, graph);
             final String programStepId = configuration.getString(ProgramVertexProgramStep.STEP_ID);
@@ -159,6 +181,10 @@ public class ShortestPathVertexProgram implements VertexProgram<Triplet<Path, Ed
             this.haltedTraversersIndex.add(traverser.split());
         }
         this.memoryComputeKeys.add(MemoryComputeKey.of(SHORTEST_PATHS, Operator.addAll, true, !standalone));
+        if (this.prune) {
+            this.memoryComputeKeys.add(MemoryComputeKey.of(TARGETS, Operator.addAll, true, true));
+            this.memoryComputeKeys.add(MemoryComputeKey.of(BEST_DISTANCES, new MinDistanceOperator(), true, true));
+        }
     }
 
     @Override
@@ -169,6 +195,8 @@ public class ShortestPathVertexProgram implements VertexProgram<Triplet<Path, Ed
         this.edgeTraversal.storeState(configuration, EDGE_TRAVERSAL);
         this.distanceTraversal.storeState(configuration, DISTANCE_TRAVERSAL);
         configuration.setProperty(INCLUDE_EDGES, this.includeEdges);
+        if (this.landmarkProperty != null)
+            configuration.setProperty(LANDMARK_PROPERTY, this.landmarkProperty);
         if (this.maxDistance != null)
             configuration.setProperty(MAX_DISTANCE, maxDistance);
         if (this.traversal != null) {
@@ -194,7 +222,7 @@ public class ShortestPathVertexProgram implements VertexProgram<Triplet<Path, Ed
     }
 
     @Override
-    public VertexProgram<Triplet<Path, Edge, Number>> clone() {
+    public VertexProgram<Triplet<Object, Object, Number>> clone() {
         try {
             final ShortestPathVertexProgram clone = (ShortestPathVertexProgram) super.clone();
             if (null != this.edgeTraversal)
@@ -238,12 +266,16 @@ public class ShortestPathVertexProgram implements VertexProgram<Triplet<Path, Ed
     }
 
     @Override
-    public void execute(final Vertex vertex, final Messenger<Triplet<Path, Edge, Number>> messenger, final Memory memory) {
+    public void execute(final Vertex vertex, final Messenger<Triplet<Object, Object, Number>> messenger, final Memory memory) {
 
         switch (memory.<Integer>get(STATE)) {
 
             case COLLECT_PATHS:
-                collectShortestPaths(vertex, memory);
+                collectShortestPaths(vertex, messenger, memory);
+                return;
+
+            case RECONSTRUCT_PATHS:
+                reconstructShortestPaths(vertex, messenger, memory);
                 return;
 
             case UPDATE_HALTED_TRAVERSERS:
@@ -260,75 +292,93 @@ public class ShortestPathVertexProgram implements VertexProgram<Triplet<Path, Ed
             // property to be available (if halted traversers exist for this vertex).
             copyHaltedTraversersFromMemory(vertex);
 
+            // register target vertices along with their landmark distances, which are needed to prune the search
+            if (this.prune && isEndVertex(vertex)) {
+                final Map<Object, Map<Object, Number>> target = new HashMap<>();
+                target.put(vertex.id(), getLandmarkDistances(vertex));
+                memory.add(TARGETS, target);
+            }
+
             // ignore vertices that don't pass the start-vertex filter
             if (!isStartVertex(vertex)) return;
 
-            // start to track paths for all valid start-vertices
-            final Map<Vertex, Pair<Number, Set<Path>>> paths = new HashMap<>();
-            final Path path;
-            final Set<Path> pathSet = new HashSet<>();
-
-            pathSet.add(path = makePath(vertex));
-            paths.put(vertex, Pair.with(0, pathSet));
+            // start to track the predecessors for all valid start-vertices, which have none
+            final Map<Object, Pair<Number, Set<Object>>> paths = new HashMap<>();
+            paths.put(vertex.id(), Pair.with(0, new HashSet<>()));
 
             vertex.property(VertexProperty.Cardinality.single, PATHS, paths);
 
             // send messages to valid adjacent vertices
-            processEdges(vertex, path, 0, messenger);
+            processEdges(vertex, vertex.id(), 0, messenger);
 
             voteToHalt = false;
 
         } else {
 
-            // load existing paths to this vertex and extend them based on messages received from adjacent vertices
-            final Map<Vertex, Pair<Number, Set<Path>>> paths =
-                    vertex.<Map<Vertex, Pair<Number, Set<Path>>>>property(PATHS).orElseGet(HashMap::new);
-            final Iterator<Triplet<Path, Edge, Number>> iterator = messenger.receiveMessages();
+            // load the known predecessors of this vertex and update them based on messages received from adjacent
+            // vertices
+            final Map<Object, Pair<Number, Set<Object>>> paths =
+                    vertex.<Map<Object, Pair<Number, Set<Object>>>>property(PATHS).orElseGet(HashMap::new);
+            final Iterator<Triplet<Object, Object, Number>> iterator = messenger.receiveMessages();
+            final boolean isEndVertex = this.prune && isEndVertex(vertex);
+            boolean changed = false;
 
             while (iterator.hasNext()) {
 
-                final Triplet<Path, Edge, Number> triplet = iterator.next();
-                final Path sourcePath = triplet.getValue0();
+                final Triplet<Object, Object, Number> triplet = iterator.next();
+                final Object sourceId = triplet.getValue0();
+                final Object predecessor = triplet.getValue1();
                 final Number distance = triplet.getValue2();
-                final Vertex sourceVertex = sourcePath.get(0);
 
-                Path newPath = null;
+                boolean shorter = false;
 
                 // already know a path coming from this source vertex?
-                if (paths.containsKey(sourceVertex)) {
+                if (paths.containsKey(sourceId)) {
 
-                    final Number currentShortestDistance = paths.get(sourceVertex).getValue0();
+                    final Number currentShortestDistance = paths.get(sourceId).getValue0();
                     final int cmp = NumberHelper.compare(distance, currentShortestDistance);
 
-                    if (cmp <= 0) {
-                        newPath = extendPath(sourcePath, triplet.getValue1(), vertex);
-                        if (cmp < 0) {
-                            // if the path length is smaller than the current shortest path's length, replace the
-                            // current set of shortest paths
-                            final Set<Path> pathSet = new HashSet<>();
-                            pathSet.add(newPath);
-                            paths.put(sourceVertex, Pair.with(distance, pathSet));
-                        } else {
-                            // if the path length is equal to the current shortest path's length, add the new path
-                            // to the set of shortest paths
-                            paths.get(sourceVertex).getValue1().add(newPath);
-                        }
+                    if (cmp < 0) {
+                        // if the path length is smaller than the current shortest path's length, replace the
+                        // current set of predecessors
+                        final Set<Object> predecessors = new HashSet<>();
+                        predecessors.add(predecessor);
+                        paths.put(sourceId, Pair.with(distance, predecessors));
+                        shorter = true;
+                    } else if (cmp == 0) {
+                        // if the path length is equal to the current shortest path's length, add the predecessor,
+                        // which needs no messages as the adjacent vertices already know the distance to this vertex
+                        changed |= paths.get(sourceId).getValue1().add(predecessor);
                     }
                 } else if (!exceedsMaxDistance(distance)) {
-                    // store the new path as the shortest path from the source vertex to the current vertex
-                    final Set<Path> pathSet = new HashSet<>();
-                    pathSet.add(newPath = extendPath(sourcePath, triplet.getValue1(), vertex));
-                    paths.put(sourceVertex, Pair.with(distance, pathSet));
+                    // store the predecessor of the first path from the source vertex to the current vertex
+                    final Set<Object> predecessors = new HashSet<>();
+                    predecessors.add(predecessor);
+                    paths.put(sourceId, Pair.with(distance, predecessors));
+                    shorter = true;
                 }
 
-                // if a new path was found, send messages to adjacent vertices, otherwise do nothing as there's no
-                // chance to find any new paths going forward
-                if (newPath != null) {
-                    vertex.property(VertexProperty.Cardinality.single, PATHS, paths);
-                    processEdges(vertex, newPath, distance, messenger);
+                // if a shorter path was found, send messages to adjacent vertices, otherwise do nothing as there's no
+                // chance to find any shorter paths going forward
+                if (shorter) {
+                    changed = true;
+                    if (isEndVertex) {
+                        // publish the best known distance from the source vertex to this target vertex
+                        final Map<Object, Number> targetDistance = new HashMap<>();
+                        targetDistance.put(vertex.id(), distance);
+                        final Map<Object, Map<Object, Number>> bestDistances = new HashMap<>();
+                        bestDistances.put(sourceId, targetDistance);
+                        memory.add(BEST_DISTANCES, bestDistances);
+                    }
+                    if (!this.prune || mayLeadToShortestPath(vertex, sourceId, distance, memory)) {
+                        processEdges(vertex, sourceId, distance, messenger);
+                    }
                     voteToHalt = false;
                 }
             }
+
+            if (changed)
+                vertex.property(VertexProperty.Cardinality.single, PATHS, paths);
         }
 
         // VOTE_TO_HALT will be set to true if an iteration hasn't found any new paths
@@ -343,7 +393,7 @@ public class ShortestPathVertexProgram implements VertexProgram<Triplet<Path, Ed
         final boolean voteToHalt = memory.get(VOTE_TO_HALT);
         if (voteToHalt) {
             final int state = memory.get(STATE);
-            if (state == COLLECT_PATHS) {
+            if (state == COLLECT_PATHS || state == RECONSTRUCT_PATHS) {
                 // After paths were collected,
                 // a) the VP is done in standalone mode (paths will be in memory) or
                 // b) the halted traversers will be updated in order to have the paths available in the traversal
@@ -356,6 +406,15 @@ public class ShortestPathVertexProgram implements VertexProgram<Triplet<Path, Ed
             return false;
         } else {
             memory.set(VOTE_TO_HALT, true);
+            // the paths that the target vertices sent are extended until no vertex sends any further
+            if (memory.<Integer>get(STATE) == COLLECT_PATHS) {
+                memory.set(STATE, RECONSTRUCT_PATHS);
+                return false;
+            }
+            // the best distances are merged in place, so the workers of the next iteration must not read the map
+            // that they merge into
+            if (this.prune && memory.exists(BEST_DISTANCES) && memory.get(BEST_DISTANCES) instanceof Distances)
+                memory.set(BEST_DISTANCES, Collections.unmodifiableMap(memory.<Distances>get(BEST_DISTANCES)));
             return false;
         }
     }
@@ -382,6 +441,10 @@ public class ShortestPathVertexProgram implements VertexProgram<Triplet<Path, Ed
             options.add(shortName.apply(DISTANCE_TRAVERSAL) + "=" + this.distanceTraversal.get());
         }
 
+        if (this.landmarkProperty != null) {
+            options.add(shortName.apply(LANDMARK_PROPERTY) + "=" + this.landmarkProperty);
+        }
+
         options.add(shortName.apply(INCLUDE_EDGES) + "=" + this.includeEdges);
 
         return StringFactory.vertexProgramString(this, String.join(", ", options));
@@ -399,25 +462,6 @@ public class ShortestPathVertexProgram implements VertexProgram<Triplet<Path, Ed
     }
 
 
-    private static Path makePath(final Vertex newVertex) {
-        return extendPath(null, newVertex);
-    }
-
-    private static Path extendPath(final Path currentPath, final Element... elements) {
-        Path result = ImmutablePath.make();
-        if (currentPath != null) {
-            for (final Object o : currentPath.objects()) {
-                result = result.extend(o, Collections.emptySet());
-            }
-        }
-        for (final Element element : elements) {
-            if (element != null) {
-                result = result.extend(ReferenceFactory.detach(element), Collections.emptySet());
-            }
-        }
-        return result;
-    }
-
     private boolean isStartVertex(final Vertex vertex) {
         // use the sourceVertexFilterTraversal if the VP is running in standalone mode (not part of a traversal)
         if (this.standalone) {
@@ -437,8 +481,8 @@ public class ShortestPathVertexProgram implements VertexProgram<Triplet<Path, Ed
         return filterTraversal.hasNext();
     }
 
-    private void processEdges(final Vertex vertex, final Path currentPath, final Number currentDistance,
-                              final Messenger<Triplet<Path, Edge, Number>> messenger) {
+    private void processEdges(final Vertex vertex, final Object sourceId, final Number currentDistance,
+                              final Messenger<Triplet<Object, Object, Number>> messenger) {
 
         final Traversal.Admin<Vertex, Edge> edgeTraversal = this.edgeTraversal.getPure();
         edgeTraversal.addStart(edgeTraversal.getTraverserGenerator().generate(vertex, edgeTraversal.getStartStep(), 1));
@@ -451,10 +495,10 @@ public class ShortestPathVertexProgram implements VertexProgram<Triplet<Path, Ed
             if (otherV.equals(vertex))
                 otherV = edge.outVertex();
 
-            // only send message if the adjacent vertex is not yet part of the current path
-            if (!currentPath.objects().contains(otherV)) {
+            // a vertex that is already on the path can't get any closer to the source vertex
+            if (!otherV.equals(vertex) && !otherV.id().equals(sourceId)) {
                 messenger.sendMessage(MessageScope.Global.of(otherV),
-                        Triplet.with(currentPath, this.includeEdges ? edge : null,
+                        Triplet.with(sourceId, this.includeEdges ? ReferenceFactory.detach(edge) : vertex.id(),
                                 NumberHelper.add(currentDistance, distance)));
             }
         }
@@ -485,49 +529,178 @@ public class ShortestPathVertexProgram implements VertexProgram<Triplet<Path, Ed
         if (this.distanceEqualsNumberOfHops) return 1;
         final Traversal.Admin<Edge, Number> traversal = this.distanceTraversal.getPure();
         traversal.addStart(traversal.getTraverserGenerator().generate(edge, traversal.getStartStep(), 1));
-        return traversal.tryNext().orElse(0);
+        final Number distance = traversal.tryNext().orElse(0);
+        // paths are only extended while they get shorter, which would never end for cycles of negative distance
+        if (NumberHelper.compare(distance, 0) < 0)
+            throw new IllegalStateException(String.format("The distance of edge %s must not be negative: %s", edge, distance));
+        return distance;
     }
 
     private boolean exceedsMaxDistance(final Number distance) {
-        // This method is used to stop the message sending for paths that exceed the specified maximum distance. Since
-        // custom distances can be negative, this method should only return true if the distance is calculated based on
-        // the number of hops.
-        return this.distanceEqualsNumberOfHops && this.maxDistance != null
-                && NumberHelper.compare(distance, this.maxDistance) > 0;
+        // This method is used to stop the message sending for paths that exceed the specified maximum distance, which
+        // can't get shorter again as distances are never negative.
+        return this.maxDistance != null && NumberHelper.compare(distance, this.maxDistance) > 0;
     }
 
     /**
-     * Move any valid path into the VP's memory.
+     * Determines whether a path that reached the given vertex can still be extended to a path that is at least as short
+     * as the best known path (or the maximum distance) to any of the target vertices. Lower bounds for the remaining
+     * distance are derived from the landmark distances, if available, using the triangle inequality.
+     */
+    private boolean mayLeadToShortestPath(final Vertex vertex, final Object sourceId, final Number distance,
+                                          final Memory memory) {
+
+        if (!memory.exists(TARGETS)) return true;
+
+        final Map<Object, Map<Object, Number>> targets = memory.get(TARGETS);
+        final Map<Object, Number> bestDistances = memory.exists(BEST_DISTANCES)
+                ? memory.<Map<Object, Map<Object, Number>>>get(BEST_DISTANCES).getOrDefault(sourceId, Collections.emptyMap())
+                : Collections.emptyMap();
+        final Map<Object, Number> landmarkDistances = getLandmarkDistances(vertex);
+        final boolean boundedByMaxDistance = this.maxDistance != null;
+
+        for (final Map.Entry<Object, Map<Object, Number>> target : targets.entrySet()) {
+            final Number best = bestDistances.get(target.getKey());
+            final double bound;
+            if (best == null) {
+                if (!boundedByMaxDistance) return true;
+                bound = this.maxDistance.doubleValue();
+            } else {
+                bound = boundedByMaxDistance
+                        ? Math.min(best.doubleValue(), this.maxDistance.doubleValue())
+                        : best.doubleValue();
+            }
+            if (distance.doubleValue() + getLowerBound(landmarkDistances, target.getValue()) <= bound)
+                return true;
+        }
+        return false;
+    }
+
+    private Map<Object, Number> getLandmarkDistances(final Vertex vertex) {
+        if (this.landmarkProperty == null) return Collections.emptyMap();
+        final VertexProperty<Map<Object, Number>> property = vertex.property(this.landmarkProperty);
+        return property.isPresent() ? property.value() : Collections.emptyMap();
+    }
+
+    private static double getLowerBound(final Map<Object, Number> source, final Map<Object, Number> target) {
+        double lowerBound = 0d;
+        for (final Map.Entry<Object, Number> entry : source.entrySet()) {
+            final Number targetDistance = target.get(entry.getKey());
+            if (targetDistance != null) {
+                lowerBound = Math.max(lowerBound,
+                        Math.abs(targetDistance.doubleValue() - entry.getValue().doubleValue()));
+            }
+        }
+        return lowerBound;
+    }
+
+    /**
+     * Starts the reconstruction of the shortest paths from the source vertices for which the vertex is a valid target
+     * by sending the partial paths that end in the vertex to its predecessors.
      * @param vertex The current vertex.
+     * @param messenger The VertexProgram's messenger.
      * @param memory The VertexProgram's memory.
      */
-    private void collectShortestPaths(final Vertex vertex, final Memory memory) {
+    private void collectShortestPaths(final Vertex vertex, final Messenger<Triplet<Object, Object, Number>> messenger,
+                                      final Memory memory) {
 
-        final VertexProperty<Map<Vertex, Pair<Number, Set<Path>>>> pathProperty = vertex.property(PATHS);
+        final VertexProperty<Map<Object, Pair<Number, Set<Object>>>> pathProperty = vertex.property(PATHS);
 
         if (pathProperty.isPresent()) {
 
-            final Map<Vertex, Pair<Number, Set<Path>>> paths = pathProperty.value();
             final List<Path> result = new ArrayList<>();
+            final boolean isEndVertex = isEndVertex(vertex);
+            boolean voteToHalt = true;
 
-            for (final Pair<Number, Set<Path>> pair : paths.values()) {
-                for (final Path path : pair.getValue1()) {
-                    if (isEndVertex(vertex)) {
-                        if (this.distanceEqualsNumberOfHops ||
-                                this.maxDistance == null ||
-                                NumberHelper.compare(pair.getValue0(), this.maxDistance) <= 0) {
-                            result.add(path);
-                        }
-                    }
+            for (final Map.Entry<Object, Pair<Number, Set<Object>>> entry : pathProperty.value().entrySet()) {
+                if (isEndVertex && !exceedsMaxDistance(entry.getValue().getValue0())) {
+                    voteToHalt &= !extendShortestPath(vertex, entry.getKey(), entry.getValue().getValue1(),
+                            ImmutablePath.make(), entry.getValue().getValue0(), messenger, result);
                 }
             }
 
-            pathProperty.remove();
-
             memory.add(SHORTEST_PATHS, result);
+            memory.add(VOTE_TO_HALT, voteToHalt);
         }
     }
 
+    /**
+     * Extends the partial paths that were received from the successors of the vertex and sends them on to its
+     * predecessors or moves them into the VP's memory once they reached their source vertex.
+     * @param vertex The current vertex.
+     * @param messenger The VertexProgram's messenger.
+     * @param memory The VertexProgram's memory.
+     */
+    private void reconstructShortestPaths(final Vertex vertex, final Messenger<Triplet<Object, Object, Number>> messenger,
+                                          final Memory memory) {
+
+        final Iterator<Triplet<Object, Object, Number>> iterator = messenger.receiveMessages();
+        if (!iterator.hasNext()) return;
+
+        final Map<Object, Pair<Number, Set<Object>>> paths =
+                vertex.<Map<Object, Pair<Number, Set<Object>>>>property(PATHS).orElseGet(HashMap::new);
+        final List<Path> result = new ArrayList<>();
+        boolean voteToHalt = true;
+
+        while (iterator.hasNext()) {
+            final Triplet<Object, Object, Number> triplet = iterator.next();
+            final Pair<Number, Set<Object>> pair = paths.get(triplet.getValue0());
+            voteToHalt &= !extendShortestPath(vertex, triplet.getValue0(),
+                    null == pair ? Collections.emptySet() : pair.getValue1(), (Path) triplet.getValue1(),
+                    triplet.getValue2(), messenger, result);
+        }
+
+        memory.add(SHORTEST_PATHS, result);
+        memory.add(VOTE_TO_HALT, voteToHalt);
+    }
+
+    /**
+     * Adds the vertex to the partial path, which holds the elements from the target vertex backwards, and either adds
+     * the reversed path to the result if the vertex is the source vertex or sends the partial path to the predecessors.
+     *
+     * @return {@code true} if any message was sent
+     */
+    private boolean extendShortestPath(final Vertex vertex, final Object sourceId, final Set<Object> predecessors,
+                                       final Path reversedPath, final Number distance,
+                                       final Messenger<Triplet<Object, Object, Number>> messenger, final List<Path> result) {
+
+        final Path path = reversedPath.extend(ReferenceFactory.detach(vertex), Collections.emptySet());
+        if (vertex.id().equals(sourceId)) {
+            final List<Object> objects = path.objects();
+            Path shortestPath = ImmutablePath.make();
+            for (int i = objects.size() - 1; i >= 0; i--) {
+                shortestPath = shortestPath.extend(objects.get(i), Collections.emptySet());
+            }
+            result.add(shortestPath);
+            return false;
+        }
+
+        boolean sent = false;
+        for (final Object predecessor : predecessors) {
+            final Vertex predecessorVertex;
+            if (predecessor instanceof Edge) {
+                final Edge edge = (Edge) predecessor;
+                predecessorVertex = edge.inVertex().id().equals(vertex.id()) ? edge.outVertex() : edge.inVertex();
+            } else {
+                predecessorVertex = new ReferenceVertex(predecessor, Vertex.DEFAULT_LABEL);
+            }
+            // zero distances may lead back to a vertex that is already on the path
+            if (containsVertex(path, predecessorVertex.id())) continue;
+            messenger.sendMessage(MessageScope.Global.of(predecessorVertex), Triplet.with(sourceId,
+                    predecessor instanceof Edge ? path.extend(predecessor, Collections.emptySet()) : path, distance));
+            sent = true;
+        }
+        return sent;
+    }
+
+    private static boolean containsVertex(final Path path, final Object vertexId) {
+        for (final Object object : path.objects()) {
+            if (object instanceof Vertex && ((Vertex) object).id().equals(vertexId))
+                return true;
+        }
+        return false;
+    }
+
     //////////////////////////////
 
     public static Builder build() {
@@ -590,6 +763,56 @@ public class ShortestPathVertexProgram implements VertexProgram<Triplet<Path, Ed
             this.configuration.setProperty(INCLUDE_EDGES, include);
             return this;
         }
+
+        /**
+         * Specifies the name of a vertex property that holds precomputed distances to a set of landmark vertices as a
+         * {@code Map} of landmark identifier to distance. The landmark distances are used to compute lower bounds for
+         * the remaining distance to the target vertices, thus they must have been computed using the same edges and
+         * distances as the shortest path search. Since lower bounds are derived from the triangle inequality, the
+         * distances must be non-negative and symmetric.
+         */
+        public Builder landmarkProperty(final String landmarkProperty) {
+            if (null != landmarkProperty)
+                this.configuration.setProperty(LANDMARK_PROPERTY, landmarkProperty);
+            else
+                this.configuration.clearProperty(LANDMARK_PROPERTY);
+            return this;
+        }
+    }
+
+    /**
+     * Merges maps of source vertex identifiers to target vertex distances by keeping the minimum distance for every
+     * source/target pair. The distances are merged in place into the accumulator, which is a copy of the map of the
+     * previous iteration that is only made by the first merge of every iteration, as that map may still be read by
+     * other workers.
+     */
+    private static final class MinDistanceOperator implements BinaryOperator<Map<Object, Map<Object, Number>>>, Serializable {
+
+        @Override
+        public Map<Object, Map<Object, Number>> apply(final Map<Object, Map<Object, Number>> a,
+                                                      final Map<Object, Map<Object, Number>> b) {
+            final Distances result = a instanceof Distances ? (Distances) a : new Distances(a);
+            for (final Map.Entry<Object, Map<Object, Number>> entry : b.entrySet()) {
+                final Map<Object, Number> distances = result.computeIfAbsent(entry.getKey(), k -> new HashMap<>());
+                for (final Map.Entry<Object, Number> distance : entry.getValue().entrySet()) {
+                    distances.merge(distance.getKey(), distance.getValue(),
+                            (x, y) -> NumberHelper.compare(x, y) <= 0 ? x : y);
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * The accumulator of the {@link MinDistanceOperator}, which owns all of its maps.
+     */
+    private static final class Distances extends HashMap<Object, Map<Object, Number>> {
+
+        private Distances(final Map<Object, Map<Object, Number>> distances) {
+            for (final Map.Entry<Object, Map<Object, Number>> entry : distances.entrySet()) {
+                this.put(entry.getKey(), new HashMap<>(entry.getValue()));
+            }
+        }
     }
 
     ////////////////////////////
@@ -81,6 +81,26 @@ public final class ShortestPathVertexProgramStep extends VertexProgramStep imple
         this.includeEdges = includeEdges;
     }
 
+    public PureTraversal<Vertex, ?> getTargetVertexFilter() {
+        return this.targetVertexFilter;
+    }
+
+    public PureTraversal<Vertex, Edge> getEdgeTraversal() {
+        return this.edgeTraversal;
+    }
+
+    public PureTraversal<Edge, Number> getDistanceTraversal() {
+        return this.distanceTraversal;
+    }
+
+    public Number getMaxDistance() {
+        return this.maxDistance;
+    }
+
+    public boolean getIncludeEdges() {
+        return this.includeEdges;
+    }
+
     @Override
     public void configure(final Object... keyValues) {
         if (!ShortestPath.configure(this, (String) keyValues[0], keyValues[1])) {
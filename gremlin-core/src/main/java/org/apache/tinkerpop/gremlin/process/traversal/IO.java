@@ -24,6 +24,8 @@ import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.io.GraphReader;
 import org.apache.tinkerpop.gremlin.structure.io.GraphWriter;
 import org.apache.tinkerpop.gremlin.structure.io.IoRegistry;
+import org.apache.tinkerpop.gremlin.structure.io.binary.GraphBinaryBulkReader;
+import org.apache.tinkerpop.gremlin.structure.io.binary.GraphBinaryBulkWriter;
 import org.apache.tinkerpop.gremlin.structure.io.graphml.GraphMLReader;
 import org.apache.tinkerpop.gremlin.structure.io.graphml.GraphMLWriter;
 import org.apache.tinkerpop.gremlin.structure.io.graphson.GraphSONReader;
@@ -59,9 +61,15 @@ public class IO {
      */
     public static final String graphml = "graphml";
 
+    /**
+     * A value to supply to {@link IO#reader} or {@link IO#writer} to indicate the format to use. Using this shorthand
+     * will configure a default {@link GraphBinaryBulkReader} or {@link GraphBinaryBulkWriter} respectively,
+     */
+    public static final String graphbinary = "graphbinary";
+
     /**
      * The specific {@link GraphReader} instance to use, the name of the fully qualified classname of such an
-     * instance or one of {@link IO#graphson}, {@link IO#gryo} or {@link IO#graphml}. If this value is not specified
+     * instance or one of {@link IO#graphson}, {@link IO#gryo}, {@link IO#graphml} or {@link IO#graphbinary}. If this value is not specified
      * then {@link GraphTraversalSource#io(String)} will attempt to construct a default {@link GraphReader} based on
      * the file extension provided to it.
      */
@@ -69,7 +77,7 @@ public class IO {
 
     /**
      * The specific {@link GraphWriter} instance to use, the name of the fully qualified classname of such an
-     * instance or one of {@link IO#graphson}, {@link IO#gryo} or {@link IO#graphml}. If this value is not specified
+     * instance or one of {@link IO#graphson}, {@link IO#gryo}, {@link IO#graphml} or {@link IO#graphbinary}. If this value is not specified
      * then {@link GraphTraversalSource#io(String)} will attempt to construct a default {@link GraphWriter} based on
      * the file extension provided to it.
      */
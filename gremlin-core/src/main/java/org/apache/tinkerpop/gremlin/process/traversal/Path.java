@@ -24,6 +24,7 @@ import org.javatuples.Pair;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
@@ -202,12 +203,10 @@ public interface Path extends Cloneable, Iterable<Object> {
      * @return Whether the path is simple or not
      */
     public default boolean isSimple() {
-        final List<Object> objects = this.objects();
-        for (int i = 0; i < objects.size() - 1; i++) {
-            for (int j = i + 1; j < objects.size(); j++) {
-                if (objects.get(i).equals(objects.get(j)))
-                    return false;
-            }
+        final Set<Object> objects = new HashSet<>();
+        for (final Object object : this.objects()) {
+            if (!objects.add(object))
+                return false;
         }
         return true;
     }
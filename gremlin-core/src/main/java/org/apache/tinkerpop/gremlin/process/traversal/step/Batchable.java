@@ -0,0 +1,41 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.step;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.finalization.BatchStrategy;
+
+import java.util.List;
+
+/**
+ * An interface implemented by stateless steps that are able to process a batch of traversers in a single call rather
+ * than pulling them one at a time through {@link Step#next()}. Implementations loop over the batch themselves, so
+ * subclasses that change how a single traverser is processed must make sure that their batches are processed the same
+ * way.
+ *
+ * @see BatchStrategy
+ */
+public interface Batchable<S, E> extends Step<S, E> {
+
+    /**
+     * Processes all of the {@code starts} and adds the resulting traversers to {@code ends}.
+     */
+    public void processBatch(final List<Traverser.Admin<S>> starts, final List<Traverser.Admin<E>> ends);
+}
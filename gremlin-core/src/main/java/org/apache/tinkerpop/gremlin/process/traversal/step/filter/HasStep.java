@@ -20,6 +20,7 @@ package org.apache.tinkerpop.gremlin.process.traversal.step.filter;
 
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Batchable;
 import org.apache.tinkerpop.gremlin.process.traversal.step.Configuring;
 import org.apache.tinkerpop.gremlin.process.traversal.step.HasContainerHolder;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
@@ -38,7 +39,7 @@ import java.util.Set;
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
-public class HasStep<S extends Element> extends FilterStep<S> implements HasContainerHolder, Configuring {
+public class HasStep<S extends Element> extends FilterStep<S> implements HasContainerHolder, Configuring, Batchable<S, S> {
 
     private final Parameters parameters = new Parameters();
     private List<HasContainer> hasContainers;
@@ -73,6 +74,46 @@ public class HasStep<S extends Element> extends FilterStep<S> implements HasCont
                     traverser.get().getClass().getName()));
     }
 
+    /**
+     * Tests one container against the whole batch at a time, so that the batch shrinks with every container and each
+     * predicate is applied in a loop of its own.
+     */
+    @Override
+    public void processBatch(final List<Traverser.Admin<S>> starts, final List<Traverser.Admin<S>> ends) {
+        // subclasses may filter differently
+        if (this.getClass() != HasStep.class) {
+            for (int i = 0; i < starts.size(); i++) {
+                final Traverser.Admin<S> traverser = starts.get(i);
+                if (this.filter(traverser))
+                    ends.add(traverser);
+            }
+            return;
+        }
+
+        final int offset = ends.size();
+        ends.addAll(starts);
+        for (final HasContainer hasContainer : this.hasContainers) {
+            int size = offset;
+            for (int i = offset; i < ends.size(); i++) {
+                final Traverser.Admin<S> traverser = ends.get(i);
+                if (test(hasContainer, traverser.get()))
+                    ends.set(size++, traverser);
+            }
+            ends.subList(size, ends.size()).clear();
+            if (size == offset) break;
+        }
+    }
+
+    private static boolean test(final HasContainer hasContainer, final Object object) {
+        if (object instanceof Element)
+            return hasContainer.test((Element) object);
+        else if (object instanceof Property)
+            return hasContainer.test((Property) object);
+        else
+            throw new IllegalStateException(String.format(
+                    "Traverser to has() must be of type Property or Element, not %s", object.getClass().getName()));
+    }
+
     @Override
     public String toString() {
         return StringFactory.stepString(this, this.hasContainers);
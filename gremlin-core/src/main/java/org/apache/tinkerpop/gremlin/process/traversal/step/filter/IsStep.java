@@ -21,17 +21,19 @@ package org.apache.tinkerpop.gremlin.process.traversal.step.filter;
 import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Batchable;
 import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
 import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 
 import java.util.EnumSet;
+import java.util.List;
 import java.util.Set;
 
 /**
  * @author Daniel Kuppitz (http://gremlin.guru)
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
-public final class IsStep<S> extends FilterStep<S> {
+public final class IsStep<S> extends FilterStep<S> implements Batchable<S, S> {
 
     private P<S> predicate;
 
@@ -45,6 +47,16 @@ public final class IsStep<S> extends FilterStep<S> {
         return this.predicate.test(traverser.get());
     }
 
+    @Override
+    public void processBatch(final List<Traverser.Admin<S>> starts, final List<Traverser.Admin<S>> ends) {
+        final P<S> predicate = this.predicate;
+        for (int i = 0; i < starts.size(); i++) {
+            final Traverser.Admin<S> traverser = starts.get(i);
+            if (predicate.test(traverser.get()))
+                ends.add(traverser);
+        }
+    }
+
     @Override
     public String toString() {
         return StringFactory.stepString(this, this.predicate);
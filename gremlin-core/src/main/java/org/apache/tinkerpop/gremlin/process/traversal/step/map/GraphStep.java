@@ -42,6 +42,8 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.function.Supplier;
 
 /**
@@ -164,6 +166,17 @@ public class GraphStep<S, E extends Element> extends AbstractStep<S, E> implemen
         }
     }
 
+    /**
+     * Gets the elements of this start step as a {@link Spliterator} that can be split to scan them in parallel, which
+     * is done instead of iterating the step. By default the elements are handed out in batches from the single
+     * iterator of the step, but providers may override this method to split their storage directly.
+     */
+    public Spliterator<E> spliterator() {
+        this.done = true;
+        this.iterator = null == this.iteratorSupplier ? EmptyIterator.instance() : this.iteratorSupplier.get();
+        return Spliterators.spliteratorUnknownSize(this.iterator, Spliterator.ORDERED);
+    }
+
     @Override
     public void reset() {
         super.reset();
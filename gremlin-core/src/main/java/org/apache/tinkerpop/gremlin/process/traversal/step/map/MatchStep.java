@@ -181,6 +181,13 @@ public final class MatchStep<S, E> extends ComputerAwareStep<S, Map<String, E>>
         return Collections.unmodifiableList(this.matchTraversals);
     }
 
+    /**
+     * Sorts the match traversals which determines the order in which the {@link MatchAlgorithm} first tries them.
+     */
+    public void sortGlobalChildren(final Comparator<Traversal.Admin<Object, Object>> comparator) {
+        this.matchTraversals.sort(comparator);
+    }
+
     @Override
     public void setKeepLabels(final Set<String> keepLabels) {
         this.keepLabels = new HashSet<>(keepLabels);
@@ -20,22 +20,25 @@ package org.apache.tinkerpop.gremlin.process.traversal.step.map;
 
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Batchable;
 import org.apache.tinkerpop.gremlin.process.traversal.step.Configuring;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.Parameters;
 import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
 import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.PropertyType;
+import org.apache.tinkerpop.gremlin.structure.util.CloseableIterator;
 import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
-public class PropertiesStep<E> extends FlatMapStep<Element, E> implements AutoCloseable, Configuring {
+public class PropertiesStep<E> extends FlatMapStep<Element, E> implements AutoCloseable, Configuring, Batchable<Element, E> {
 
     protected Parameters parameters = new Parameters();
     protected final String[] propertyKeys;
@@ -64,6 +67,29 @@ public class PropertiesStep<E> extends FlatMapStep<Element, E> implements AutoCl
                 (Iterator) traverser.get().properties(this.propertyKeys);
     }
 
+    /**
+     * Reads the properties or values of all elements of the batch directly, having decided once which of them are
+     * returned.
+     */
+    @Override
+    public void processBatch(final List<Traverser.Admin<Element>> starts, final List<Traverser.Admin<E>> ends) {
+        // subclasses may override flatMap()
+        final boolean overridden = this.getClass() != PropertiesStep.class;
+        final boolean returnsValue = this.returnType.equals(PropertyType.VALUE);
+        for (int i = 0; i < starts.size(); i++) {
+            final Traverser.Admin<Element> traverser = starts.get(i);
+            final Iterator<?> iterator = overridden ?
+                    this.flatMap(traverser) :
+                    returnsValue ?
+                            traverser.get().values(this.propertyKeys) :
+                            traverser.get().properties(this.propertyKeys);
+            while (iterator.hasNext()) {
+                ends.add(traverser.split((E) iterator.next(), this));
+            }
+            CloseableIterator.closeIterator(iterator);
+        }
+    }
+
     public PropertyType getReturnType() {
         return this.returnType;
     }
@@ -20,6 +20,7 @@ package org.apache.tinkerpop.gremlin.process.traversal.step.map;
 
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Batchable;
 import org.apache.tinkerpop.gremlin.process.traversal.step.Configuring;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.Parameters;
 import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
@@ -27,17 +28,19 @@ import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.util.CloseableIterator;
 import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
-public class VertexStep<E extends Element> extends FlatMapStep<Vertex, E> implements AutoCloseable, Configuring {
+public class VertexStep<E extends Element> extends FlatMapStep<Vertex, E> implements AutoCloseable, Configuring, Batchable<Vertex, E> {
 
     protected Parameters parameters = new Parameters();
     private final String[] edgeLabels;
@@ -68,6 +71,29 @@ public class VertexStep<E extends Element> extends FlatMapStep<Vertex, E> implem
                 (Iterator<E>) traverser.get().edges(this.direction, this.edgeLabels);
     }
 
+    /**
+     * Reads the adjacent elements of all vertices of the batch directly, having decided once whether vertices or
+     * edges are returned.
+     */
+    @Override
+    public void processBatch(final List<Traverser.Admin<Vertex>> starts, final List<Traverser.Admin<E>> ends) {
+        // subclasses may override flatMap()
+        final boolean overridden = this.getClass() != VertexStep.class;
+        final boolean returnsVertex = Vertex.class.isAssignableFrom(this.returnClass);
+        for (int i = 0; i < starts.size(); i++) {
+            final Traverser.Admin<Vertex> traverser = starts.get(i);
+            final Iterator<? extends Element> iterator = overridden ?
+                    this.flatMap(traverser) :
+                    returnsVertex ?
+                            traverser.get().vertices(this.direction, this.edgeLabels) :
+                            traverser.get().edges(this.direction, this.edgeLabels);
+            while (iterator.hasNext()) {
+                ends.add(traverser.split((E) iterator.next(), this));
+            }
+            CloseableIterator.closeIterator(iterator);
+        }
+    }
+
     public Direction getDirection() {
         return this.direction;
     }
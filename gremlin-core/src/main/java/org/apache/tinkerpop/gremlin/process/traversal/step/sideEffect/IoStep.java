@@ -30,6 +30,8 @@ import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.io.GraphReader;
 import org.apache.tinkerpop.gremlin.structure.io.GraphWriter;
 import org.apache.tinkerpop.gremlin.structure.io.IoRegistry;
+import org.apache.tinkerpop.gremlin.structure.io.binary.GraphBinaryBulkReader;
+import org.apache.tinkerpop.gremlin.structure.io.binary.GraphBinaryBulkWriter;
 import org.apache.tinkerpop.gremlin.structure.io.graphml.GraphMLReader;
 import org.apache.tinkerpop.gremlin.structure.io.graphml.GraphMLWriter;
 import org.apache.tinkerpop.gremlin.structure.io.graphson.GraphSONMapper;
@@ -156,6 +158,11 @@ public class IoStep<S> extends AbstractStep<S,S> implements ReadWriting {
                 return GryoReader.build().mapper(builder.create()).create();
             } else if (objectOrClass.equals(IO.graphml))
                 return GraphMLReader.build().create();
+            else if (objectOrClass.equals(IO.graphbinary)) {
+                final GraphBinaryBulkReader.Builder builder = GraphBinaryBulkReader.build();
+                detectRegistries().forEach(builder::addRegistry);
+                return builder.create();
+            }
             else {
                 try {
                     final Class<?> graphReaderClazz = Class.forName((String) objectOrClass);
@@ -190,6 +197,11 @@ public class IoStep<S> extends AbstractStep<S,S> implements ReadWriting {
                 return GryoWriter.build().mapper(builder.create()).create();
             } else if (objectOrClass.equals(IO.graphml))
                 return GraphMLWriter.build().create();
+            else if (objectOrClass.equals(IO.graphbinary)) {
+                final GraphBinaryBulkWriter.Builder builder = GraphBinaryBulkWriter.build();
+                detectRegistries().forEach(builder::addRegistry);
+                return builder.create();
+            }
             else {
                 try {
                     final Class<?> graphWriterClazz = Class.forName((String) objectOrClass);
@@ -212,6 +224,8 @@ public class IoStep<S> extends AbstractStep<S,S> implements ReadWriting {
             return IO.graphson;
         else if (file.endsWith(".xml"))
             return IO.graphml;
+        else if (file.endsWith(".gbin"))
+            return IO.graphbinary;
         else
             throw new IllegalStateException("Could not detect the file format - specify the writer explicitly or rename file with a standard extension");
     }
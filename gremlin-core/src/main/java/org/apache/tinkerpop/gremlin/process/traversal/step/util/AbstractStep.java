@@ -41,6 +41,7 @@ import java.util.Set;
 public abstract class AbstractStep<S, E> implements Step<S, E> {
 
     protected Set<String> labels = new LinkedHashSet<>();
+    private transient Set<String> labelsView = null;
     protected String id = Traverser.Admin.HALT;
     protected Traversal.Admin traversal;
     protected ExpandableStepIterator<S> starts;
@@ -78,7 +79,10 @@ public abstract class AbstractStep<S, E> implements Step<S, E> {
 
     @Override
     public Set<String> getLabels() {
-        return Collections.unmodifiableSet(this.labels);
+        // the view is shared by every traverser that extends its path with the labels of this step
+        if (null == this.labelsView)
+            this.labelsView = Collections.unmodifiableSet(this.labels);
+        return this.labelsView;
     }
 
     @Override
@@ -183,6 +187,7 @@ public abstract class AbstractStep<S, E> implements Step<S, E> {
             clone.nextEnd = EmptyTraverser.instance();
             clone.traversal = EmptyTraversal.instance();
             clone.labels = new LinkedHashSet<>(this.labels);
+            clone.labelsView = null;
             clone.reset();
             return clone;
         } catch (final CloneNotSupportedException e) {
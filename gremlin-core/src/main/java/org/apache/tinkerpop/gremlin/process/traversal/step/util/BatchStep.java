@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.step.util;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Batchable;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.finalization.BatchStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
+import org.apache.tinkerpop.gremlin.process.traversal.util.FastNoSuchElementException;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A step that executes a linear chain of {@link Batchable} steps by pulling batches of traversers from the previous
+ * step and passing them through each of the chained steps as a whole. The chained steps are still called through the
+ * {@link Batchable} interface, but only once per batch, and each of them runs its own loop over the batch instead of
+ * the per-traverser calls to {@code hasNext()} and {@code next()} between them. The first batch holds a single
+ * traverser and every following batch doubles in size up to {@code batchSize}, so that a traversal which only needs
+ * its first few results pulls few more traversers from the previous step than it would without batching.
+ *
+ * @see BatchStrategy
+ */
+public final class BatchStep<S, E> extends AbstractStep<S, E> implements AutoCloseable {
+
+    private final int batchSize;
+    private int nextBatchSize = 1;
+    private List<Batchable> batchedSteps;
+    private List<Traverser.Admin> currentBatch = new ArrayList<>();
+    private List<Traverser.Admin> nextBatch = new ArrayList<>();
+    private int index = 0;
+
+    public BatchStep(final Traversal.Admin traversal, final List<Batchable> batchedSteps, final int batchSize) {
+        super(traversal);
+        if (batchSize < 1)
+            throw new IllegalArgumentException("The batch size must be greater than zero: " + batchSize);
+        this.batchSize = batchSize;
+        this.batchedSteps = new ArrayList<>(batchedSteps);
+    }
+
+    public List<Batchable> getBatchedSteps() {
+        return Collections.unmodifiableList(this.batchedSteps);
+    }
+
+    public int getBatchSize() {
+        return this.batchSize;
+    }
+
+    @Override
+    protected Traverser.Admin<E> processNextStart() throws NoSuchElementException {
+        while (this.index >= this.currentBatch.size()) {
+            this.processNextBatch();
+        }
+        return this.currentBatch.get(this.index++);
+    }
+
+    private void processNextBatch() {
+        this.currentBatch.clear();
+        this.index = 0;
+        while (this.currentBatch.size() < this.nextBatchSize && this.starts.hasNext()) {
+            this.currentBatch.add(this.starts.next());
+        }
+        if (this.currentBatch.isEmpty())
+            throw FastNoSuchElementException.instance();
+        this.nextBatchSize = Math.min(this.batchSize, this.nextBatchSize << 1);
+
+        for (final Batchable step : this.batchedSteps) {
+            this.nextBatch.clear();
+            step.processBatch(this.currentBatch, this.nextBatch);
+            final List<Traverser.Admin> swap = this.currentBatch;
+            this.currentBatch = this.nextBatch;
+            this.nextBatch = swap;
+            if (this.currentBatch.isEmpty()) break;
+        }
+        this.nextBatch.clear();
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        // the buffers are replaced rather than cleared as they might be shared with the step this one was cloned from
+        this.currentBatch = new ArrayList<>();
+        this.nextBatch = new ArrayList<>();
+        this.index = 0;
+        this.nextBatchSize = 1;
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (final Batchable step : this.batchedSteps) {
+            if (step instanceof AutoCloseable)
+                ((AutoCloseable) step).close();
+        }
+    }
+
+    @Override
+    public void setTraversal(final Traversal.Admin<?, ?> traversal) {
+        super.setTraversal(traversal);
+        this.batchedSteps.forEach(step -> step.setTraversal(traversal));
+    }
+
+    @Override
+    public Set<TraverserRequirement> getRequirements() {
+        final Set<TraverserRequirement> requirements = EnumSet.noneOf(TraverserRequirement.class);
+        for (final Batchable step : this.batchedSteps) {
+            requirements.addAll(step.getRequirements());
+        }
+        return requirements;
+    }
+
+    @Override
+    public BatchStep<S, E> clone() {
+        final BatchStep<S, E> clone = (BatchStep<S, E>) super.clone();
+        clone.batchedSteps = new ArrayList<>(this.batchedSteps.size());
+        for (final Batchable step : this.batchedSteps) {
+            clone.batchedSteps.add((Batchable) step.clone());
+        }
+        return clone;
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.stepString(this, this.batchedSteps, this.batchSize);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = super.hashCode() ^ Integer.hashCode(this.batchSize);
+        for (final Batchable step : this.batchedSteps) {
+            result = (31 * result) ^ step.hashCode();
+        }
+        return result;
+    }
+}
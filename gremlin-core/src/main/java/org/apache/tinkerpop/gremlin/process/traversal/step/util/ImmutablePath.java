@@ -25,13 +25,19 @@ import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 
 /**
+ * A {@link Path} of immutable sections that are shared by all paths that were extended from them, such that
+ * splitting a traverser never copies its path. Each section knows the size of the path it ends and a 64-bit summary
+ * of the labels of all sections up to itself, which allows label lookups and retractions to skip the sections that
+ * can not hold the label. In the same way, {@link #isSimple()} is resolved incrementally from a persistent set of the
+ * objects of the previous sections, which each section shares with the sections extended from it, so that checking the
+ * path of a traverser after every step of a {@code repeat()} does not rebuild the set of objects of the whole path.
+ *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
 public class ImmutablePath implements Path, Serializable, Cloneable {
@@ -39,9 +45,24 @@ public class ImmutablePath implements Path, Serializable, Cloneable {
     private static final Object END = EmptyPath.instance();
     private static final ImmutablePath TAIL_PATH = new ImmutablePath(null, END, null);
 
+    /**
+     * The bit of the label summary that marks a section without labels.
+     */
+    private static final long UNLABELED = 1L << 63;
+
+    private static final byte UNRESOLVED = 0;
+    private static final byte SIMPLE = 1;
+    private static final byte CYCLIC = 2;
+
     private ImmutablePath previousPath;
     private Object currentObject;
     private Set<String> currentLabels;
+    private int size;
+    private long labelBits;
+
+    // resolved on the first call to isSimple() - the set is written before the volatile state is published
+    private ObjectSet objects;
+    private volatile byte simple = UNRESOLVED;
 
     public static Path make() {
         return TAIL_PATH;
@@ -57,6 +78,25 @@ public class ImmutablePath implements Path, Serializable, Cloneable {
         this.previousPath = previousPath;
         this.currentObject = currentObject;
         this.currentLabels = currentLabels;
+        if (null != previousPath) {
+            this.size = previousPath.size + 1;
+            this.labelBits = previousPath.labelBits | (currentLabels.isEmpty() ? UNLABELED : labelBits(currentLabels));
+        } else {
+            this.objects = ObjectSet.EMPTY;
+            this.simple = SIMPLE;
+        }
+    }
+
+    private static long labelBit(final String label) {
+        return 1L << ((label.hashCode() & Integer.MAX_VALUE) % 63);
+    }
+
+    private static long labelBits(final Set<String> labels) {
+        long bits = 0;
+        for (final String label : labels) {
+            bits |= labelBit(label);
+        }
+        return bits;
     }
 
     private final boolean isTail() {
@@ -70,13 +110,7 @@ public class ImmutablePath implements Path, Serializable, Cloneable {
 
     @Override
     public int size() {
-        int counter = 0;
-        ImmutablePath currentPath = this;
-        while (true) {
-            if (currentPath.isTail()) return counter;
-            counter++;
-            currentPath = currentPath.previousPath;
-        }
+        return this.size;
     }
 
     @Override
@@ -103,52 +137,60 @@ public class ImmutablePath implements Path, Serializable, Cloneable {
 
     @Override
     public Path retract(final Set<String> labels) {
-        if (labels.isEmpty())
+        // sections without labels are dropped as well
+        final long retractBits = labelBits(labels) | UNLABELED;
+        if (labels.isEmpty() || (this.labelBits & retractBits) == 0)
             return this;
 
-        // get all the immutable path sections
+        // get the immutable path sections that follow the longest prefix that is not affected by the retraction
         final List<ImmutablePath> immutablePaths = new ArrayList<>();
         ImmutablePath currentPath = this;
-        while (true) {
-            if (currentPath.isTail())
-                break;
-            immutablePaths.add(0, currentPath);
+        while ((currentPath.labelBits & retractBits) != 0) {
+            immutablePaths.add(currentPath);
             currentPath = currentPath.previousPath;
         }
-        // build a new immutable path using the respective path sections that are not to be retracted
-        Path newPath = TAIL_PATH;
-        for (final ImmutablePath immutablePath : immutablePaths) {
-            final Set<String> temp = new LinkedHashSet<>(immutablePath.currentLabels);
-            temp.removeAll(labels);
-            if (!temp.isEmpty())
-                newPath = newPath.extend(immutablePath.currentObject, temp);
+        // build a new immutable path on that prefix using the respective path sections that are not to be retracted
+        ImmutablePath newPath = currentPath;
+        for (int i = immutablePaths.size() - 1; i >= 0; i--) {
+            final ImmutablePath immutablePath = immutablePaths.get(i);
+            if (Collections.disjoint(immutablePath.currentLabels, labels)) {
+                if (!immutablePath.currentLabels.isEmpty())
+                    newPath = new ImmutablePath(newPath, immutablePath.currentObject, immutablePath.currentLabels);
+            } else {
+                final Set<String> temp = new LinkedHashSet<>(immutablePath.currentLabels);
+                temp.removeAll(labels);
+                if (!temp.isEmpty())
+                    newPath = new ImmutablePath(newPath, immutablePath.currentObject, temp);
+            }
         }
         return newPath;
     }
 
     @Override
     public <A> A get(final int index) {
-        int counter = this.size();
+        if (index < 0 || index >= this.size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
         ImmutablePath currentPath = this;
-        while (true) {
-            if (index == --counter)
-                return (A) currentPath.currentObject;
+        for (int i = this.size - 1; i > index; i--) {
             currentPath = currentPath.previousPath;
         }
+        return (A) currentPath.currentObject;
     }
 
     @Override
     public <A> A get(final Pop pop, final String label) {
         if (Pop.mixed == pop) {
             return this.get(label);
-        } else if (Pop.all == pop) {
+        }
+
+        // no section before one whose summary lacks the bit of the label can hold the label
+        final long bit = labelBit(label);
+        if (Pop.all == pop) {
             // Recursively build the list to avoid building objects/labels collections.
             final List<Object> list = new ArrayList<>();
             ImmutablePath currentPath = this;
-            while (true) {
-                if (currentPath.isTail())
-                    break;
-                else if (currentPath.currentLabels.contains(label))
+            while ((currentPath.labelBits & bit) != 0) {
+                if (currentPath.currentLabels.contains(label))
                     list.add(0, currentPath.currentObject);
                 currentPath = currentPath.previousPath;
             }
@@ -156,7 +198,7 @@ public class ImmutablePath implements Path, Serializable, Cloneable {
         } else if (Pop.last == pop) {
             ImmutablePath currentPath = this;
             while (true) {
-                if (currentPath.isTail())
+                if ((currentPath.labelBits & bit) == 0)
                     throw Path.Exceptions.stepWithProvidedLabelDoesNotExist(label);
                 else if (currentPath.currentLabels.contains(label))
                     return (A) currentPath.currentObject;
@@ -166,10 +208,8 @@ public class ImmutablePath implements Path, Serializable, Cloneable {
         } else { // Pop.first
             A found = null;
             ImmutablePath currentPath = this;
-            while (true) {
-                if (currentPath.isTail())
-                    break;
-                else if (currentPath.currentLabels.contains(label))
+            while ((currentPath.labelBits & bit) != 0) {
+                if (currentPath.currentLabels.contains(label))
                     found = (A) currentPath.currentObject;
                 currentPath = currentPath.previousPath;
             }
@@ -181,9 +221,10 @@ public class ImmutablePath implements Path, Serializable, Cloneable {
 
     @Override
     public boolean hasLabel(final String label) {
+        final long bit = labelBit(label);
         ImmutablePath currentPath = this;
         while (true) {
-            if (currentPath.isTail())
+            if ((currentPath.labelBits & bit) == 0)
                 return false;
             else if (currentPath.currentLabels.contains(label))
                 return true;
@@ -226,7 +267,7 @@ public class ImmutablePath implements Path, Serializable, Cloneable {
     @Override
     public int hashCode() {
         // hashCode algorithm from AbstractList
-        int[] hashCodes = new int[this.size()];
+        int[] hashCodes = new int[this.size];
         int index = hashCodes.length - 1;
         ImmutablePath currentPath = this;
         while (true) {
@@ -248,7 +289,7 @@ public class ImmutablePath implements Path, Serializable, Cloneable {
         if (!(other instanceof Path))
             return false;
         final Path otherPath = (Path) other;
-        int size = this.size();
+        final int size = this.size;
         if (otherPath.size() != size)
             return false;
         if (size > 0) {
@@ -288,17 +329,120 @@ public class ImmutablePath implements Path, Serializable, Cloneable {
 
     @Override
     public boolean isSimple() {
-        final Set<Object> objects = new HashSet<>();
-        ImmutablePath currentPath = this;
-        while (true) {
-            if (currentPath.isTail())
-                return true;
-            else if (objects.contains(currentPath.currentObject))
-                return false;
-            else {
-                objects.add(currentPath.currentObject);
+        if (UNRESOLVED == this.simple) {
+            // resolve the sections that were extended since the last check from the oldest to the newest
+            final List<ImmutablePath> unresolved = new ArrayList<>();
+            ImmutablePath currentPath = this;
+            while (UNRESOLVED == currentPath.simple) {
+                unresolved.add(currentPath);
                 currentPath = currentPath.previousPath;
             }
+            for (int i = unresolved.size() - 1; i >= 0; i--) {
+                unresolved.get(i).resolveSimple();
+            }
+        }
+        return SIMPLE == this.simple;
+    }
+
+    /**
+     * Determines if this section repeats the object of a previous section given that all previous sections are
+     * resolved, which is a lookup in the set of the objects of the previous sections. The set of this section adds its
+     * object to that set without copying it, so that it is shared by all sections that are extended from this one.
+     */
+    private void resolveSimple() {
+        final ObjectSet previousObjects = this.previousPath.objects;
+        if (CYCLIC == this.previousPath.simple) {
+            // a cyclic path stays cyclic so the objects of its extensions are not needed
+            this.objects = previousObjects;
+            this.simple = CYCLIC;
+            return;
+        }
+        int hash = Objects.hashCode(this.currentObject);
+        hash ^= (hash >>> 16);
+        if (previousObjects.contains(this.currentObject, hash, 0)) {
+            this.objects = previousObjects;
+            this.simple = CYCLIC;
+        } else {
+            this.objects = previousObjects.add(this.currentObject, hash, 0);
+            this.simple = SIMPLE;
+        }
+    }
+
+    /**
+     * A persistent hash trie of objects, where adding an object copies only the nodes on the path to it, and each
+     * node maps five bits of the hash to either a child node or the objects that share those bits. Objects are only
+     * compared with {@code equals()} if their hashes are equal.
+     */
+    private static final class ObjectSet implements Serializable {
+
+        private static final ObjectSet EMPTY = new ObjectSet(0, new Object[0]);
+        private static final int BITS = 5;
+
+        private final int bitmap;
+        private final Object[] children;
+
+        private ObjectSet(final int bitmap, final Object[] children) {
+            this.bitmap = bitmap;
+            this.children = children;
+        }
+
+        private boolean contains(final Object object, final int hash, final int shift) {
+            final int bit = 1 << ((hash >>> shift) & 31);
+            if ((this.bitmap & bit) == 0)
+                return false;
+            final Object child = this.children[Integer.bitCount(this.bitmap & (bit - 1))];
+            if (child instanceof ObjectSet)
+                return ((ObjectSet) child).contains(object, hash, shift + BITS);
+            for (Entry entry = (Entry) child; null != entry; entry = entry.next) {
+                if (entry.hash == hash && Objects.equals(entry.object, object))
+                    return true;
+            }
+            return false;
+        }
+
+        /**
+         * Adds an object that is not contained in the set yet.
+         */
+        private ObjectSet add(final Object object, final int hash, final int shift) {
+            final int bit = 1 << ((hash >>> shift) & 31);
+            final int index = Integer.bitCount(this.bitmap & (bit - 1));
+            if ((this.bitmap & bit) == 0) {
+                final Object[] children = new Object[this.children.length + 1];
+                System.arraycopy(this.children, 0, children, 0, index);
+                children[index] = new Entry(hash, object, null);
+                System.arraycopy(this.children, index, children, index + 1, this.children.length - index);
+                return new ObjectSet(this.bitmap | bit, children);
+            }
+
+            final Object child = this.children[index];
+            final Object newChild;
+            if (child instanceof ObjectSet) {
+                newChild = ((ObjectSet) child).add(object, hash, shift + BITS);
+            } else if (((Entry) child).hash == hash || shift + BITS >= Integer.SIZE) {
+                // the remaining bits of the hashes can not tell the objects apart
+                newChild = new Entry(hash, object, (Entry) child);
+            } else {
+                ObjectSet node = EMPTY;
+                for (Entry entry = (Entry) child; null != entry; entry = entry.next) {
+                    node = node.add(entry.object, entry.hash, shift + BITS);
+                }
+                newChild = node.add(object, hash, shift + BITS);
+            }
+            final Object[] children = this.children.clone();
+            children[index] = newChild;
+            return new ObjectSet(this.bitmap, children);
+        }
+    }
+
+    private static final class Entry implements Serializable {
+        private final int hash;
+        private final Object object;
+        private final Entry next;
+
+        private Entry(final int hash, final Object object, final Entry next) {
+            this.hash = hash;
+            this.object = object;
+            this.next = next;
         }
     }
 }
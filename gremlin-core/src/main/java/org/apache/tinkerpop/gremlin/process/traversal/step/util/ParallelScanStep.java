@@ -0,0 +1,261 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.step.util;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.TraverserGenerator;
+import org.apache.tinkerpop.gremlin.process.traversal.step.TraversalParent;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.finalization.ParallelScanStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
+import org.apache.tinkerpop.gremlin.process.traversal.util.FastNoSuchElementException;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalInterruptedException;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.StreamSupport;
+
+/**
+ * A step that splits the elements of the preceding start {@link GraphStep} into partitions of about
+ * {@code partitionSize} elements and evaluates a clone of its child traversal for each partition in a
+ * {@link ForkJoinPool} that is shared by all scans, of which one scan occupies no more threads than its parallelism.
+ * The elements are split with {@link GraphStep#spliterator()} so
+ * that providers can partition their storage without first draining it on one thread. The child traversal consists
+ * of stateless steps followed by a {@link ReducingBarrierStep} whose partial results are merged with its
+ * {@link ReducingBarrierStep#getBiOperator()}, just as the partial results of workers are merged in OLAP. An
+ * interruption of the thread that iterates the step cancels the partitions that are still scanned.
+ *
+ * @see ParallelScanStrategy
+ */
+public final class ParallelScanStep<S, E> extends AbstractStep<S, E> implements TraversalParent {
+
+    /**
+     * The pool that scans the partitions of all traversals, which has a thread for each processor. Its threads are
+     * daemons that terminate when the pool is idle, so the pool is never shut down.
+     */
+    private static final ForkJoinPool POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors(), pool -> {
+        final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("gremlin-parallel-scan-" + thread.getPoolIndex());
+        return thread;
+    }, null, false);
+
+    private Traversal.Admin<S, E> scanTraversal;
+    private final int partitionSize;
+    private final int parallelism;
+    private boolean done = false;
+
+    public ParallelScanStep(final Traversal.Admin traversal, final Traversal.Admin<S, E> scanTraversal,
+                            final int partitionSize, final int parallelism) {
+        super(traversal);
+        if (partitionSize < 1)
+            throw new IllegalArgumentException("The partition size must be greater than zero: " + partitionSize);
+        if (parallelism < 1 || parallelism > POOL.getParallelism())
+            throw new IllegalArgumentException("The parallelism must be between 1 and the number of processors: " + parallelism);
+        if (!(scanTraversal.getEndStep() instanceof ReducingBarrierStep))
+            throw new IllegalArgumentException("The scan traversal must end with a reducing barrier: " + scanTraversal);
+        this.scanTraversal = this.integrateChild(scanTraversal);
+        this.partitionSize = partitionSize;
+        this.parallelism = parallelism;
+    }
+
+    public int getPartitionSize() {
+        return this.partitionSize;
+    }
+
+    public int getParallelism() {
+        return this.parallelism;
+    }
+
+    @Override
+    protected Traverser.Admin<E> processNextStart() throws NoSuchElementException {
+        if (this.done)
+            throw FastNoSuchElementException.instance();
+        this.done = true;
+
+        final Spliterator<Traverser.Admin<S>> starts = this.spliterator();
+        final ScanTask task = new ScanTask(starts, null, new AtomicInteger(this.parallelism - 1));
+        final E result;
+        // small scans are not worth the hand-off to the pool
+        if (starts.estimateSize() <= this.partitionSize)
+            result = task.compute();
+        else {
+            try {
+                result = POOL.submit(task).get();
+            } catch (final InterruptedException ie) {
+                // the partitions that are still scanned check the cancellation of the task and stop
+                task.cancel(true);
+                throw new TraversalInterruptedException();
+            } catch (final ExecutionException ee) {
+                if (ee.getCause() instanceof RuntimeException)
+                    throw (RuntimeException) ee.getCause();
+                throw new IllegalStateException(ee.getCause().getMessage(), ee.getCause());
+            }
+        }
+        if (null == result)
+            throw FastNoSuchElementException.instance();
+
+        final ReducingBarrierStep<?, E> barrier = (ReducingBarrierStep<?, E>) this.scanTraversal.getEndStep();
+        return this.getTraversal().getTraverserGenerator().generate(barrier.generateFinalResult(result), (Step) this, 1L);
+    }
+
+    /**
+     * Gets the traversers to scan, which are generated from the split elements of the start {@link GraphStep} or are
+     * the traversers of the preceding step if it is anything else.
+     */
+    private Spliterator<Traverser.Admin<S>> spliterator() {
+        final Step<?, S> previousStep = this.getPreviousStep();
+        if (!(previousStep instanceof GraphStep) || !((GraphStep) previousStep).isStartStep())
+            return Spliterators.spliteratorUnknownSize(this.starts, Spliterator.ORDERED);
+
+        final GraphStep<?, ?> graphStep = (GraphStep) previousStep;
+        final TraverserGenerator generator = this.getTraversal().getTraverserGenerator();
+        final String stepId = this.getId();
+        final Set<String> labels = graphStep.getLabels();
+        return StreamSupport.stream(graphStep.spliterator(), false).map(element -> {
+            final Traverser.Admin<S> traverser = generator.generate((S) element, (Step) graphStep, 1L);
+            traverser.setStepId(stepId);
+            traverser.addLabels(labels);
+            return traverser;
+        }).spliterator();
+    }
+
+    private E scan(final Spliterator<Traverser.Admin<S>> partition, final ForkJoinTask<E> root) {
+        final Traversal.Admin<S, E> traversal = this.scanTraversal.clone();
+        partition.forEachRemaining(traverser -> {
+            checkInterrupted(root);
+            traversal.addStart(traverser);
+        });
+        final ReducingBarrierStep<?, E> barrier = (ReducingBarrierStep<?, E>) traversal.getEndStep();
+        return barrier.hasNextBarrier() ? barrier.nextBarrier() : null;
+    }
+
+    private static void checkInterrupted(final ForkJoinTask<?> root) {
+        if (Thread.interrupted() || root.isCancelled())
+            throw new TraversalInterruptedException();
+    }
+
+    private E merge(final E left, final E right) {
+        if (null == left) return right;
+        if (null == right) return left;
+        return ((ReducingBarrierStep<?, E>) this.scanTraversal.getEndStep()).getBiOperator().apply(left, right);
+    }
+
+    private final class ScanTask extends RecursiveTask<E> {
+
+        private final Spliterator<Traverser.Admin<S>> partition;
+        private final ForkJoinTask<E> root;
+
+        /**
+         * The number of further tasks of the scan that may run at the same time, which are taken by forked tasks and
+         * given back once they are done.
+         */
+        private final AtomicInteger idle;
+
+        private ScanTask(final Spliterator<Traverser.Admin<S>> partition, final ForkJoinTask<E> root,
+                         final AtomicInteger idle) {
+            this.partition = partition;
+            this.root = root;
+            this.idle = idle;
+        }
+
+        @Override
+        protected E compute() {
+            try {
+                final ForkJoinTask<E> root = null == this.root ? this : this.root;
+                final List<ScanTask> forked = new ArrayList<>();
+                E result = null;
+                Spliterator<Traverser.Admin<S>> prefix;
+                while (this.partition.estimateSize() > partitionSize && null != (prefix = this.partition.trySplit())) {
+                    // splitting the iterator of a large scan takes as long as scanning it so it is cancelled as well
+                    checkInterrupted(root);
+                    if (this.idle.getAndUpdate(idle -> Math.max(0, idle - 1)) > 0) {
+                        final ScanTask task = new ScanTask(prefix, root, this.idle);
+                        task.fork();
+                        forked.add(task);
+                    } else {
+                        // the reducers are commutative so the partitions that are not forked are merged in any order
+                        result = merge(result, scan(prefix, root));
+                    }
+                }
+                result = merge(result, scan(this.partition, root));
+                for (int i = forked.size() - 1; i >= 0; i--) {
+                    result = merge(forked.get(i).join(), result);
+                }
+                return result;
+            } finally {
+                if (null != this.root) this.idle.incrementAndGet();
+            }
+        }
+    }
+
+    @Override
+    public List<Traversal.Admin<S, E>> getGlobalChildren() {
+        return Collections.singletonList(this.scanTraversal);
+    }
+
+    @Override
+    public Set<TraverserRequirement> getRequirements() {
+        return this.getSelfAndChildRequirements();
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        this.done = false;
+    }
+
+    @Override
+    public ParallelScanStep<S, E> clone() {
+        final ParallelScanStep<S, E> clone = (ParallelScanStep<S, E>) super.clone();
+        clone.scanTraversal = this.scanTraversal.clone();
+        clone.done = false;
+        return clone;
+    }
+
+    @Override
+    public void setTraversal(final Traversal.Admin<?, ?> parentTraversal) {
+        super.setTraversal(parentTraversal);
+        this.integrateChild(this.scanTraversal);
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.stepString(this, this.scanTraversal, this.partitionSize, this.parallelism);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode() ^ this.scanTraversal.hashCode() ^ Integer.hashCode(this.partitionSize) ^
+                Integer.hashCode(this.parallelism);
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.strategy.finalization;
+
+import org.apache.commons.configuration2.Configuration;
+import org.apache.commons.configuration2.MapConfiguration;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Batchable;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.BatchStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An opt-in strategy that folds linear chains of {@link Batchable} steps (e.g. {@code has()}, {@code is()},
+ * {@code out()} and {@code values()}) into a {@link BatchStep} which passes traversers through the chain in batches
+ * of up to {@code batchSize} rather than one at a time. Only unlabeled steps of the root traversal are batched. The
+ * batches start with a single traverser and grow with every batch, but note that the steps prior to the batch are
+ * still iterated ahead of the steps that follow it to fill each batch.
+ *
+ * @example <pre>
+ * g.withStrategies(new BatchStrategy()).V().has('age',gt(30)).out().values('name')  // has(), out() and values() are folded into a BatchStep
+ * </pre>
+ */
+public final class BatchStrategy extends AbstractTraversalStrategy<TraversalStrategy.FinalizationStrategy> implements TraversalStrategy.FinalizationStrategy {
+
+    public static final int DEFAULT_BATCH_SIZE = 1024;
+
+    private final int batchSize;
+
+    public BatchStrategy() {
+        this(DEFAULT_BATCH_SIZE);
+    }
+
+    public BatchStrategy(final int batchSize) {
+        if (batchSize < 1)
+            throw new IllegalArgumentException("The batch size must be greater than zero: " + batchSize);
+        this.batchSize = batchSize;
+    }
+
+    public int getBatchSize() {
+        return this.batchSize;
+    }
+
+    @Override
+    public void apply(final Traversal.Admin<?, ?> traversal) {
+        if (!traversal.isRoot() || TraversalHelper.onGraphComputer(traversal))
+            return;
+
+        final List<List<Batchable>> chains = new ArrayList<>();
+        List<Batchable> chain = new ArrayList<>();
+        for (final Step<?, ?> step : traversal.getSteps()) {
+            if (step instanceof Batchable && step.getLabels().isEmpty()) {
+                chain.add((Batchable) step);
+            } else {
+                if (chain.size() > 1) chains.add(chain);
+                chain = new ArrayList<>();
+            }
+        }
+        if (chain.size() > 1) chains.add(chain);
+
+        for (final List<Batchable> batchedSteps : chains) {
+            final int index = TraversalHelper.stepIndex(batchedSteps.get(0), traversal);
+            for (final Batchable step : batchedSteps) {
+                traversal.removeStep(step);
+            }
+            traversal.addStep(index, new BatchStep<>(traversal, batchedSteps, this.batchSize));
+        }
+    }
+
+    @Override
+    public Set<Class<? extends FinalizationStrategy>> applyPrior() {
+        return Collections.singleton(ProfileStrategy.class);
+    }
+
+    public static final String BATCH_SIZE = "batchSize";
+
+    public static BatchStrategy create(final Configuration configuration) {
+        return new BatchStrategy(configuration.getInt(BATCH_SIZE, DEFAULT_BATCH_SIZE));
+    }
+
+    @Override
+    public Configuration getConfiguration() {
+        final Map<String, Object> map = new HashMap<>();
+        map.put(STRATEGY, BatchStrategy.class.getCanonicalName());
+        map.put(BATCH_SIZE, this.batchSize);
+        return new MapConfiguration(map);
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.strategy.finalization;
+
+import org.apache.commons.configuration2.Configuration;
+import org.apache.commons.configuration2.MapConfiguration;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.DefaultGraphTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Barrier;
+import org.apache.tinkerpop.gremlin.process.traversal.step.LambdaHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Mutating;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Ranging;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Seedable;
+import org.apache.tinkerpop.gremlin.process.traversal.step.SideEffectCapable;
+import org.apache.tinkerpop.gremlin.process.traversal.step.TraversalParent;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.FilterStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.CountGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.FlatMapStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.GroupCountStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.MapStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.MaxGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.MeanGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.MinGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.SumGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.ParallelScanStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An opt-in strategy that evaluates a traversal of the form {@code V().filter/map/flatMap*().reduce()} on all cores.
+ * The elements of the start {@link GraphStep} are split into partitions which pass the stateless steps up to the first
+ * reducing barrier in a {@link java.util.concurrent.ForkJoinPool} shared by all scans, of which a scan occupies at most
+ * the configured number of threads. The parallelism is capped at the number of processors, as it may be set by remote
+ * clients. The partial results of the barrier are then merged with its associative and commutative reducer, i.e.
+ * {@code count()}, {@code sum()}, {@code min()}, {@code max()}, {@code mean()} and {@code groupCount()} are
+ * supported. Steps that hold lambdas, mutate the graph, write side-effects or rely on global state (e.g.
+ * {@code range()}, {@code dedup()}) end the parallel prefix and the strategy is not applied if no supported barrier
+ * directly follows it.
+ * <p/>
+ * The graph must support concurrent reads. By default the elements of the {@link GraphStep} are taken from its
+ * iterator on one thread and handed out in batches, while providers that override {@link GraphStep#spliterator()}
+ * split their storage directly and evaluate any filter folded into the {@link GraphStep} in the partitions.
+ *
+ * @example <pre>
+ * g.withStrategies(new ParallelScanStrategy()).V().has('age',gt(30)).values('age').sum()  // has(), values() and sum() are evaluated in partitions
+ * g.withStrategies(new ParallelScanStrategy()).V().out().groupCount().by(label)            // out() and groupCount() are evaluated in partitions
+ * </pre>
+ */
+public final class ParallelScanStrategy extends AbstractTraversalStrategy<TraversalStrategy.FinalizationStrategy> implements TraversalStrategy.FinalizationStrategy {
+
+    public static final int DEFAULT_PARTITION_SIZE = 1024;
+    public static final int DEFAULT_PARALLELISM = Runtime.getRuntime().availableProcessors();
+
+    private static final Set<Class> MERGEABLE_BARRIERS = new HashSet<>(Arrays.asList(
+            CountGlobalStep.class,
+            SumGlobalStep.class,
+            MinGlobalStep.class,
+            MaxGlobalStep.class,
+            MeanGlobalStep.class,
+            GroupCountStep.class));
+
+    private final int partitionSize;
+    private final int parallelism;
+
+    public ParallelScanStrategy() {
+        this(DEFAULT_PARTITION_SIZE);
+    }
+
+    public ParallelScanStrategy(final int partitionSize) {
+        this(partitionSize, DEFAULT_PARALLELISM);
+    }
+
+    /**
+     * @param partitionSize the number of elements above which a partition is split further
+     * @param parallelism   the number of threads of the shared pool that a scan may occupy, which is capped at the
+     *                      number of processors
+     */
+    public ParallelScanStrategy(final int partitionSize, final int parallelism) {
+        if (partitionSize < 1)
+            throw new IllegalArgumentException("The partition size must be greater than zero: " + partitionSize);
+        if (parallelism < 1)
+            throw new IllegalArgumentException("The parallelism must be greater than zero: " + parallelism);
+        this.partitionSize = partitionSize;
+        this.parallelism = Math.min(parallelism, DEFAULT_PARALLELISM);
+    }
+
+    public int getPartitionSize() {
+        return this.partitionSize;
+    }
+
+    public int getParallelism() {
+        return this.parallelism;
+    }
+
+    @Override
+    public void apply(final Traversal.Admin<?, ?> traversal) {
+        if (!traversal.isRoot() || TraversalHelper.onGraphComputer(traversal) ||
+                !(traversal.getStartStep() instanceof GraphStep))
+            return;
+
+        final List<Step> steps = traversal.getSteps();
+        int barrierIndex = 1;
+        while (barrierIndex < steps.size() && isStateless(steps.get(barrierIndex))) {
+            barrierIndex++;
+        }
+        if (barrierIndex == steps.size() || !MERGEABLE_BARRIERS.contains(steps.get(barrierIndex).getClass()) ||
+                !isThreadConfined(steps.get(barrierIndex)))
+            return;
+
+        final Traversal.Admin<?, ?> scanTraversal = new DefaultGraphTraversal<>();
+        for (int i = 1; i <= barrierIndex; i++) {
+            final Step step = traversal.getSteps().get(1);
+            traversal.removeStep(step);
+            scanTraversal.addStep(step);
+        }
+        final ParallelScanStep<?, ?> parallelScanStep = new ParallelScanStep<>(traversal, scanTraversal, this.partitionSize, this.parallelism);
+        TraversalHelper.copyLabels(scanTraversal.getEndStep(), parallelScanStep, true);
+        traversal.addStep(1, parallelScanStep);
+    }
+
+    private static boolean isStateless(final Step<?, ?> step) {
+        return (step instanceof FilterStep || step instanceof MapStep || step instanceof FlatMapStep) &&
+                !(step instanceof Barrier) && !(step instanceof Ranging) && isThreadConfined(step);
+    }
+
+    /**
+     * Determines if the step and its children can be cloned into each partition without sharing state between them.
+     */
+    private static boolean isThreadConfined(final Step<?, ?> step) {
+        return !sharesState(step) && !(step instanceof TraversalParent &&
+                TraversalHelper.anyStepRecursively(ParallelScanStrategy::sharesState, (TraversalParent) step));
+    }
+
+    private static boolean sharesState(final Step<?, ?> step) {
+        return step instanceof LambdaHolder || step instanceof Mutating || step instanceof SideEffectCapable ||
+                step instanceof Seedable;
+    }
+
+    @Override
+    public Set<Class<? extends FinalizationStrategy>> applyPrior() {
+        return Collections.singleton(ProfileStrategy.class);
+    }
+
+    @Override
+    public Set<Class<? extends FinalizationStrategy>> applyPost() {
+        return Collections.singleton(BatchStrategy.class);
+    }
+
+    public static final String PARTITION_SIZE = "partitionSize";
+    public static final String PARALLELISM = "parallelism";
+
+    public static ParallelScanStrategy create(final Configuration configuration) {
+        return new ParallelScanStrategy(configuration.getInt(PARTITION_SIZE, DEFAULT_PARTITION_SIZE),
+                configuration.getInt(PARALLELISM, DEFAULT_PARALLELISM));
+    }
+
+    @Override
+    public Configuration getConfiguration() {
+        final Map<String, Object> map = new HashMap<>();
+        map.put(STRATEGY, ParallelScanStrategy.class.getCanonicalName());
+        map.put(PARTITION_SIZE, this.partitionSize);
+        map.put(PARALLELISM, this.parallelism);
+        return new MapConfiguration(map);
+    }
+}
@@ -40,11 +40,23 @@ public final class ProfileStrategy extends AbstractTraversalStrategy<TraversalSt
     private static final ProfileStrategy INSTANCE = new ProfileStrategy();
     private static final String MARKER = Graph.Hidden.hide("gremlin.profile");
 
+    /**
+     * A side-effect key that profiles a root traversal into the side-effect of that key if it is registered, as if
+     * the traversal ended with {@code profile()}. The {@link ProfileSideEffectStep} is only added by this strategy so
+     * that the strategies applied before it compile the traversal just as they would if it was not profiled.
+     */
+    public static final String SAMPLED_METRICS_KEY = Graph.Hidden.hide("gremlin.profile.sampled");
+
     private ProfileStrategy() {
     }
 
     @Override
     public void apply(final Traversal.Admin<?, ?> traversal) {
+        if (traversal.isRoot() && traversal.getSideEffects().exists(SAMPLED_METRICS_KEY) &&
+                !TraversalHelper.hasStepOfAssignableClassRecursively(ProfileSideEffectStep.class, traversal) &&
+                !TraversalHelper.hasStepOfAssignableClass(VertexProgramStep.class, traversal))
+            traversal.addStep(new ProfileSideEffectStep<>(traversal, SAMPLED_METRICS_KEY));
+
         if (!traversal.getEndStep().getLabels().contains(MARKER) &&
                 (traversal.isRoot() || traversal.getParent() instanceof VertexProgramStep) &&
                 TraversalHelper.hasStepOfAssignableClassRecursively(ProfileSideEffectStep.class, traversal))
@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.HasStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.EdgeOtherVertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.EdgeVertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.MatchStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.SelectivityEstimator;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * {@code CostBasedFilterRankingStrategy} orders filters by their estimated selectivity, which is derived from the
+ * {@link Graph.Statistics} of the graph, such that the most selective filters are evaluated first. It orders the
+ * predicates of each {@code has()}, runs of adjacent {@code has()}, {@code filter()} and {@code not()} steps and the
+ * patterns of {@code match()}. The strategy has no effect if the graph does not support statistics and the estimated
+ * selectivities of the final traversal are shown by {@code explain()}.
+ *
+ * @example <pre>
+ * __.has("country", "US").has("email", "x@y.z")          // is replaced by __.has("email", "x@y.z").has("country", "US")
+ * __.filter(out("knows")).has("name", "marko")           // is replaced by __.has("name", "marko").filter(out("knows"))
+ * </pre>
+ */
+public final class CostBasedFilterRankingStrategy extends AbstractTraversalStrategy<TraversalStrategy.OptimizationStrategy> implements TraversalStrategy.OptimizationStrategy {
+
+    private static final CostBasedFilterRankingStrategy INSTANCE = new CostBasedFilterRankingStrategy();
+    private static final Set<Class<? extends OptimizationStrategy>> PRIORS = new HashSet<>(Arrays.asList(
+            FilterRankingStrategy.class,
+            InlineFilterStrategy.class,
+            MatchPredicateStrategy.class));
+    private static final Set<Class<? extends OptimizationStrategy>> POSTS = Collections.singleton(LazyBarrierStrategy.class);
+
+    private CostBasedFilterRankingStrategy() {
+    }
+
+    @Override
+    public void apply(final Traversal.Admin<?, ?> traversal) {
+        final Optional<SelectivityEstimator> estimator = SelectivityEstimator.of(traversal);
+        if (!estimator.isPresent())
+            return;
+
+        for (final HasStep<?> hasStep : TraversalHelper.getStepsOfClass(HasStep.class, traversal)) {
+            rankHasContainers(estimator.get(), hasStep);
+        }
+        rankFilters(estimator.get(), traversal);
+        for (final MatchStep<?, ?> matchStep : TraversalHelper.getStepsOfClass(MatchStep.class, traversal)) {
+            rankMatchTraversals(estimator.get(), matchStep);
+        }
+    }
+
+    private static void rankHasContainers(final SelectivityEstimator estimator, final HasStep<?> hasStep) {
+        final Class<? extends Element> elementClass = SelectivityEstimator.getElementClass(hasStep.getPreviousStep());
+        if (null == elementClass || hasStep.getHasContainers().size() < 2)
+            return;
+
+        final Map<HasContainer, Double> selectivities = new HashMap<>();
+        final List<HasContainer> hasContainers = new ArrayList<>(hasStep.getHasContainers());
+        for (final HasContainer hasContainer : hasContainers) {
+            selectivities.put(hasContainer, estimator.estimate(elementClass, hasContainer));
+            hasStep.removeHasContainer(hasContainer);
+        }
+        hasContainers.sort(Comparator.comparingDouble(selectivities::get));
+        hasContainers.forEach(hasStep::addHasContainer);
+    }
+
+    /**
+     * Sorts each run of adjacent, unlabeled filters whose selectivity can be estimated by the fraction of traversers
+     * they reject per unit of cost.
+     */
+    private static void rankFilters(final SelectivityEstimator estimator, final Traversal.Admin<?, ?> traversal) {
+        final List<Step> run = new ArrayList<>();
+        final Map<Step, Double> ranks = new HashMap<>();
+        for (final Step<?, ?> step : new ArrayList<>(traversal.getSteps())) {
+            final double selectivity = step.getLabels().isEmpty() ? estimator.estimate(step) : Double.NaN;
+            if (Double.isNaN(selectivity)) {
+                reorder(run, ranks, traversal);
+                run.clear();
+            } else {
+                ranks.put(step, (1.0d - selectivity) / (step instanceof HasStep ? 1.0d : 2.0d));
+                run.add(step);
+            }
+        }
+        reorder(run, ranks, traversal);
+    }
+
+    private static void reorder(final List<Step> run, final Map<Step, Double> ranks, final Traversal.Admin<?, ?> traversal) {
+        if (run.size() < 2)
+            return;
+        final int index = TraversalHelper.stepIndex(run.get(0), traversal);
+        final List<Step> sorted = new ArrayList<>(run);
+        sorted.sort(Comparator.comparingDouble((Step step) -> ranks.get(step)).reversed());
+        run.forEach(traversal::removeStep);
+        for (int i = 0; i < sorted.size(); i++) {
+            traversal.addStep(index + i, sorted.get(i));
+        }
+    }
+
+    private static void rankMatchTraversals(final SelectivityEstimator estimator, final MatchStep<?, ?> matchStep) {
+        if (!Vertex.class.equals(SelectivityEstimator.getElementClass(matchStep.getPreviousStep())))
+            return;
+        final Map<Traversal.Admin<?, ?>, Double> estimates = new HashMap<>();
+        for (final Traversal.Admin<?, ?> matchTraversal : matchStep.getGlobalChildren()) {
+            estimates.put(matchTraversal, estimateMatchTraversal(estimator, matchTraversal));
+        }
+        matchStep.sortGlobalChildren(Comparator.comparingDouble(estimates::get));
+    }
+
+    /**
+     * Estimates the number of results a match traversal produces per start vertex.
+     */
+    private static double estimateMatchTraversal(final SelectivityEstimator estimator, final Traversal.Admin<?, ?> matchTraversal) {
+        double estimate = 1.0d;
+        Class<? extends Element> elementClass = Vertex.class;
+        for (final Step<?, ?> step : matchTraversal.getSteps()) {
+            if (step instanceof HasStep) {
+                for (final HasContainer hasContainer : ((HasStep<?>) step).getHasContainers()) {
+                    estimate *= estimator.estimate(elementClass, hasContainer);
+                }
+            } else if (step instanceof VertexStep) {
+                estimate *= estimator.estimateFanOut((VertexStep<?>) step);
+                elementClass = ((VertexStep<?>) step).returnsVertex() ? Vertex.class : Edge.class;
+            } else if (step instanceof EdgeVertexStep || step instanceof EdgeOtherVertexStep) {
+                elementClass = Vertex.class;
+            }
+        }
+        return estimate;
+    }
+
+    @Override
+    public Set<Class<? extends OptimizationStrategy>> applyPrior() {
+        return PRIORS;
+    }
+
+    @Override
+    public Set<Class<? extends OptimizationStrategy>> applyPost() {
+        return POSTS;
+    }
+
+    public static CostBasedFilterRankingStrategy instance() {
+        return INSTANCE;
+    }
+}
@@ -18,6 +18,7 @@
  */
 package org.apache.tinkerpop.gremlin.process.traversal.util;
 
+import org.javatuples.Pair;
 import org.javatuples.Triplet;
 
 import java.util.Comparator;
@@ -47,6 +48,13 @@ public abstract class AbstractExplanation {
      */
     protected abstract Stream<Triplet<String,String,String>> getIntermediates();
 
+    /**
+     * The estimated selectivity of the filters of the final traversal as a pair of the filter and its selectivity.
+     */
+    protected Stream<Pair<String, Double>> getSelectivityEstimates() {
+        return Stream.empty();
+    }
+
     @Override
     public String toString() {
         return this.prettyPrint(Integer.MAX_VALUE);
@@ -110,6 +118,15 @@ public abstract class AbstractExplanation {
         builder.append(wordWrap((intermediates.size() > 0 ?
                 intermediates.get(intermediates.size() - 1).getValue2() :
                 getOriginalTraversalAsString()), maxTraversalColumn, newLineIndent));
+
+        final List<Pair<String, Double>> estimates = this.getSelectivityEstimates().collect(Collectors.toList());
+        if (!estimates.isEmpty()) {
+            builder.append("\n\nEstimated Selectivity");
+            for (final Pair<String, Double> estimate : estimates) {
+                builder.append("\n").append(String.format("%.4f", estimate.getValue1())).append("   ")
+                        .append(wordWrap(estimate.getValue0(), maxTraversalColumn, newLineIndent));
+            }
+        }
         return builder.toString();
     }
 
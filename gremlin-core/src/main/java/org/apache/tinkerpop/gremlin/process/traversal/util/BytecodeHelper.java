@@ -20,8 +20,14 @@
 package org.apache.tinkerpop.gremlin.process.traversal.util;
 
 import org.apache.tinkerpop.gremlin.process.traversal.Bytecode;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalSource;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
 import org.apache.tinkerpop.gremlin.structure.util.detached.DetachedFactory;
 import org.apache.tinkerpop.gremlin.util.function.Lambda;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
@@ -31,6 +37,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 /**
  * Utility class for parsing {@link Bytecode}.
@@ -112,4 +119,89 @@ public final class BytecodeHelper {
             }
         }
     }
+
+    /**
+     * Gets a normalized representation of the {@link Bytecode} in which the values of predicates and of value
+     * positions, i.e. ids, property values in {@code has()} and {@code property()} and injected objects, are replaced
+     * by {@code ?} so that traversals that only differ in these values share the same fingerprint. Keys, labels and
+     * other arguments, enums, the names of predicates, the classes of strategies and child traversals are retained,
+     * while lambdas are reduced to their language.
+     */
+    public static String getFingerprint(final Bytecode bytecode) {
+        final StringBuilder builder = new StringBuilder();
+        appendInstructions(bytecode.getSourceInstructions(), builder);
+        appendInstructions(bytecode.getStepInstructions(), builder);
+        return builder.toString();
+    }
+
+    private static void appendInstructions(final List<Bytecode.Instruction> instructions, final StringBuilder builder) {
+        for (final Bytecode.Instruction instruction : instructions) {
+            if (builder.length() > 0)
+                builder.append('.');
+            builder.append(instruction.getOperator()).append('(');
+            final Object[] arguments = instruction.getArguments();
+            for (int i = 0; i < arguments.length; i++) {
+                if (i > 0)
+                    builder.append(',');
+                builder.append(isValue(instruction.getOperator(), arguments, i) && !(arguments[i] instanceof P) &&
+                        !(arguments[i] instanceof Traversal) && !(arguments[i] instanceof Bytecode) ?
+                        "?" : getArgumentFingerprint(arguments[i]));
+            }
+            builder.append(')');
+        }
+    }
+
+    /**
+     * Determines if the argument at the index of an instruction with the operator is a value rather than a key, a
+     * label or another parameter of the step.
+     */
+    private static boolean isValue(final String operator, final Object[] arguments, final int index) {
+        switch (operator) {
+            case GraphTraversal.Symbols.V:
+            case GraphTraversal.Symbols.E:
+            case GraphTraversal.Symbols.hasId:
+            case GraphTraversal.Symbols.hasValue:
+            case GraphTraversal.Symbols.is:
+            case GraphTraversal.Symbols.inject:
+            case GraphTraversal.Symbols.constant:
+                return true;
+            case GraphTraversal.Symbols.has:
+                // the last argument of has(key,value) and has(label,key,value) but the label of has(T.label,label)
+                return arguments.length > 1 && index == arguments.length - 1 && !(2 == arguments.length && T.label == arguments[0]);
+            case GraphTraversal.Symbols.property:
+                // every second argument after the key and the optional cardinality
+                final int key = arguments.length > 0 && arguments[0] instanceof VertexProperty.Cardinality ? 1 : 0;
+                return index > key && (index - key) % 2 == 1;
+            case TraversalSource.Symbols.withSideEffect:
+                return 1 == index;
+            case TraversalSource.Symbols.withSack:
+                return 0 == index;
+            default:
+                return false;
+        }
+    }
+
+    private static String getArgumentFingerprint(final Object argument) {
+        if (argument instanceof Bytecode)
+            return "__." + getFingerprint((Bytecode) argument);
+        else if (argument instanceof Traversal)
+            return "__." + getFingerprint(((Traversal) argument).asAdmin().getBytecode());
+        else if (argument instanceof ConnectiveP)
+            return (argument instanceof AndP ? "and(" : "or(") + ((ConnectiveP<?>) argument).getPredicates().stream()
+                    .map(BytecodeHelper::getArgumentFingerprint).collect(Collectors.joining(",")) + ")";
+        else if (argument instanceof P)
+            return ((P<?>) argument).getBiPredicate() + "(?)";
+        else if (argument instanceof Enum)
+            return ((Enum<?>) argument).getDeclaringClass().getSimpleName() + "." + ((Enum<?>) argument).name();
+        else if (argument instanceof TraversalStrategy)
+            return argument.getClass().getSimpleName();
+        else if (argument instanceof Class)
+            return ((Class<?>) argument).getSimpleName();
+        else if (argument instanceof Lambda)
+            return "lambda:" + ((Lambda) argument).getLambdaLanguage();
+        else if (argument instanceof Element)
+            return "?";
+        else
+            return String.valueOf(argument);
+    }
 }
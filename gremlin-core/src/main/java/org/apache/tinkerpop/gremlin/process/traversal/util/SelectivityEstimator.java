@@ -0,0 +1,278 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.util;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Compare;
+import org.apache.tinkerpop.gremlin.process.traversal.Contains;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.step.HasContainerHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.TraversalParent;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.FilterStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.HasStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.NotStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.TraversalFilterStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.EdgeOtherVertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.EdgeVertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.NoOpBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.PropertiesStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.SideEffectStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.javatuples.Pair;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Estimates the fraction of traversers that pass a filter step from the {@link Graph.Statistics} of a graph. The
+ * estimates assume that predicates are independent of each other and that values are uniformly distributed over
+ * the distinct values of a property key.
+ */
+public final class SelectivityEstimator {
+
+    /**
+     * The fraction of elements assumed to match a range predicate such as {@code gt()} or {@code lt()}.
+     */
+    public static final double RANGE_SELECTIVITY = 1.0d / 3.0d;
+
+    /**
+     * The fraction of elements assumed to match any other predicate.
+     */
+    public static final double DEFAULT_SELECTIVITY = 0.5d;
+
+    private final Graph.Statistics statistics;
+
+    public SelectivityEstimator(final Graph.Statistics statistics) {
+        this.statistics = statistics;
+    }
+
+    /**
+     * Gets an estimator for the graph of the given traversal if that graph supports statistics.
+     */
+    public static Optional<SelectivityEstimator> of(final Traversal.Admin<?, ?> traversal) {
+        return TraversalHelper.getRootTraversal(traversal).getGraph()
+                .filter(graph -> graph.features().graph().supportsStatistics())
+                .map(graph -> new SelectivityEstimator(graph.statistics()));
+    }
+
+    public Graph.Statistics getStatistics() {
+        return this.statistics;
+    }
+
+    /**
+     * Estimates the fraction of traversers that pass the given filter step.
+     *
+     * @return the selectivity between 0 and 1 or {@code Double.NaN} if the step can not be estimated
+     */
+    public double estimate(final Step<?, ?> step) {
+        final Class<? extends Element> elementClass = getElementClass(step.getPreviousStep());
+        if (null == elementClass)
+            return Double.NaN;
+        if (step instanceof HasStep) {
+            double selectivity = 1.0d;
+            for (final HasContainer hasContainer : ((HasStep<?>) step).getHasContainers()) {
+                selectivity *= estimate(elementClass, hasContainer);
+            }
+            return selectivity;
+        } else if (step instanceof TraversalFilterStep) {
+            return estimateExistence(elementClass, ((TraversalFilterStep<?>) step).getLocalChildren().get(0));
+        } else if (step instanceof NotStep) {
+            return 1.0d - estimateExistence(elementClass, ((NotStep<?>) step).getLocalChildren().get(0));
+        }
+        return Double.NaN;
+    }
+
+    /**
+     * Estimates the selectivity of each filter of the traversal and its children that can be estimated.
+     *
+     * @return pairs of the filter, i.e. the {@link HasContainer} or step, and its estimated selectivity
+     */
+    public List<Pair<String, Double>> estimateAll(final Traversal.Admin<?, ?> traversal) {
+        final List<Pair<String, Double>> estimates = new ArrayList<>();
+        this.estimateAll(traversal, estimates);
+        return estimates;
+    }
+
+    private void estimateAll(final Traversal.Admin<?, ?> traversal, final List<Pair<String, Double>> estimates) {
+        for (final Step<?, ?> step : traversal.getSteps()) {
+            if (step instanceof HasContainerHolder) {
+                final Class<? extends Element> elementClass =
+                        getElementClass(step instanceof GraphStep ? step : step.getPreviousStep());
+                if (null != elementClass) {
+                    for (final HasContainer hasContainer : ((HasContainerHolder) step).getHasContainers()) {
+                        estimates.add(Pair.with(hasContainer.toString(), this.estimate(elementClass, hasContainer)));
+                    }
+                }
+            } else {
+                final double selectivity = this.estimate(step);
+                if (!Double.isNaN(selectivity))
+                    estimates.add(Pair.with(step.toString(), selectivity));
+            }
+            if (step instanceof TraversalParent) {
+                for (final Traversal.Admin<?, ?> child : ((TraversalParent) step).getLocalChildren()) {
+                    this.estimateAll(child, estimates);
+                }
+                for (final Traversal.Admin<?, ?> child : ((TraversalParent) step).getGlobalChildren()) {
+                    this.estimateAll(child, estimates);
+                }
+            }
+        }
+    }
+
+    /**
+     * Estimates the fraction of elements of the given class that match the {@link HasContainer}.
+     */
+    public double estimate(final Class<? extends Element> elementClass, final HasContainer hasContainer) {
+        final long total = this.statistics.count(elementClass);
+        if (0 == total)
+            return 0.0d;
+
+        final String key = hasContainer.getKey();
+        final double selectivity;
+        if (key.equals(T.label.getAccessor())) {
+            selectivity = estimate(hasContainer.getPredicate(), 1.0d,
+                    label -> (double) this.statistics.count(elementClass, String.valueOf(label)) / total);
+        } else if (key.equals(T.id.getAccessor())) {
+            selectivity = estimate(hasContainer.getPredicate(), 1.0d, id -> 1.0d / total);
+        } else {
+            final double presence = (double) this.statistics.propertyCount(elementClass, key) / total;
+            final long distinct = Math.max(1L, this.statistics.distinctValueCount(elementClass, key));
+            selectivity = estimate(hasContainer.getPredicate(), presence, value -> presence / distinct);
+        }
+        return Math.max(0.0d, Math.min(1.0d, selectivity));
+    }
+
+    /**
+     * Estimates the average number of edges a {@link VertexStep} traverses per vertex.
+     */
+    public double estimateFanOut(final VertexStep<?> step) {
+        final long vertices = this.statistics.count(Vertex.class);
+        if (0 == vertices)
+            return 0.0d;
+        long edges = 0;
+        if (0 == step.getEdgeLabels().length)
+            edges = this.statistics.count(Edge.class);
+        else {
+            for (final String label : step.getEdgeLabels()) {
+                edges += this.statistics.count(Edge.class, label);
+            }
+        }
+        return (step.getDirection() == Direction.BOTH ? 2.0d : 1.0d) * edges / vertices;
+    }
+
+    private double estimate(final P<?> predicate, final double presence, final ToDoubleFunction<Object> equality) {
+        if (predicate instanceof AndP) {
+            double selectivity = 1.0d;
+            for (final P<?> p : ((AndP<?>) predicate).getPredicates()) {
+                selectivity *= estimate(p, presence, equality);
+            }
+            return selectivity;
+        } else if (predicate instanceof OrP) {
+            double rejected = 1.0d;
+            for (final P<?> p : ((OrP<?>) predicate).getPredicates()) {
+                rejected *= 1.0d - Math.min(1.0d, estimate(p, presence, equality));
+            }
+            return 1.0d - rejected;
+        }
+
+        final Object value = predicate.getValue();
+        if (predicate.getBiPredicate() == Compare.eq)
+            return equality.applyAsDouble(value);
+        else if (predicate.getBiPredicate() == Compare.neq)
+            return presence - equality.applyAsDouble(value);
+        else if (predicate.getBiPredicate() == Contains.within)
+            return Math.min(presence, sum(value, equality));
+        else if (predicate.getBiPredicate() == Contains.without)
+            return presence - Math.min(presence, sum(value, equality));
+        else if (predicate.getBiPredicate() instanceof Compare)
+            return presence * RANGE_SELECTIVITY;
+        else
+            return presence * DEFAULT_SELECTIVITY;
+    }
+
+    private static double sum(final Object values, final ToDoubleFunction<Object> equality) {
+        double sum = 0.0d;
+        for (final Object value : values instanceof Collection ? (Collection<?>) values : Collections.singleton(values)) {
+            sum += equality.applyAsDouble(value);
+        }
+        return sum;
+    }
+
+    /**
+     * Estimates the fraction of elements for which the child traversal of a {@code filter()} or {@code not()} step
+     * produces at least one result.
+     */
+    private double estimateExistence(final Class<? extends Element> elementClass, final Traversal.Admin<?, ?> child) {
+        final List<Step> steps = child.getSteps();
+        if (steps.size() != 1)
+            return Double.NaN;
+
+        final long total = this.statistics.count(elementClass);
+        if (0 == total)
+            return 0.0d;
+
+        final Step<?, ?> step = steps.get(0);
+        if (step instanceof VertexStep && Vertex.class.equals(elementClass)) {
+            final VertexStep<?> vertexStep = (VertexStep<?>) step;
+            if (0 == vertexStep.getEdgeLabels().length) {
+                final long isolated = this.statistics.degreeHistogram(vertexStep.getDirection()).getOrDefault(0L, 0L);
+                return 1.0d - (double) isolated / total;
+            }
+            // assumes the number of edges per vertex to be poisson distributed
+            return 1.0d - Math.exp(-estimateFanOut(vertexStep));
+        } else if (step instanceof PropertiesStep && ((PropertiesStep<?>) step).getPropertyKeys().length > 0) {
+            double presence = 0.0d;
+            for (final String key : ((PropertiesStep<?>) step).getPropertyKeys()) {
+                presence = Math.max(presence, (double) this.statistics.propertyCount(elementClass, key) / total);
+            }
+            return Math.min(1.0d, presence);
+        }
+        return Double.NaN;
+    }
+
+    /**
+     * Determines the class of the elements that are emitted by the given step by walking back over filters and
+     * side-effects and barriers or returns {@code null} if the class is unknown.
+     */
+    public static Class<? extends Element> getElementClass(Step<?, ?> step) {
+        while (step instanceof FilterStep || step instanceof SideEffectStep || step instanceof NoOpBarrierStep) {
+            step = step.getPreviousStep();
+        }
+        if (step instanceof GraphStep)
+            return ((GraphStep<?, ?>) step).returnsVertex() ? Vertex.class : Edge.class;
+        else if (step instanceof VertexStep)
+            return ((VertexStep<?>) step).returnsVertex() ? Vertex.class : Edge.class;
+        else if (step instanceof EdgeVertexStep || step instanceof EdgeOtherVertexStep)
+            return Vertex.class;
+        return null;
+    }
+}
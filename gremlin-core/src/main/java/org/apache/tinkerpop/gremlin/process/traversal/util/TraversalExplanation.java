@@ -22,6 +22,7 @@ package org.apache.tinkerpop.gremlin.process.traversal.util;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategies;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization.CostBasedFilterRankingStrategy;
 import org.javatuples.Pair;
 import org.javatuples.Triplet;
 
@@ -44,6 +45,7 @@ public class TraversalExplanation extends AbstractExplanation implements Seriali
 
     protected Traversal.Admin<?, ?> traversal;
     protected List<Pair<TraversalStrategy, Traversal.Admin<?, ?>>> strategyTraversals = new ArrayList<>();
+    protected List<Pair<String, Double>> selectivityEstimates = new ArrayList<>();
 
     protected TraversalExplanation() {
         // no arg constructor for serialization
@@ -59,6 +61,13 @@ public class TraversalExplanation extends AbstractExplanation implements Seriali
             mutatingTraversal.applyStrategies();
             this.strategyTraversals.add(Pair.with(strategy, mutatingTraversal));
         }
+
+        if (!this.strategyTraversals.isEmpty() &&
+                this.traversal.getStrategies().getStrategy(CostBasedFilterRankingStrategy.class).isPresent()) {
+            final Traversal.Admin<?, ?> finalTraversal = this.strategyTraversals.get(this.strategyTraversals.size() - 1).getValue1();
+            SelectivityEstimator.of(finalTraversal).ifPresent(estimator ->
+                    this.selectivityEstimates.addAll(estimator.estimateAll(finalTraversal)));
+        }
     }
 
     /**
@@ -96,6 +105,11 @@ public class TraversalExplanation extends AbstractExplanation implements Seriali
         return getOriginalTraversal().toString();
     }
 
+    @Override
+    protected Stream<Pair<String, Double>> getSelectivityEstimates() {
+        return this.selectivityEstimates.stream();
+    }
+
     @Override
     protected Stream<Triplet<String, String, String>> getIntermediates() {
         return this.strategyTraversals.stream().map( p -> Triplet.with(p.getValue0().toString(),
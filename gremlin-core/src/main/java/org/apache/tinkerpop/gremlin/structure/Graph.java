@@ -394,6 +394,125 @@ public interface Graph extends AutoCloseable, Host {
 
     }
 
+    /**
+     * Gets the {@link Statistics} of the graph which cost-based traversal strategies use to estimate the
+     * selectivity of filters. Graphs that return statistics should also declare
+     * {@link Features.GraphFeatures#supportsStatistics()}.
+     */
+    public default Statistics statistics() {
+        throw Graph.Exceptions.statisticsNotSupported();
+    }
+
+    /**
+     * Graph statistics are estimates of the size and shape of the graph. They are not required to reflect the most
+     * recent mutations of the graph and should be cheap to obtain.
+     */
+    public interface Statistics {
+
+        /**
+         * Gets the number of elements of the given class, i.e. {@link Vertex} or {@link Edge}.
+         */
+        public long count(final Class<? extends Element> elementClass);
+
+        /**
+         * Gets the number of elements of the given class with the given label.
+         */
+        public long count(final Class<? extends Element> elementClass, final String label);
+
+        /**
+         * Gets the number of elements of the given class that have a property with the given key.
+         */
+        public long propertyCount(final Class<? extends Element> elementClass, final String key);
+
+        /**
+         * Gets the number of distinct values of the property with the given key on elements of the given class.
+         */
+        public long distinctValueCount(final Class<? extends Element> elementClass, final String key);
+
+        /**
+         * Gets the histogram of vertex degrees in the given direction as a map of degree to number of vertices.
+         */
+        public Map<Long, Long> degreeHistogram(final Direction direction);
+
+        /**
+         * Gets the average degree of a vertex in the given direction.
+         */
+        public default double averageDegree(final Direction direction) {
+            long vertices = 0;
+            long degrees = 0;
+            for (final Map.Entry<Long, Long> entry : degreeHistogram(direction).entrySet()) {
+                vertices += entry.getValue();
+                degrees += entry.getKey() * entry.getValue();
+            }
+            return 0 == vertices ? 0.0d : (double) degrees / vertices;
+        }
+    }
+
+    /**
+     * Gets a {@link BulkLoader} that commits every {@link BulkLoader#DEFAULT_BATCH_SIZE} elements.
+     *
+     * @see #bulkLoader(int)
+     */
+    public default BulkLoader bulkLoader() {
+        return bulkLoader(BulkLoader.DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Gets a {@link BulkLoader} to insert large amounts of vertices and edges with. Graphs that return a loader should
+     * also declare {@link Features.GraphFeatures#supportsBulkLoading()}.
+     *
+     * @param batchSize the number of vertices and edges after which the loader commits the transaction
+     */
+    public default BulkLoader bulkLoader(final int batchSize) {
+        throw Graph.Exceptions.bulkLoadingNotSupported();
+    }
+
+    /**
+     * A {@code BulkLoader} inserts vertices and edges in batches where vertices are identified by an external id that
+     * is only known to the loader, so that edges can be added without looking up their vertices in the graph. The
+     * graph may defer work like index maintenance until the loader is closed, so elements that were added may not be
+     * found by index lookups before that. A loader is meant to be used by a single thread and must be closed to
+     * complete the load.
+     */
+    public interface BulkLoader extends AutoCloseable {
+
+        public static final int DEFAULT_BATCH_SIZE = 10000;
+
+        /**
+         * Adds a vertex to the graph in the same way as {@link Graph#addVertex(Object...)} does and binds it to the
+         * external id.
+         *
+         * @param externalId the id that identifies the vertex to {@link #addEdge(String, Object, Object, Object...)}
+         * @param keyValues  the key/value pairs of the vertex which may include {@link T#label} and {@link T#id}
+         * @throws IllegalArgumentException if a vertex was already added with the external id
+         */
+        public Vertex addVertex(final Object externalId, final Object... keyValues);
+
+        /**
+         * Adds an edge between two vertices that were added by this loader.
+         *
+         * @param label               the label of the edge
+         * @param outVertexExternalId the external id of the outgoing vertex
+         * @param inVertexExternalId  the external id of the incoming vertex
+         * @param keyValues           the key/value pairs of the edge
+         * @throws IllegalArgumentException if no vertex was added with one of the external ids
+         */
+        public Edge addEdge(final String label, final Object outVertexExternalId, final Object inVertexExternalId,
+                            final Object... keyValues);
+
+        /**
+         * Commits the elements that were added since the last commit.
+         */
+        public void flush();
+
+        /**
+         * Commits the remaining elements and completes the work that was deferred during the load, e.g. brings the
+         * indices of the graph up to date. The external ids are released.
+         */
+        @Override
+        public void close();
+    }
+
     /**
      * Gets the {@link Features} exposed by the underlying {@code Graph} implementation.
      */
@@ -452,6 +571,8 @@ public interface Graph extends AutoCloseable, Host {
             public static final String FEATURE_CONCURRENT_ACCESS = "ConcurrentAccess";
             public static final String FEATURE_IO_READ = "IoRead";
             public static final String FEATURE_IO_WRITE = "IoWrite";
+            public static final String FEATURE_STATISTICS = "Statistics";
+            public static final String FEATURE_BULK_LOADING = "BulkLoading";
 
             /**
              * Determines if the {@code Graph} implementation supports {@link GraphComputer} based processing.
@@ -524,6 +645,24 @@ public interface Graph extends AutoCloseable, Host {
                 return true;
             }
 
+            /**
+             * Determines if the {@code Graph} implementation provides {@link Statistics} via
+             * {@link Graph#statistics()}.
+             */
+            @FeatureDescriptor(name = FEATURE_STATISTICS)
+            public default boolean supportsStatistics() {
+                return false;
+            }
+
+            /**
+             * Determines if the {@code Graph} implementation provides a {@link BulkLoader} via
+             * {@link Graph#bulkLoader(int)}.
+             */
+            @FeatureDescriptor(name = FEATURE_BULK_LOADING)
+            public default boolean supportsBulkLoading() {
+                return false;
+            }
+
             /**
              * Gets the features related to "graph sideEffects" operation.
              */
@@ -1202,6 +1341,14 @@ public interface Graph extends AutoCloseable, Host {
             return new UnsupportedOperationException("Graph does not support transactions");
         }
 
+        public static UnsupportedOperationException statisticsNotSupported() {
+            return new UnsupportedOperationException("Graph does not support statistics");
+        }
+
+        public static UnsupportedOperationException bulkLoadingNotSupported() {
+            return new UnsupportedOperationException("Graph does not support bulk loading");
+        }
+
         public static UnsupportedOperationException graphComputerNotSupported() {
             return new UnsupportedOperationException("Graph does not support graph computer");
         }
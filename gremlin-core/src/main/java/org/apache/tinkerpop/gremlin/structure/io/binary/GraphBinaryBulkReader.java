@@ -0,0 +1,480 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.structure.io.binary;
+
+import com.carrotsearch.hppc.LongObjectHashMap;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Property;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.structure.io.GraphReader;
+import org.apache.tinkerpop.gremlin.structure.io.Io;
+import org.apache.tinkerpop.gremlin.structure.io.IoRegistry;
+import org.apache.tinkerpop.gremlin.structure.util.Attachable;
+
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * A {@link GraphReader} for the output of the {@link GraphBinaryBulkWriter}. Blocks are read sequentially from the
+ * channel of the input into pooled buffers and are parsed by a number of worker threads while the calling thread adds
+ * the parsed elements to the graph in the order in which they were written. As all vertices precede all edges, the
+ * vertices are created first and the edges are then attached to them through a map of identifiers, which holds
+ * {@code long} identifiers in primitive structures, without looking the vertices up in the graph.
+ * <p/>
+ * The format is for full graph serialization only, so the methods that read single elements are not supported.
+ * <p/>
+ * This implementation is not thread-safe.
+ */
+public final class GraphBinaryBulkReader implements GraphReader {
+
+    private final GraphBinaryReader reader;
+    private final long batchSize;
+    private final int workers;
+
+    private GraphBinaryBulkReader(final Builder builder) {
+        this.reader = new GraphBinaryReader(builder.typeSerializerRegistry);
+        this.batchSize = builder.batchSize;
+        this.workers = builder.workers;
+    }
+
+    /**
+     * Read data into a {@link Graph} from output generated by
+     * {@link GraphBinaryBulkWriter#writeGraph(java.io.OutputStream, Graph)}. If the stream is a
+     * {@code FileInputStream} its channel is read from directly.
+     *
+     * @param inputStream    a stream containing an entire graph of vertices and edges as defined by the accompanying
+     *                       {@link GraphBinaryBulkWriter#writeGraph(java.io.OutputStream, Graph)}.
+     * @param graphToWriteTo the graph to write to when reading from the stream.
+     */
+    @Override
+    public void readGraph(final InputStream inputStream, final Graph graphToWriteTo) throws IOException {
+        final ReadableByteChannel channel = inputStream instanceof FileInputStream ?
+                ((FileInputStream) inputStream).getChannel() : Channels.newChannel(inputStream);
+        readHeader(channel);
+
+        final Loader loader = new Loader(graphToWriteTo);
+        final ByteBuffer blockHeader = ByteBuffer.allocate(GraphBinaryBulkWriter.BLOCK_HEADER_SIZE);
+        final Queue<NioBuffer> buffers = new ConcurrentLinkedQueue<>();
+        final Deque<Future<Block>> pending = new ArrayDeque<>();
+        final ExecutorService executor = this.workers > 0 ?
+                Executors.newFixedThreadPool(this.workers, new BasicThreadFactory.Builder().
+                        namingPattern("graphbinary-reader-%d").daemon(true).build()) : null;
+        try {
+            while (true) {
+                blockHeader.clear();
+                readFully(channel, blockHeader);
+                blockHeader.flip();
+                final byte kind = blockHeader.get();
+                final int count = blockHeader.getInt();
+                final int length = blockHeader.getInt();
+                if (GraphBinaryBulkWriter.BLOCK_END == kind)
+                    break;
+                if (GraphBinaryBulkWriter.BLOCK_VERTICES != kind && GraphBinaryBulkWriter.BLOCK_EDGES != kind)
+                    throw new IOException("Invalid format - unknown block kind " + kind);
+
+                final NioBuffer pooled = buffers.poll();
+                final NioBuffer buffer = null == pooled ? new NioBuffer(length) : pooled;
+                buffer.clear();
+                buffer.readFrom(channel, length);
+
+                final Callable<Block> parse = () -> {
+                    try {
+                        return new Block(kind, GraphBinaryBulkWriter.BLOCK_VERTICES == kind ?
+                                parseVertices(buffer, count) : parseEdges(buffer, count));
+                    } finally {
+                        buffers.offer(buffer);
+                    }
+                };
+
+                if (null == executor)
+                    loader.load(parse.call());
+                else {
+                    // bound the number of blocks in memory while the workers stay busy
+                    pending.add(executor.submit(parse));
+                    while (pending.size() > this.workers * 2) {
+                        loader.load(await(pending.poll()));
+                    }
+                }
+            }
+            while (!pending.isEmpty()) {
+                loader.load(await(pending.poll()));
+            }
+        } catch (IOException | RuntimeException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new IOException(ex);
+        } finally {
+            if (null != executor) executor.shutdownNow();
+        }
+
+        loader.commit();
+    }
+
+    private static Block await(final Future<Block> future) throws IOException, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof IOException) throw (IOException) ex.getCause();
+            if (ex.getCause() instanceof RuntimeException) throw (RuntimeException) ex.getCause();
+            throw new IOException(ex.getCause());
+        }
+    }
+
+    /**
+     * Parses a block of vertices into arrays of the vertex identifier, the label and the arguments to
+     * {@link Vertex#property(VertexProperty.Cardinality, String, Object, Object...)} for each of its properties.
+     */
+    private List<Object[]> parseVertices(final NioBuffer buffer, final int count) throws IOException {
+        final List<Object[]> vertices = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final Object id = this.reader.read(buffer);
+            final String label = this.reader.readValue(buffer, String.class, false);
+            final int propertyCount = buffer.readInt();
+            final Object[] vertex = new Object[2 + propertyCount];
+            vertex[0] = id;
+            vertex[1] = label;
+            for (int j = 0; j < propertyCount; j++) {
+                final Object propertyId = this.reader.read(buffer);
+                final String key = this.reader.readValue(buffer, String.class, false);
+                final Object value = this.reader.read(buffer);
+                // the identifier is followed by the key, the value and the key/values of the meta-properties
+                final int metaCount = buffer.readInt();
+                final Object[] property = new Object[3 + metaCount * 2];
+                property[0] = propertyId;
+                property[1] = key;
+                property[2] = value;
+                readKeyValues(buffer, metaCount, property, 3);
+                vertex[2 + j] = property;
+            }
+            vertices.add(vertex);
+        }
+        return vertices;
+    }
+
+    /**
+     * Parses a block of edges into arrays of the edge identifier, the label, the identifiers of the out and in
+     * vertices and the key/values of its properties.
+     */
+    private List<Object[]> parseEdges(final NioBuffer buffer, final int count) throws IOException {
+        final List<Object[]> edges = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final Object id = this.reader.read(buffer);
+            final String label = this.reader.readValue(buffer, String.class, false);
+            final Object outId = this.reader.read(buffer);
+            final Object inId = this.reader.read(buffer);
+            final int propertyCount = buffer.readInt();
+            final Object[] edge = new Object[4 + propertyCount * 2];
+            edge[0] = id;
+            edge[1] = label;
+            edge[2] = outId;
+            edge[3] = inId;
+            readKeyValues(buffer, propertyCount, edge, 4);
+            edges.add(edge);
+        }
+        return edges;
+    }
+
+    private void readKeyValues(final NioBuffer buffer, final int count, final Object[] target, final int offset) throws IOException {
+        for (int i = 0; i < count; i++) {
+            target[offset + i * 2] = this.reader.readValue(buffer, String.class, false);
+            target[offset + i * 2 + 1] = this.reader.read(buffer);
+        }
+    }
+
+    private static void readHeader(final ReadableByteChannel channel) throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(GraphBinaryBulkWriter.HEADER.length);
+        readFully(channel, header);
+        if (!Arrays.equals(GraphBinaryBulkWriter.HEADER, header.array()))
+            throw new IOException("Invalid format - header does not match expected value");
+    }
+
+    private static void readFully(final ReadableByteChannel channel, final ByteBuffer target) throws IOException {
+        while (target.hasRemaining()) {
+            if (channel.read(target) < 0)
+                throw new EOFException("Unexpected end of input - the graph was not completely written");
+        }
+    }
+
+    private static final class Block {
+        private final byte kind;
+        private final List<Object[]> elements;
+
+        private Block(final byte kind, final List<Object[]> elements) {
+            this.kind = kind;
+            this.elements = elements;
+        }
+    }
+
+    /**
+     * Adds parsed blocks to the graph on the calling thread.
+     */
+    private final class Loader {
+        private final Graph graph;
+        private final Graph.Features.VertexFeatures vertexFeatures;
+        private final Graph.Features.VertexPropertyFeatures vertexPropertyFeatures;
+        private final Graph.Features.EdgeFeatures edgeFeatures;
+        private final boolean supportsTx;
+        private final LongObjectHashMap<Vertex> longIds = new LongObjectHashMap<>();
+        private final Map<Object, Vertex> otherIds = new HashMap<>();
+        private long counter = 0;
+
+        private Loader(final Graph graph) {
+            this.graph = graph;
+            this.vertexFeatures = graph.features().vertex();
+            this.vertexPropertyFeatures = graph.features().vertex().properties();
+            this.edgeFeatures = graph.features().edge();
+            this.supportsTx = graph.features().graph().supportsTransactions();
+        }
+
+        private void load(final Block block) {
+            if (GraphBinaryBulkWriter.BLOCK_VERTICES == block.kind)
+                block.elements.forEach(this::loadVertex);
+            else
+                block.elements.forEach(this::loadEdge);
+        }
+
+        private void loadVertex(final Object[] element) {
+            final Object id = element[0];
+            final String label = (String) element[1];
+            final Vertex vertex = this.vertexFeatures.willAllowId(id) ?
+                    this.graph.addVertex(T.id, id, T.label, label) :
+                    this.graph.addVertex(T.label, label);
+            for (int i = 2; i < element.length; i++) {
+                final Object[] property = (Object[]) element[i];
+                final String key = (String) property[1];
+                final Object[] keyValues;
+                if (this.vertexPropertyFeatures.willAllowId(property[0])) {
+                    keyValues = new Object[property.length - 1];
+                    keyValues[0] = T.id;
+                    keyValues[1] = property[0];
+                    System.arraycopy(property, 3, keyValues, 2, property.length - 3);
+                } else {
+                    keyValues = Arrays.copyOfRange(property, 3, property.length);
+                }
+                vertex.property(this.vertexFeatures.getCardinality(key), key, property[2], keyValues);
+            }
+
+            if (id instanceof Long)
+                this.longIds.put((Long) id, vertex);
+            else
+                this.otherIds.put(id, vertex);
+            batch();
+        }
+
+        private void loadEdge(final Object[] element) {
+            final Object id = element[0];
+            final Vertex outV = get(element[2]);
+            final Vertex inV = get(element[3]);
+            if (null == outV) throw new IllegalStateException(String.format("Could not find outV with id [%s] to create edge with id [%s]", element[2], id));
+            if (null == inV) throw new IllegalStateException(String.format("Could not find inV with id [%s] to create edge with id [%s]", element[3], id));
+
+            final Object[] keyValues;
+            if (this.edgeFeatures.willAllowId(id)) {
+                keyValues = new Object[element.length - 2];
+                keyValues[0] = T.id;
+                keyValues[1] = id;
+                System.arraycopy(element, 4, keyValues, 2, element.length - 4);
+            } else {
+                keyValues = Arrays.copyOfRange(element, 4, element.length);
+            }
+            outV.addEdge((String) element[1], inV, keyValues);
+            batch();
+        }
+
+        private Vertex get(final Object id) {
+            return id instanceof Long ? this.longIds.get((Long) id) : this.otherIds.get(id);
+        }
+
+        private void batch() {
+            if (this.supportsTx && ++this.counter % batchSize == 0)
+                this.graph.tx().commit();
+        }
+
+        private void commit() {
+            if (this.supportsTx) this.graph.tx().commit();
+        }
+    }
+
+    /**
+     * This method is not supported for this reader.
+     *
+     * @throws UnsupportedOperationException when called.
+     */
+    @Override
+    public Vertex readVertex(final InputStream inputStream, final Function<Attachable<Vertex>, Vertex> vertexAttachMethod) throws IOException {
+        throw Io.Exceptions.readerFormatIsForFullGraphSerializationOnly(this.getClass());
+    }
+
+    /**
+     * This method is not supported for this reader.
+     *
+     * @throws UnsupportedOperationException when called.
+     */
+    @Override
+    public Vertex readVertex(final InputStream inputStream, final Function<Attachable<Vertex>, Vertex> vertexAttachMethod,
+                             final Function<Attachable<Edge>, Edge> edgeAttachMethod,
+                             final Direction attachEdgesOfThisDirection) throws IOException {
+        throw Io.Exceptions.readerFormatIsForFullGraphSerializationOnly(this.getClass());
+    }
+
+    /**
+     * This method is not supported for this reader.
+     *
+     * @throws UnsupportedOperationException when called.
+     */
+    @Override
+    public Iterator<Vertex> readVertices(final InputStream inputStream,
+                                         final Function<Attachable<Vertex>, Vertex> vertexAttachMethod,
+                                         final Function<Attachable<Edge>, Edge> edgeAttachMethod,
+                                         final Direction attachEdgesOfThisDirection) throws IOException {
+        throw Io.Exceptions.readerFormatIsForFullGraphSerializationOnly(this.getClass());
+    }
+
+    /**
+     * This method is not supported for this reader.
+     *
+     * @throws UnsupportedOperationException when called.
+     */
+    @Override
+    public Edge readEdge(final InputStream inputStream, final Function<Attachable<Edge>, Edge> edgeAttachMethod) throws IOException {
+        throw Io.Exceptions.readerFormatIsForFullGraphSerializationOnly(this.getClass());
+    }
+
+    /**
+     * This method is not supported for this reader.
+     *
+     * @throws UnsupportedOperationException when called.
+     */
+    @Override
+    public VertexProperty readVertexProperty(final InputStream inputStream,
+                                             final Function<Attachable<VertexProperty>, VertexProperty> vertexPropertyAttachMethod) throws IOException {
+        throw Io.Exceptions.readerFormatIsForFullGraphSerializationOnly(this.getClass());
+    }
+
+    /**
+     * This method is not supported for this reader.
+     *
+     * @throws UnsupportedOperationException when called.
+     */
+    @Override
+    public Property readProperty(final InputStream inputStream,
+                                 final Function<Attachable<Property>, Property> propertyAttachMethod) throws IOException {
+        throw Io.Exceptions.readerFormatIsForFullGraphSerializationOnly(this.getClass());
+    }
+
+    /**
+     * This method is not supported for this reader.
+     *
+     * @throws UnsupportedOperationException when called.
+     */
+    @Override
+    public <C> C readObject(final InputStream inputStream, final Class<? extends C> clazz) throws IOException {
+        throw Io.Exceptions.readerFormatIsForFullGraphSerializationOnly(this.getClass());
+    }
+
+    public static Builder build() {
+        return new Builder();
+    }
+
+    public static final class Builder implements ReaderBuilder<GraphBinaryBulkReader> {
+
+        private TypeSerializerRegistry typeSerializerRegistry = TypeSerializerRegistry.INSTANCE;
+        private final List<IoRegistry> registries = new ArrayList<>();
+        private long batchSize = 10000;
+        private int workers = Runtime.getRuntime().availableProcessors();
+
+        private Builder() {
+        }
+
+        /**
+         * The registry of the serializers to read the identifiers and property values with, which defaults to
+         * {@link TypeSerializerRegistry#INSTANCE}. Registries added with {@link #addRegistry(IoRegistry)} are ignored
+         * if this is set.
+         */
+        public Builder typeSerializerRegistry(final TypeSerializerRegistry typeSerializerRegistry) {
+            this.typeSerializerRegistry = typeSerializerRegistry;
+            return this;
+        }
+
+        /**
+         * Adds the {@link org.apache.tinkerpop.gremlin.structure.io.binary.types.CustomTypeSerializer} instances of
+         * an {@link IoRegistry} that are bound to {@link GraphBinaryIo}.
+         */
+        public Builder addRegistry(final IoRegistry registry) {
+            this.registries.add(registry);
+            return this;
+        }
+
+        /**
+         * Number of mutations to perform before a commit is executed when using
+         * {@link GraphBinaryBulkReader#readGraph(InputStream, Graph)}.
+         */
+        public Builder batchSize(final long batchSize) {
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        /**
+         * The number of threads that parse blocks while the calling thread adds them to the graph. If set to zero,
+         * blocks are parsed on the calling thread. Defaults to the number of available processors.
+         */
+        public Builder workers(final int workers) {
+            if (workers < 0)
+                throw new IllegalArgumentException("The number of workers must not be negative");
+            this.workers = workers;
+            return this;
+        }
+
+        @Override
+        public GraphBinaryBulkReader create() {
+            if (!this.registries.isEmpty() && this.typeSerializerRegistry == TypeSerializerRegistry.INSTANCE) {
+                final TypeSerializerRegistry.Builder builder = TypeSerializerRegistry.build();
+                this.registries.forEach(builder::addRegistry);
+                this.typeSerializerRegistry = builder.create();
+            }
+            return new GraphBinaryBulkReader(this);
+        }
+    }
+}
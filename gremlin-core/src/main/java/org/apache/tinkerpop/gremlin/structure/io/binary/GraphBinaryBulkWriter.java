@@ -0,0 +1,303 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.structure.io.binary;
+
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Property;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.structure.io.GraphWriter;
+import org.apache.tinkerpop.gremlin.structure.io.Io;
+import org.apache.tinkerpop.gremlin.structure.io.IoRegistry;
+import org.apache.tinkerpop.gremlin.structure.util.CloseableIterator;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A {@link GraphWriter} that writes an entire graph in a GraphBinary based format that is built for bulk throughput.
+ * The output starts with all vertices with their properties followed by all edges with their properties, both cut
+ * into blocks of roughly {@code blockSize} bytes that can be parsed independently of each other by the
+ * {@link GraphBinaryBulkReader}. Elements are serialized into a single reusable buffer that is written to the
+ * underlying channel once per block.
+ * <p/>
+ * The format is for full graph serialization only, so the methods that write single elements are not supported.
+ * <p/>
+ * This implementation is not thread-safe.
+ */
+public final class GraphBinaryBulkWriter implements GraphWriter {
+
+    /**
+     * The bytes that start the output - "GBG" followed by the GraphBinary version.
+     */
+    static final byte[] HEADER = new byte[]{'G', 'B', 'G', GraphBinaryWriter.VERSION_BYTE};
+
+    static final byte BLOCK_END = 0;
+    static final byte BLOCK_VERTICES = 1;
+    static final byte BLOCK_EDGES = 2;
+
+    /**
+     * The size of the header of each block - the block kind, the number of elements and the length of the block.
+     */
+    static final int BLOCK_HEADER_SIZE = 9;
+
+    private final GraphBinaryWriter writer;
+    private final int blockSize;
+
+    private GraphBinaryBulkWriter(final Builder builder) {
+        this.writer = new GraphBinaryWriter(builder.typeSerializerRegistry);
+        this.blockSize = builder.blockSize;
+    }
+
+    /**
+     * Write the entire graph to a stream. If the stream is a {@code FileOutputStream} its channel is written to
+     * directly.
+     *
+     * @param outputStream the stream to write to.
+     * @param g            the graph to write to stream.
+     */
+    @Override
+    public void writeGraph(final OutputStream outputStream, final Graph g) throws IOException {
+        final WritableByteChannel channel = outputStream instanceof FileOutputStream ?
+                ((FileOutputStream) outputStream).getChannel() : Channels.newChannel(outputStream);
+        final NioBuffer block = new NioBuffer(this.blockSize + (this.blockSize >> 2));
+        final ByteBuffer blockHeader = ByteBuffer.allocate(BLOCK_HEADER_SIZE);
+
+        writeFully(channel, ByteBuffer.wrap(HEADER));
+
+        int count = 0;
+        final Iterator<Vertex> vertices = g.vertices();
+        try {
+            while (vertices.hasNext()) {
+                writeVertex(vertices.next(), block);
+                if (++count == Integer.MAX_VALUE || block.writerIndex() >= this.blockSize) {
+                    writeBlock(channel, blockHeader, BLOCK_VERTICES, count, block);
+                    count = 0;
+                }
+            }
+        } finally {
+            CloseableIterator.closeIterator(vertices);
+        }
+        if (count > 0) writeBlock(channel, blockHeader, BLOCK_VERTICES, count, block);
+
+        count = 0;
+        final Iterator<Edge> edges = g.edges();
+        try {
+            while (edges.hasNext()) {
+                writeEdge(edges.next(), block);
+                if (++count == Integer.MAX_VALUE || block.writerIndex() >= this.blockSize) {
+                    writeBlock(channel, blockHeader, BLOCK_EDGES, count, block);
+                    count = 0;
+                }
+            }
+        } finally {
+            CloseableIterator.closeIterator(edges);
+        }
+        if (count > 0) writeBlock(channel, blockHeader, BLOCK_EDGES, count, block);
+
+        writeBlock(channel, blockHeader, BLOCK_END, 0, block);
+        outputStream.flush();
+    }
+
+    private void writeVertex(final Vertex vertex, final NioBuffer buffer) throws IOException {
+        this.writer.write(vertex.id(), buffer);
+        this.writer.writeValue(vertex.label(), buffer, false);
+
+        // the number of properties is not known upfront so it is patched in once they are written
+        final int countIndex = buffer.writerIndex();
+        buffer.writeInt(0);
+        int count = 0;
+        final Iterator<VertexProperty<Object>> vertexProperties = vertex.properties();
+        while (vertexProperties.hasNext()) {
+            final VertexProperty<Object> vertexProperty = vertexProperties.next();
+            this.writer.write(vertexProperty.id(), buffer);
+            this.writer.writeValue(vertexProperty.key(), buffer, false);
+            this.writer.write(vertexProperty.value(), buffer);
+            writeProperties(vertexProperty.properties(), buffer);
+            count++;
+        }
+        writeCount(buffer, countIndex, count);
+    }
+
+    private void writeEdge(final Edge edge, final NioBuffer buffer) throws IOException {
+        this.writer.write(edge.id(), buffer);
+        this.writer.writeValue(edge.label(), buffer, false);
+        this.writer.write(edge.outVertex().id(), buffer);
+        this.writer.write(edge.inVertex().id(), buffer);
+        writeProperties(edge.properties(), buffer);
+    }
+
+    private void writeProperties(final Iterator<? extends Property<Object>> properties, final NioBuffer buffer) throws IOException {
+        final int countIndex = buffer.writerIndex();
+        buffer.writeInt(0);
+        int count = 0;
+        while (properties.hasNext()) {
+            final Property<Object> property = properties.next();
+            this.writer.writeValue(property.key(), buffer, false);
+            this.writer.write(property.value(), buffer);
+            count++;
+        }
+        writeCount(buffer, countIndex, count);
+    }
+
+    private static void writeCount(final NioBuffer buffer, final int countIndex, final int count) {
+        final int index = buffer.writerIndex();
+        buffer.writerIndex(countIndex);
+        buffer.writeInt(count);
+        buffer.writerIndex(index);
+    }
+
+    private static void writeBlock(final WritableByteChannel channel, final ByteBuffer blockHeader, final byte kind,
+                                   final int count, final NioBuffer block) throws IOException {
+        blockHeader.clear();
+        blockHeader.put(kind).putInt(count).putInt(block.readableBytes());
+        blockHeader.flip();
+        writeFully(channel, blockHeader);
+        block.writeTo(channel);
+        block.clear();
+    }
+
+    private static void writeFully(final WritableByteChannel channel, final ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            channel.write(source);
+        }
+    }
+
+    /**
+     * This method is not supported for this writer.
+     *
+     * @throws UnsupportedOperationException when called.
+     */
+    @Override
+    public void writeVertex(final OutputStream outputStream, final Vertex v, final Direction direction) throws IOException {
+        throw Io.Exceptions.writerFormatIsForFullGraphSerializationOnly(this.getClass());
+    }
+
+    /**
+     * This method is not supported for this writer.
+     *
+     * @throws UnsupportedOperationException when called.
+     */
+    @Override
+    public void writeVertex(final OutputStream outputStream, final Vertex v) throws IOException {
+        throw Io.Exceptions.writerFormatIsForFullGraphSerializationOnly(this.getClass());
+    }
+
+    /**
+     * This method is not supported for this writer.
+     *
+     * @throws UnsupportedOperationException when called.
+     */
+    @Override
+    public void writeEdge(final OutputStream outputStream, final Edge e) throws IOException {
+        throw Io.Exceptions.writerFormatIsForFullGraphSerializationOnly(this.getClass());
+    }
+
+    /**
+     * This method is not supported for this writer.
+     *
+     * @throws UnsupportedOperationException when called.
+     */
+    @Override
+    public void writeVertexProperty(final OutputStream outputStream, final VertexProperty vp) throws IOException {
+        throw Io.Exceptions.writerFormatIsForFullGraphSerializationOnly(this.getClass());
+    }
+
+    /**
+     * This method is not supported for this writer.
+     *
+     * @throws UnsupportedOperationException when called.
+     */
+    @Override
+    public void writeProperty(final OutputStream outputStream, final Property p) throws IOException {
+        throw Io.Exceptions.writerFormatIsForFullGraphSerializationOnly(this.getClass());
+    }
+
+    /**
+     * This method is not supported for this writer.
+     *
+     * @throws UnsupportedOperationException when called.
+     */
+    @Override
+    public void writeObject(final OutputStream outputStream, final Object object) throws IOException {
+        throw Io.Exceptions.writerFormatIsForFullGraphSerializationOnly(this.getClass());
+    }
+
+    public static Builder build() {
+        return new Builder();
+    }
+
+    public static final class Builder implements WriterBuilder<GraphBinaryBulkWriter> {
+
+        private TypeSerializerRegistry typeSerializerRegistry = TypeSerializerRegistry.INSTANCE;
+        private final List<IoRegistry> registries = new ArrayList<>();
+        private int blockSize = 1 << 20;
+
+        private Builder() {
+        }
+
+        /**
+         * The registry of the serializers to write the identifiers and property values with, which defaults to
+         * {@link TypeSerializerRegistry#INSTANCE}. Registries added with {@link #addRegistry(IoRegistry)} are ignored
+         * if this is set.
+         */
+        public Builder typeSerializerRegistry(final TypeSerializerRegistry typeSerializerRegistry) {
+            this.typeSerializerRegistry = typeSerializerRegistry;
+            return this;
+        }
+
+        /**
+         * Adds the {@link org.apache.tinkerpop.gremlin.structure.io.binary.types.CustomTypeSerializer} instances of an {@link IoRegistry} that are bound to
+         * {@link GraphBinaryIo}.
+         */
+        public Builder addRegistry(final IoRegistry registry) {
+            this.registries.add(registry);
+            return this;
+        }
+
+        /**
+         * The number of bytes after which a block is completed. Defaults to 1MB.
+         */
+        public Builder blockSize(final int blockSize) {
+            if (blockSize < 1)
+                throw new IllegalArgumentException("The blockSize must be greater than zero");
+            this.blockSize = blockSize;
+            return this;
+        }
+
+        @Override
+        public GraphBinaryBulkWriter create() {
+            if (!this.registries.isEmpty() && this.typeSerializerRegistry == TypeSerializerRegistry.INSTANCE) {
+                final TypeSerializerRegistry.Builder builder = TypeSerializerRegistry.build();
+                this.registries.forEach(builder::addRegistry);
+                this.typeSerializerRegistry = builder.create();
+            }
+            return new GraphBinaryBulkWriter(this);
+        }
+    }
+}
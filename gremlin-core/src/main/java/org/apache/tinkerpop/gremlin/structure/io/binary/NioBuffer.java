@@ -0,0 +1,332 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.structure.io.binary;
+
+import org.apache.tinkerpop.gremlin.structure.io.Buffer;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * A {@link Buffer} over a growable heap {@code ByteBuffer} which is meant to be reused for many reads and writes so
+ * that the bulk GraphBinary reader and writer do not allocate a buffer per element. It does not depend on Netty so
+ * that it can be used without a driver on the classpath.
+ */
+final class NioBuffer implements Buffer {
+    private ByteBuffer buffer;
+    private int readerIndex = 0;
+    private int writerIndex = 0;
+    private int markedWriterIndex = 0;
+
+    NioBuffer(final int initialCapacity) {
+        this.buffer = ByteBuffer.allocate(initialCapacity);
+    }
+
+    /**
+     * Discards the content of the buffer while keeping its capacity.
+     */
+    void clear() {
+        this.readerIndex = 0;
+        this.writerIndex = 0;
+        this.markedWriterIndex = 0;
+    }
+
+    /**
+     * Appends exactly {@code length} bytes read from the channel.
+     */
+    void readFrom(final ReadableByteChannel channel, final int length) throws IOException {
+        ensureWritable(length);
+        final ByteBuffer target = this.buffer.duplicate();
+        target.limit(this.writerIndex + length).position(this.writerIndex);
+        while (target.hasRemaining()) {
+            if (channel.read(target) < 0)
+                throw new EOFException("Unexpected end of input - expected " + length + " bytes");
+        }
+        this.writerIndex += length;
+    }
+
+    /**
+     * Writes all readable bytes to the channel.
+     */
+    void writeTo(final WritableByteChannel channel) throws IOException {
+        final ByteBuffer source = nioBuffer();
+        while (source.hasRemaining()) {
+            channel.write(source);
+        }
+        this.readerIndex = this.writerIndex;
+    }
+
+    private void ensureWritable(final int length) {
+        final int required = this.writerIndex + length;
+        if (required > this.buffer.capacity()) {
+            final ByteBuffer grown = ByteBuffer.allocate(Math.max(required, this.buffer.capacity() * 2));
+            grown.put(this.buffer.array(), 0, this.writerIndex);
+            this.buffer = grown;
+        }
+    }
+
+    private int checkReadable(final int length) {
+        if (length > readableBytes())
+            throw new IndexOutOfBoundsException(String.format(
+                    "readerIndex(%s) + length(%s) exceeds writerIndex(%s)", this.readerIndex, length, this.writerIndex));
+        final int index = this.readerIndex;
+        this.readerIndex += length;
+        return index;
+    }
+
+    @Override
+    public int readableBytes() {
+        return this.writerIndex - this.readerIndex;
+    }
+
+    @Override
+    public int readerIndex() {
+        return this.readerIndex;
+    }
+
+    @Override
+    public Buffer readerIndex(final int readerIndex) {
+        if (readerIndex < 0 || readerIndex > this.writerIndex)
+            throw new IndexOutOfBoundsException(String.format(
+                    "readerIndex: %s (expected: 0 <= readerIndex <= writerIndex(%s))", readerIndex, this.writerIndex));
+        this.readerIndex = readerIndex;
+        return this;
+    }
+
+    @Override
+    public int writerIndex() {
+        return this.writerIndex;
+    }
+
+    @Override
+    public Buffer writerIndex(final int writerIndex) {
+        if (writerIndex < this.readerIndex || writerIndex > capacity())
+            throw new IndexOutOfBoundsException(String.format(
+                    "writerIndex: %s (expected: readerIndex(%s) <= writerIndex <= capacity(%s))", writerIndex, this.readerIndex, capacity()));
+        this.writerIndex = writerIndex;
+        return this;
+    }
+
+    @Override
+    public Buffer markWriterIndex() {
+        this.markedWriterIndex = this.writerIndex;
+        return this;
+    }
+
+    @Override
+    public Buffer resetWriterIndex() {
+        return writerIndex(this.markedWriterIndex);
+    }
+
+    @Override
+    public int capacity() {
+        return this.buffer.capacity();
+    }
+
+    @Override
+    public boolean isDirect() {
+        return false;
+    }
+
+    @Override
+    public boolean readBoolean() {
+        return readByte() != 0;
+    }
+
+    @Override
+    public byte readByte() {
+        return this.buffer.get(checkReadable(1));
+    }
+
+    @Override
+    public short readShort() {
+        return this.buffer.getShort(checkReadable(2));
+    }
+
+    @Override
+    public int readInt() {
+        return this.buffer.getInt(checkReadable(4));
+    }
+
+    @Override
+    public long readLong() {
+        return this.buffer.getLong(checkReadable(8));
+    }
+
+    @Override
+    public float readFloat() {
+        return this.buffer.getFloat(checkReadable(4));
+    }
+
+    @Override
+    public double readDouble() {
+        return this.buffer.getDouble(checkReadable(8));
+    }
+
+    @Override
+    public Buffer readBytes(final byte[] destination) {
+        return readBytes(destination, 0, destination.length);
+    }
+
+    @Override
+    public Buffer readBytes(final byte[] destination, final int dstIndex, final int length) {
+        System.arraycopy(this.buffer.array(), checkReadable(length), destination, dstIndex, length);
+        return this;
+    }
+
+    @Override
+    public Buffer readBytes(final ByteBuffer dst) {
+        final int length = dst.remaining();
+        dst.put(this.buffer.array(), checkReadable(length), length);
+        return this;
+    }
+
+    @Override
+    public Buffer readBytes(final OutputStream out, final int length) throws IOException {
+        out.write(this.buffer.array(), checkReadable(length), length);
+        return this;
+    }
+
+    @Override
+    public Buffer writeBoolean(final boolean value) {
+        return writeByte(value ? 1 : 0);
+    }
+
+    @Override
+    public Buffer writeByte(final int value) {
+        ensureWritable(1);
+        this.buffer.put(this.writerIndex, (byte) value);
+        this.writerIndex += 1;
+        return this;
+    }
+
+    @Override
+    public Buffer writeShort(final int value) {
+        ensureWritable(2);
+        this.buffer.putShort(this.writerIndex, (short) value);
+        this.writerIndex += 2;
+        return this;
+    }
+
+    @Override
+    public Buffer writeInt(final int value) {
+        ensureWritable(4);
+        this.buffer.putInt(this.writerIndex, value);
+        this.writerIndex += 4;
+        return this;
+    }
+
+    @Override
+    public Buffer writeLong(final long value) {
+        ensureWritable(8);
+        this.buffer.putLong(this.writerIndex, value);
+        this.writerIndex += 8;
+        return this;
+    }
+
+    @Override
+    public Buffer writeFloat(final float value) {
+        ensureWritable(4);
+        this.buffer.putFloat(this.writerIndex, value);
+        this.writerIndex += 4;
+        return this;
+    }
+
+    @Override
+    public Buffer writeDouble(final double value) {
+        ensureWritable(8);
+        this.buffer.putDouble(this.writerIndex, value);
+        this.writerIndex += 8;
+        return this;
+    }
+
+    @Override
+    public Buffer writeBytes(final byte[] src) {
+        return writeBytes(src, 0, src.length);
+    }
+
+    @Override
+    public Buffer writeBytes(final ByteBuffer src) {
+        final int length = src.remaining();
+        ensureWritable(length);
+        src.get(this.buffer.array(), this.writerIndex, length);
+        this.writerIndex += length;
+        return this;
+    }
+
+    @Override
+    public Buffer writeBytes(final byte[] src, final int srcIndex, final int length) {
+        ensureWritable(length);
+        System.arraycopy(src, srcIndex, this.buffer.array(), this.writerIndex, length);
+        this.writerIndex += length;
+        return this;
+    }
+
+    @Override
+    public boolean release() {
+        return false;
+    }
+
+    @Override
+    public Buffer retain() {
+        return this;
+    }
+
+    @Override
+    public int referenceCount() {
+        return 1;
+    }
+
+    @Override
+    public int nioBufferCount() {
+        return 1;
+    }
+
+    @Override
+    public ByteBuffer[] nioBuffers() {
+        return new ByteBuffer[]{nioBuffer()};
+    }
+
+    @Override
+    public ByteBuffer[] nioBuffers(final int index, final int length) {
+        return new ByteBuffer[]{nioBuffer(index, length)};
+    }
+
+    @Override
+    public ByteBuffer nioBuffer() {
+        return nioBuffer(this.readerIndex, readableBytes());
+    }
+
+    @Override
+    public ByteBuffer nioBuffer(final int index, final int length) {
+        final ByteBuffer view = this.buffer.duplicate();
+        view.limit(index + length).position(index);
+        return view.slice();
+    }
+
+    @Override
+    public Buffer getBytes(final int index, final byte[] dst) {
+        System.arraycopy(this.buffer.array(), index, dst, 0, dst.length);
+        return this;
+    }
+}
@@ -43,10 +43,13 @@ import org.apache.tinkerpop.gremlin.process.traversal.strategy.decoration.Option
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.decoration.PartitionStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.decoration.SeedStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.decoration.SubgraphStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.finalization.BatchStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.finalization.ParallelScanStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.finalization.MatchAlgorithmStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization.AdjacentToIncidentStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization.ByModulatorOptimizationStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization.EarlyLimitStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization.CostBasedFilterRankingStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization.FilterRankingStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization.IdentityRemovalStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization.IncidentToAdjacentStrategy;
@@ -190,10 +193,13 @@ abstract class GraphSONModule extends TinkerPopJacksonModule {
                             SeedStrategy.class,
                             LazyBarrierStrategy.class,
                             MatchAlgorithmStrategy.class,
+                            BatchStrategy.class,
+                            ParallelScanStrategy.class,
                             AdjacentToIncidentStrategy.class,
                             ByModulatorOptimizationStrategy.class,
                             CountStrategy.class,
                             FilterRankingStrategy.class,
+                            CostBasedFilterRankingStrategy.class,
                             IdentityRemovalStrategy.class,
                             IncidentToAdjacentStrategy.class,
                             InlineFilterStrategy.class,
@@ -318,10 +324,13 @@ abstract class GraphSONModule extends TinkerPopJacksonModule {
                     SeedStrategy.class,
                     LazyBarrierStrategy.class,
                     MatchAlgorithmStrategy.class,
+                    BatchStrategy.class,
+                    ParallelScanStrategy.class,
                     AdjacentToIncidentStrategy.class,
                     ByModulatorOptimizationStrategy.class,
                     CountStrategy.class,
                     FilterRankingStrategy.class,
+                    CostBasedFilterRankingStrategy.class,
                     IdentityRemovalStrategy.class,
                     IncidentToAdjacentStrategy.class,
                     InlineFilterStrategy.class,
@@ -426,10 +435,13 @@ abstract class GraphSONModule extends TinkerPopJacksonModule {
                             SeedStrategy.class,
                             LazyBarrierStrategy.class,
                             MatchAlgorithmStrategy.class,
+                            BatchStrategy.class,
+                            ParallelScanStrategy.class,
                             AdjacentToIncidentStrategy.class,
                             ByModulatorOptimizationStrategy.class,
                             CountStrategy.class,
                             FilterRankingStrategy.class,
+                            CostBasedFilterRankingStrategy.class,
                             IdentityRemovalStrategy.class,
                             IncidentToAdjacentStrategy.class,
                             InlineFilterStrategy.class,
@@ -544,10 +556,13 @@ abstract class GraphSONModule extends TinkerPopJacksonModule {
                     SeedStrategy.class,
                     LazyBarrierStrategy.class,
                     MatchAlgorithmStrategy.class,
+                    BatchStrategy.class,
+                    ParallelScanStrategy.class,
                     AdjacentToIncidentStrategy.class,
                     ByModulatorOptimizationStrategy.class,
                     CountStrategy.class,
                     FilterRankingStrategy.class,
+                    CostBasedFilterRankingStrategy.class,
                     IdentityRemovalStrategy.class,
                     IncidentToAdjacentStrategy.class,
                     InlineFilterStrategy.class,
@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.structure.util;
+
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A {@link Graph.BulkLoader} that adds elements with the standard structure API, keeps the vertices that were added
+ * by their external id and commits the transaction of the graph, if it supports transactions, every
+ * {@code batchSize} elements. Providers can extend it and override {@link #onClose()} to complete work that they
+ * deferred during the load.
+ */
+public class DefaultBulkLoader implements Graph.BulkLoader {
+
+    protected final Graph graph;
+    private final int batchSize;
+    private final boolean supportsTransactions;
+    private final Map<Object, Vertex> vertices = new HashMap<>();
+    private int uncommitted = 0;
+    private boolean closed = false;
+
+    public DefaultBulkLoader(final Graph graph, final int batchSize) {
+        if (batchSize < 1)
+            throw new IllegalArgumentException("The batchSize must be greater than zero");
+        this.graph = graph;
+        this.batchSize = batchSize;
+        this.supportsTransactions = graph.features().graph().supportsTransactions();
+    }
+
+    @Override
+    public Vertex addVertex(final Object externalId, final Object... keyValues) {
+        checkOpen();
+        if (null == externalId)
+            throw Graph.Exceptions.argumentCanNotBeNull("externalId");
+        if (this.vertices.containsKey(externalId))
+            throw new IllegalArgumentException(String.format("A vertex was already added with the external id %s", externalId));
+
+        final Vertex vertex = this.graph.addVertex(keyValues);
+        this.vertices.put(externalId, vertex);
+        added();
+        return vertex;
+    }
+
+    @Override
+    public Edge addEdge(final String label, final Object outVertexExternalId, final Object inVertexExternalId,
+                        final Object... keyValues) {
+        checkOpen();
+        final Edge edge = getVertex(outVertexExternalId).addEdge(label, getVertex(inVertexExternalId), keyValues);
+        added();
+        return edge;
+    }
+
+    @Override
+    public void flush() {
+        checkOpen();
+        commit();
+    }
+
+    @Override
+    public void close() {
+        if (this.closed) return;
+        this.closed = true;
+        this.vertices.clear();
+        try {
+            commit();
+        } finally {
+            onClose();
+        }
+    }
+
+    /**
+     * Called once when the loader is closed after the remaining elements were committed.
+     */
+    protected void onClose() {
+    }
+
+    private Vertex getVertex(final Object externalId) {
+        final Vertex vertex = this.vertices.get(externalId);
+        if (null == vertex)
+            throw new IllegalArgumentException(String.format("No vertex was added with the external id %s", externalId));
+        return vertex;
+    }
+
+    private void added() {
+        if (++this.uncommitted >= this.batchSize)
+            commit();
+    }
+
+    private void commit() {
+        if (this.supportsTransactions && this.graph.tx().isOpen())
+            this.graph.tx().commit();
+        this.uncommitted = 0;
+    }
+
+    private void checkOpen() {
+        if (this.closed)
+            throw new IllegalStateException("The bulk loader is closed");
+    }
+}
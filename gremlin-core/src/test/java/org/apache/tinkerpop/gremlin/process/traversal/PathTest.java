@@ -30,6 +30,7 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
@@ -501,4 +502,116 @@ public class PathTest {
             assertEquals(1, subPath.labels().get(2).size());
         });
     }
+
+    @Test
+    public void shouldRetractLabels() {
+        PATH_SUPPLIERS.forEach(supplier -> {
+            Path path = supplier.get();
+            // more labels than bits in the label summary of the immutable path
+            for (int i = 0; i < 100; i++) {
+                path = path.extend(i, new LinkedHashSet<>(Arrays.asList("a" + i, "b" + (i % 10))));
+            }
+            assertEquals(100, path.size());
+            assertEquals(Integer.valueOf(42), path.get(42));
+            assertEquals(Integer.valueOf(99), path.get("a99"));
+            assertEquals(Integer.valueOf(3), path.get(Pop.first, "b3"));
+            assertEquals(Integer.valueOf(93), path.get(Pop.last, "b3"));
+            assertEquals(10, path.<List<Integer>>get(Pop.all, "b3").size());
+            assertFalse(path.hasLabel("c"));
+
+            final Path retracted = path.retract(new HashSet<>(Arrays.asList("a55", "b5", "c")));
+            assertEquals(99, retracted.size());
+            assertFalse(retracted.hasLabel("a55"));
+            assertFalse(retracted.hasLabel("b5"));
+            assertTrue(retracted.hasLabel("a5"));
+            assertEquals(Collections.singleton("a15"), retracted.labels().get(15));
+            assertEquals(Integer.valueOf(56), retracted.get("a56"));
+            assertEquals(Integer.valueOf(6), retracted.get(Pop.first, "b6"));
+            assertEquals(Integer.valueOf(54), retracted.get(54));
+            assertEquals(Integer.valueOf(56), retracted.get(55));
+            assertEquals(path, path.retract(Collections.singleton("c")));
+        });
+    }
+
+    @Test
+    public void shouldDropUnlabeledSectionsOnRetract() {
+        Path path = ImmutablePath.make();
+        path = path.extend(1, Collections.singleton("a"));
+        path = path.extend(2, Collections.emptySet());
+        path = path.extend(3, Collections.singleton("c"));
+        final Path retracted = path.retract(Collections.singleton("x"));
+        assertEquals(2, retracted.size());
+        assertEquals(Arrays.asList(1, 3), retracted.objects());
+    }
+
+    @Test
+    public void shouldDetermineSimplePathsIncrementally() {
+        PATH_SUPPLIERS.forEach(supplier -> {
+            Path path = supplier.get();
+            // more objects than bits in the object summary of the immutable path
+            for (int i = 0; i < 200; i++) {
+                path = path.extend(i, Collections.emptySet());
+                assertTrue(path.isSimple());
+            }
+            final Path simple = path.clone().extend(200, Collections.emptySet());
+            final Path cyclic = path.clone().extend(64, Collections.emptySet());
+            assertTrue(simple.isSimple());
+            assertFalse(cyclic.isSimple());
+            assertFalse(cyclic.clone().extend(201, Collections.emptySet()).isSimple());
+            assertTrue(simple.clone().extend(201, Collections.emptySet()).isSimple());
+            assertFalse(simple.clone().extend(0, Collections.emptySet()).isSimple());
+            assertFalse(simple.clone().extend(200, Collections.emptySet()).isSimple());
+        });
+    }
+
+    @Test
+    public void shouldResolveSimplePathWithoutRevisitingEarlierObjects() {
+        final AtomicInteger hashCodes = new AtomicInteger();
+        final AtomicInteger comparisons = new AtomicInteger();
+        Path path = ImmutablePath.make();
+        // far more objects than bits in a word, where every four objects share a hash
+        for (int i = 0; i < 1000; i++) {
+            path = path.extend(new CountingObject(i, i / 4, hashCodes, comparisons), Collections.emptySet());
+            assertTrue(path.isSimple());
+        }
+        assertEquals(1000, hashCodes.get());
+        assertTrue(comparisons.get() <= 1000 * 3);
+
+        // paths that split from a resolved prefix only resolve their own objects
+        hashCodes.set(0);
+        comparisons.set(0);
+        final Path simple = path.clone().extend(new CountingObject(1000, 1000, hashCodes, comparisons), Collections.emptySet());
+        final Path cyclic = path.clone().extend(new CountingObject(10, 10 / 4, hashCodes, comparisons), Collections.emptySet());
+        assertTrue(simple.isSimple());
+        assertFalse(cyclic.isSimple());
+        assertFalse(cyclic.extend(new CountingObject(1001, 1001, hashCodes, comparisons), Collections.emptySet()).isSimple());
+        assertEquals(2, hashCodes.get());
+        assertTrue(comparisons.get() <= 4);
+    }
+
+    private static final class CountingObject {
+        private final int id;
+        private final int hash;
+        private final AtomicInteger hashCodes;
+        private final AtomicInteger comparisons;
+
+        private CountingObject(final int id, final int hash, final AtomicInteger hashCodes, final AtomicInteger comparisons) {
+            this.id = id;
+            this.hash = hash;
+            this.hashCodes = hashCodes;
+            this.comparisons = comparisons;
+        }
+
+        @Override
+        public int hashCode() {
+            this.hashCodes.incrementAndGet();
+            return this.hash;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            this.comparisons.incrementAndGet();
+            return other instanceof CountingObject && ((CountingObject) other).id == this.id;
+        }
+    }
 }
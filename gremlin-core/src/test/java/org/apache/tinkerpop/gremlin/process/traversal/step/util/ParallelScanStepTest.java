@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.step.util;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.finalization.ParallelScanStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalInterruptedException;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.util.empty.EmptyGraph;
+import org.apache.tinkerpop.gremlin.structure.util.reference.ReferenceVertex;
+import org.junit.Test;
+
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ParallelScanStepTest {
+
+    @Test
+    public void shouldScanAllElementsOfStartStep() {
+        final Traversal.Admin<Vertex, Long> traversal = parallelTraversal(new ParallelScanStrategy(16, 2));
+        final AtomicLong scanned = new AtomicLong();
+        ((GraphStep<Vertex, Vertex>) traversal.getStartStep()).setIteratorSupplier(() -> vertices(scanned, 10_000));
+        assertEquals(10_000L, traversal.next().longValue());
+        assertEquals(10_000L, scanned.get());
+        assertEquals(Math.min(2, Runtime.getRuntime().availableProcessors()), ((ParallelScanStep<?, ?>) traversal.getSteps().get(1)).getParallelism());
+    }
+
+    @Test
+    public void shouldCapParallelismAtProcessors() {
+        final int processors = Runtime.getRuntime().availableProcessors();
+        final Traversal.Admin<Vertex, Long> traversal = parallelTraversal(new ParallelScanStrategy(16, processors + 1000));
+        final AtomicLong scanned = new AtomicLong();
+        ((GraphStep<Vertex, Vertex>) traversal.getStartStep()).setIteratorSupplier(() -> vertices(scanned, 10_000));
+        assertEquals(10_000L, traversal.next().longValue());
+        assertEquals(processors, ((ParallelScanStep<?, ?>) traversal.getSteps().get(1)).getParallelism());
+    }
+
+    @Test
+    public void shouldScanAllElementsWithSingleThread() {
+        final Traversal.Admin<Vertex, Long> traversal = parallelTraversal(new ParallelScanStrategy(16, 1));
+        final AtomicLong scanned = new AtomicLong();
+        ((GraphStep<Vertex, Vertex>) traversal.getStartStep()).setIteratorSupplier(() -> vertices(scanned, 10_000));
+        assertEquals(10_000L, traversal.next().longValue());
+    }
+
+    @Test
+    public void shouldStopScanningWhenInterrupted() throws Exception {
+        final Traversal.Admin<Vertex, Long> traversal = parallelTraversal(new ParallelScanStrategy(16, 2));
+        final AtomicLong scanned = new AtomicLong();
+        ((GraphStep<Vertex, Vertex>) traversal.getStartStep()).setIteratorSupplier(() -> vertices(scanned, Long.MAX_VALUE));
+
+        final AtomicBoolean interrupted = new AtomicBoolean(false);
+        final Thread thread = new Thread(() -> {
+            try {
+                traversal.hasNext();
+            } catch (final TraversalInterruptedException tie) {
+                interrupted.set(true);
+            }
+        });
+        thread.start();
+        while (scanned.get() < 100_000) {
+            Thread.sleep(10);
+        }
+        thread.interrupt();
+        thread.join(10_000);
+
+        assertFalse(thread.isAlive());
+        assertTrue(interrupted.get());
+
+        // the partitions in the pool stop scanning as well
+        Thread.sleep(100);
+        final long stopped = scanned.get();
+        Thread.sleep(200);
+        assertEquals(stopped, scanned.get());
+    }
+
+    private static Traversal.Admin<Vertex, Long> parallelTraversal(final ParallelScanStrategy strategy) {
+        final GraphTraversalSource g = EmptyGraph.instance().traversal().withStrategies(strategy);
+        final Traversal.Admin<Vertex, Long> traversal = g.V().count().asAdmin();
+        traversal.applyStrategies();
+        return traversal;
+    }
+
+    private static Iterator<Vertex> vertices(final AtomicLong scanned, final long count) {
+        return new Iterator<Vertex>() {
+            @Override
+            public boolean hasNext() {
+                return scanned.get() < count;
+            }
+
+            @Override
+            public Vertex next() {
+                return new ReferenceVertex(scanned.incrementAndGet(), Vertex.DEFAULT_LABEL);
+            }
+        };
+    }
+}
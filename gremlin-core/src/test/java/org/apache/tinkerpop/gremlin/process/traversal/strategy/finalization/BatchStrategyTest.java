@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.strategy.finalization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategies;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Batchable;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.FilterStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.HasStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.BatchStep;
+import org.apache.tinkerpop.gremlin.process.traversal.util.DefaultTraversalStrategies;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BatchStrategyTest {
+
+    private static Traversal.Admin<?, ?> applyBatchStrategy(final Traversal<?, ?> traversal, final int batchSize) {
+        final TraversalStrategies strategies = new DefaultTraversalStrategies();
+        strategies.addStrategies(new BatchStrategy(batchSize));
+        traversal.asAdmin().setStrategies(strategies);
+        traversal.asAdmin().applyStrategies();
+        return traversal.asAdmin();
+    }
+
+    @Test
+    public void shouldFoldChainOfBatchableSteps() {
+        final Traversal.Admin<?, ?> traversal = applyBatchStrategy(__.V().has("age", P.gt(30)).out().values("name"), 16);
+        assertEquals(2, traversal.getSteps().size());
+        assertTrue(traversal.getStartStep() instanceof GraphStep);
+        final BatchStep<?, ?> batchStep = (BatchStep<?, ?>) traversal.getEndStep();
+        assertEquals(3, batchStep.getBatchedSteps().size());
+        assertEquals(16, batchStep.getBatchSize());
+    }
+
+    @Test
+    public void shouldNotFoldLabeledSteps() {
+        final Traversal.Admin<?, ?> traversal = applyBatchStrategy(__.V().has("age", P.gt(30)).as("a").out().values("name"), 16);
+        assertEquals(3, traversal.getSteps().size());
+        assertTrue(traversal.getSteps().get(1) instanceof HasStep);
+        assertEquals(2, ((BatchStep<?, ?>) traversal.getEndStep()).getBatchedSteps().size());
+    }
+
+    @Test
+    public void shouldNotFoldSingleStep() {
+        final Traversal.Admin<?, ?> traversal = applyBatchStrategy(__.V().out().count().is(P.gt(1)), 16);
+        assertFalse(TraversalHelper.hasStepOfClass(BatchStep.class, traversal));
+    }
+
+    @Test
+    public void shouldProduceSameResultsAsUnbatchedTraversal() {
+        final Object[] numbers = IntStream.range(0, 1000).boxed().toArray();
+        final List<Object> expected = __.inject(numbers).is(P.gt(10)).is(P.lt(900)).toList();
+        final Traversal.Admin<?, ?> traversal = applyBatchStrategy(__.inject(numbers).is(P.gt(10)).is(P.lt(900)), 7);
+        assertTrue(TraversalHelper.hasStepOfClass(BatchStep.class, traversal));
+        assertEquals(889, expected.size());
+        assertEquals(expected, traversal.toList());
+    }
+
+    @Test
+    public void shouldGrowBatchesFromSingleTraverser() {
+        final AtomicInteger pulled = new AtomicInteger();
+        final Object[] numbers = IntStream.range(0, 1000).boxed().toArray();
+        final Traversal.Admin<?, ?> traversal = applyBatchStrategy(
+                __.inject(numbers).sideEffect(t -> pulled.incrementAndGet()).is(P.gte(0)).is(P.lt(1000)), 1024);
+        assertTrue(TraversalHelper.hasStepOfClass(BatchStep.class, traversal));
+        assertEquals(0, traversal.next());
+        assertEquals(1, pulled.get());
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5), traversal.next(5));
+        assertEquals(7, pulled.get());
+    }
+
+    @Test
+    public void shouldCloseBatchedSteps() throws Exception {
+        final Traversal.Admin<Integer, Integer> traversal = __.inject(1, 2, 3).asAdmin();
+        final CloseableStep first = new CloseableStep(traversal);
+        final CloseableStep second = new CloseableStep(traversal);
+        traversal.addStep(first).addStep(second);
+        applyBatchStrategy(traversal, 16);
+        assertTrue(TraversalHelper.hasStepOfClass(BatchStep.class, traversal));
+        assertEquals(Arrays.asList(1, 2, 3), traversal.toList());
+        traversal.close();
+        assertTrue(first.closed);
+        assertTrue(second.closed);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotAllowInvalidBatchSize() {
+        new BatchStrategy(0);
+    }
+
+    private static final class CloseableStep extends FilterStep<Integer> implements Batchable<Integer, Integer>, AutoCloseable {
+
+        private boolean closed = false;
+
+        private CloseableStep(final Traversal.Admin traversal) {
+            super(traversal);
+        }
+
+        @Override
+        protected boolean filter(final Traverser.Admin<Integer> traverser) {
+            return true;
+        }
+
+        @Override
+        public void processBatch(final List<Traverser.Admin<Integer>> starts, final List<Traverser.Admin<Integer>> ends) {
+            ends.addAll(starts);
+        }
+
+        @Override
+        public void close() {
+            this.closed = true;
+        }
+    }
+}
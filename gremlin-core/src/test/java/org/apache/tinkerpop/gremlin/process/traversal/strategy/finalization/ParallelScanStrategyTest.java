@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.strategy.finalization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategies;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.ParallelScanStep;
+import org.apache.tinkerpop.gremlin.process.traversal.util.DefaultTraversalStrategies;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Arrays;
+
+import static org.apache.tinkerpop.gremlin.process.traversal.P.gt;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(Parameterized.class)
+public class ParallelScanStrategyTest {
+
+    @Parameterized.Parameter(value = 0)
+    public Traversal original;
+
+    @Parameterized.Parameter(value = 1)
+    public int parallelSteps;
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Iterable<Object[]> generateTestParameters() {
+
+        return Arrays.asList(new Object[][]{
+                {__.V().count(), 1},
+                {__.V().has("age", gt(30)).values("age").sum(), 3},
+                {__.V().out().out().groupCount().by(T.label), 3},
+                {__.V().outE().inV().values("weight").mean(), 4},
+                {__.V().where(__.out().count().is(gt(1))).values("age").max(), 3},
+                {__.V().values("age").min().as("a"), 2},
+                {__.V().as("a").out().where(__.as("a").out()).count(), 3},
+                {__.V().out().count().is(gt(1)), 2},
+                // not parallelized
+                {__.V().values("name").fold(), 0},
+                {__.V().dedup().count(), 0},
+                {__.V().limit(10).count(), 0},
+                {__.V().map(t -> t.get()).count(), 0},
+                {__.V().filter(__.aggregate("x")).count(), 0},
+                {__.V().coin(0.5).count(), 0},
+                {__.V().out().order().count(), 0},
+                {__.V().out(), 0},
+                {__.inject(1, 2, 3).is(gt(1)).count(), 0},
+                {__.out().count(), 0}
+        });
+    }
+
+    @Test
+    public void doTest() {
+        final Traversal.Admin<?, ?> traversal = this.original.asAdmin();
+        final TraversalStrategies strategies = new DefaultTraversalStrategies();
+        strategies.addStrategies(new ParallelScanStrategy());
+        traversal.setStrategies(strategies);
+        traversal.applyStrategies();
+
+        if (0 == this.parallelSteps) {
+            assertFalse(TraversalHelper.hasStepOfClass(ParallelScanStep.class, traversal));
+        } else {
+            assertTrue(traversal.getStartStep() instanceof GraphStep);
+            final ParallelScanStep<?, ?> parallelScanStep = (ParallelScanStep<?, ?>) traversal.getSteps().get(1);
+            assertEquals(this.parallelSteps, parallelScanStep.getGlobalChildren().get(0).getSteps().size());
+            assertEquals(ParallelScanStrategy.DEFAULT_PARTITION_SIZE, parallelScanStep.getPartitionSize());
+            assertEquals(ParallelScanStrategy.DEFAULT_PARALLELISM, parallelScanStep.getParallelism());
+        }
+    }
+}
@@ -21,12 +21,16 @@ package org.apache.tinkerpop.gremlin.process.traversal.util;
 import org.apache.tinkerpop.gremlin.jsr223.JavaTranslator;
 import org.apache.tinkerpop.gremlin.process.traversal.Bindings;
 import org.apache.tinkerpop.gremlin.process.traversal.Bytecode;
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.decoration.OptionsStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.verification.ReadOnlyStrategy;
+import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
 import org.apache.tinkerpop.gremlin.structure.util.empty.EmptyGraph;
 import org.apache.tinkerpop.gremlin.util.function.Lambda;
 import org.junit.Test;
@@ -38,6 +42,7 @@ import java.util.stream.Stream;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 
 /**
  * @author Stephen Mallette (http://stephen.genoprime.com)
@@ -94,4 +99,29 @@ public class BytecodeHelperTest {
                 bc, i -> Stream.of(i.getArguments()).anyMatch(o -> o instanceof Bytecode.Binding));
         assertEquals(0, filteredAfterRemoved.getStepInstructions().size());
     }
+
+    @Test
+    public void shouldStripValuesFromFingerprint() {
+        assertEquals("withStrategies(ReadOnlyStrategy).V(?).has(name,?).where(__.out(knows)).order().by(age,Order.desc).by(T.label)",
+                BytecodeHelper.getFingerprint(g.withStrategies(ReadOnlyStrategy.instance()).V(1).has("name", "marko").
+                        where(__.out("knows")).order().by("age", Order.desc).by(T.label).asAdmin().getBytecode()));
+        assertEquals("V().has(age,and(gt(?),lt(?))).map(lambda:gremlin-groovy)",
+                BytecodeHelper.getFingerprint(g.V().has("age", P.gt(10).and(P.lt(20))).map(Lambda.function("it.get()")).asAdmin().getBytecode()));
+        assertEquals("V().has(T.label,person).has(person,name,?).hasId(?).values(age).is(?).limit(10)",
+                BytecodeHelper.getFingerprint(g.V().has(T.label, "person").has("person", "name", "marko").hasId(1).
+                        values("age").is(29).limit(10).asAdmin().getBytecode()));
+        assertEquals("addV(person).property(Cardinality.list,name,?).property(age,?,since,?)",
+                BytecodeHelper.getFingerprint(g.addV("person").property(VertexProperty.Cardinality.list, "name", "marko").
+                        property("age", 29, "since", 2010).asAdmin().getBytecode()));
+    }
+
+    @Test
+    public void shouldShareFingerprintForSameShape() {
+        assertEquals(BytecodeHelper.getFingerprint(g.V(1).out("knows").has("name", "marko").asAdmin().getBytecode()),
+                BytecodeHelper.getFingerprint(g.V(6).out("knows").has("name", "peter").asAdmin().getBytecode()));
+        assertNotEquals(BytecodeHelper.getFingerprint(g.V(1).out("knows").has("name", "marko").asAdmin().getBytecode()),
+                BytecodeHelper.getFingerprint(g.V(1).out("created").has("age", 29).asAdmin().getBytecode()));
+        assertNotEquals(BytecodeHelper.getFingerprint(g.V(1).out("knows").asAdmin().getBytecode()),
+                BytecodeHelper.getFingerprint(g.V(1).in("knows").asAdmin().getBytecode()));
+    }
 }
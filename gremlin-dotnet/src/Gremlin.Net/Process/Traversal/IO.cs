@@ -34,6 +34,8 @@ namespace Gremlin.Net.Process.Traversal
     public class IO
     {
         
+            public const String graphbinary = "graphbinary";
+        
             public const String graphml = "graphml";
         
             public const String graphson = "graphson";
@@ -0,0 +1,48 @@
+﻿#region License
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+#endregion
+
+namespace Gremlin.Net.Process.Traversal.Strategy.Finalization
+{
+    /// <summary>
+    ///     Folds linear chains of batchable steps such as has(), is(), out() and values() into a step which passes
+    ///     traversers through the chain in batches rather than one at a time.
+    /// </summary>
+    public class BatchStrategy : AbstractTraversalStrategy
+    {
+        /// <summary>
+        ///     Initializes a new instance of the <see cref="BatchStrategy" /> class.
+        /// </summary>
+        public BatchStrategy()
+        {
+        }
+
+        /// <summary>
+        ///     Initializes a new instance of the <see cref="BatchStrategy" /> class.
+        /// </summary>
+        /// <param name="batchSize">Specifies the maximum number of traversers in a batch.</param>
+        public BatchStrategy(int batchSize)
+        {
+            Configuration["batchSize"] = batchSize;
+        }
+    }
+}
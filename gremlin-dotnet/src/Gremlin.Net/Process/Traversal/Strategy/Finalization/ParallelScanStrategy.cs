@@ -0,0 +1,52 @@
+﻿#region License
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+#endregion
+
+namespace Gremlin.Net.Process.Traversal.Strategy.Finalization
+{
+    /// <summary>
+    ///     Evaluates a traversal that scans all vertices or edges up to a reducing barrier such as count() or sum()
+    ///     in partitions on several threads and merges their partial results.
+    /// </summary>
+    public class ParallelScanStrategy : AbstractTraversalStrategy
+    {
+        /// <summary>
+        ///     Initializes a new instance of the <see cref="ParallelScanStrategy" /> class.
+        /// </summary>
+        public ParallelScanStrategy()
+        {
+        }
+
+        /// <summary>
+        ///     Initializes a new instance of the <see cref="ParallelScanStrategy" /> class.
+        /// </summary>
+        /// <param name="partitionSize">Specifies the number of elements above which a partition is split further.</param>
+        /// <param name="parallelism">Specifies the number of threads that a scan may occupy.</param>
+        public ParallelScanStrategy(int? partitionSize = null, int? parallelism = null)
+        {
+            if (partitionSize != null)
+                Configuration["partitionSize"] = partitionSize;
+            if (parallelism != null)
+                Configuration["parallelism"] = parallelism;
+        }
+    }
+}
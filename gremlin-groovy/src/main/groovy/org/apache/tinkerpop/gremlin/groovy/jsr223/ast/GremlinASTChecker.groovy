@@ -18,14 +18,22 @@
  */
 package org.apache.tinkerpop.gremlin.groovy.jsr223.ast
 
+import org.codehaus.groovy.ast.ASTNode
+import org.codehaus.groovy.ast.ClassNode
 import org.codehaus.groovy.ast.CodeVisitorSupport
 import org.codehaus.groovy.ast.builder.AstBuilder
 import org.codehaus.groovy.ast.expr.ArgumentListExpression
+import org.codehaus.groovy.ast.expr.AttributeExpression
+import org.codehaus.groovy.ast.expr.ClosureExpression
 import org.codehaus.groovy.ast.expr.ConstantExpression
 import org.codehaus.groovy.ast.expr.Expression
+import org.codehaus.groovy.ast.expr.GStringExpression
+import org.codehaus.groovy.ast.expr.MapEntryExpression
 import org.codehaus.groovy.ast.expr.MethodCallExpression
+import org.codehaus.groovy.ast.expr.MethodPointerExpression
 import org.codehaus.groovy.ast.expr.PropertyExpression
 import org.codehaus.groovy.ast.expr.VariableExpression
+import org.codehaus.groovy.ast.stmt.BlockStatement
 import org.codehaus.groovy.control.CompilePhase
 
 /**
@@ -41,19 +49,48 @@ final class GremlinASTChecker {
      * Parses a Gremlin script and extracts a {@code Result} containing properties that are relevant to the checker.
      */
     static Result parse(String gremlin) {
+        return parse(gremlin, false)
+    }
+
+    /**
+     * Parses a Gremlin script and extracts a {@code Result} containing properties that are relevant to the checker
+     * and, if {@code normalize} is {@code true}, the script with its literals replaced by variables.
+     */
+    static Result parse(String gremlin, boolean normalize) {
         if (gremlin.empty) return EMPTY_RESULT
 
         def ast = astBuilder.buildFromString(CompilePhase.CONVERSION, false, gremlin)
         def tocheck = new TimeoutCheck()
         ast[0].visit(tocheck)
-        return new Result(tocheck.total)
+        return normalize ? LiteralCollector.normalize(gremlin, ast, tocheck.total) : new Result(tocheck.total)
     }
 
     static class Result {
         private final long timeout
+        private final String normalizedScript
+        private final Map<String, Object> parameters
 
-        Result(long timeout) {
+        Result(long timeout, String normalizedScript = null, Map<String, Object> parameters = Collections.emptyMap()) {
             this.timeout = timeout
+            this.normalizedScript = normalizedScript
+            this.parameters = parameters
+        }
+
+        /**
+         * Gets the script with its string and number literals replaced by variables or empty if the script was not
+         * normalized because normalization was not requested, there was no literal to replace or the script contains
+         * constructs that can not refer to variables of the bindings, i.e. class or method declarations.
+         */
+        Optional<String> getNormalizedScript() {
+            Optional.ofNullable(normalizedScript)
+        }
+
+        /**
+         * Gets the values of the literals keyed by the names of the variables that replaced them in the normalized
+         * script.
+         */
+        Map<String, Object> getParameters() {
+            parameters
         }
 
         /**
@@ -111,6 +148,111 @@ final class GremlinASTChecker {
                 return ((VariableExpression) expr).text
         }
     }
+
+    /**
+     * Collects the string and number literals that are values, as opposed to method and property names or map keys,
+     * and replaces them in the script with variables. Literals in closures and {@code GString} instances are left as
+     * they are because they may be evaluated after the variables are gone from the bindings.
+     */
+    static class LiteralCollector extends CodeVisitorSupport {
+
+        private static final String PREFIX = "_lit"
+
+        def literals = []
+
+        static Result normalize(String gremlin, List<ASTNode> ast, long timeout) {
+            // scripts that declare classes or methods are left alone as neither can refer to the bindings
+            if (!(ast[0] instanceof BlockStatement) || ast.size() != 2 ||
+                    ((ClassNode) ast[1]).methods.any { it.name != "main" && it.name != "run" })
+                return new Result(timeout)
+
+            def collector = new LiteralCollector()
+            ast[0].visit(collector)
+            if (collector.literals.empty) return new Result(timeout)
+
+            // an offset for the start of each line to translate positions of the AST into positions of the script
+            def lineOffsets = [0]
+            gremlin.eachWithIndex { c, i -> if (c == '\n') lineOffsets << i + 1 }
+
+            def prefix = PREFIX
+            while (gremlin.contains(prefix)) prefix = "_" + prefix
+
+            def literals = collector.literals.sort { a, b -> a.lineNumber <=> b.lineNumber ?: a.columnNumber <=> b.columnNumber }
+            def parameters = new LinkedHashMap<String, Object>()
+            def normalized = new StringBuilder(gremlin.length())
+            def position = 0
+            for (ConstantExpression literal : literals) {
+                def start = lineOffsets[literal.lineNumber - 1] + literal.columnNumber - 1
+                def end = lineOffsets[literal.lastLineNumber - 1] + literal.lastColumnNumber - 1
+                if (start < position || end > gremlin.length() || !isLiteralText(gremlin.substring(start, end), literal.value))
+                    return new Result(timeout)
+
+                def name = prefix + parameters.size()
+                parameters.put(name, literal.value)
+                normalized.append(gremlin, position, start)
+                // keep the variable from merging with an adjacent identifier as in "return'x'"
+                if (start > 0 && Character.isJavaIdentifierPart(gremlin.charAt(start - 1))) normalized.append(' ')
+                normalized.append(name)
+                if (end < gremlin.length() && Character.isJavaIdentifierPart(gremlin.charAt(end))) normalized.append(' ')
+                position = end
+            }
+            normalized.append(gremlin, position, gremlin.length())
+
+            return new Result(timeout, normalized.toString(), parameters)
+        }
+
+        private static boolean isLiteralText(String text, Object value) {
+            if (text.empty) return false
+            def first = text.charAt(0)
+            return value instanceof String ?
+                    first == '\'' as char || first == '"' as char || first == '/' as char || first == '$' as char :
+                    Character.isDigit(first) || first == '-' as char
+        }
+
+        @Override
+        void visitConstantExpression(ConstantExpression expression) {
+            // constants without a position are not part of the script text
+            if ((expression.value instanceof String || expression.value instanceof Number) && expression.lineNumber > 0)
+                literals << expression
+        }
+
+        @Override
+        void visitMethodCallExpression(MethodCallExpression call) {
+            call.objectExpression.visit(this)
+            if (!(call.method instanceof ConstantExpression)) call.method.visit(this)
+            call.arguments.visit(this)
+        }
+
+        @Override
+        void visitPropertyExpression(PropertyExpression expression) {
+            expression.objectExpression.visit(this)
+            if (!(expression.property instanceof ConstantExpression)) expression.property.visit(this)
+        }
+
+        @Override
+        void visitAttributeExpression(AttributeExpression expression) {
+            visitPropertyExpression(expression)
+        }
+
+        @Override
+        void visitMethodPointerExpression(MethodPointerExpression expression) {
+            expression.expression.visit(this)
+        }
+
+        @Override
+        void visitMapEntryExpression(MapEntryExpression expression) {
+            if (!(expression.keyExpression instanceof ConstantExpression)) expression.keyExpression.visit(this)
+            expression.valueExpression.visit(this)
+        }
+
+        @Override
+        void visitGStringExpression(GStringExpression expression) {
+        }
+
+        @Override
+        void visitClosureExpression(ClosureExpression expression) {
+        }
+    }
 }
 
 //import org.apache.tinkerpop.gremlin.groovy.jsr223.ast.GremlinASTChecker
@@ -26,7 +26,9 @@ import org.apache.tinkerpop.gremlin.process.traversal.strategy.decoration.Option
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.decoration.PartitionStrategy
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.decoration.SeedStrategy
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.decoration.SubgraphStrategy
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.finalization.BatchStrategy
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.finalization.MatchAlgorithmStrategy
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.finalization.ParallelScanStrategy
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.verification.EdgeLabelVerificationStrategy
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.verification.ReservedKeysVerificationStrategy
 
@@ -59,12 +61,15 @@ class StrategyLoader {
 
         // finalization
         MatchAlgorithmStrategy.metaClass.constructor << { Map conf -> MatchAlgorithmStrategy.create(new MapConfiguration(conf)) }
+        BatchStrategy.metaClass.constructor << { Map conf -> BatchStrategy.create(new MapConfiguration(conf)) }
+        ParallelScanStrategy.metaClass.constructor << { Map conf -> ParallelScanStrategy.create(new MapConfiguration(conf)) }
         // # ProfileStrategy is singleton/internal
         // # ReferenceElementStrategy is singleton/internal
         // # ComputerFinalizationStrategy is singleton/internal
 
         // optimization
         // # AdjacentToIncidentStrategy is singleton/internal
+        // # CostBasedFilterRankingStrategy is singleton
         // # CountStrategy is singleton/internal
         // # EarlyLimitStrategy is singleton/internal
         // # FilterRankingStrategy is singleton/internal
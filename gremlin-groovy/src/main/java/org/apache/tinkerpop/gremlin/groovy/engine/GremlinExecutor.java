@@ -57,6 +57,7 @@ import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -92,6 +93,17 @@ public class GremlinExecutor implements AutoCloseable {
     private final BiConsumer<Bindings, Throwable> afterFailure;
     private final boolean suppliedExecutor;
     private final boolean suppliedScheduledExecutor;
+    private final boolean normalizeScripts;
+
+    /**
+     * Counts the scripts that were evaluated in their normalized form.
+     */
+    private final AtomicLong normalizationHitCount = new AtomicLong(0L);
+
+    /**
+     * Counts the scripts that were evaluated as submitted because they could not be normalized.
+     */
+    private final AtomicLong normalizationMissCount = new AtomicLong(0L);
 
     private GremlinExecutor(final Builder builder, final boolean suppliedExecutor,
                             final boolean suppliedScheduledExecutor) {
@@ -105,6 +117,7 @@ public class GremlinExecutor implements AutoCloseable {
         this.plugins = builder.plugins;
         this.evaluationTimeout = builder.evaluationTimeout;
         this.globalBindings = builder.globalBindings;
+        this.normalizeScripts = builder.normalizeScripts;
 
         this.gremlinScriptEngineManager = new CachedGremlinScriptEngineManager();
         initializeGremlinScriptEngineManager();
@@ -258,18 +271,43 @@ public class GremlinExecutor implements AutoCloseable {
 
         // override the timeout if the lifecycle has a value assigned. if the script contains with(timeout)
         // options then allow that value to override what's provided on the lifecycle
-        final Optional<Long> timeoutDefinedInScript = GremlinASTChecker.parse(script).getTimeout();
+        final boolean normalize = normalizeScripts && lang.equals("gremlin-groovy");
+        final GremlinASTChecker.Result checked = GremlinASTChecker.parse(script, normalize);
+        final Optional<Long> timeoutDefinedInScript = checked.getTimeout();
         final long scriptEvalTimeOut = timeoutDefinedInScript.orElse(
                 lifeCycle.getEvaluationTimeoutOverride().orElse(evaluationTimeout));
 
+        // evaluate scripts that only differ in their literals as the same script so that they share a compiled class.
+        // the generated variables must not shadow existing bindings
+        final Map<String, Object> parameters = checked.getParameters();
+        final boolean normalized = normalize && checked.getNormalizedScript().isPresent() &&
+                parameters.keySet().stream().noneMatch(bindings::containsKey);
+        final String scriptToEval = normalized ? checked.getNormalizedScript().get() : script;
+        if (normalized)
+            normalizationHitCount.incrementAndGet();
+        else if (normalize)
+            normalizationMissCount.incrementAndGet();
+
         final CompletableFuture<Object> evaluationFuture = new CompletableFuture<>();
         final FutureTask<Void> evalFuture = new FutureTask<>(() -> {
             try {
                 lifeCycle.getBeforeEval().orElse(beforeEval).accept(bindings);
 
-                logger.debug("Evaluating script - {} - in thread [{}]", script, Thread.currentThread().getName());
+                logger.debug("Evaluating script - {} - in thread [{}]", scriptToEval, Thread.currentThread().getName());
 
-                final Object o = gremlinScriptEngineManager.getEngineByName(lang).eval(script, bindings);
+                final Object o;
+                if (!normalized)
+                    o = gremlinScriptEngineManager.getEngineByName(lang).eval(script, bindings);
+                else {
+                    // the generated variables are removed after evaluation so that callbacks, like those of sessions
+                    // that keep the bindings, never see them
+                    bindings.putAll(parameters);
+                    try {
+                        o = gremlinScriptEngineManager.getEngineByName(lang).eval(scriptToEval, bindings);
+                    } finally {
+                        bindings.keySet().removeAll(parameters.keySet());
+                    }
+                }
 
                 // apply a transformation before sending back the result - useful when trying to force serialization
                 // in the same thread that the eval took place given ThreadLocal nature of graphs as well as some
@@ -351,6 +389,22 @@ public class GremlinExecutor implements AutoCloseable {
         return gremlinScriptEngineManager.getEngineByName(lang).eval(bytecode, bindings, traversalSource);
     }
 
+    /**
+     * Gets the number of scripts that were evaluated with their literals replaced by bindings. Always zero unless
+     * {@link Builder#normalizeScripts(boolean)} is enabled.
+     */
+    public long getNormalizationHitCount() {
+        return normalizationHitCount.longValue();
+    }
+
+    /**
+     * Gets the number of scripts that were evaluated as submitted despite {@link Builder#normalizeScripts(boolean)}
+     * being enabled, because they had no literals or declared classes or methods.
+     */
+    public long getNormalizationMissCount() {
+        return normalizationMissCount.longValue();
+    }
+
     public GremlinScriptEngineManager getScriptEngineManager() {
         return this.gremlinScriptEngineManager;
     }
@@ -482,6 +536,7 @@ public class GremlinExecutor implements AutoCloseable {
         private BiConsumer<Bindings, Throwable> afterFailure = (b, e) -> {
         };
         private Bindings globalBindings = new ConcurrentBindings();
+        private boolean normalizeScripts = false;
 
         private Builder() {
         }
@@ -570,6 +625,19 @@ public class GremlinExecutor implements AutoCloseable {
             return this;
         }
 
+        /**
+         * Determines if string and number literals of "gremlin-groovy" scripts are replaced by bindings before
+         * evaluation. Scripts that only differ in their literals, like {@code g.V(1).out()} and {@code g.V(2).out()},
+         * then share the same compiled class in the {@code ScriptEngine} rather than each being compiled and cached.
+         * Literals in closures, in {@code GString} instances and scripts which declare classes or methods are left
+         * as they are. This should not be enabled with static compilation or type checking as those would no longer
+         * know the types of the literals. It is disabled by default.
+         */
+        public Builder normalizeScripts(final boolean normalizeScripts) {
+            this.normalizeScripts = normalizeScripts;
+            return this;
+        }
+
         public GremlinExecutor create() {
             final BasicThreadFactory threadFactory = new BasicThreadFactory.Builder().namingPattern("gremlin-executor-default-%d").build();
 
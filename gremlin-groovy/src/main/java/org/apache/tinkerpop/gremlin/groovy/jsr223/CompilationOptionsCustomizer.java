@@ -30,11 +30,15 @@ class CompilationOptionsCustomizer implements Customizer {
     private final long expectedCompilationTime;
     private final String cacheSpecification;
     private final boolean globalFunctionCacheEnabled;
+    private final String classCacheDirectory;
+    private final int classCacheMaxSize;
 
     private CompilationOptionsCustomizer(final Builder builder) {
         this.expectedCompilationTime = builder.expectedCompilationTime;
         this.cacheSpecification = builder.cacheSpecification;
         this.globalFunctionCacheEnabled = builder.globalFunctionCacheEnabled;
+        this.classCacheDirectory = builder.classCacheDirectory;
+        this.classCacheMaxSize = builder.classCacheMaxSize;
     }
 
     public long getExpectedCompilationTime() {
@@ -49,6 +53,21 @@ class CompilationOptionsCustomizer implements Customizer {
         return globalFunctionCacheEnabled;
     }
 
+    /**
+     * Gets the directory of the persistent class cache or {@code null} if compiled classes are only held in memory.
+     */
+    public String getClassCacheDirectory() {
+        return classCacheDirectory;
+    }
+
+    /**
+     * Gets the maximum number of scripts the persistent class cache holds before the least recently used ones are
+     * removed.
+     */
+    public int getClassCacheMaxSize() {
+        return classCacheMaxSize;
+    }
+
     public static Builder build() {
         return new Builder();
     }
@@ -57,6 +76,8 @@ class CompilationOptionsCustomizer implements Customizer {
         private long expectedCompilationTime;
         private String cacheSpecification = "softValues";
         private boolean globalFunctionCacheEnabled = true;
+        private String classCacheDirectory = null;
+        private int classCacheMaxSize = 10000;
 
         public Builder setExpectedCompilationTime(final long expectedCompilationTime) {
             this.expectedCompilationTime = expectedCompilationTime;
@@ -73,6 +94,17 @@ class CompilationOptionsCustomizer implements Customizer {
             return this;
         }
 
+        public Builder setClassCacheDirectory(final String classCacheDirectory) {
+            this.classCacheDirectory = classCacheDirectory;
+            return this;
+        }
+
+        public Builder setClassCacheMaxSize(final int classCacheMaxSize) {
+            if (classCacheMaxSize <= 0) throw new IllegalArgumentException("classCacheMaxSize must be greater than zero");
+            this.classCacheMaxSize = classCacheMaxSize;
+            return this;
+        }
+
         public CompilationOptionsCustomizer create() {
             return new CompilationOptionsCustomizer(this);
         }
@@ -19,9 +19,14 @@
 package org.apache.tinkerpop.gremlin.groovy.jsr223;
 
 import groovy.lang.GroovyClassLoader;
+import org.codehaus.groovy.ast.ClassNode;
+import org.codehaus.groovy.control.CompilationUnit;
 import org.codehaus.groovy.control.CompilerConfiguration;
+import org.codehaus.groovy.control.SourceUnit;
 import org.codehaus.groovy.util.ReferenceBundle;
 
+import java.security.AccessController;
+import java.security.PrivilegedAction;
 import java.util.Map;
 import java.util.concurrent.ConcurrentMap;
 
@@ -35,11 +40,45 @@ import java.util.concurrent.ConcurrentMap;
 class GremlinGroovyClassLoader extends GroovyClassLoader {
     private final ManagedConcurrentValueMap<String, Class> classSoftCache;
 
+    /**
+     * Collects the bytecode of the classes generated by {@link #parseClass(String, String, Map)} on the current thread.
+     */
+    private final ThreadLocal<Map<String, byte[]>> generatedClasses = new ThreadLocal<>();
+
     public GremlinGroovyClassLoader(final ClassLoader parent, final CompilerConfiguration conf) {
         super(parent, conf);
         classSoftCache = new ManagedConcurrentValueMap<>(ReferenceBundle.getSoftBundle());
     }
 
+    /**
+     * Parses the script like {@link #parseClass(String, String)} and also puts the bytecode of every class that the
+     * script was compiled to into the supplied {@code Map} keyed by class name.
+     */
+    public Class parseClass(final String text, final String fileName, final Map<String, byte[]> classes) {
+        this.generatedClasses.set(classes);
+        try {
+            return parseClass(text, fileName);
+        } finally {
+            this.generatedClasses.remove();
+        }
+    }
+
+    @Override
+    protected ClassCollector createCollector(final CompilationUnit unit, final SourceUnit su) {
+        final Map<String, byte[]> classes = this.generatedClasses.get();
+        if (null == classes)
+            return super.createCollector(unit, su);
+
+        final InnerLoader innerLoader = AccessController.doPrivileged((PrivilegedAction<InnerLoader>) () -> new InnerLoader(this));
+        return new ClassCollector(innerLoader, unit, su) {
+            @Override
+            protected Class createClass(final byte[] code, final ClassNode classNode) {
+                classes.put(classNode.getName(), code);
+                return super.createClass(code, classNode);
+            }
+        };
+    }
+
     @Override
     protected void removeClassCacheEntry(final String name) {
         this.classSoftCache.remove(name);
@@ -24,6 +24,7 @@ import com.github.benmanes.caffeine.cache.LoadingCache;
 import groovy.lang.Binding;
 import groovy.lang.Closure;
 import groovy.lang.DelegatingMetaClass;
+import groovy.lang.GroovySystem;
 import groovy.lang.MetaClass;
 import groovy.lang.MissingMethodException;
 import groovy.lang.MissingPropertyException;
@@ -42,6 +43,7 @@ import org.apache.tinkerpop.gremlin.process.traversal.Bytecode;
 import org.apache.tinkerpop.gremlin.process.traversal.Translator;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalSource;
+import org.apache.tinkerpop.gremlin.util.Gremlin;
 import org.codehaus.groovy.ast.ClassHelper;
 import org.codehaus.groovy.ast.ClassNode;
 import org.codehaus.groovy.control.CompilationFailedException;
@@ -70,6 +72,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -178,6 +181,17 @@ public class GremlinGroovyScriptEngine extends GroovyScriptEngineImpl implements
      */
     private final AtomicLong failedCompilationCount = new AtomicLong(0L);
 
+    /**
+     * A counter for the instance that tracks the number of scripts that were loaded from the
+     * {@link #persistentClassCache} rather than compiled.
+     */
+    private final AtomicLong persistentLoadCount = new AtomicLong(0L);
+
+    /**
+     * Holds compiled scripts across restarts of the engine or {@code null} if it is not configured.
+     */
+    private final PersistentClassCache persistentClassCache;
+
     /**
      * The list of loaded plugins for the console.
      */
@@ -248,6 +262,11 @@ public class GremlinGroovyScriptEngine extends GroovyScriptEngineImpl implements
                 recordStats().
                 build(new GroovyCacheLoader());
 
+        persistentClassCache = compilationOptionsCustomizerProvider.
+                map(CompilationOptionsCustomizer::getClassCacheDirectory).
+                map(directory -> new PersistentClassCache(directory, createFingerprint(),
+                        compilationOptionsCustomizerProvider.get().getClassCacheMaxSize())).orElse(null);
+
         typeCheckingEnabled = listOfCustomizers.stream()
                 .anyMatch(p -> p instanceof TypeCheckedGroovyCustomizer || p instanceof CompileStaticGroovyCustomizer);
 
@@ -340,6 +359,17 @@ public class GremlinGroovyScriptEngine extends GroovyScriptEngineImpl implements
         globalClosures.clear();
     }
 
+    /**
+     * Describes everything besides the script itself that affects the classes the script is compiled to.
+     */
+    private String createFingerprint() {
+        final StringBuilder fingerprint = new StringBuilder();
+        fingerprint.append(GroovySystem.getVersion()).append('|').append(Gremlin.version()).append('|').
+                append(importGroovyCustomizer.getFingerprint());
+        groovyCustomizers.forEach(c -> fingerprint.append('|').append(PersistentClassCache.describe(c)));
+        return fingerprint.toString();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -457,6 +487,13 @@ public class GremlinGroovyScriptEngine extends GroovyScriptEngineImpl implements
         return longRunCompilationCount.longValue();
     }
 
+    /**
+     * Gets the number of scripts that were loaded from the persistent class cache rather than compiled.
+     */
+    public long getClassCachePersistentLoadCount() {
+        return persistentLoadCount.longValue();
+    }
+
     /**
      * Gets the estimated size of the class cache for compiled scripts.
      */
@@ -818,7 +855,19 @@ public class GremlinGroovyScriptEngine extends GroovyScriptEngineImpl implements
 
             return CompletableFuture.supplyAsync(() -> {
                 try {
-                    return loader.parseClass(script, generateScriptName());
+                    if (null == persistentClassCache)
+                        return loader.parseClass(script, generateScriptName());
+
+                    final Class cached = persistentClassCache.load(script, loader);
+                    if (cached != null) {
+                        persistentLoadCount.incrementAndGet();
+                        return cached;
+                    }
+
+                    final Map<String, byte[]> classes = new LinkedHashMap<>();
+                    final Class clazz = loader.parseClass(script, generateScriptName(), classes);
+                    persistentClassCache.store(script, clazz.getName(), classes);
+                    return clazz;
                 } catch (CompilationFailedException e) {
                     final long finish = System.currentTimeMillis();
                     log.error("Script compilation FAILED {} took {}ms {}", script, finish - start, e);
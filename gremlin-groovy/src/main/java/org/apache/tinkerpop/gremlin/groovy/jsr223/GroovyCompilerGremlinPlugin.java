@@ -62,6 +62,8 @@ public class GroovyCompilerGremlinPlugin extends AbstractGremlinPlugin {
         private int expectedCompilationTime = 5000;
         private String cacheSpec = "softValues";
         private boolean globalFunctionCacheEnabled = true;
+        private String classCacheDirectory = null;
+        private int classCacheMaxSize = 10000;
 
         private Map<String,Object> keyValues = Collections.emptyMap();
 
@@ -152,6 +154,28 @@ public class GroovyCompilerGremlinPlugin extends AbstractGremlinPlugin {
             return this;
         }
 
+        /**
+         * Sets a directory in which the classes of compiled scripts are stored so that they can be loaded rather than
+         * recompiled after the script engine is restarted. The classes are stored per fingerprint of the Groovy and
+         * TinkerPop versions, the imports and the compiler customizations, so changing any of those simply starts
+         * a new, empty cache. By default, compiled classes are only held in memory.
+         */
+        public Builder classCacheDirectory(final String classCacheDirectory) {
+            this.classCacheDirectory = classCacheDirectory;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of scripts held by the {@link #classCacheDirectory(String)}. When a script is stored
+         * beyond that, the scripts that were least recently loaded or stored are removed. Defaults to 10000 and must be
+         * greater than zero.
+         */
+        public Builder classCacheMaxSize(final int classCacheMaxSize) {
+            if (classCacheMaxSize <= 0) throw new IllegalArgumentException("classCacheMaxSize must be greater than zero");
+            this.classCacheMaxSize = classCacheMaxSize;
+            return this;
+        }
+
         Customizer[] asCustomizers() {
             final List<Customizer> list = new ArrayList<>();
 
@@ -170,7 +194,9 @@ public class GroovyCompilerGremlinPlugin extends AbstractGremlinPlugin {
             list.add(CompilationOptionsCustomizer.build().
                     enableGlobalFunctionCache(globalFunctionCacheEnabled).
                     setExpectedCompilationTime(expectedCompilationTime > 0 ? expectedCompilationTime : 5000).
-                    setClassMapCacheSpecification(cacheSpec).create());
+                    setClassMapCacheSpecification(cacheSpec).
+                    setClassCacheDirectory(classCacheDirectory).
+                    setClassCacheMaxSize(classCacheMaxSize).create());
 
             if (compilation == Compilation.COMPILE_STATIC)
                 list.add(new CompileStaticGroovyCustomizer(extensions));
@@ -25,6 +25,7 @@ import org.codehaus.groovy.control.customizers.CompilationCustomizer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.TreeSet;
 
 /**
  * @author Stephen Mallette (http://stephen.genoprime.com)
@@ -42,6 +43,20 @@ class ImportGroovyCustomizer implements GroovyCustomizer {
         this.customizers.addAll(ic.customizers);
     }
 
+    /**
+     * Gets a description of all imports which is independent of the order in which they were added.
+     */
+    String getFingerprint() {
+        final TreeSet<String> imports = new TreeSet<>();
+        for (ImportCustomizer customizer : customizers) {
+            customizer.getClassImports().forEach(i -> imports.add(i.getCanonicalName()));
+            customizer.getMethodImports().forEach(m -> imports.add(m.getDeclaringClass().getCanonicalName() + "#" + m.getName()));
+            customizer.getEnumImports().forEach(e -> imports.add(e.getDeclaringClass().getCanonicalName() + "#" + e.name()));
+            customizer.getFieldImports().forEach(f -> imports.add(f.getDeclaringClass().getCanonicalName() + "#" + f.getName()));
+        }
+        return String.join(",", imports);
+    }
+
     @Override
     public CompilationCustomizer create() {
         final org.codehaus.groovy.control.customizers.ImportCustomizer ic = new org.codehaus.groovy.control.customizers.ImportCustomizer();
@@ -0,0 +1,321 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.groovy.jsr223;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarInputStream;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+/**
+ * Stores the classes that scripts were compiled to on disk so that they survive a restart of the
+ * {@link GremlinGroovyScriptEngine}. Each script is stored as a jar named after the hash of the script that holds
+ * the source of the script and all of the classes it was compiled to. The jars are kept in a sub-directory that is
+ * named after the hash of a fingerprint of everything else that affects compilation, i.e. the versions of Groovy
+ * and TinkerPop, the imports and the compilation customizers, so that a change to any of those simply leads to a
+ * new, empty sub-directory. Scripts are loaded from the cache one at a time as they miss the in-memory class map
+ * and the least recently used ones are removed once the cache holds more than its maximum number of scripts.
+ * Failures to read or write the cache are logged and otherwise ignored.
+ */
+final class PersistentClassCache {
+
+    private static final Logger log = LoggerFactory.getLogger(PersistentClassCache.class);
+
+    private static final String SCRIPT_ENTRY = "script.groovy";
+    private static final String CLASS_SUFFIX = ".class";
+    private static final String JAR_SUFFIX = ".jar";
+
+    private final Path directory;
+    private final int maxSize;
+
+    /**
+     * An estimate of the number of scripts in the cache, which is counted again from the directory whenever it
+     * exceeds {@link #maxSize} as other engines may share the directory.
+     */
+    private final AtomicInteger size;
+
+    PersistentClassCache(final String directory, final String fingerprint, final int maxSize) {
+        this.directory = Paths.get(directory, hash(fingerprint));
+        this.maxSize = maxSize;
+        this.size = new AtomicInteger(listJars().size());
+    }
+
+    /**
+     * Loads the class of the script or returns {@code null} if the script is not in the cache.
+     */
+    Class load(final String script, final ClassLoader parent) {
+        final Path jar = this.directory.resolve(hash(script) + JAR_SUFFIX);
+        if (!Files.isRegularFile(jar))
+            return null;
+
+        try {
+            final Entry entry = read(jar);
+            // a hash collision is not worth handling beyond ignoring the cached script
+            if (null == entry || !entry.script.equals(script))
+                return null;
+
+            // the modification time orders the scripts by their last use for eviction
+            Files.setLastModifiedTime(jar, FileTime.fromMillis(System.currentTimeMillis()));
+            return entry.load(parent);
+        } catch (Exception e) {
+            log.warn("Could not load compiled script from {}", jar, e);
+            return null;
+        }
+    }
+
+    /**
+     * Stores the classes of the script where the main class is the class of the script itself.
+     */
+    void store(final String script, final String mainClass, final Map<String, byte[]> classes) {
+        if (!classes.containsKey(mainClass))
+            return;
+
+        final Path jar = this.directory.resolve(hash(script) + JAR_SUFFIX);
+        try {
+            Files.createDirectories(this.directory);
+
+            final Manifest manifest = new Manifest();
+            manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+            manifest.getMainAttributes().put(Attributes.Name.MAIN_CLASS, mainClass);
+
+            // write to a temporary file first so that concurrent readers never see a partial jar
+            final Path temp = Files.createTempFile(this.directory, "script", ".tmp");
+            try (final OutputStream out = Files.newOutputStream(temp);
+                 final JarOutputStream jarOut = new JarOutputStream(out, manifest)) {
+                jarOut.putNextEntry(new JarEntry(SCRIPT_ENTRY));
+                jarOut.write(script.getBytes(StandardCharsets.UTF_8));
+                jarOut.closeEntry();
+                for (final Map.Entry<String, byte[]> kv : classes.entrySet()) {
+                    jarOut.putNextEntry(new JarEntry(kv.getKey().replace('.', '/') + CLASS_SUFFIX));
+                    jarOut.write(kv.getValue());
+                    jarOut.closeEntry();
+                }
+            }
+            Files.move(temp, jar, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception e) {
+            log.warn("Could not store compiled script to {}", jar, e);
+            return;
+        }
+
+        if (this.size.incrementAndGet() > this.maxSize)
+            evict();
+    }
+
+    /**
+     * Removes the least recently used scripts until a tenth of {@link #maxSize} is free again, so that the directory
+     * is not listed on every store once the cache is full.
+     */
+    private synchronized void evict() {
+        final List<Path> jars = listJars();
+        if (jars.size() <= this.maxSize) {
+            this.size.set(jars.size());
+            return;
+        }
+
+        final Map<Path, FileTime> lastUsed = new HashMap<>();
+        for (final Path jar : jars) {
+            try {
+                lastUsed.put(jar, Files.getLastModifiedTime(jar));
+            } catch (IOException e) {
+                // already removed by another engine sharing the directory
+                lastUsed.put(jar, FileTime.fromMillis(0L));
+            }
+        }
+        jars.sort(Comparator.comparing(lastUsed::get));
+
+        final int retained = this.maxSize - this.maxSize / 10;
+        int remaining = jars.size();
+        for (int i = 0; i < jars.size() && remaining > retained; i++) {
+            try {
+                Files.deleteIfExists(jars.get(i));
+                remaining--;
+            } catch (IOException e) {
+                log.warn("Could not remove compiled script {}", jars.get(i), e);
+            }
+        }
+        this.size.set(remaining);
+        log.info("Removed {} least recently used scripts from the persistent class cache {}",
+                jars.size() - remaining, this.directory);
+    }
+
+    private List<Path> listJars() {
+        final List<Path> jars = new ArrayList<>();
+        if (!Files.isDirectory(this.directory))
+            return jars;
+
+        try (final DirectoryStream<Path> stream = Files.newDirectoryStream(this.directory, "*" + JAR_SUFFIX)) {
+            stream.forEach(jars::add);
+        } catch (IOException e) {
+            log.warn("Could not list compiled scripts in {}", this.directory, e);
+        }
+        return jars;
+    }
+
+    private static Entry read(final Path jar) throws IOException {
+        try (final JarInputStream in = new JarInputStream(Files.newInputStream(jar))) {
+            final Manifest manifest = in.getManifest();
+            final String mainClass = null == manifest ? null : manifest.getMainAttributes().getValue(Attributes.Name.MAIN_CLASS);
+            if (null == mainClass)
+                return null;
+
+            String script = null;
+            final Map<String, byte[]> classes = new LinkedHashMap<>();
+            JarEntry jarEntry;
+            while ((jarEntry = in.getNextJarEntry()) != null) {
+                final String name = jarEntry.getName();
+                if (name.equals(SCRIPT_ENTRY))
+                    script = new String(readFully(in), StandardCharsets.UTF_8);
+                else if (name.endsWith(CLASS_SUFFIX))
+                    classes.put(name.substring(0, name.length() - CLASS_SUFFIX.length()).replace('/', '.'), readFully(in));
+            }
+            return null == script || !classes.containsKey(mainClass) ? null : new Entry(script, mainClass, classes);
+        }
+    }
+
+    private static byte[] readFully(final InputStream in) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) > 0) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    static String hash(final String text) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            final StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (final byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Describes the configuration of a customizer by its class and the values of its fields for use in a
+     * fingerprint.
+     */
+    static String describe(final Object customizer) {
+        final StringBuilder description = new StringBuilder(customizer.getClass().getName());
+        for (Class<?> c = customizer.getClass(); c != null && c != Object.class; c = c.getSuperclass()) {
+            for (final Field field : c.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic())
+                    continue;
+                try {
+                    field.setAccessible(true);
+                    description.append(';').append(field.getName()).append('=').append(describeValue(field.get(customizer)));
+                } catch (Exception e) {
+                    description.append(';').append(field.getName());
+                }
+            }
+        }
+        return description.toString();
+    }
+
+    /**
+     * Only values with a stable string form are described by that form as anything else would likely include an
+     * identity hash that differs on every run.
+     */
+    private static String describeValue(final Object value) {
+        if (null == value || value instanceof Number || value instanceof CharSequence || value instanceof Boolean ||
+                value instanceof Enum || value instanceof Map || value instanceof Collection)
+            return String.valueOf(value);
+        else if (value.getClass().isArray())
+            return Arrays.deepToString(new Object[]{value});
+        return value.getClass().getName();
+    }
+
+    private static final class Entry {
+        private final String script;
+        private final String mainClass;
+        private final Map<String, byte[]> classes;
+
+        private Entry(final String script, final String mainClass, final Map<String, byte[]> classes) {
+            this.script = script;
+            this.mainClass = mainClass;
+            this.classes = classes;
+        }
+
+        private Class load(final ClassLoader parent) throws ClassNotFoundException {
+            return new CachedClassLoader(parent, this.classes).loadClass(this.mainClass);
+        }
+    }
+
+    /**
+     * Defines the classes of a single cached script. Those classes are looked up before the parent as script class
+     * names are only unique per run of the script engine and the parent may have compiled a different script to a
+     * class of the same name.
+     */
+    private static final class CachedClassLoader extends ClassLoader {
+        private final Map<String, byte[]> classes;
+
+        private CachedClassLoader(final ClassLoader parent, final Map<String, byte[]> classes) {
+            super(parent);
+            this.classes = classes;
+        }
+
+        @Override
+        protected Class<?> loadClass(final String name, final boolean resolve) throws ClassNotFoundException {
+            final byte[] bytes = this.classes.get(name);
+            if (null == bytes)
+                return super.loadClass(name, resolve);
+
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> c = findLoadedClass(name);
+                if (null == c)
+                    c = defineClass(name, bytes, 0, bytes.length);
+                if (resolve)
+                    resolveClass(c);
+                return c;
+            }
+        }
+    }
+}
@@ -23,6 +23,7 @@ import org.apache.tinkerpop.gremlin.TestHelper;
 import org.apache.tinkerpop.gremlin.jsr223.ImportGremlinPlugin;
 import org.apache.tinkerpop.gremlin.jsr223.ScriptFileGremlinPlugin;
 import org.apache.tinkerpop.gremlin.structure.io.Storage;
+import org.apache.tinkerpop.gremlin.groovy.jsr223.GremlinGroovyScriptEngine;
 import org.apache.tinkerpop.gremlin.groovy.jsr223.GroovyCompilerGremlinPlugin;
 import org.apache.tinkerpop.gremlin.groovy.jsr223.TimedInterruptTimeoutException;
 import org.javatuples.Pair;
@@ -125,6 +126,31 @@ public class GremlinExecutorTest {
         gremlinExecutor.close();
     }
 
+    @Test
+    public void shouldEvalNormalizedScripts() throws Exception {
+        final GremlinExecutor gremlinExecutor = GremlinExecutor.build().normalizeScripts(true).create();
+        final Bindings b = new SimpleBindings();
+        b.put("x", 1);
+        assertEquals(3, gremlinExecutor.eval("x + 2", b).get());
+        assertEquals(4, gremlinExecutor.eval("x + 3", b).get());
+        assertEquals("x1", gremlinExecutor.eval("'x' + x", b).get());
+        assertEquals(2, gremlinExecutor.eval("x + x", b).get());
+        assertEquals(3, gremlinExecutor.getNormalizationHitCount());
+        assertEquals(1, gremlinExecutor.getNormalizationMissCount());
+
+        // both numeric scripts share the same compiled class
+        final GremlinGroovyScriptEngine engine = (GremlinGroovyScriptEngine) gremlinExecutor.getScriptEngineManager().getEngineByName("gremlin-groovy");
+        assertEquals(1, engine.getClassCacheHitCount());
+
+        // the generated bindings are gone after evaluation
+        final AtomicBoolean generatedBindingsVisible = new AtomicBoolean(true);
+        gremlinExecutor.eval("x + 4", "gremlin-groovy", b, GremlinExecutor.LifeCycle.build().
+                afterSuccess(bindings -> generatedBindingsVisible.set(bindings.keySet().stream().anyMatch(k -> k.startsWith("_lit")))).create()).get();
+        assertThat(generatedBindingsVisible.get(), is(false));
+
+        gremlinExecutor.close();
+    }
+
     @Test
     public void shouldCompileScript() throws Exception {
         final GremlinExecutor gremlinExecutor = GremlinExecutor.build().create();
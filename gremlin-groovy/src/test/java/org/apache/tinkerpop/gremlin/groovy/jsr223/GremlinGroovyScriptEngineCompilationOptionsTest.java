@@ -18,10 +18,13 @@
  */
 package org.apache.tinkerpop.gremlin.groovy.jsr223;
 
+import org.apache.commons.io.FileUtils;
+import org.apache.tinkerpop.gremlin.TestHelper;
 import org.junit.Test;
 
 import javax.script.Bindings;
 import javax.script.SimpleBindings;
+import java.io.File;
 
 import static org.junit.Assert.assertEquals;
 
@@ -54,4 +57,57 @@ public class GremlinGroovyScriptEngineCompilationOptionsTest {
 
         assertEquals(1, engine.getClassCacheLongRunCompilationCount());
     }
+
+    @Test
+    public void shouldLoadCompiledScriptsFromPersistentClassCache() throws Exception {
+        final File directory = TestHelper.makeTestDataPath(GremlinGroovyScriptEngineCompilationOptionsTest.class, "persistent-class-cache");
+        FileUtils.deleteDirectory(directory);
+        final String script = "[1, 2, 3].collect { it * x }.sum()";
+        final Bindings b = new SimpleBindings();
+        b.put("x", 2);
+
+        final GremlinGroovyScriptEngine first = new GremlinGroovyScriptEngine(
+                CompilationOptionsCustomizer.build().setClassCacheDirectory(directory.getAbsolutePath()).create());
+        assertEquals(12, first.eval(script, b));
+        assertEquals(0, first.getClassCachePersistentLoadCount());
+
+        // a new engine with the same configuration loads the script on its first miss rather than compiling it
+        final GremlinGroovyScriptEngine second = new GremlinGroovyScriptEngine(
+                CompilationOptionsCustomizer.build().setClassCacheDirectory(directory.getAbsolutePath()).create());
+        assertEquals(0, second.getClassCachePersistentLoadCount());
+        assertEquals(12, second.eval(script, b));
+        assertEquals(1, second.getClassCachePersistentLoadCount());
+        assertEquals(1, second.getClassCacheMissCount());
+
+        // a different configuration compiles the script again
+        final GremlinGroovyScriptEngine third = new GremlinGroovyScriptEngine(
+                CompilationOptionsCustomizer.build().setClassCacheDirectory(directory.getAbsolutePath()).create(),
+                new ThreadInterruptGroovyCustomizer());
+        assertEquals(0, third.getClassCachePersistentLoadCount());
+        assertEquals(12, third.eval(script, b));
+        assertEquals(1, third.getClassCacheMissCount());
+    }
+
+    @Test
+    public void shouldRemoveLeastRecentlyUsedScriptsFromPersistentClassCache() throws Exception {
+        final File directory = TestHelper.makeTestDataPath(GremlinGroovyScriptEngineCompilationOptionsTest.class, "persistent-class-cache-max-size");
+        FileUtils.deleteDirectory(directory);
+        final GremlinGroovyScriptEngine first = new GremlinGroovyScriptEngine(
+                CompilationOptionsCustomizer.build().setClassCacheDirectory(directory.getAbsolutePath()).
+                        setClassCacheMaxSize(10).create());
+        for (int i = 0; i < 11; i++) {
+            assertEquals(i, first.eval(i + " * 1"));
+            // keeps the modification times of the stored scripts apart
+            Thread.sleep(10);
+        }
+
+        // storing the eleventh script removes the first one, which a new engine then has to compile again
+        final GremlinGroovyScriptEngine second = new GremlinGroovyScriptEngine(
+                CompilationOptionsCustomizer.build().setClassCacheDirectory(directory.getAbsolutePath()).
+                        setClassCacheMaxSize(10).create());
+        assertEquals(10, second.eval("10 * 1"));
+        assertEquals(1, second.getClassCachePersistentLoadCount());
+        assertEquals(0, second.eval("0 * 1"));
+        assertEquals(1, second.getClassCachePersistentLoadCount());
+    }
 }
@@ -21,10 +21,14 @@ package org.apache.tinkerpop.gremlin.groovy.jsr223.ast;
 import org.codehaus.groovy.control.MultipleCompilationErrorsException;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.apache.tinkerpop.gremlin.groovy.jsr223.ast.GremlinASTChecker.EMPTY_RESULT;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertSame;
 
 public class GremlinASTCheckerTest {
@@ -80,4 +84,43 @@ public class GremlinASTCheckerTest {
                 "                                                   g.with('scriptEvaluationTimeout', 1000L).with(true).V().out('knows')").
                 getTimeout().get().longValue());
     }
+
+    @Test
+    public void shouldNormalizeLiterals() {
+        final GremlinASTChecker.Result result = GremlinASTChecker.parse(
+                "g.V('123').out(\"knows\").has('age', -30).limit(2L).as('a').select('a').by(values('name').fold())", true);
+        assertEquals("g.V(_lit0).out(_lit1).has(_lit2, _lit3).limit(_lit4).as(_lit5).select(_lit6).by(values(_lit7).fold())",
+                result.getNormalizedScript().get());
+        final Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("_lit0", "123");
+        parameters.put("_lit1", "knows");
+        parameters.put("_lit2", "age");
+        parameters.put("_lit3", -30);
+        parameters.put("_lit4", 2L);
+        parameters.put("_lit5", "a");
+        parameters.put("_lit6", "a");
+        parameters.put("_lit7", "name");
+        assertEquals(parameters, result.getParameters());
+    }
+
+    @Test
+    public void shouldNotNormalizeNamesKeysClosuresAndGStrings() {
+        final GremlinASTChecker.Result result = GremlinASTChecker.parse(
+                "m = [a: 1, 'b': \"c\"]\nx = it.'name' + \"${y}z\"\ng.V().filter{it.get().value('age') > 30}.map(m.&'get')", true);
+        assertEquals("m = [a: _lit0, 'b': _lit1]\nx = it.'name' + \"${y}z\"\ng.V().filter{it.get().value('age') > 30}.map(m.&'get')",
+                result.getNormalizedScript().get());
+        assertEquals(Arrays.asList(1, "c"), Arrays.asList(result.getParameters().values().toArray()));
+    }
+
+    @Test
+    public void shouldNotNormalizeScriptsWithMethodsOrWithoutLiterals() {
+        assertFalse(GremlinASTChecker.parse("def add(x, y) { x + y }; add(1, 2)", true).getNormalizedScript().isPresent());
+        assertFalse(GremlinASTChecker.parse("g.V().out().count()", true).getNormalizedScript().isPresent());
+        assertFalse(GremlinASTChecker.parse("g.V(1)", false).getNormalizedScript().isPresent());
+    }
+
+    @Test
+    public void shouldNormalizeWithoutMergingIdentifiersOrShadowingVariables() {
+        assertEquals("def _lit = __lit0; return __lit1", GremlinASTChecker.parse("def _lit = 1; return'x'", true).getNormalizedScript().get());
+    }
 }
@@ -148,6 +148,17 @@ class VertexProgramStrategy extends TraversalStrategy {
   }
 }
 
+class BatchStrategy extends TraversalStrategy {
+  /**
+   * @param {Number} [batchSize] the maximum number of traversers in a batch
+   */
+  constructor(batchSize) {
+    super("org.apache.tinkerpop.gremlin.process.traversal.strategy.finalization.BatchStrategy");
+    if (batchSize !== undefined)
+      this.configuration["batchSize"] = batchSize;
+  }
+}
+
 class MatchAlgorithmStrategy extends TraversalStrategy {
   /**
    * @param matchAlgorithm
@@ -159,12 +170,32 @@ class MatchAlgorithmStrategy extends TraversalStrategy {
   }
 }
 
+class ParallelScanStrategy extends TraversalStrategy {
+  /**
+   * @param {Number} [partitionSize] the number of elements above which a partition is split further
+   * @param {Number} [parallelism] the number of threads that a scan may occupy
+   */
+  constructor(partitionSize, parallelism) {
+    super("org.apache.tinkerpop.gremlin.process.traversal.strategy.finalization.ParallelScanStrategy");
+    if (partitionSize !== undefined)
+      this.configuration["partitionSize"] = partitionSize;
+    if (parallelism !== undefined)
+      this.configuration["parallelism"] = parallelism;
+  }
+}
+
 class AdjacentToIncidentStrategy extends TraversalStrategy {
   constructor() {
     super("org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization.AdjacentToIncidentStrategy");
   }
 }
 
+class CostBasedFilterRankingStrategy extends TraversalStrategy {
+  constructor() {
+    super("org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization.CostBasedFilterRankingStrategy");
+  }
+}
+
 class FilterRankingStrategy extends TraversalStrategy {
   constructor() {
     super("org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization.FilterRankingStrategy");
@@ -290,9 +321,12 @@ module.exports = {
   SubgraphStrategy: SubgraphStrategy,
   VertexProgramStrategy: VertexProgramStrategy,
   // finalization
+  BatchStrategy: BatchStrategy,
   MatchAlgorithmStrategy: MatchAlgorithmStrategy,
+  ParallelScanStrategy: ParallelScanStrategy,
   // optimization
   AdjacentToIncidentStrategy: AdjacentToIncidentStrategy,
+  CostBasedFilterRankingStrategy: CostBasedFilterRankingStrategy,
   FilterRankingStrategy: FilterRankingStrategy,
   IdentityRemovalStrategy: IdentityRemovalStrategy,
   IncidentToAdjacentStrategy: IncidentToAdjacentStrategy,
@@ -143,6 +143,10 @@ class Traversal {
 
 class IO {
 
+ static get graphbinary() {
+   return "graphbinary"
+ }
+
  static get graphml() {
    return "graphml"
  }
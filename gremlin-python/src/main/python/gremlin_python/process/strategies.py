@@ -112,6 +112,13 @@ class VertexProgramStrategy(TraversalStrategy):
 # FINALIZATION STRATEGIES #
 ###########################
 
+class BatchStrategy(TraversalStrategy):
+    def __init__(self, batch_size=None):
+        TraversalStrategy.__init__(self, fqcn=finalization_namespace + 'BatchStrategy')
+        if batch_size is not None:
+            self.configuration["batchSize"] = batch_size
+
+
 class MatchAlgorithmStrategy(TraversalStrategy):
     def __init__(self, match_algorithm=None):
         TraversalStrategy.__init__(self, fqcn=finalization_namespace + 'MatchAlgorithmStrategy')
@@ -119,6 +126,15 @@ class MatchAlgorithmStrategy(TraversalStrategy):
             self.configuration["matchAlgorithm"] = match_algorithm
 
 
+class ParallelScanStrategy(TraversalStrategy):
+    def __init__(self, partition_size=None, parallelism=None):
+        TraversalStrategy.__init__(self, fqcn=finalization_namespace + 'ParallelScanStrategy')
+        if partition_size is not None:
+            self.configuration["partitionSize"] = partition_size
+        if parallelism is not None:
+            self.configuration["parallelism"] = parallelism
+
+
 ###########################
 # OPTIMIZATION STRATEGIES #
 ###########################
@@ -138,6 +154,11 @@ class CountStrategy(TraversalStrategy):
         TraversalStrategy.__init__(self, fqcn="org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization.ByModulatorOptimizationStrategy")
 
 
+class CostBasedFilterRankingStrategy(TraversalStrategy):
+    def __init__(self):
+        TraversalStrategy.__init__(self, fqcn=optimization_namespace + 'CostBasedFilterRankingStrategy')
+
+
 class FilterRankingStrategy(TraversalStrategy):
     def __init__(self):
         TraversalStrategy.__init__(self, fqcn=optimization_namespace + 'FilterRankingStrategy')
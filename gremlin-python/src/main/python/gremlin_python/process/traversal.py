@@ -439,6 +439,8 @@ IO
 
 class IO(object):
 
+    graphbinary = "graphbinary"
+
     graphml = "graphml"
 
     graphson = "graphson"
@@ -93,6 +93,7 @@ public class GremlinServer {
      */
     public GremlinServer(final Settings settings, final ExecutorService gremlinExecutorService) {
         settings.optionalMetrics().ifPresent(GremlinServer::configureMetrics);
+        configureProfiling(settings.profiling);
         this.settings = settings;
         provideDefaultForGremlinPoolSize(settings);
         this.isEpollEnabled = settings.useEpollEventLoop && SystemUtils.IS_OS_LINUX;
@@ -399,6 +400,13 @@ public class GremlinServer {
         });
     }
 
+    private static void configureProfiling(final Settings.ProfilingSettings settings) {
+        if (settings.enabled)
+            MetricManager.INSTANCE.addSlowQueryLog(settings.sampleRate, settings.slowQueryThreshold, settings.slowQueryLogSize);
+        if (settings.fingerprintMetricsSize > 0)
+            MetricManager.INSTANCE.addTraversalFingerprintMetrics(settings.fingerprintMetricsSize);
+    }
+
     private static void printHeader() {
         logger.info(getHeader());
     }
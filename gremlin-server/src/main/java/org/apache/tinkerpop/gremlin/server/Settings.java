@@ -181,6 +181,14 @@ public class Settings {
      */
     public boolean strictTransactionManagement = false;
 
+    /**
+     * If set to {@code true} the string and number literals of sessionless "gremlin-groovy" scripts are replaced by
+     * bindings before evaluation, so that scripts which only differ in their literals share the same compiled class
+     * rather than each filling the class cache of the {@code ScriptEngine}. It is {@code false} by default and should
+     * not be enabled with static compilation or type checking.
+     */
+    public boolean normalizeScripts = false;
+
     /**
      * The full class name of the {@link Channelizer} to use in Gremlin Server.
      */
@@ -196,6 +204,11 @@ public class Settings {
      */
     public ServerMetrics metrics = null;
 
+    /**
+     * Configures the sampled profiling of traversals and the slow query log.
+     */
+    public ProfilingSettings profiling = new ProfilingSettings();
+
     /**
      * {@link Map} of {@link Graph} objects keyed by their binding name.
      */
@@ -285,6 +298,7 @@ public class Settings {
         scriptEngineSettingsDescription.putListPropertyType("imports", String.class);
         scriptEngineSettingsDescription.putListPropertyType("staticImports", String.class);
         scriptEngineSettingsDescription.putListPropertyType("scripts", String.class);
+        scriptEngineSettingsDescription.putListPropertyType("warmupScripts", String.class);
         scriptEngineSettingsDescription.putMapPropertyType("config", String.class, Object.class);
         scriptEngineSettingsDescription.putMapPropertyType("plugins", String.class, Object.class);
         constructor.addTypeDescription(scriptEngineSettingsDescription);
@@ -295,6 +309,9 @@ public class Settings {
         final TypeDescription authenticationSettings = new TypeDescription(AuthenticationSettings.class);
         constructor.addTypeDescription(authenticationSettings);
 
+        final TypeDescription profilingSettings = new TypeDescription(ProfilingSettings.class);
+        constructor.addTypeDescription(profilingSettings);
+
         final TypeDescription serverMetricsDescription = new TypeDescription(ServerMetrics.class);
         constructor.addTypeDescription(serverMetricsDescription);
 
@@ -371,6 +388,13 @@ public class Settings {
          * Plugins will be applied in the order they are listed.
          */
         public Map<String,Map<String,Object>> plugins = new LinkedHashMap<>();
+
+        /**
+         * A list of scripts to compile, but not evaluate, when the {@code ScriptEngine} is initialized so that the
+         * first requests to submit them do not pay the cost of compilation. Combined with a persistent class cache
+         * in the {@code ScriptEngine} these scripts are compiled only once across restarts of Gremlin Server.
+         */
+        public List<String> warmupScripts = new ArrayList<>();
     }
 
     /**
@@ -503,6 +527,45 @@ public class Settings {
         }
     }
 
+    /**
+     * Settings for the profiling of bytecode-based traversals. Profiles of sampled traversals and the durations of
+     * slow traversals are aggregated by the fingerprint of the traversal into a slow query log which is exposed by
+     * the {@link org.apache.tinkerpop.gremlin.server.util.MetricManager}, which may also report metrics for each
+     * fingerprint.
+     */
+    public static class ProfilingSettings {
+        /**
+         * Turns on the profiling of traversals.
+         */
+        public boolean enabled = false;
+
+        /**
+         * One out of this number of traversals is profiled with per-step metrics. Sampling is turned off when set
+         * to {@code 0}.
+         */
+        public int sampleRate = 100;
+
+        /**
+         * The time in milliseconds after which a traversal is recorded in the slow query log even if it was not
+         * sampled. This feature can be turned off by setting the value to {@code 0}.
+         */
+        public long slowQueryThreshold = 1000L;
+
+        /**
+         * The maximum number of traversal fingerprints held by the slow query log. When full, the fingerprint with
+         * the least total time is evicted.
+         */
+        public int slowQueryLogSize = 100;
+
+        /**
+         * The maximum number of traversal fingerprints for which latency, result count and per-step metrics are
+         * reported. The metrics of the least recently used fingerprint are removed when exceeded. Per-step metrics
+         * are only gathered for traversals that are sampled which requires profiling to be enabled. Fingerprint
+         * metrics are turned off when set to {@code 0}, which is the default.
+         */
+        public int fingerprintMetricsSize = 0;
+    }
+
     /**
      * Settings for {@code Metrics} recorded by Gremlin Server.
      */
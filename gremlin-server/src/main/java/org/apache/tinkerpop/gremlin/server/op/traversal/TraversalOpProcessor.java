@@ -41,6 +41,7 @@ import org.apache.tinkerpop.gremlin.server.handler.StateKey;
 import org.apache.tinkerpop.gremlin.server.op.AbstractOpProcessor;
 import org.apache.tinkerpop.gremlin.server.op.OpProcessorException;
 import org.apache.tinkerpop.gremlin.server.util.MetricManager;
+import org.apache.tinkerpop.gremlin.server.util.SlowQueryLog;
 import org.apache.tinkerpop.gremlin.server.util.TraverserIterator;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.io.graphson.GraphSONMapper;
@@ -198,9 +199,15 @@ public class TraversalOpProcessor extends AbstractOpProcessor {
             auditLogger.info("User with address {} requested: {}", address, bytecode);
         }
 
+        // sampled traversals are marked before strategies are applied so that ProfileStrategy profiles them
+        final Optional<SlowQueryLog> slowQueryLog = MetricManager.INSTANCE.getSlowQueryLog();
+        final boolean sampled = slowQueryLog.isPresent() && slowQueryLog.get().sample(traversal);
+
         final Timer.Context timerContext = traversalOpTimer.time();
         final FutureTask<Void> evalFuture = new FutureTask<>(() -> {
             final Graph graph = g.getGraph();
+            TraverserIterator itty = null;
+            boolean failed = false;
 
             try {
                 beforeProcessing(graph, context);
@@ -208,8 +215,10 @@ public class TraversalOpProcessor extends AbstractOpProcessor {
                 try {
                     // compile the traversal - without it getEndStep() has nothing in it
                     traversal.applyStrategies();
-                    handleIterator(context, new TraverserIterator(traversal), graph);
+                    itty = new TraverserIterator(traversal);
+                    handleIterator(context, itty, graph);
                 } catch (Exception ex) {
+                    failed = true;
                     Throwable t = ex;
                     if (ex instanceof UndeclaredThrowableException)
                         t = t.getCause();
@@ -230,13 +239,26 @@ public class TraversalOpProcessor extends AbstractOpProcessor {
                     }
                 }
             } catch (Exception ex) {
+                failed = true;
                 logger.warn(String.format("Exception processing a Traversal on request [%s].", msg.getRequestId()), ex);
                 context.writeAndFlush(ResponseMessage.build(msg).code(ResponseStatusCode.SERVER_ERROR)
                                                      .statusMessage(ex.getMessage())
                                                      .statusAttributeException(ex).create());
                 onError(graph, context);
             } finally {
-                timerContext.stop();
+                final long duration = timerContext.stop();
+                final long resultCount = null == itty ? 0 : itty.getResultCount();
+                slowQueryLog.ifPresent(queryLog -> queryLog.record(bytecode, traversal, sampled, duration));
+
+                // failed traversals are only counted so that they do not skew the latency of the fingerprint
+                final boolean succeeded = !failed;
+                MetricManager.INSTANCE.getTraversalFingerprintMetrics().ifPresent(fingerprintMetrics -> {
+                    if (succeeded)
+                        fingerprintMetrics.record(bytecode, duration, resultCount,
+                                sampled ? SlowQueryLog.getSampledMetrics(traversal).orElse(null) : null);
+                    else
+                        fingerprintMetrics.recordFailure(bytecode);
+                });
             }
 
             return null;
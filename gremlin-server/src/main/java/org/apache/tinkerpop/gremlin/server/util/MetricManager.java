@@ -34,6 +34,7 @@ import com.codahale.metrics.graphite.Graphite;
 import com.codahale.metrics.graphite.GraphiteReporter;
 import info.ganglia.gmetric4j.gmetric.GMetric;
 import org.apache.commons.lang3.ArrayUtils;
+import org.apache.tinkerpop.gremlin.groovy.engine.GremlinExecutor;
 import org.apache.tinkerpop.gremlin.groovy.jsr223.GremlinGroovyScriptEngine;
 import org.apache.tinkerpop.gremlin.jsr223.GremlinScriptEngine;
 import org.apache.tinkerpop.gremlin.server.GremlinServer;
@@ -68,6 +69,8 @@ public enum MetricManager {
     private Slf4jReporter slf4jReporter = null;
     private GangliaReporter gangliaReporter = null;
     private GraphiteReporter graphiteReporter = null;
+    private volatile SlowQueryLog slowQueryLog = null;
+    private volatile TraversalFingerprintMetrics traversalFingerprintMetrics = null;
 
     /**
      * Return the {@code MetricsRegistry}.
@@ -388,7 +391,89 @@ public enum MetricManager {
         removeGraphiteReporter();
     }
 
+    /**
+     * Create a {@link SlowQueryLog} which profiles a sample of the traversals processed by Gremlin Server and records
+     * slow ones. The log is reported through the {@code MetricsRegistry} as the {@code profiling.slow-queries} gauge.
+     *
+     * @param sampleRate         one out of this number of traversals is profiled or none if {@code 0}
+     * @param slowQueryThreshold milliseconds after which a traversal is recorded or never if {@code 0}
+     * @param capacity           the maximum number of traversal fingerprints held by the log
+     */
+    public synchronized void addSlowQueryLog(final int sampleRate, final long slowQueryThreshold, final int capacity) {
+        if (null != slowQueryLog) {
+            log.debug("SlowQueryLog already active; not creating another");
+            return;
+        }
+
+        final SlowQueryLog queryLog = new SlowQueryLog(sampleRate, slowQueryThreshold, capacity);
+        getRegistry().register(MetricRegistry.name(GremlinServer.class, "profiling", "slow-queries"),
+                (Gauge<List<String>>) queryLog::getSummaries);
+        getRegistry().register(MetricRegistry.name(GremlinServer.class, "profiling", "slow-queries", "size"),
+                (Gauge<Integer>) queryLog::size);
+        slowQueryLog = queryLog;
+
+        log.info("Configured SlowQueryLog with sampleRate={}, slowQueryThreshold={}ms and capacity={}",
+                sampleRate, slowQueryThreshold, capacity);
+    }
+
+    /**
+     * Stop the {@link SlowQueryLog} previously created by a call to {@link #addSlowQueryLog(int, long, int)} and
+     * release it for GC. Idempotent between calls to the associated add method.
+     */
+    public synchronized void removeSlowQueryLog() {
+        if (null != slowQueryLog)
+            getRegistry().removeMatching((s, metric) -> s.startsWith(MetricRegistry.name(GremlinServer.class, "profiling", "slow-queries")));
+
+        slowQueryLog = null;
+    }
+
+    /**
+     * Gets the {@link SlowQueryLog} if one was created by {@link #addSlowQueryLog(int, long, int)}.
+     */
+    public Optional<SlowQueryLog> getSlowQueryLog() {
+        return Optional.ofNullable(slowQueryLog);
+    }
+
+    /**
+     * Create a {@link TraversalFingerprintMetrics} which reports latency, result count and per-step metrics for each
+     * traversal fingerprint under the {@code op.traversal.fingerprint} prefix.
+     *
+     * @param capacity the maximum number of fingerprints for which metrics are reported
+     */
+    public synchronized void addTraversalFingerprintMetrics(final int capacity) {
+        if (null != traversalFingerprintMetrics) {
+            log.debug("TraversalFingerprintMetrics already active; not creating another");
+            return;
+        }
+
+        traversalFingerprintMetrics = new TraversalFingerprintMetrics(getRegistry(),
+                MetricRegistry.name(GremlinServer.class, "op", "traversal", "fingerprint"), capacity);
+
+        log.info("Configured TraversalFingerprintMetrics with capacity={}", capacity);
+    }
+
+    /**
+     * Stop the {@link TraversalFingerprintMetrics} previously created by a call to
+     * {@link #addTraversalFingerprintMetrics(int)} and remove its metrics. Idempotent between calls to the
+     * associated add method.
+     */
+    public synchronized void removeTraversalFingerprintMetrics() {
+        if (null != traversalFingerprintMetrics)
+            traversalFingerprintMetrics.clear();
+
+        traversalFingerprintMetrics = null;
+    }
+
+    /**
+     * Gets the {@link TraversalFingerprintMetrics} if created by {@link #addTraversalFingerprintMetrics(int)}.
+     */
+    public Optional<TraversalFingerprintMetrics> getTraversalFingerprintMetrics() {
+        return Optional.ofNullable(traversalFingerprintMetrics);
+    }
+
     public synchronized void removeAllMetrics() {
+        removeSlowQueryLog();
+        removeTraversalFingerprintMetrics();
         getRegistry().removeMatching((s, metric) -> true);
     }
 
@@ -432,6 +517,22 @@ public enum MetricManager {
         return getRegistry().histogram(MetricRegistry.name(prefix, names));
     }
 
+    /**
+     * Registers metrics for the number of scripts that the {@link GremlinExecutor} evaluated with and without
+     * normalizing their literals into bindings.
+     */
+    public void registerScriptNormalizationMetrics(final GremlinExecutor gremlinExecutor, final String... prefix) {
+        // as with the script engine metrics, only register once for servers that share the jvm
+        if (getRegistry().getNames().stream().noneMatch(n -> n.endsWith(MetricRegistry.name("script-normalization", "hit-count")))) {
+            getRegistry().register(
+                    MetricRegistry.name(GremlinServer.class, ArrayUtils.add(prefix, "hit-count")),
+                    (Gauge<Long>) gremlinExecutor::getNormalizationHitCount);
+            getRegistry().register(
+                    MetricRegistry.name(GremlinServer.class, ArrayUtils.add(prefix, "miss-count")),
+                    (Gauge<Long>) gremlinExecutor::getNormalizationMissCount);
+        }
+    }
+
     /**
      * Registers metrics from a {@link GremlinScriptEngine}. At this point, this only works for the
      * {@link GremlinGroovyScriptEngine} as it is the only one that collects metrics at this point. As the
@@ -446,6 +547,9 @@ public enum MetricManager {
             getRegistry().register(
                     MetricRegistry.name(GremlinServer.class, ArrayUtils.add(prefix, "long-run-compilation-count")),
                     (Gauge<Long>) gremlinGroovyScriptEngine::getClassCacheLongRunCompilationCount);
+            getRegistry().register(
+                    MetricRegistry.name(GremlinServer.class, ArrayUtils.add(prefix, "persistent-load-count")),
+                    (Gauge<Long>) gremlinGroovyScriptEngine::getClassCachePersistentLoadCount);
             getRegistry().register(
                     MetricRegistry.name(GremlinServer.class, ArrayUtils.add(prefix, "estimated-size")),
                     (Gauge<Long>) gremlinGroovyScriptEngine::getClassCacheEstimatedSize);
@@ -29,6 +29,7 @@ import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.script.Compilable;
 import javax.script.SimpleBindings;
 import java.lang.reflect.Constructor;
 import java.util.Collections;
@@ -109,6 +110,7 @@ public class ServerGremlinExecutor {
 
         final GremlinExecutor.Builder gremlinExecutorBuilder = GremlinExecutor.build()
                 .evaluationTimeout(settings.getEvaluationTimeout())
+                .normalizeScripts(settings.normalizeScripts)
                 .afterFailure((b, e) -> this.graphManager.rollbackAll())
                 .beforeEval(b -> this.graphManager.rollbackAll())
                 .afterTimeout(b -> this.graphManager.rollbackAll())
@@ -126,6 +128,8 @@ public class ServerGremlinExecutor {
         });
 
         gremlinExecutor = gremlinExecutorBuilder.create();
+        if (settings.normalizeScripts)
+            MetricManager.INSTANCE.registerScriptNormalizationMetrics(gremlinExecutor, "sessionless", "script-normalization");
 
         logger.info("Initialized GremlinExecutor and preparing GremlinScriptEngines instances.");
 
@@ -146,6 +150,9 @@ public class ServerGremlinExecutor {
             }
         });
 
+        // compile the warmup scripts so that the first requests to submit them don't pay for the compilation
+        settings.scriptEngines.forEach((engineName, engineSettings) -> warmup(engineName, engineSettings.warmupScripts));
+
         // script engine init may have altered the graph bindings or maybe even created new ones - need to
         // re-apply those references back
         gremlinExecutor.getScriptEngineManager().getBindings().entrySet().stream()
@@ -168,6 +175,27 @@ public class ServerGremlinExecutor {
                 .collect(Collectors.toList());
     }
 
+    private void warmup(final String engineName, final List<String> warmupScripts) {
+        if (null == warmupScripts || warmupScripts.isEmpty()) return;
+
+        final GremlinScriptEngine engine = gremlinExecutor.getScriptEngineManager().getEngineByName(engineName);
+        if (!(engine instanceof Compilable)) {
+            logger.warn("Could not compile warmup scripts as the {} GremlinScriptEngine does not support compilation", engineName);
+            return;
+        }
+
+        int compiled = 0;
+        for (String script : warmupScripts) {
+            try {
+                ((Compilable) engine).compile(script);
+                compiled++;
+            } catch (Exception ex) {
+                logger.warn(String.format("Could not compile warmup script for %s GremlinScriptEngine: %s", engineName, script), ex);
+            }
+        }
+        logger.info("Compiled {} of {} warmup scripts for {} GremlinScriptEngine", compiled, warmupScripts.size(), engineName);
+    }
+
     private void registerMetrics(final String engineName) {
         final GremlinScriptEngine engine = gremlinExecutor.getScriptEngineManager().getEngineByName(engineName);
         MetricManager.INSTANCE.registerGremlinScriptEngineMetrics(engine, engineName, "sessionless", "class-cache");
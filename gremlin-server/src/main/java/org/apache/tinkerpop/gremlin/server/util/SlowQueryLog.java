@@ -0,0 +1,334 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.server.util;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Bytecode;
+import org.apache.tinkerpop.gremlin.process.traversal.Operator;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.ProfileSideEffectStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.finalization.ProfileStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.BytecodeHelper;
+import org.apache.tinkerpop.gremlin.process.traversal.util.DefaultTraversalMetrics;
+import org.apache.tinkerpop.gremlin.process.traversal.util.Metrics;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalMetrics;
+import org.apache.tinkerpop.gremlin.util.function.DefaultTraversalMetricsSupplier;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * A bounded, in-memory log of traversals that aggregates the durations and the per-step profiles of traversals by
+ * their fingerprint as given by {@link BytecodeHelper#getFingerprint(Bytecode)}. One out of every {@code sampleRate}
+ * traversals is profiled and every traversal that exceeds the slow query threshold is recorded with its duration.
+ * When the log is full, the fingerprint with the least total time is evicted so that the log retains the most
+ * expensive traversals, where the entries are kept sorted by their total time so that recording a traversal takes
+ * logarithmic time in the capacity of the log.
+ */
+public final class SlowQueryLog {
+
+    /**
+     * The hidden side-effect key under which the metrics of a sampled traversal are stored.
+     */
+    public static final String METRICS_KEY = ProfileStrategy.SAMPLED_METRICS_KEY;
+
+    private final int sampleRate;
+    private final long slowQueryThresholdNanos;
+    private final int capacity;
+    private final AtomicLong requests = new AtomicLong(0);
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final TreeSet<Entry> entriesByTotalTime = new TreeSet<>(
+            Comparator.comparingLong(Entry::getTotalTime).thenComparing(Entry::getFingerprint));
+
+    /**
+     * @param sampleRate         one out of this number of traversals is profiled or none if {@code 0}
+     * @param slowQueryThreshold milliseconds after which a traversal is recorded or never if {@code 0}
+     * @param capacity           the maximum number of fingerprints held by the log
+     */
+    public SlowQueryLog(final int sampleRate, final long slowQueryThreshold, final int capacity) {
+        if (sampleRate < 0)
+            throw new IllegalArgumentException("The sampleRate must not be negative");
+        if (slowQueryThreshold < 0)
+            throw new IllegalArgumentException("The slowQueryThreshold must not be negative");
+        if (capacity < 1)
+            throw new IllegalArgumentException("The capacity of the slow query log must be greater than zero");
+
+        this.sampleRate = sampleRate;
+        this.slowQueryThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowQueryThreshold);
+        this.capacity = capacity;
+    }
+
+    /**
+     * Determines if the traversal is sampled and if so, registers the {@link #METRICS_KEY} side-effect on it so that
+     * {@link ProfileStrategy} profiles it once the strategies before it were applied, which compile the traversal
+     * just as they would if it was not sampled. This method must be called before strategies are applied to the
+     * traversal. Traversals that are already profiled by the user are never sampled.
+     *
+     * @return {@code true} if the traversal was sampled
+     */
+    public boolean sample(final Traversal.Admin<?, ?> traversal) {
+        if (0 == this.sampleRate || this.requests.incrementAndGet() % this.sampleRate != 0 ||
+                TraversalHelper.hasStepOfAssignableClass(ProfileSideEffectStep.class, traversal))
+            return false;
+
+        traversal.getSideEffects().register(METRICS_KEY, (Supplier) DefaultTraversalMetricsSupplier.instance(), Operator.assign);
+        return true;
+    }
+
+    /**
+     * Records a traversal that was iterated if it was sampled or if it was slower than the slow query threshold.
+     *
+     * @param bytecode      the bytecode the traversal was constructed from
+     * @param traversal     the traversal that was iterated
+     * @param sampled       {@code true} if the traversal was sampled by {@link #sample(Traversal.Admin)}
+     * @param durationNanos the time it took to process the traversal
+     */
+    public void record(final Bytecode bytecode, final Traversal.Admin<?, ?> traversal, final boolean sampled,
+                       final long durationNanos) {
+        if (!sampled && (0 == this.slowQueryThresholdNanos || durationNanos < this.slowQueryThresholdNanos))
+            return;
+
+        final TraversalMetrics metrics = sampled ? getSampledMetrics(traversal).orElse(null) : null;
+        final String fingerprint = BytecodeHelper.getFingerprint(bytecode);
+        synchronized (this.entries) {
+            Entry entry = this.entries.get(fingerprint);
+            if (null == entry) {
+                if (this.entries.size() >= this.capacity)
+                    this.entries.remove(this.entriesByTotalTime.pollFirst().getFingerprint());
+                entry = new Entry(fingerprint);
+                this.entries.put(fingerprint, entry);
+            } else {
+                // the entry is sorted by its total time so it has to be taken out of the set while that changes
+                this.entriesByTotalTime.remove(entry);
+            }
+            entry.record(durationNanos, metrics);
+            this.entriesByTotalTime.add(entry);
+        }
+    }
+
+    /**
+     * Gets the metrics of a traversal that was sampled by {@link #sample(Traversal.Admin)}. The metrics are only
+     * present if the traversal was fully iterated.
+     */
+    public static Optional<TraversalMetrics> getSampledMetrics(final Traversal.Admin<?, ?> traversal) {
+        if (!traversal.getSideEffects().exists(METRICS_KEY))
+            return Optional.empty();
+        final DefaultTraversalMetrics metrics = traversal.getSideEffects().get(METRICS_KEY);
+        return metrics.isFinalized() ? Optional.of(metrics) : Optional.empty();
+    }
+
+    /**
+     * Gets the recorded entries ordered by their total time, most expensive first.
+     */
+    public List<Entry> getEntries() {
+        synchronized (this.entries) {
+            return this.entriesByTotalTime.descendingSet().stream().map(Entry::new).collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Gets the {@code String} representation of the recorded entries ordered by their total time, most expensive
+     * first, which is the form in which the log is reported as a metric.
+     */
+    public List<String> getSummaries() {
+        return this.getEntries().stream().map(Entry::toString).collect(Collectors.toList());
+    }
+
+    public int size() {
+        synchronized (this.entries) {
+            return this.entries.size();
+        }
+    }
+
+    public void clear() {
+        synchronized (this.entries) {
+            this.entries.clear();
+            this.entriesByTotalTime.clear();
+        }
+    }
+
+    /**
+     * The aggregated statistics of all recorded traversals that share a fingerprint.
+     */
+    public static final class Entry {
+        private final String fingerprint;
+        private long count = 0;
+        private long profiledCount = 0;
+        private long totalTime = 0;
+        private long maxTime = 0;
+        private List<StepEntry> steps = Collections.emptyList();
+
+        private Entry(final String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+
+        private Entry(final Entry entry) {
+            this.fingerprint = entry.fingerprint;
+            this.count = entry.count;
+            this.profiledCount = entry.profiledCount;
+            this.totalTime = entry.totalTime;
+            this.maxTime = entry.maxTime;
+            this.steps = entry.steps.stream().map(StepEntry::new).collect(Collectors.toList());
+        }
+
+        private void record(final long durationNanos, final TraversalMetrics metrics) {
+            this.count++;
+            this.totalTime += durationNanos;
+            this.maxTime = Math.max(this.maxTime, durationNanos);
+            if (null == metrics) return;
+
+            final List<? extends Metrics> stepMetrics = new ArrayList<>(metrics.getMetrics());
+            // the same fingerprint may compile to different steps if strategies decide based on the literals
+            if (this.steps.size() != stepMetrics.size()) {
+                this.steps = stepMetrics.stream().map(m -> new StepEntry(m.getName())).collect(Collectors.toList());
+                this.profiledCount = 0;
+            }
+            for (int i = 0; i < stepMetrics.size(); i++) {
+                this.steps.get(i).record(stepMetrics.get(i));
+            }
+            this.profiledCount++;
+        }
+
+        public String getFingerprint() {
+            return this.fingerprint;
+        }
+
+        /**
+         * Gets the number of recorded traversals.
+         */
+        public long getCount() {
+            return this.count;
+        }
+
+        /**
+         * Gets the number of recorded traversals that were profiled and contribute to {@link #getSteps()}.
+         */
+        public long getProfiledCount() {
+            return this.profiledCount;
+        }
+
+        /**
+         * Gets the total time of all recorded traversals in nanoseconds.
+         */
+        public long getTotalTime() {
+            return this.totalTime;
+        }
+
+        /**
+         * Gets the time of the slowest recorded traversal in nanoseconds.
+         */
+        public long getMaxTime() {
+            return this.maxTime;
+        }
+
+        /**
+         * Gets the aggregated metrics of each step of the profiled traversals.
+         */
+        public List<StepEntry> getSteps() {
+            return Collections.unmodifiableList(this.steps);
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder builder = new StringBuilder(this.fingerprint)
+                    .append(" [count=").append(this.count)
+                    .append(", profiled=").append(this.profiledCount)
+                    .append(", total=").append(String.format("%.3f", this.totalTime / 1000000d)).append("ms")
+                    .append(", mean=").append(String.format("%.3f", this.totalTime / 1000000d / this.count)).append("ms")
+                    .append(", max=").append(String.format("%.3f", this.maxTime / 1000000d)).append("ms]");
+            for (final StepEntry step : this.steps) {
+                builder.append(" | ").append(step);
+            }
+            return builder.toString();
+        }
+    }
+
+    /**
+     * The aggregated metrics of a single step over the profiled traversals of an {@link Entry}.
+     */
+    public static final class StepEntry {
+        private final String name;
+        private long elementCount = 0;
+        private long traverserCount = 0;
+        private long duration = 0;
+
+        private StepEntry(final String name) {
+            this.name = name;
+        }
+
+        private StepEntry(final StepEntry entry) {
+            this.name = entry.name;
+            this.elementCount = entry.elementCount;
+            this.traverserCount = entry.traverserCount;
+            this.duration = entry.duration;
+        }
+
+        private void record(final Metrics metrics) {
+            final Long elements = metrics.getCount(TraversalMetrics.ELEMENT_COUNT_ID);
+            final Long traversers = metrics.getCount(TraversalMetrics.TRAVERSER_COUNT_ID);
+            if (null != elements) this.elementCount += elements;
+            if (null != traversers) this.traverserCount += traversers;
+            this.duration += metrics.getDuration(TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * Gets the name of the step as it was first profiled.
+         */
+        public String getName() {
+            return this.name;
+        }
+
+        /**
+         * Gets the total bulk of the traversers that passed the step.
+         */
+        public long getElementCount() {
+            return this.elementCount;
+        }
+
+        /**
+         * Gets the total number of traversers that passed the step.
+         */
+        public long getTraverserCount() {
+            return this.traverserCount;
+        }
+
+        /**
+         * Gets the total time spent in the step in nanoseconds.
+         */
+        public long getDuration() {
+            return this.duration;
+        }
+
+        @Override
+        public String toString() {
+            return this.name + " [elements=" + this.elementCount + ", traversers=" + this.traverserCount +
+                    ", time=" + String.format("%.3f", this.duration / 1000000d) + "ms]";
+        }
+    }
+}
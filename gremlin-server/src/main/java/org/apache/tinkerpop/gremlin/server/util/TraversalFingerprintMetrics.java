@@ -0,0 +1,220 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.server.util;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import org.apache.tinkerpop.gremlin.process.traversal.Bytecode;
+import org.apache.tinkerpop.gremlin.process.traversal.util.BytecodeHelper;
+import org.apache.tinkerpop.gremlin.process.traversal.util.Metrics;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalMetrics;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reports latency and result count metrics per traversal fingerprint as given by
+ * {@link BytecodeHelper#getFingerprint(Bytecode)}. The metrics of a fingerprint are registered in the
+ * {@code MetricRegistry} under {@code <prefix>.<id>} where the id is a short hash of the fingerprint, as fingerprints
+ * are unbounded and contain characters that reporters use as separators or cannot put in file names. The metrics are
+ * reported by all configured reporters:
+ * <ul>
+ *     <li>{@code <prefix>.<id>.fingerprint} - a gauge with the fingerprint itself</li>
+ *     <li>{@code <prefix>.<id>.latency} - a timer of the time it took to process the traversal</li>
+ *     <li>{@code <prefix>.<id>.results} - a histogram of the number of results of the traversal</li>
+ *     <li>{@code <prefix>.<id>.failures} - a counter of the traversals that failed, which are not included in the
+ *     latency and results</li>
+ *     <li>{@code <prefix>.<id>.step.<index>.<step>} - a timer of the time spent in each step of sampled traversals,
+ *     where the step is the simple name of the step without its arguments</li>
+ * </ul>
+ * The number of fingerprints is bounded and the metrics of the least recently used fingerprint are removed from the
+ * registry when it is exceeded.
+ */
+public final class TraversalFingerprintMetrics {
+
+    private final MetricRegistry registry;
+    private final String prefix;
+    private final Map<String, FingerprintMetrics> fingerprints;
+
+    /**
+     * @param registry the registry to register the metrics with
+     * @param prefix   the prefix of the names of the metrics
+     * @param capacity the maximum number of fingerprints for which metrics are registered
+     */
+    public TraversalFingerprintMetrics(final MetricRegistry registry, final String prefix, final int capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("The capacity of the fingerprint metrics must be greater than zero");
+
+        this.registry = registry;
+        this.prefix = prefix;
+        this.fingerprints = new LinkedHashMap<String, FingerprintMetrics>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, FingerprintMetrics> eldest) {
+                if (size() <= capacity) return false;
+                unregister(eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Records a traversal that was processed successfully.
+     *
+     * @param bytecode      the bytecode the traversal was constructed from
+     * @param durationNanos the time it took to process the traversal
+     * @param resultCount   the number of results that were returned
+     * @param stepMetrics   the profile of the traversal if it was sampled or {@code null}
+     */
+    public void record(final Bytecode bytecode, final long durationNanos, final long resultCount,
+                       final TraversalMetrics stepMetrics) {
+        final String fingerprint = BytecodeHelper.getFingerprint(bytecode);
+        final FingerprintMetrics metrics;
+        synchronized (this.fingerprints) {
+            metrics = this.fingerprints.computeIfAbsent(fingerprint, this::register);
+
+            // step timers are registered lazily so they must not be added for a fingerprint that was just evicted
+            if (null != stepMetrics) {
+                final List<? extends Metrics> steps = new ArrayList<>(stepMetrics.getMetrics());
+                for (int i = 0; i < steps.size(); i++) {
+                    final String stepName = MetricRegistry.name(metrics.name, "step", Integer.toString(i),
+                            getStepName(steps.get(i)));
+                    metrics.stepNames.add(stepName);
+                    this.registry.timer(stepName).update(steps.get(i).getDuration(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+                }
+            }
+        }
+
+        metrics.latency.update(durationNanos, TimeUnit.NANOSECONDS);
+        metrics.results.update(resultCount);
+    }
+
+    /**
+     * Records a traversal that failed, which is only counted as its latency and results are not comparable to those
+     * of successful traversals.
+     *
+     * @param bytecode the bytecode the traversal was constructed from
+     */
+    public void recordFailure(final Bytecode bytecode) {
+        final String fingerprint = BytecodeHelper.getFingerprint(bytecode);
+        final FingerprintMetrics metrics;
+        synchronized (this.fingerprints) {
+            metrics = this.fingerprints.computeIfAbsent(fingerprint, this::register);
+        }
+
+        metrics.failures.inc();
+    }
+
+    public int size() {
+        synchronized (this.fingerprints) {
+            return this.fingerprints.size();
+        }
+    }
+
+    /**
+     * Removes the metrics of all fingerprints from the registry.
+     */
+    public void clear() {
+        synchronized (this.fingerprints) {
+            this.fingerprints.values().forEach(this::unregister);
+            this.fingerprints.clear();
+        }
+    }
+
+    /**
+     * Gets the name under which the metrics of the fingerprint are registered.
+     */
+    public String getName(final String fingerprint) {
+        return MetricRegistry.name(this.prefix, hash(fingerprint));
+    }
+
+    private FingerprintMetrics register(final String fingerprint) {
+        final String name = getName(fingerprint);
+
+        // a gauge left by a fingerprint with the same hash is replaced as registering it again would fail
+        final String fingerprintName = MetricRegistry.name(name, "fingerprint");
+        this.registry.remove(fingerprintName);
+        this.registry.register(fingerprintName, (Gauge<String>) () -> fingerprint);
+        return new FingerprintMetrics(name,
+                this.registry.timer(MetricRegistry.name(name, "latency")),
+                this.registry.histogram(MetricRegistry.name(name, "results")),
+                this.registry.counter(MetricRegistry.name(name, "failures")));
+    }
+
+    /**
+     * Removes the metrics by their exact names, as only the step timers that were registered are known.
+     */
+    private void unregister(final FingerprintMetrics metrics) {
+        this.registry.remove(MetricRegistry.name(metrics.name, "fingerprint"));
+        this.registry.remove(MetricRegistry.name(metrics.name, "latency"));
+        this.registry.remove(MetricRegistry.name(metrics.name, "results"));
+        this.registry.remove(MetricRegistry.name(metrics.name, "failures"));
+        metrics.stepNames.forEach(this.registry::remove);
+    }
+
+    /**
+     * Gets the name of the step of the metrics without its arguments and labels, as those differ between traversals
+     * with the same fingerprint.
+     */
+    private static String getStepName(final Metrics metrics) {
+        final String name = metrics.getName();
+        final int index = name.indexOf('(');
+        return (index < 0 ? name : name.substring(0, index)).replaceAll("[^A-Za-z0-9_$]", "_");
+    }
+
+    private static String hash(final String fingerprint) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-1").digest(fingerprint.getBytes(StandardCharsets.UTF_8));
+            final StringBuilder builder = new StringBuilder();
+            for (int i = 0; i < 8; i++) {
+                builder.append(String.format("%02x", digest[i]));
+            }
+            return builder.toString();
+        } catch (NoSuchAlgorithmException nsae) {
+            // every java platform is required to support SHA-1
+            throw new IllegalStateException(nsae);
+        }
+    }
+
+    private static final class FingerprintMetrics {
+        private final String name;
+        private final Timer latency;
+        private final Histogram results;
+        private final Counter failures;
+        private final Set<String> stepNames = new HashSet<>();
+
+        private FingerprintMetrics(final String name, final Timer latency, final Histogram results,
+                                   final Counter failures) {
+            this.name = name;
+            this.latency = latency;
+            this.results = results;
+            this.failures = failures;
+        }
+    }
+}
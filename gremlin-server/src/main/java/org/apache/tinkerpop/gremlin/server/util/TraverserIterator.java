@@ -36,6 +36,7 @@ public class TraverserIterator implements Iterator<Object> {
     private final HaltedTraverserStrategy haltedTraverserStrategy;
     private final TraverserSet bulker = new TraverserSet();
     private final int barrierSize;
+    private long resultCount = 0;
 
     public TraverserIterator(final Traversal.Admin traversal) {
         this.traversal = traversal;
@@ -50,6 +51,13 @@ public class TraverserIterator implements Iterator<Object> {
         return this.traversal;
     }
 
+    /**
+     * Gets the number of results returned so far, which is the sum of the bulk of the returned traversers.
+     */
+    public long getResultCount() {
+        return this.resultCount;
+    }
+
     @Override
     public boolean hasNext() {
         if (this.bulker.isEmpty())
@@ -62,6 +70,7 @@ public class TraverserIterator implements Iterator<Object> {
         if (this.bulker.isEmpty())
             this.fillBulker();
         final Traverser.Admin t = this.haltedTraverserStrategy.halt(this.bulker.remove());
+        this.resultCount += t.bulk();
         return new DefaultRemoteTraverser<>(t.get(), t.bulk());
     }
 
@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.server.util;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.ProfileSideEffectStep;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalMetrics;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.map.TinkerCountGlobalStep;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerFactory;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertEquals;
+
+public class SlowQueryLogTest {
+
+    private static final GraphTraversalSource g = TinkerFactory.createModern().traversal();
+
+    @Test
+    public void shouldSampleOneOutOfSampleRateTraversals() {
+        final SlowQueryLog queryLog = new SlowQueryLog(3, 0, 10);
+        int sampled = 0;
+        for (int i = 0; i < 9; i++) {
+            final Traversal.Admin<?, ?> traversal = g.V().out().asAdmin();
+            final boolean s = queryLog.sample(traversal);
+            assertEquals(s, traversal.getSideEffects().exists(SlowQueryLog.METRICS_KEY));
+            assertThat(TraversalHelper.hasStepOfAssignableClass(ProfileSideEffectStep.class, traversal), is(false));
+            if (s) sampled++;
+        }
+        assertEquals(3, sampled);
+    }
+
+    @Test
+    public void shouldNotSampleProfiledTraversal() {
+        final SlowQueryLog queryLog = new SlowQueryLog(1, 0, 10);
+        assertThat(queryLog.sample(g.V().out().profile().asAdmin()), is(false));
+        assertThat(queryLog.sample(g.V().out().asAdmin()), is(true));
+    }
+
+    @Test
+    public void shouldRecordProfileOfSampledTraversal() {
+        final SlowQueryLog queryLog = new SlowQueryLog(1, 0, 10);
+        for (final String name : new String[]{"marko", "josh"}) {
+            final Traversal.Admin<?, ?> traversal = g.V().has("name", name).out().asAdmin();
+            final boolean sampled = queryLog.sample(traversal);
+            traversal.applyStrategies();
+            traversal.toList();
+            queryLog.record(traversal.getBytecode(), traversal, sampled, TimeUnit.MILLISECONDS.toNanos(1));
+        }
+
+        final List<SlowQueryLog.Entry> entries = queryLog.getEntries();
+        assertEquals(1, entries.size());
+        assertEquals("V().has(name,?).out()", entries.get(0).getFingerprint());
+        assertEquals(2, entries.get(0).getCount());
+        assertEquals(2, entries.get(0).getProfiledCount());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(2), entries.get(0).getTotalTime());
+        assertEquals(2, entries.get(0).getSteps().size());
+        assertEquals(2, entries.get(0).getSteps().get(0).getElementCount());
+        assertEquals(5, entries.get(0).getSteps().get(1).getElementCount());
+        assertThat(entries.get(0).getSteps().get(1).getDuration(), greaterThan(0L));
+    }
+
+    @Test
+    public void shouldApplySameStrategiesToSampledTraversal() {
+        final SlowQueryLog queryLog = new SlowQueryLog(1, 0, 10);
+        final Traversal.Admin<?, ?> traversal = g.V().count().asAdmin();
+        assertThat(queryLog.sample(traversal), is(true));
+        traversal.applyStrategies();
+
+        // the count strategy only applies if count() is the last step so profiling must not be added before it
+        assertThat(TraversalHelper.hasStepOfAssignableClass(TinkerCountGlobalStep.class, traversal), is(true));
+        assertThat(traversal.getEndStep() instanceof ProfileSideEffectStep, is(true));
+        assertEquals(6L, traversal.next());
+        assertThat(traversal.hasNext(), is(false));
+
+        final TraversalMetrics metrics = SlowQueryLog.getSampledMetrics(traversal).get();
+        assertEquals(1, metrics.getMetrics().size());
+        assertThat(metrics.getMetrics(0).getName().startsWith(TinkerCountGlobalStep.class.getSimpleName()), is(true));
+    }
+
+    @Test
+    public void shouldOnlyRecordSlowTraversalsThatWereNotSampled() {
+        final SlowQueryLog queryLog = new SlowQueryLog(0, 100, 10);
+        final Traversal.Admin<?, ?> traversal = g.V().out().asAdmin();
+        assertThat(queryLog.sample(traversal), is(false));
+
+        queryLog.record(traversal.getBytecode(), traversal, false, TimeUnit.MILLISECONDS.toNanos(99));
+        assertEquals(0, queryLog.size());
+
+        queryLog.record(traversal.getBytecode(), traversal, false, TimeUnit.MILLISECONDS.toNanos(100));
+        assertEquals(1, queryLog.size());
+        assertEquals(0, queryLog.getEntries().get(0).getProfiledCount());
+        assertEquals(0, queryLog.getEntries().get(0).getSteps().size());
+    }
+
+    @Test
+    public void shouldEvictCheapestFingerprint() {
+        final SlowQueryLog queryLog = new SlowQueryLog(0, 1, 2);
+        final Traversal.Admin<?, ?> out = g.V().out().asAdmin();
+        final Traversal.Admin<?, ?> in = g.V().in().asAdmin();
+        final Traversal.Admin<?, ?> both = g.V().both().asAdmin();
+        queryLog.record(out.getBytecode(), out, false, TimeUnit.MILLISECONDS.toNanos(10));
+        queryLog.record(in.getBytecode(), in, false, TimeUnit.MILLISECONDS.toNanos(5));
+        queryLog.record(both.getBytecode(), both, false, TimeUnit.MILLISECONDS.toNanos(20));
+
+        List<SlowQueryLog.Entry> entries = queryLog.getEntries();
+        assertEquals(2, entries.size());
+        assertEquals("V().both()", entries.get(0).getFingerprint());
+        assertEquals("V().out()", entries.get(1).getFingerprint());
+        assertThat(queryLog.getSummaries().get(0).startsWith("V().both() [count=1, profiled=0, total=20.000ms"), is(true));
+
+        // the order follows the total time as it grows
+        queryLog.record(out.getBytecode(), out, false, TimeUnit.MILLISECONDS.toNanos(15));
+        queryLog.record(in.getBytecode(), in, false, TimeUnit.MILLISECONDS.toNanos(1));
+        entries = queryLog.getEntries();
+        assertEquals(2, entries.size());
+        assertEquals("V().out()", entries.get(0).getFingerprint());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(25), entries.get(0).getTotalTime());
+        assertEquals("V().in()", entries.get(1).getFingerprint());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotAllowEmptyLog() {
+        new SlowQueryLog(1, 0, 0);
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.server.util;
+
+import com.codahale.metrics.MetricRegistry;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerFactory;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertEquals;
+
+public class TraversalFingerprintMetricsTest {
+
+    private static final GraphTraversalSource g = TinkerFactory.createModern().traversal();
+
+    @Test
+    public void shouldRegisterMetricsPerFingerprint() {
+        final MetricRegistry registry = new MetricRegistry();
+        final TraversalFingerprintMetrics metrics = new TraversalFingerprintMetrics(registry, "fp", 10);
+        metrics.record(g.V(1).out("knows").asAdmin().getBytecode(), TimeUnit.MILLISECONDS.toNanos(2), 2, null);
+        metrics.record(g.V(4).out("knows").asAdmin().getBytecode(), TimeUnit.MILLISECONDS.toNanos(4), 2, null);
+        metrics.record(g.V().count().asAdmin().getBytecode(), TimeUnit.MILLISECONDS.toNanos(1), 1, null);
+        assertEquals(2, metrics.size());
+
+        final String name = metrics.getName("V(?).out(knows)");
+        assertThat(name.matches("fp\\.[0-9a-f]{16}"), is(true));
+        assertEquals("V(?).out(knows)", registry.getGauges().get(name + ".fingerprint").getValue());
+        assertEquals(2, registry.getTimers().get(name + ".latency").getCount());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(4), registry.getTimers().get(name + ".latency").getSnapshot().getMax());
+        assertEquals(2, registry.getHistograms().get(name + ".results").getSnapshot().getMax());
+    }
+
+    @Test
+    public void shouldRecordStepTimersOfSampledTraversal() {
+        final MetricRegistry registry = new MetricRegistry();
+        final TraversalFingerprintMetrics metrics = new TraversalFingerprintMetrics(registry, "fp", 10);
+        final SlowQueryLog queryLog = new SlowQueryLog(1, 0, 10);
+        final Traversal.Admin<?, ?> traversal = g.V().out().asAdmin();
+        assertThat(queryLog.sample(traversal), is(true));
+        traversal.applyStrategies();
+        traversal.toList();
+        metrics.record(traversal.getBytecode(), 100, 6, SlowQueryLog.getSampledMetrics(traversal).get());
+
+        final String name = metrics.getName("V().out()");
+        assertEquals(1, registry.getTimers().get(name + ".step.0.TinkerGraphStep").getCount());
+        assertEquals(1, registry.getTimers().get(name + ".step.1.VertexStep").getCount());
+
+        // a second sample of the same fingerprint updates the same timers
+        final Traversal.Admin<?, ?> other = g.V().out().asAdmin();
+        assertThat(queryLog.sample(other), is(true));
+        other.applyStrategies();
+        other.toList();
+        metrics.record(other.getBytecode(), 100, 6, SlowQueryLog.getSampledMetrics(other).get());
+        assertEquals(2, registry.getTimers().get(name + ".step.0.TinkerGraphStep").getCount());
+        assertEquals(2, registry.getTimers().get(name + ".latency").getCount());
+    }
+
+    @Test
+    public void shouldCountFailuresApartFromLatency() {
+        final MetricRegistry registry = new MetricRegistry();
+        final TraversalFingerprintMetrics metrics = new TraversalFingerprintMetrics(registry, "fp", 10);
+        metrics.record(g.V().out().asAdmin().getBytecode(), 100, 6, null);
+        metrics.recordFailure(g.V().out().asAdmin().getBytecode());
+        metrics.recordFailure(g.V().out().asAdmin().getBytecode());
+
+        final String name = metrics.getName("V().out()");
+        assertEquals(1, registry.getTimers().get(name + ".latency").getCount());
+        assertEquals(2, registry.getCounters().get(name + ".failures").getCount());
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedFingerprint() {
+        final MetricRegistry registry = new MetricRegistry();
+        final TraversalFingerprintMetrics metrics = new TraversalFingerprintMetrics(registry, "fp", 2);
+        metrics.record(g.V().out().asAdmin().getBytecode(), 1, 1, null);
+        metrics.record(g.V().in().asAdmin().getBytecode(), 1, 1, null);
+        metrics.record(g.V().out().asAdmin().getBytecode(), 1, 1, null);
+        metrics.record(g.V().both().asAdmin().getBytecode(), 1, 1, null);
+
+        // evicting V() must not remove the metrics of the fingerprints that it is a prefix of
+        metrics.record(g.V().asAdmin().getBytecode(), 1, 1, null);
+        metrics.record(g.V().both().asAdmin().getBytecode(), 1, 1, null);
+        metrics.record(g.V().out().asAdmin().getBytecode(), 1, 1, null);
+
+        assertEquals(2, metrics.size());
+        assertThat(registry.getTimers().containsKey(metrics.getName("V().out()") + ".latency"), is(true));
+        assertThat(registry.getTimers().containsKey(metrics.getName("V().both()") + ".latency"), is(true));
+        assertThat(registry.getNames().stream().anyMatch(n -> n.startsWith(metrics.getName("V().in()"))), is(false));
+
+        metrics.clear();
+        assertEquals(0, metrics.size());
+        assertThat(registry.getNames().isEmpty(), is(true));
+    }
+}
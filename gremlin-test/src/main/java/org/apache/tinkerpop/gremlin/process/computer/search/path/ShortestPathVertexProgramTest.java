@@ -18,12 +18,15 @@
  */
 package org.apache.tinkerpop.gremlin.process.computer.search.path;
 
+import org.apache.tinkerpop.gremlin.FeatureRequirement;
 import org.apache.tinkerpop.gremlin.LoadGraphWith;
 import org.apache.tinkerpop.gremlin.process.AbstractGremlinProcessTest;
 import org.apache.tinkerpop.gremlin.process.computer.ComputerResult;
 import org.apache.tinkerpop.gremlin.process.traversal.Path;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
 import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -256,6 +259,68 @@ public class ShortestPathVertexProgramTest extends AbstractGremlinProcessTest {
         helper.checkResults(expected, shortestPaths);
     }
 
+    @Test
+    @LoadGraphWith(MODERN)
+    @FeatureRequirement(featureClass = Graph.Features.VertexFeatures.class, feature = Graph.Features.VertexFeatures.FEATURE_ADD_PROPERTY)
+    @FeatureRequirement(featureClass = Graph.Features.VertexPropertyFeatures.class, feature = Graph.Features.VertexPropertyFeatures.FEATURE_MAP_VALUES)
+    public void shouldFindShortestPathsUsingLandmarks() throws Exception {
+        // hop distances from the landmarks "marko" and "ripple"
+        final Vertex marko = convertToVertex(graph, "marko");
+        final Vertex ripple = convertToVertex(graph, "ripple");
+        final Map<String, int[]> distances = new HashMap<>();
+        distances.put("marko", new int[]{0, 2});
+        distances.put("vadas", new int[]{1, 3});
+        distances.put("lop", new int[]{1, 2});
+        distances.put("josh", new int[]{1, 1});
+        distances.put("ripple", new int[]{2, 0});
+        distances.put("peter", new int[]{2, 3});
+        distances.forEach((name, d) -> {
+            final Map<Object, Number> landmarks = new HashMap<>();
+            landmarks.put(marko.id(), d[0]);
+            landmarks.put(ripple.id(), d[1]);
+            convertToVertex(graph, name).property("landmarks", landmarks);
+        });
+
+        final ComputerResult result = graph.compute(graphProvider.getGraphComputer(graph).getClass()).
+                program(ShortestPathVertexProgram.build()
+                        .source(__.has("name", "vadas"))
+                        .target(__.has("name", "ripple"))
+                        .landmarkProperty("landmarks").create(graph)).submit().get();
+        assertTrue(result.memory().exists(ShortestPathVertexProgram.SHORTEST_PATHS));
+        final List<Path> shortestPaths = result.memory().get(ShortestPathVertexProgram.SHORTEST_PATHS);
+        final List<Path> expected = Collections.singletonList(helper.makePath("vadas", "marko", "josh", "ripple"));
+        helper.checkResults(expected, shortestPaths);
+    }
+
+    @Test
+    @LoadGraphWith(GRATEFUL)
+    public void shouldStopSearchOnceTargetsCannotBeReachedOnShorterPaths() throws Exception {
+        final ComputerResult unpruned = graph.compute(graphProvider.getGraphComputer(graph).getClass()).
+                program(ShortestPathVertexProgram.build()
+                        .edgeTraversal(__.outE("followedBy"))
+                        .source(__.has("song", "name", "MIGHT AS WELL"))
+                        .create(graph)).submit().get();
+        final ComputerResult pruned = graph.compute(graphProvider.getGraphComputer(graph).getClass()).
+                program(ShortestPathVertexProgram.build()
+                        .edgeTraversal(__.outE("followedBy"))
+                        .source(__.has("song", "name", "MIGHT AS WELL"))
+                        .target(__.has("song", "name", "MAYBE YOU KNOW HOW I FEEL"))
+                        .create(graph)).submit().get();
+        final List<Path> shortestPaths = pruned.memory().get(ShortestPathVertexProgram.SHORTEST_PATHS);
+        final List<Path> expected = Arrays.asList(
+                helper.makePath("MIGHT AS WELL", "DRUMS", "MAYBE YOU KNOW HOW I FEEL"),
+                helper.makePath("MIGHT AS WELL", "EYES OF THE WORLD", "MAYBE YOU KNOW HOW I FEEL"),
+                helper.makePath("MIGHT AS WELL", "SHIP OF FOOLS", "MAYBE YOU KNOW HOW I FEEL"));
+        helper.checkResults(expected, shortestPaths);
+
+        // vertices only send messages in an iteration if they found a shorter path in it, so the search goes on until
+        // no more messages are sent: the pruned search stops sending messages one hop behind the target, which is
+        // two hops away, while the unpruned search goes on until it reached the most distant vertex. The paths are then
+        // sent back from the target for another two hops.
+        assertEquals(7, pruned.memory().getIteration());
+        assertTrue(unpruned.memory().getIteration() > pruned.memory().getIteration());
+    }
+
     public static String[][] ALL_SHORTEST_PATHS = new String[][]{
             new String[]{"marko"},
             new String[]{"marko", "vadas"},
@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.strategy.finalization;
+
+import org.apache.tinkerpop.gremlin.LoadGraphWith;
+import org.apache.tinkerpop.gremlin.process.AbstractGremlinProcessTest;
+import org.apache.tinkerpop.gremlin.process.GremlinProcessRunner;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.apache.tinkerpop.gremlin.LoadGraphWith.GraphData.GRATEFUL;
+import static org.apache.tinkerpop.gremlin.LoadGraphWith.GraphData.MODERN;
+import static org.apache.tinkerpop.gremlin.process.traversal.P.gt;
+
+@RunWith(GremlinProcessRunner.class)
+public class BatchStrategyProcessTest extends AbstractGremlinProcessTest {
+
+    @Test
+    @LoadGraphWith(MODERN)
+    public void shouldBatchFilterAndFlatMapSteps() {
+        final GraphTraversalSource gBatched = g.withStrategies(new BatchStrategy(2));
+        checkResults(g.V().has("age", gt(27)).out().values("name").toList(),
+                gBatched.V().has("age", gt(27)).out().values("name"));
+        checkResults(g.V().out().out().values("name").toList(),
+                gBatched.V().out().out().values("name"));
+        checkResults(g.V().outE("created").inV().in("created").values("age").toList(),
+                gBatched.V().outE("created").inV().in("created").values("age"));
+    }
+
+    @Test
+    @LoadGraphWith(GRATEFUL)
+    public void shouldBatchAcrossLargerInput() {
+        final GraphTraversalSource gBatched = g.withStrategies(new BatchStrategy(64));
+        checkResults(g.V().hasLabel("song").out("followedBy").has("performances", gt(100)).values("name").toList(),
+                gBatched.V().hasLabel("song").out("followedBy").has("performances", gt(100)).values("name"));
+    }
+}
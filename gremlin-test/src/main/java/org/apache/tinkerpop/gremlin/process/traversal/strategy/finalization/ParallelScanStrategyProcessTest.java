@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.strategy.finalization;
+
+import org.apache.tinkerpop.gremlin.LoadGraphWith;
+import org.apache.tinkerpop.gremlin.process.AbstractGremlinProcessTest;
+import org.apache.tinkerpop.gremlin.process.GremlinProcessRunner;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.apache.tinkerpop.gremlin.LoadGraphWith.GraphData.GRATEFUL;
+import static org.apache.tinkerpop.gremlin.LoadGraphWith.GraphData.MODERN;
+import static org.apache.tinkerpop.gremlin.process.traversal.P.gt;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(GremlinProcessRunner.class)
+public class ParallelScanStrategyProcessTest extends AbstractGremlinProcessTest {
+
+    @Test
+    @LoadGraphWith(MODERN)
+    public void shouldReduceAcrossPartitions() {
+        final GraphTraversalSource gParallel = g.withStrategies(new ParallelScanStrategy(1));
+        assertEquals(g.V().count().next(), gParallel.V().count().next());
+        assertEquals(g.V().has("age", gt(27)).values("age").sum().next(),
+                gParallel.V().has("age", gt(27)).values("age").sum().next());
+        assertEquals(g.V().values("age").min().next(), gParallel.V().values("age").min().next());
+        assertEquals(g.V().values("age").max().next(), gParallel.V().values("age").max().next());
+        assertEquals(g.V().values("age").mean().next(), gParallel.V().values("age").mean().next());
+        assertEquals(g.V().out().groupCount().by(T.label).next(), gParallel.V().out().groupCount().by(T.label).next());
+        assertEquals(g.V().out().values("age").min().as("a").select("a").toList(),
+                gParallel.V().out().values("age").min().as("a").select("a").toList());
+    }
+
+    @Test
+    @LoadGraphWith(MODERN)
+    public void shouldKeepLabelsOfSplitStartStep() {
+        final GraphTraversalSource gParallel = g.withStrategies(new ParallelScanStrategy(1, 2));
+        assertEquals(g.V().as("a").out().where(__.as("a").out("knows")).count().next(),
+                gParallel.V().as("a").out().where(__.as("a").out("knows")).count().next());
+        assertEquals(g.V().hasLabel("person").as("a").out("created").where(__.as("a").has("age", gt(30))).count().next(),
+                gParallel.V().hasLabel("person").as("a").out("created").where(__.as("a").has("age", gt(30))).count().next());
+    }
+
+    @Test
+    @LoadGraphWith(MODERN)
+    public void shouldReduceEmptyScan() {
+        final GraphTraversalSource gParallel = g.withStrategies(new ParallelScanStrategy(1));
+        assertEquals(0L, gParallel.V().has("age", gt(100)).count().next().longValue());
+        assertEquals(g.V().has("age", gt(100)).values("age").sum().toList(),
+                gParallel.V().has("age", gt(100)).values("age").sum().toList());
+        assertEquals(g.V().has("age", gt(100)).values("age").max().toList(),
+                gParallel.V().has("age", gt(100)).values("age").max().toList());
+    }
+
+    @Test
+    @LoadGraphWith(GRATEFUL)
+    public void shouldReduceLargerScanAcrossPartitions() {
+        final GraphTraversalSource gParallel = g.withStrategies(new ParallelScanStrategy(16));
+        assertEquals(g.V().hasLabel("song").out("followedBy").values("performances").sum().next(),
+                gParallel.V().hasLabel("song").out("followedBy").values("performances").sum().next());
+        assertEquals(g.V().out().out().groupCount().by("name").next(),
+                gParallel.V().out().out().groupCount().by("name").next());
+        assertEquals(g.V().where(__.out("sungBy").has("name", "Garcia")).count().next(),
+                gParallel.V().where(__.out("sungBy").has("name", "Garcia")).count().next());
+    }
+}
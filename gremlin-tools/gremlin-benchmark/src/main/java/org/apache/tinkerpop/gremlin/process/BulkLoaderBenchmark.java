@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process;
+
+import org.apache.tinkerpop.benchmark.util.AbstractGraphMutateBenchmark;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Setup;
+
+import java.util.Random;
+
+/**
+ * {@code BulkLoaderBenchmark} compares loading vertices and edges into an indexed graph with
+ * {@link Graph.BulkLoader} to loading them with the element-at-a-time methods measured by
+ * {@link GraphMutateBenchmark}.
+ */
+public class BulkLoaderBenchmark extends AbstractGraphMutateBenchmark {
+
+    private static final int VERTICES = 1000;
+    private static final int EDGES_PER_VERTEX = 3;
+
+    // the level is not inherited, so it is repeated to start every invocation on a new graph
+    @Setup(Level.Invocation)
+    @Override
+    public void prepare() {
+        super.prepare();
+        ((TinkerGraph) graph).createIndex("name", Vertex.class);
+        ((TinkerGraph) graph).createIndex("weight", Edge.class);
+    }
+
+    @Benchmark
+    public Edge testAddVertexAddEdge() {
+        final Random rand = new Random(584545454L);
+        final Vertex[] vertices = new Vertex[VERTICES];
+        for (int ix = 0; ix < VERTICES; ix++) {
+            vertices[ix] = graph.addVertex(T.label, "person", "name", "p" + ix, "age", ix % 100);
+        }
+
+        Edge e = null;
+        for (int ix = 0; ix < VERTICES; ix++) {
+            for (int ie = 0; ie < EDGES_PER_VERTEX; ie++) {
+                e = vertices[ix].addEdge("knows", vertices[rand.nextInt(VERTICES)], "weight", ie);
+            }
+        }
+        return e;
+    }
+
+    @Benchmark
+    public Edge testBulkLoader() {
+        final Random rand = new Random(584545454L);
+        Edge e = null;
+        try (final Graph.BulkLoader loader = graph.bulkLoader()) {
+            for (int ix = 0; ix < VERTICES; ix++) {
+                loader.addVertex(ix, T.label, "person", "name", "p" + ix, "age", ix % 100);
+            }
+
+            for (int ix = 0; ix < VERTICES; ix++) {
+                for (int ie = 0; ie < EDGES_PER_VERTEX; ie++) {
+                    e = loader.addEdge("knows", ix, rand.nextInt(VERTICES), "weight", ie);
+                }
+            }
+        }
+        return e;
+    }
+}
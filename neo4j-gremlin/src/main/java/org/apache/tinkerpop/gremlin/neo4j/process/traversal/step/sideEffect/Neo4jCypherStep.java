@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.neo4j.process.traversal.step.sideEffect;
+
+import org.apache.tinkerpop.gremlin.neo4j.process.util.Neo4jCypherIterator;
+import org.apache.tinkerpop.gremlin.neo4j.structure.Neo4jGraph;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep;
+import org.apache.tinkerpop.gremlin.process.traversal.util.FastNoSuchElementException;
+import org.apache.tinkerpop.gremlin.structure.util.CloseableIterator;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * A start step that executes a parameterized Cypher query, which a prefix of the traversal was compiled to, and
+ * emits the values of its single {@link #RESULT} column. Unlike {@link CypherStartStep} the query is executed when
+ * the step is first iterated rather than when it is constructed. The result of the query is closed once it is
+ * exhausted or when the step is closed or reset, so that a traversal that stops early does not leak it.
+ *
+ * @see org.apache.tinkerpop.gremlin.neo4j.process.traversal.strategy.optimization.Neo4jCypherStrategy
+ */
+public final class Neo4jCypherStep<S, E> extends AbstractStep<S, E> implements AutoCloseable {
+
+    /**
+     * The name of the column that the query returns.
+     */
+    public static final String RESULT = "result";
+
+    private final String query;
+    private final Map<String, Object> parameters;
+    private Iterator<Map<String, Object>> result = null;
+    private Iterator<Map<String, E>> iterator = null;
+
+    public Neo4jCypherStep(final Traversal.Admin traversal, final String query, final Map<String, Object> parameters) {
+        super(traversal);
+        this.query = query;
+        this.parameters = Collections.unmodifiableMap(parameters);
+    }
+
+    public String getQuery() {
+        return this.query;
+    }
+
+    public Map<String, Object> getParameters() {
+        return this.parameters;
+    }
+
+    @Override
+    protected Traverser.Admin<E> processNextStart() {
+        if (null == this.iterator) {
+            final Neo4jGraph graph = (Neo4jGraph) this.getTraversal().getGraph().get();
+            graph.tx().readWrite();
+            this.result = graph.getBaseGraph().execute(this.query, this.parameters);
+            this.iterator = new Neo4jCypherIterator<>((Iterator) this.result, graph);
+        }
+        if (!this.iterator.hasNext()) {
+            this.close();
+            throw FastNoSuchElementException.instance();
+        }
+        return this.getTraversal().getTraverserGenerator().generate(this.iterator.next().get(RESULT), (Step) this, 1L);
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        this.close();
+        this.iterator = null;
+    }
+
+    /**
+     * Closes the result of the query if it was executed. An exhausted step stays exhausted until it is reset.
+     */
+    @Override
+    public void close() {
+        if (null != this.result) {
+            CloseableIterator.closeIterator(this.result);
+            this.result = null;
+            this.iterator = Collections.emptyIterator();
+        }
+    }
+
+    @Override
+    public Neo4jCypherStep<S, E> clone() {
+        final Neo4jCypherStep<S, E> clone = (Neo4jCypherStep<S, E>) super.clone();
+        clone.result = null;
+        clone.iterator = null;
+        return clone;
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.stepString(this, this.query, this.parameters);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode() ^ this.query.hashCode() ^ this.parameters.hashCode();
+    }
+}
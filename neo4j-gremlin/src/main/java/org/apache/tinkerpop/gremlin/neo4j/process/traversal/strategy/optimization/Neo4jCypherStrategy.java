@@ -0,0 +1,404 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.neo4j.process.traversal.strategy.optimization;
+
+import org.apache.tinkerpop.gremlin.neo4j.process.traversal.LabelP;
+import org.apache.tinkerpop.gremlin.neo4j.process.traversal.step.sideEffect.Neo4jCypherStep;
+import org.apache.tinkerpop.gremlin.neo4j.process.traversal.step.sideEffect.Neo4jGraphStep;
+import org.apache.tinkerpop.gremlin.neo4j.structure.Neo4jVertex;
+import org.apache.tinkerpop.gremlin.process.traversal.Compare;
+import org.apache.tinkerpop.gremlin.process.traversal.Contains;
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Text;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.lambda.ValueTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.HasStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.RangeGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.CountGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.NoOpBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.OrderGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.EmptyStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
+import org.apache.tinkerpop.gremlin.process.traversal.util.AndP;
+import org.apache.tinkerpop.gremlin.process.traversal.util.ConnectiveP;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.javatuples.Pair;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Compiles the longest supported prefix of a root traversal that starts with a {@link Neo4jGraphStep} over vertices
+ * into a single parameterized Cypher query that is executed by a {@link Neo4jCypherStep}, so that Neo4j's planner
+ * chooses the access path and the elements in between are never wrapped. The prefix may consist of:
+ * <ul>
+ *     <li>the graph step with its ids and {@code has()} containers</li>
+ *     <li>{@code has()} filters on ids, labels and properties with {@link Compare}, {@link Contains},
+ *     {@link Text#startingWith}, {@link Text#endingWith}, {@link Text#containing} and {@link LabelP} predicates and
+ *     their conjunctions and disjunctions</li>
+ *     <li>{@code out()} and {@code in()} hops to adjacent vertices</li>
+ *     <li>{@code order()} by properties that are filtered on, so that no vertex lacks them</li>
+ *     <li>{@code range()}, {@code limit()} and {@code skip()}</li>
+ *     <li>a final {@code count()}</li>
+ * </ul>
+ * The traversal is left untouched if nothing beyond the graph step can be compiled, if it requires paths or if a
+ * step of the prefix other than the last is labeled. Each hop is a {@code MATCH} clause of its own so that, as in
+ * Gremlin, a relationship may be traversed more than once. {@code both()} is not compiled as an undirected
+ * pattern would match self-loops once where Gremlin traverses them in both directions.
+ * <p/>
+ *
+ * <pre>
+ * g.V().hasLabel("person").out("knows").count()   // is replaced by
+ * Neo4jCypherStep(MATCH (n0) WHERE (size(labels(n0)) = 1 AND n0:`person`) MATCH (n0)-[:`knows`]->(n1) RETURN count(*) AS result)
+ * </pre>
+ */
+public final class Neo4jCypherStrategy extends AbstractTraversalStrategy<TraversalStrategy.ProviderOptimizationStrategy> implements TraversalStrategy.ProviderOptimizationStrategy {
+
+    private static final Neo4jCypherStrategy INSTANCE = new Neo4jCypherStrategy();
+
+    private static final Set<Class<? extends ProviderOptimizationStrategy>> PRIORS = Collections.singleton(Neo4jGraphStepStrategy.class);
+
+    private Neo4jCypherStrategy() {
+    }
+
+    @Override
+    public void apply(final Traversal.Admin<?, ?> traversal) {
+        if (!(traversal.getParent() instanceof EmptyStep) || !traversal.getGraph().isPresent() ||
+                TraversalHelper.onGraphComputer(traversal) || !(traversal.getStartStep() instanceof Neo4jGraphStep))
+            return;
+
+        final Neo4jGraphStep<?, ?> graphStep = (Neo4jGraphStep<?, ?>) traversal.getStartStep();
+        if (!graphStep.isStartStep() || !Vertex.class.equals(graphStep.getReturnClass()) || null == graphStep.getIds())
+            return;
+
+        final Set<TraverserRequirement> requirements = traversal.getTraverserRequirements();
+        if (requirements.contains(TraverserRequirement.PATH))
+            return;
+
+        final Query query = new Query();
+        if (!query.match(graphStep.getIds(), graphStep.getHasContainers()))
+            return;
+
+        final List<Step<?, ?>> compiled = new ArrayList<>();
+        boolean pushedDown = false;
+        Step<?, ?> last = graphStep;
+        Step<?, ?> step = graphStep.getNextStep();
+        while (last.getLabels().isEmpty() && !(step instanceof EmptyStep)) {
+            if (step instanceof VertexStep) {
+                final VertexStep<?> vertexStep = (VertexStep<?>) step;
+                if (!vertexStep.returnsVertex() || !query.hop(vertexStep.getDirection(), vertexStep.getEdgeLabels()))
+                    break;
+                pushedDown = true;
+            } else if (step instanceof HasStep) {
+                if (!query.filter(((HasStep<?>) step).getHasContainers()))
+                    break;
+            } else if (step instanceof OrderGlobalStep) {
+                if (!query.order(((OrderGlobalStep<?, ?>) step).getComparators()))
+                    break;
+                pushedDown = true;
+            } else if (step instanceof RangeGlobalStep) {
+                if (!query.range(((RangeGlobalStep<?>) step).getLowRange(), ((RangeGlobalStep<?>) step).getHighRange()))
+                    break;
+                pushedDown = true;
+            } else if (step instanceof CountGlobalStep) {
+                query.count();
+                compiled.add(step);
+                last = step;
+                pushedDown = true;
+                break;
+            } else if (!(step instanceof NoOpBarrierStep)) {
+                break;
+            }
+            compiled.add(step);
+            last = step;
+            step = step.getNextStep();
+        }
+
+        if (!pushedDown)
+            return;
+
+        final Neo4jCypherStep<?, ?> cypherStep = new Neo4jCypherStep<>(traversal, query.build(), query.parameters);
+        last.getLabels().forEach(cypherStep::addLabel);
+        for (final Step<?, ?> compiledStep : compiled) {
+            traversal.removeStep(compiledStep);
+        }
+        // the graph step is the start step so the cypher step takes its place at the front
+        traversal.removeStep(graphStep);
+        traversal.addStep(0, cypherStep);
+    }
+
+    @Override
+    public Set<Class<? extends ProviderOptimizationStrategy>> applyPrior() {
+        return PRIORS;
+    }
+
+    public static Neo4jCypherStrategy instance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Builds the Cypher query. Each method returns {@code false} without modifying the query if the step can not be
+     * compiled.
+     */
+    private static final class Query {
+        private final StringBuilder cypher = new StringBuilder();
+        private final Map<String, Object> parameters = new LinkedHashMap<>();
+        private final List<String> conditions = new ArrayList<>();
+        private final Set<String> filteredKeys = new HashSet<>();
+        private String node = "n0";
+        private int nodes = 0;
+        private String orderBy = null;
+        private long low = 0;
+        private long high = -1;
+        private boolean ranged = false;
+        private boolean counted = false;
+
+        private boolean match(final Object[] ids, final List<HasContainer> hasContainers) {
+            if (ids.length > 0) {
+                final List<Long> longIds = new ArrayList<>(ids.length);
+                for (final Object id : ids) {
+                    if (id instanceof Element && ((Element) id).id() instanceof Long)
+                        longIds.add((Long) ((Element) id).id());
+                    else if (id instanceof Number)
+                        longIds.add(((Number) id).longValue());
+                    else
+                        return false;
+                }
+                this.conditions.add("id(" + this.node + ") IN " + parameter(longIds, this.parameters));
+            }
+            this.cypher.append("MATCH (").append(this.node).append(')');
+            return filter(hasContainers);
+        }
+
+        private boolean filter(final List<HasContainer> hasContainers) {
+            if (null != this.orderBy || this.ranged)
+                return false;
+
+            final Map<String, Object> newParameters = new LinkedHashMap<>();
+            final List<String> newConditions = new ArrayList<>(hasContainers.size());
+            for (final HasContainer hasContainer : hasContainers) {
+                final String condition = condition(hasContainer.getKey(), hasContainer.getPredicate(), newParameters);
+                if (null == condition)
+                    return false;
+                newConditions.add(condition);
+            }
+            this.parameters.putAll(newParameters);
+            this.conditions.addAll(newConditions);
+            for (final HasContainer hasContainer : hasContainers) {
+                if (!T.label.getAccessor().equals(hasContainer.getKey()) && !T.id.getAccessor().equals(hasContainer.getKey()))
+                    this.filteredKeys.add(hasContainer.getKey());
+            }
+            return true;
+        }
+
+        private boolean hop(final Direction direction, final String[] edgeLabels) {
+            // the rows of a MATCH that follows an ordered WITH are not guaranteed to keep the order
+            if (Direction.BOTH == direction || null != this.orderBy)
+                return false;
+
+            appendConditions();
+            appendOrderAndRange();
+            final String next = "n" + ++this.nodes;
+            this.cypher.append(" MATCH (").append(this.node).append(')')
+                    .append(Direction.IN == direction ? "<-[" : "-[");
+            for (int i = 0; i < edgeLabels.length; i++) {
+                this.cypher.append(0 == i ? ":" : "|").append(escape(edgeLabels[i]));
+            }
+            this.cypher.append(Direction.OUT == direction ? "]->(" : "]-(").append(next).append(')');
+            this.node = next;
+            this.filteredKeys.clear();
+            return true;
+        }
+
+        private boolean order(final List<? extends Pair<? extends Traversal.Admin<?, ?>, ? extends Comparator<?>>> comparators) {
+            if (null != this.orderBy || this.ranged || comparators.isEmpty())
+                return false;
+
+            final StringBuilder builder = new StringBuilder();
+            for (final Pair<? extends Traversal.Admin<?, ?>, ? extends Comparator<?>> pair : comparators) {
+                // a vertex without the property would be ordered differently so only filtered keys are supported
+                if (!(pair.getValue0() instanceof ValueTraversal) || !pair.getValue0().getSteps().isEmpty() ||
+                        !this.filteredKeys.contains(((ValueTraversal<?, ?>) pair.getValue0()).getPropertyKey()) ||
+                        (Order.asc != pair.getValue1() && Order.desc != pair.getValue1()))
+                    return false;
+                if (builder.length() > 0) builder.append(", ");
+                builder.append(this.node).append('.').append(escape(((ValueTraversal<?, ?>) pair.getValue0()).getPropertyKey()))
+                        .append(Order.asc == pair.getValue1() ? " ASC" : " DESC");
+            }
+            this.orderBy = builder.toString();
+            return true;
+        }
+
+        private boolean range(final long low, final long high) {
+            if (this.ranged)
+                return false;
+            this.ranged = true;
+            this.low = low;
+            this.high = high;
+            return true;
+        }
+
+        private void count() {
+            this.counted = true;
+        }
+
+        private String build() {
+            appendConditions();
+            // the order does not change the number of results unless they are limited
+            if (this.counted && !this.ranged)
+                this.orderBy = null;
+            appendOrderAndRange();
+            this.cypher.append(" RETURN ").append(this.counted ? "count(*)" : this.node).append(" AS ").append(Neo4jCypherStep.RESULT);
+            return this.cypher.toString();
+        }
+
+        private void appendConditions() {
+            if (!this.conditions.isEmpty()) {
+                this.cypher.append(" WHERE ").append(String.join(" AND ", this.conditions));
+                this.conditions.clear();
+            }
+        }
+
+        private void appendOrderAndRange() {
+            if (null == this.orderBy && !this.ranged)
+                return;
+            this.cypher.append(" WITH ").append(this.node);
+            if (null != this.orderBy)
+                this.cypher.append(" ORDER BY ").append(this.orderBy);
+            if (this.low > 0)
+                this.cypher.append(" SKIP ").append(parameter(this.low, this.parameters));
+            if (this.high >= 0)
+                this.cypher.append(" LIMIT ").append(parameter(this.high - this.low, this.parameters));
+            this.orderBy = null;
+            this.ranged = false;
+            this.low = 0;
+            this.high = -1;
+        }
+
+        private String condition(final String key, final P<?> predicate, final Map<String, Object> newParameters) {
+            if (T.label.getAccessor().equals(key))
+                return labelCondition(predicate, newParameters);
+            else if (T.id.getAccessor().equals(key))
+                return predicateCondition("id(" + this.node + ")", predicate, newParameters);
+            else
+                return predicateCondition(this.node + "." + escape(key), predicate, newParameters);
+        }
+
+        private String labelCondition(final P<?> predicate, final Map<String, Object> newParameters) {
+            final Object value = predicate.getValue();
+            if (predicate instanceof LabelP && value instanceof String) {
+                return this.node + ":" + escape((String) value);
+            } else if (Compare.eq == predicate.getBiPredicate() && value instanceof String) {
+                // the label of a vertex is its sorted labels joined by the delimiter
+                final String[] labels = ((String) value).split(Neo4jVertex.LABEL_DELIMINATOR, -1);
+                if (!String.join(Neo4jVertex.LABEL_DELIMINATOR, new TreeSet<>(Arrays.asList(labels))).equals(value))
+                    return null;
+                final StringBuilder builder = new StringBuilder("(size(labels(").append(this.node).append(")) = ").append(labels.length);
+                for (final String label : labels) {
+                    builder.append(" AND ").append(this.node).append(':').append(escape(label));
+                }
+                return builder.append(')').toString();
+            } else if (Contains.within == predicate.getBiPredicate() && value instanceof Collection) {
+                for (final Object label : (Collection<?>) value) {
+                    if (!(label instanceof String) || ((String) label).contains(Neo4jVertex.LABEL_DELIMINATOR))
+                        return null;
+                }
+                return "(size(labels(" + this.node + ")) = 1 AND labels(" + this.node + ")[0] IN " +
+                        parameter(new ArrayList<>((Collection<?>) value), newParameters) + ")";
+            }
+            return null;
+        }
+
+        private String predicateCondition(final String expression, final P<?> predicate, final Map<String, Object> newParameters) {
+            if (predicate instanceof ConnectiveP) {
+                final List<String> conditions = new ArrayList<>();
+                for (final P<?> p : ((ConnectiveP<?>) predicate).getPredicates()) {
+                    final String condition = predicateCondition(expression, p, newParameters);
+                    if (null == condition)
+                        return null;
+                    conditions.add(condition);
+                }
+                return "(" + String.join(predicate instanceof AndP ? " AND " : " OR ", conditions) + ")";
+            }
+
+            final Object value = predicate.getValue();
+            final String operator = operator(predicate);
+            if (null != operator) {
+                final boolean supported = predicate.getBiPredicate() instanceof Text ? value instanceof String : isSupportedValue(value);
+                return supported ? expression + " " + operator + " " + parameter(value, newParameters) : null;
+            } else if (Contains.within == predicate.getBiPredicate() || Contains.without == predicate.getBiPredicate()) {
+                if (!(value instanceof Collection) || !((Collection<?>) value).stream().allMatch(Query::isSupportedValue))
+                    return null;
+                final String parameter = parameter(new ArrayList<>((Collection<?>) value), newParameters);
+                // a missing property is null and "null IN []" is false so it has to be excluded explicitly
+                return Contains.within == predicate.getBiPredicate() ?
+                        expression + " IN " + parameter :
+                        "(" + expression + " IS NOT NULL AND NOT " + expression + " IN " + parameter + ")";
+            }
+            return null;
+        }
+
+        private static String operator(final P<?> predicate) {
+            if (Compare.eq == predicate.getBiPredicate()) return "=";
+            else if (Compare.neq == predicate.getBiPredicate()) return "<>";
+            else if (Compare.lt == predicate.getBiPredicate()) return "<";
+            else if (Compare.lte == predicate.getBiPredicate()) return "<=";
+            else if (Compare.gt == predicate.getBiPredicate()) return ">";
+            else if (Compare.gte == predicate.getBiPredicate()) return ">=";
+            else if (Text.startingWith == predicate.getBiPredicate()) return "STARTS WITH";
+            else if (Text.endingWith == predicate.getBiPredicate()) return "ENDS WITH";
+            else if (Text.containing == predicate.getBiPredicate()) return "CONTAINS";
+            else return null;
+        }
+
+        private static boolean isSupportedValue(final Object value) {
+            return value instanceof String || value instanceof Boolean || value instanceof Long || value instanceof Integer ||
+                    value instanceof Double || value instanceof Float || value instanceof Short || value instanceof Byte;
+        }
+
+        private String parameter(final Object value, final Map<String, Object> newParameters) {
+            final String name = "p" + (this.parameters.size() + (newParameters == this.parameters ? 0 : newParameters.size()));
+            newParameters.put(name, value);
+            return "$" + name;
+        }
+
+        private static String escape(final String identifier) {
+            return "`" + identifier.replace("`", "``") + "`";
+        }
+    }
+}
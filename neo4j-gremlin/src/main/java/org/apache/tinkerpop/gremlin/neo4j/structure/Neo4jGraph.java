@@ -22,6 +22,7 @@ import org.apache.commons.configuration2.BaseConfiguration;
 import org.apache.commons.configuration2.Configuration;
 import org.apache.commons.configuration2.ConfigurationConverter;
 import org.apache.tinkerpop.gremlin.neo4j.process.traversal.step.sideEffect.CypherStartStep;
+import org.apache.tinkerpop.gremlin.neo4j.process.traversal.strategy.optimization.Neo4jCypherStrategy;
 import org.apache.tinkerpop.gremlin.neo4j.process.traversal.strategy.optimization.Neo4jGraphStepStrategy;
 import org.apache.tinkerpop.gremlin.neo4j.process.util.Neo4jCypherIterator;
 import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
@@ -34,6 +35,7 @@ import org.apache.tinkerpop.gremlin.structure.Transaction;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.VertexProperty;
 import org.apache.tinkerpop.gremlin.structure.util.AbstractThreadLocalTransaction;
+import org.apache.tinkerpop.gremlin.structure.util.DefaultBulkLoader;
 import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
 import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 import org.apache.tinkerpop.gremlin.structure.util.TransactionException;
@@ -60,7 +62,9 @@ import java.util.stream.Stream;
 public final class Neo4jGraph implements Graph, WrappedGraph<Neo4jGraphAPI> {
 
     static {
-        TraversalStrategies.GlobalCache.registerStrategies(Neo4jGraph.class, TraversalStrategies.GlobalCache.getStrategies(Graph.class).clone().addStrategies(Neo4jGraphStepStrategy.instance()));
+        TraversalStrategies.GlobalCache.registerStrategies(Neo4jGraph.class, TraversalStrategies.GlobalCache.getStrategies(Graph.class).clone().addStrategies(
+                Neo4jGraphStepStrategy.instance(),
+                Neo4jCypherStrategy.instance()));
     }
 
     private static final Configuration EMPTY_CONFIGURATION = new BaseConfiguration() {{
@@ -208,6 +212,17 @@ public final class Neo4jGraph implements Graph, WrappedGraph<Neo4jGraphAPI> {
         throw Graph.Exceptions.graphComputerNotSupported();
     }
 
+    /**
+     * Gets a {@link BulkLoader} that adds all elements of a batch in a single transaction rather than leaving the
+     * transaction boundaries to the caller. Unlike the loader of TinkerGraph it defers no work until it is closed, as
+     * Neo4j updates its schema indexes as part of each commit and offers no way to postpone that without dropping
+     * the indexes for all readers. The gain is limited to committing once per batch.
+     */
+    @Override
+    public BulkLoader bulkLoader(final int batchSize) {
+        return new DefaultBulkLoader(this, batchSize);
+    }
+
     @Override
     public Transaction tx() {
         return this.neo4jTransaction;
@@ -363,6 +378,11 @@ public final class Neo4jGraph implements Graph, WrappedGraph<Neo4jGraphAPI> {
             public boolean supportsThreadedTransactions() {
                 return false;
             }
+
+            @Override
+            public boolean supportsBulkLoading() {
+                return true;
+            }
         }
 
         public class Neo4jVertexFeatures extends Neo4jElementFeatures implements VertexFeatures {
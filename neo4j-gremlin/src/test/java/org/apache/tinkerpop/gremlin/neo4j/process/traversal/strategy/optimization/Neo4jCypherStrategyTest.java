@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.neo4j.process.traversal.strategy.optimization;
+
+import org.apache.tinkerpop.gremlin.neo4j.process.traversal.step.sideEffect.Neo4jCypherStep;
+import org.apache.tinkerpop.gremlin.neo4j.process.traversal.step.sideEffect.Neo4jGraphStep;
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategies;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.util.DefaultTraversalStrategies;
+import org.apache.tinkerpop.gremlin.structure.util.empty.EmptyGraph;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.apache.tinkerpop.gremlin.process.traversal.P.gt;
+import static org.apache.tinkerpop.gremlin.process.traversal.P.without;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+import static org.junit.Assert.assertEquals;
+
+public class Neo4jCypherStrategyTest {
+
+    private final GraphTraversalSource g = EmptyGraph.instance().traversal();
+
+    @Test
+    public void shouldCompileLabelFilterHopAndCount() {
+        final Traversal.Admin<?, ?> traversal = optimize(g.V().hasLabel("person").out("knows").count());
+        assertEquals(1, traversal.getSteps().size());
+        assertCypher("MATCH (n0) WHERE (size(labels(n0)) = 1 AND n0:`person`) MATCH (n0)-[:`knows`]->(n1) RETURN count(*) AS result",
+                Collections.emptyMap(), traversal);
+    }
+
+    @Test
+    public void shouldCompilePropertyFiltersOrderAndLimit() {
+        final Traversal.Admin<?, ?> traversal = optimize(g.V().has("name", "marko").out("created").in("created", "uses").
+                has("age", gt(30)).order().by("age", Order.desc).limit(2));
+        assertEquals(1, traversal.getSteps().size());
+        final Map<String, Object> parameters = new HashMap<>();
+        parameters.put("p0", "marko");
+        parameters.put("p1", 30);
+        parameters.put("p2", 2L);
+        assertCypher("MATCH (n0) WHERE n0.`name` = $p0 MATCH (n0)-[:`created`]->(n1) MATCH (n1)<-[:`created`|`uses`]-(n2) " +
+                "WHERE n2.`age` > $p1 WITH n2 ORDER BY n2.`age` DESC LIMIT $p2 RETURN n2 AS result", parameters, traversal);
+    }
+
+    @Test
+    public void shouldCompileIdsAndExcludeMissingPropertiesFromWithout() {
+        final Traversal.Admin<?, ?> traversal = optimize(g.V(1, 2).out().has("name", without("a", "b")).count());
+        final Map<String, Object> parameters = new HashMap<>();
+        parameters.put("p0", Arrays.asList(1L, 2L));
+        parameters.put("p1", Arrays.asList("a", "b"));
+        assertCypher("MATCH (n0) WHERE id(n0) IN $p0 MATCH (n0)-[]->(n1) WHERE (n1.`name` IS NOT NULL AND NOT n1.`name` IN $p1) " +
+                "RETURN count(*) AS result", parameters, traversal);
+    }
+
+    @Test
+    public void shouldStopAtLabeledStep() {
+        final Traversal.Admin<?, ?> traversal = optimize(g.V().out().as("a").out().select("a"));
+        assertEquals(3, traversal.getSteps().size());
+        assertEquals(Collections.singleton("a"), traversal.getStartStep().getLabels());
+        assertCypher("MATCH (n0) MATCH (n0)-[]->(n1) RETURN n1 AS result", Collections.emptyMap(), traversal);
+    }
+
+    @Test
+    public void shouldNotOrderByPropertiesThatMayBeMissing() {
+        final Traversal.Admin<?, ?> traversal = optimize(g.V().out().order().by("age").limit(1));
+        assertEquals(3, traversal.getSteps().size());
+        assertCypher("MATCH (n0) MATCH (n0)-[]->(n1) RETURN n1 AS result", Collections.emptyMap(), traversal);
+    }
+
+    @Test
+    public void shouldNotCompileUnsupportedTraversals() {
+        assertThat(optimize(g.V().has("name", "marko")).getStartStep(), instanceOf(Neo4jGraphStep.class));
+        assertThat(optimize(g.V().both().count()).getStartStep(), instanceOf(Neo4jGraphStep.class));
+        assertThat(optimize(g.V().out().path()).getStartStep(), instanceOf(Neo4jGraphStep.class));
+        assertThat(optimize(g.V().has("name", (Object) new Object()).out()).getStartStep(), instanceOf(Neo4jGraphStep.class));
+        assertThat(optimize(g.E().count()).getStartStep(), instanceOf(Neo4jGraphStep.class));
+    }
+
+    private static Traversal.Admin<?, ?> optimize(final Traversal<?, ?> traversal) {
+        final TraversalStrategies strategies = new DefaultTraversalStrategies();
+        strategies.addStrategies(Neo4jGraphStepStrategy.instance(), Neo4jCypherStrategy.instance());
+        traversal.asAdmin().setStrategies(strategies);
+        traversal.asAdmin().applyStrategies();
+        return traversal.asAdmin();
+    }
+
+    private static void assertCypher(final String query, final Map<String, Object> parameters, final Traversal.Admin<?, ?> traversal) {
+        assertThat(traversal.getStartStep(), instanceOf(Neo4jCypherStep.class));
+        final Neo4jCypherStep<?, ?> step = (Neo4jCypherStep<?, ?>) traversal.getStartStep();
+        assertEquals(query, step.getQuery());
+        assertEquals(parameters, step.getParameters());
+    }
+}
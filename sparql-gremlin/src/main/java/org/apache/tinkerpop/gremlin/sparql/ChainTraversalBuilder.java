@@ -0,0 +1,323 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.sparql;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.sparql.expr.Expr;
+import org.apache.tinkerpop.gremlin.process.traversal.Bytecode;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.util.SelectivityEstimator;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.PropertyType;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Converts a basic graph pattern into a single chain of {@code has()}, {@code out()}, {@code in()} and
+ * {@code values()} steps instead of a {@code match()} whose patterns are only ordered at runtime. The chain starts
+ * at the vertex variable with the most selective filters and then greedily follows the triple pattern that is
+ * expected to produce the fewest traversers. The estimates come from the {@link Graph.Statistics} of the graph if it
+ * supports them and from fixed guesses otherwise. Filters are applied as soon as all of their variables are bound.
+ * <p/>
+ * The estimates only depend on which objects are concrete and on the values of labels, but not on the values of
+ * other literals, so that the resulting chain can be cached for a {@link QueryTemplate}.
+ */
+final class ChainTraversalBuilder {
+
+    private static final double ID_SELECTIVITY = 0.001d;
+    private static final double PROPERTY_SELECTIVITY = 0.1d;
+
+    private final List<Pattern> patterns = new ArrayList<>();
+    private final Map<String, List<Pattern>> filters = new HashMap<>();
+    private final List<Expr> expressions;
+    private final List<Set<String>> expressionVariables = new ArrayList<>();
+    private final SelectivityEstimator estimator;
+    private final double vertexCount;
+
+    private ChainTraversalBuilder(final List<Triple> triples, final List<Expr> expressions, final Graph graph) {
+        for (final Triple triple : triples) {
+            final Pattern pattern = new Pattern(triple);
+            if (pattern.isFilter())
+                this.filters.computeIfAbsent(pattern.subject, k -> new ArrayList<>()).add(pattern);
+            else
+                this.patterns.add(pattern);
+        }
+        this.expressions = expressions;
+        for (final Expr expression : expressions) {
+            this.expressionVariables.add(labels(WhereTraversalBuilder.transform(expression).asAdmin().getBytecode(), new HashSet<>()));
+        }
+        this.estimator = graph.features().graph().supportsStatistics() ? new SelectivityEstimator(graph.statistics()) : null;
+        this.vertexCount = null == this.estimator ? 1.0d : Math.max(1L, this.estimator.getStatistics().count(Vertex.class));
+    }
+
+    /**
+     * Appends the chain for the triple patterns and filter expressions to the traversal.
+     *
+     * @return the traversal or {@code null} if the patterns can not be expressed as a chain, in which case the
+     * traversal is left unchanged
+     */
+    static GraphTraversal<Vertex, ?> transform(final GraphTraversal<Vertex, ?> traversal, final List<Triple> triples,
+                                               final List<Expr> expressions, final Graph graph) {
+        if (triples.isEmpty())
+            return null;
+        for (final Triple triple : triples) {
+            if (!triple.getSubject().isVariable() || !triple.getPredicate().isURI())
+                return null;
+        }
+        return new ChainTraversalBuilder(triples, expressions, graph).transform(traversal);
+    }
+
+    private GraphTraversal<Vertex, ?> transform(final GraphTraversal<Vertex, ?> traversal) {
+        // variables that are bound to values or properties can not be reached from a vertex by an edge
+        final Set<String> vertexVariables = new LinkedHashSet<>();
+        final Set<String> valueVariables = new HashSet<>();
+        for (final Pattern pattern : this.patterns) {
+            if (null == pattern.object)
+                return null;
+            if (pattern.isEdge()) {
+                vertexVariables.add(pattern.subject);
+                vertexVariables.add(pattern.object);
+            } else
+                valueVariables.add(pattern.object);
+        }
+        this.filters.values().forEach(filters -> filters.forEach(filter -> {
+            if (!valueVariables.contains(filter.subject)) vertexVariables.add(filter.subject);
+        }));
+        for (final Pattern pattern : this.patterns) {
+            if (!pattern.isEdge() && !valueVariables.contains(pattern.subject))
+                vertexVariables.add(pattern.subject);
+        }
+        for (final String variable : valueVariables) {
+            if (vertexVariables.contains(variable))
+                return null;
+        }
+
+        String root = null;
+        double rootCardinality = Double.MAX_VALUE;
+        for (final String variable : vertexVariables) {
+            final double cardinality = this.vertexCount * this.selectivity(variable);
+            if (cardinality < rootCardinality) {
+                root = variable;
+                rootCardinality = cardinality;
+            }
+        }
+        if (null == root)
+            return null;
+
+        // plan the order of the patterns before anything is appended to the traversal
+        final Set<String> bound = new HashSet<>();
+        bound.add(root);
+        final List<Pattern> remaining = new ArrayList<>(this.patterns);
+        final List<Pattern> order = new ArrayList<>();
+        final List<Boolean> reversed = new ArrayList<>();
+        while (!remaining.isEmpty()) {
+            Pattern next = null;
+            boolean nextReversed = false;
+            double nextCost = Double.MAX_VALUE;
+            for (final Pattern pattern : remaining) {
+                final boolean reverse = !bound.contains(pattern.subject);
+                if (reverse && !(pattern.isEdge() && bound.contains(pattern.object)))
+                    continue;
+                final double cost = this.cost(pattern, reverse, bound);
+                if (cost < nextCost) {
+                    next = pattern;
+                    nextReversed = reverse;
+                    nextCost = cost;
+                }
+            }
+            // the patterns are not connected
+            if (null == next)
+                return null;
+            remaining.remove(next);
+            order.add(next);
+            reversed.add(nextReversed);
+            bound.add(next.subject);
+            bound.add(next.object);
+        }
+        // filters on variables that no pattern connects to the root
+        if (!bound.containsAll(vertexVariables))
+            return null;
+
+        bound.clear();
+        final List<Integer> pending = new ArrayList<>();
+        for (int i = 0; i < this.expressions.size(); i++) {
+            pending.add(i);
+        }
+        GraphTraversal<Vertex, ?> chain = this.bind(traversal, root, bound, pending);
+        String current = root;
+        for (int i = 0; i < order.size(); i++) {
+            final Pattern pattern = order.get(i);
+            final String from = reversed.get(i) ? pattern.object : pattern.subject;
+            final String to = reversed.get(i) ? pattern.subject : pattern.object;
+            if (!from.equals(current))
+                chain = chain.select(from);
+            if (pattern.isEdge())
+                chain = reversed.get(i) ? chain.in(pattern.name) : chain.out(pattern.name);
+            else
+                chain = (GraphTraversal<Vertex, ?>) TraversalBuilder.project(chain, pattern.name, pattern.type);
+
+            chain = bound.contains(to) ? chain.where(P.eq(to)) : this.bind(chain, to, bound, pending);
+            current = to;
+        }
+
+        for (final int expression : pending) {
+            chain = chain.where(WhereTraversalBuilder.transform(this.expressions.get(expression)));
+        }
+        return chain;
+    }
+
+    /**
+     * Appends the filters of a newly bound variable, labels the traverser with it and appends the filter expressions
+     * whose variables are now all bound.
+     */
+    private GraphTraversal<Vertex, ?> bind(GraphTraversal<Vertex, ?> chain, final String variable,
+                                           final Set<String> bound, final List<Integer> pending) {
+        final List<Pattern> filters = new ArrayList<>(this.filters.getOrDefault(variable, new ArrayList<>()));
+        filters.sort(Comparator.comparingDouble(this::selectivity));
+        for (final Pattern filter : filters) {
+            chain = (GraphTraversal<Vertex, ?>) TraversalBuilder.filter(chain, filter.name, filter.node);
+        }
+        chain = chain.as(variable);
+        bound.add(variable);
+
+        for (int i = 0; i < pending.size(); i++) {
+            final int expression = pending.get(i);
+            if (bound.containsAll(this.expressionVariables.get(expression))) {
+                chain = chain.where(WhereTraversalBuilder.transform(this.expressions.get(expression)));
+                pending.remove(i--);
+            }
+        }
+        return chain;
+    }
+
+    /**
+     * Estimates the number of traversers per bound traverser that the pattern produces.
+     */
+    private double cost(final Pattern pattern, final boolean reverse, final Set<String> bound) {
+        final String to = reverse ? pattern.subject : pattern.object;
+        // a pattern between two bound variables is a join that only filters
+        if (bound.contains(to))
+            return 0.0d;
+
+        double cost = this.selectivity(to);
+        if (pattern.isEdge() && null != this.estimator)
+            cost *= this.estimator.getStatistics().count(Edge.class, pattern.name) / this.vertexCount;
+        // binding a value that a filter expression is only waiting for filters as well
+        for (final Set<String> variables : this.expressionVariables) {
+            if (variables.contains(to) && variables.stream().allMatch(v -> v.equals(to) || bound.contains(v)))
+                cost *= SelectivityEstimator.RANGE_SELECTIVITY;
+        }
+        return cost;
+    }
+
+    /**
+     * Estimates the fraction of the elements of a variable that pass its filters.
+     */
+    private double selectivity(final String variable) {
+        double selectivity = 1.0d;
+        for (final Pattern filter : this.filters.getOrDefault(variable, new ArrayList<>())) {
+            selectivity *= this.selectivity(filter);
+        }
+        return selectivity;
+    }
+
+    private double selectivity(final Pattern filter) {
+        final String key;
+        switch (filter.name) {
+            case "id":
+                key = T.id.getAccessor();
+                break;
+            case "label":
+                key = T.label.getAccessor();
+                break;
+            case "key":
+            case "value":
+                return SelectivityEstimator.DEFAULT_SELECTIVITY;
+            default:
+                key = filter.name;
+        }
+
+        if (null != this.estimator)
+            return this.estimator.estimate(Vertex.class, new HasContainer(key, P.eq(filter.node.getLiteralValue())));
+        else if (key.equals(T.id.getAccessor()))
+            return ID_SELECTIVITY;
+        else if (key.equals(T.label.getAccessor()))
+            return SelectivityEstimator.DEFAULT_SELECTIVITY;
+        else
+            return PROPERTY_SELECTIVITY;
+    }
+
+    /**
+     * Collects the step labels of the traversal and its children, i.e. the variables of a filter expression.
+     */
+    private static Set<String> labels(final Bytecode bytecode, final Set<String> labels) {
+        for (final Bytecode.Instruction instruction : bytecode.getStepInstructions()) {
+            for (final Object argument : instruction.getArguments()) {
+                if (argument instanceof Bytecode)
+                    labels(((Bytecode) argument), labels);
+                else if (instruction.getOperator().equals(GraphTraversal.Symbols.as))
+                    labels.add((String) argument);
+            }
+        }
+        return labels;
+    }
+
+    /**
+     * A triple pattern whose subject is a variable.
+     */
+    private static final class Pattern {
+        private final String subject;
+        private final Node node;
+        private final String object;
+        private final String name;
+        private final String prefix;
+        private final PropertyType type;
+
+        private Pattern(final Triple triple) {
+            final String uri = triple.getPredicate().getURI();
+            this.subject = triple.getSubject().getName();
+            this.node = triple.getObject();
+            this.object = this.node.isVariable() ? this.node.getName() : null;
+            this.name = Prefixes.getURIValue(uri);
+            this.prefix = Prefixes.getPrefix(uri);
+            this.type = this.prefix.equals("property") ? PropertyType.PROPERTY : PropertyType.VALUE;
+        }
+
+        private boolean isEdge() {
+            return this.prefix.equals("edge");
+        }
+
+        private boolean isFilter() {
+            return !this.isEdge() && this.node.isConcrete() && TraversalBuilder.isFilter(this.name, this.type);
+        }
+    }
+}
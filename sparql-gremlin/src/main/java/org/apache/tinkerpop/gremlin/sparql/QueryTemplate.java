@@ -0,0 +1,357 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.sparql;
+
+import org.apache.jena.datatypes.BaseDatatype;
+import org.apache.jena.datatypes.DatatypeFormatException;
+import org.apache.jena.datatypes.RDFDatatype;
+import org.apache.jena.datatypes.TypeMapper;
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.tinkerpop.gremlin.process.traversal.Bytecode;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.TextP;
+import org.apache.tinkerpop.gremlin.process.traversal.util.AndP;
+import org.apache.tinkerpop.gremlin.process.traversal.util.ConnectiveP;
+import org.apache.tinkerpop.gremlin.process.traversal.util.OrP;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiPredicate;
+
+/**
+ * A SPARQL query with normalized whitespace, without comments and with its plain string and integer literals
+ * replaced by placeholders, so that queries which only differ in the values of their literals share the same text.
+ * A Gremlin plan compiled from that text can then be bound to the literals of each of those queries.
+ * <p/>
+ * Literals with a language tag or a datatype, literals with escape sequences, decimals, the arguments of
+ * {@code LIMIT} and {@code OFFSET} as well as labels remain part of the text. The latter are kept because the plan
+ * depends on the statistics of the label.
+ */
+final class QueryTemplate {
+
+    /**
+     * Encloses the index of a placeholder in its string form, which as a private use character does not occur in the
+     * text of a query and so can not be mistaken for a literal that is kept in the text.
+     */
+    private static final char PLACEHOLDER = '\uE000';
+
+    /**
+     * The datatype of the literals that replace integer literals, whose lexical form is the index of the placeholder
+     * and whose value is a {@link NumberPlaceholder}.
+     */
+    static final RDFDatatype NUMBER_PLACEHOLDER = new BaseDatatype("urn:tinkerpop:sparql:placeholder") {
+        @Override
+        public Object parse(final String lexicalForm) {
+            try {
+                return new NumberPlaceholder(Integer.parseInt(lexicalForm));
+            } catch (final NumberFormatException e) {
+                throw new DatatypeFormatException(lexicalForm, this, e.getMessage());
+            }
+        }
+
+        @Override
+        public String unparse(final Object value) {
+            return String.valueOf(((NumberPlaceholder) value).index);
+        }
+
+        @Override
+        public boolean isValidValue(final Object value) {
+            return value instanceof NumberPlaceholder;
+        }
+
+        @Override
+        public Class<?> getJavaClass() {
+            return NumberPlaceholder.class;
+        }
+    };
+
+    static {
+        TypeMapper.getInstance().registerDatatype(NUMBER_PLACEHOLDER);
+    }
+
+    private final String text;
+    private final List<Object> parameters;
+
+    private QueryTemplate(final String text, final List<Object> parameters) {
+        this.text = text;
+        this.parameters = parameters;
+    }
+
+    /**
+     * Gets the normalized text of the query with placeholders for its literals.
+     */
+    String getText() {
+        return this.text;
+    }
+
+    /**
+     * Gets the values of the literals in the order of their placeholders.
+     */
+    List<Object> getParameters() {
+        return Collections.unmodifiableList(this.parameters);
+    }
+
+    /**
+     * Replaces the placeholders in the arguments of the plan, which was compiled from the text of a template, with
+     * the literals of this template.
+     */
+    Bytecode bind(final Bytecode plan) {
+        return bind(plan, new HashSet<>());
+    }
+
+    /**
+     * Determines if every placeholder occurs in the plan, i.e. if binding the plan does not drop any literal.
+     */
+    boolean isBoundBy(final Bytecode plan) {
+        final Set<Integer> bound = new HashSet<>();
+        bind(plan, bound);
+        return bound.size() == this.parameters.size();
+    }
+
+    private Bytecode bind(final Bytecode plan, final Set<Integer> bound) {
+        final Bytecode bytecode = new Bytecode();
+        for (final Bytecode.Instruction instruction : plan.getStepInstructions()) {
+            final Object[] arguments = instruction.getArguments();
+            final Object[] boundArguments = new Object[arguments.length];
+            for (int i = 0; i < arguments.length; i++) {
+                boundArguments[i] = bind(arguments[i], bound);
+            }
+            bytecode.addStep(instruction.getOperator(), boundArguments);
+        }
+        return bytecode;
+    }
+
+    private Object bind(final Object argument, final Set<Integer> bound) {
+        if (argument instanceof Bytecode)
+            return bind((Bytecode) argument, bound);
+        else if (argument instanceof P)
+            return bind((P<Object>) argument, bound);
+        else if (argument instanceof List) {
+            final List<Object> list = new ArrayList<>(((List<?>) argument).size());
+            for (final Object item : (List<?>) argument) {
+                list.add(bind(item, bound));
+            }
+            return list;
+        }
+
+        final Integer index = placeholderIndex(argument);
+        if (null == index)
+            return argument;
+        bound.add(index);
+        // labels and the like are compiled with the string form of a literal
+        final Object value = this.parameters.get(index);
+        return argument instanceof String ? value.toString() : value;
+    }
+
+    private P<Object> bind(final P<Object> predicate, final Set<Integer> bound) {
+        if (predicate instanceof ConnectiveP) {
+            final List<P<Object>> predicates = new ArrayList<>();
+            for (final P<Object> p : ((ConnectiveP<Object>) predicate).getPredicates()) {
+                predicates.add(bind(p, bound));
+            }
+            return predicate instanceof AndP ? new AndP<>(predicates) : new OrP<>(predicates);
+        } else if (((P) predicate) instanceof TextP)
+            return (P) new TextP((BiPredicate) predicate.getBiPredicate(), (String) bind(predicate.getOriginalValue(), bound));
+        else if (predicate.getClass().equals(P.class))
+            return new P<>(predicate.getBiPredicate(), bind(predicate.getOriginalValue(), bound));
+        // unknown predicates are left as they are which isBoundBy() detects as an unbound literal
+        return predicate;
+    }
+
+    private Integer placeholderIndex(final Object argument) {
+        final long index;
+        if (argument instanceof NumberPlaceholder)
+            index = ((NumberPlaceholder) argument).index;
+        else if (argument instanceof String) {
+            // a string placeholder or a number placeholder of which the compiler took the string form
+            final String string = (String) argument;
+            if (string.length() > 2 && string.charAt(0) == PLACEHOLDER && string.charAt(string.length() - 1) == PLACEHOLDER)
+                index = parseIndex(string.substring(1, string.length() - 1));
+            else
+                return null;
+        } else
+            return null;
+        return index >= 0 && index < this.parameters.size() ? (int) index : null;
+    }
+
+    private static long parseIndex(final String string) {
+        for (int i = 0; i < string.length(); i++) {
+            if (!Character.isDigit(string.charAt(i)))
+                return -1L;
+        }
+        try {
+            return Long.parseLong(string);
+        } catch (final NumberFormatException e) {
+            return -1L;
+        }
+    }
+
+    /**
+     * Normalizes the query and replaces its literals with placeholders.
+     */
+    static QueryTemplate of(final String query) {
+        final StringBuilder text = new StringBuilder(query.length());
+        final List<Object> parameters = new ArrayList<>();
+        final int length = query.length();
+        // the previous token is used to recognize the arguments of LIMIT and OFFSET and the objects of labels
+        String previous = "";
+        int i = 0;
+        while (i < length) {
+            final char c = query.charAt(i);
+            if (Character.isWhitespace(c)) {
+                while (i < length && Character.isWhitespace(query.charAt(i))) i++;
+                if (text.length() > 0 && text.charAt(text.length() - 1) != ' ') text.append(' ');
+                continue;
+            }
+
+            final int start = i;
+            if (c == '#') {
+                while (i < length && query.charAt(i) != '\n') i++;
+                continue;
+            } else if (c == '<' && (i = endOfIri(query, start)) > start) {
+                text.append(query, start, i);
+            } else if (c == '"' || c == '\'') {
+                i = endOfString(query, start);
+                final String literal = query.substring(start, i);
+                final boolean plain = i == length || (query.charAt(i) != '@' && !query.startsWith("^^", i));
+                if (plain && isParameterizable(literal) && !isLabel(previous)) {
+                    text.append('"').append(PLACEHOLDER).append(parameters.size()).append(PLACEHOLDER).append('"');
+                    parameters.add(literal.substring(1, literal.length() - 1));
+                } else
+                    text.append(literal);
+            } else if (Character.isDigit(c)) {
+                i = endOfName(query, start);
+                final String number = query.substring(start, i);
+                final boolean integer = number.chars().allMatch(Character::isDigit) &&
+                        !(i + 1 < length && query.charAt(i) == '.' && Character.isDigit(query.charAt(i + 1)));
+                final char before = lastNonWhitespace(text);
+                if (integer && before != '-' && before != '+' && before != '.' &&
+                        !previous.equalsIgnoreCase("LIMIT") && !previous.equalsIgnoreCase("OFFSET")) {
+                    text.append('"').append(parameters.size()).append("\"^^<").append(NUMBER_PLACEHOLDER.getURI()).append('>');
+                    parameters.add(NodeFactory.createLiteral(number, XSDDatatype.XSDinteger).getLiteralValue());
+                } else
+                    text.append(number);
+            } else if (isNameCharacter(c)) {
+                i = endOfName(query, start);
+                text.append(query, start, i);
+            } else {
+                i++;
+                text.append(c);
+            }
+            previous = query.substring(start, i);
+        }
+
+        // trailing whitespace
+        if (text.length() > 0 && text.charAt(text.length() - 1) == ' ')
+            text.setLength(text.length() - 1);
+        return new QueryTemplate(text.toString(), parameters);
+    }
+
+    private static boolean isLabel(final String predicate) {
+        return predicate.endsWith(":label") || predicate.endsWith("#label>");
+    }
+
+    private static boolean isParameterizable(final String literal) {
+        return literal.length() >= 2 && literal.indexOf('\\') < 0 &&
+                !literal.startsWith("\"\"\"") && !literal.startsWith("'''") &&
+                literal.charAt(literal.length() - 1) == literal.charAt(0);
+    }
+
+    private static boolean isNameCharacter(final char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == ':' || c == '?' || c == '$';
+    }
+
+    private static char lastNonWhitespace(final StringBuilder text) {
+        for (int i = text.length() - 1; i >= 0; i--) {
+            if (!Character.isWhitespace(text.charAt(i)))
+                return text.charAt(i);
+        }
+        return ' ';
+    }
+
+    private static int endOfName(final String query, int i) {
+        while (i < query.length() && isNameCharacter(query.charAt(i))) i++;
+        return i;
+    }
+
+    /**
+     * Finds the end of the IRI at the given position or returns that position if the {@code <} is an operator.
+     */
+    private static int endOfIri(final String query, final int start) {
+        for (int i = start + 1; i < query.length(); i++) {
+            final char c = query.charAt(i);
+            if (c == '>')
+                return i + 1;
+            else if (Character.isWhitespace(c) || c == '"' || c == '<')
+                return start;
+        }
+        return start;
+    }
+
+    /**
+     * Finds the end of the string literal at the given position or returns the length of the query if it is not
+     * terminated.
+     */
+    private static int endOfString(final String query, final int start) {
+        final char quote = query.charAt(start);
+        final String delimiter = query.startsWith(new String(new char[]{quote, quote, quote}), start) ?
+                new String(new char[]{quote, quote, quote}) : String.valueOf(quote);
+        int i = start + delimiter.length();
+        while (i < query.length()) {
+            if (query.charAt(i) == '\\')
+                i += 2;
+            else if (query.startsWith(delimiter, i))
+                return i + delimiter.length();
+            else
+                i++;
+        }
+        return query.length();
+    }
+
+    /**
+     * The value of a placeholder of an integer literal, whose string form is that of a string placeholder so that
+     * it is bound wherever the compiler takes the string form of the literal.
+     */
+    static final class NumberPlaceholder {
+        private final int index;
+
+        private NumberPlaceholder(final int index) {
+            this.index = index;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            return other instanceof NumberPlaceholder && ((NumberPlaceholder) other).index == this.index;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.index;
+        }
+
+        @Override
+        public String toString() {
+            return String.valueOf(PLACEHOLDER) + this.index + PLACEHOLDER;
+        }
+    }
+}
@@ -22,9 +22,13 @@ package org.apache.tinkerpop.gremlin.sparql;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
 
+import org.apache.jena.graph.Triple;
 import org.apache.jena.query.Query;
 import org.apache.jena.query.QueryFactory;
 import org.apache.jena.query.SortCondition;
@@ -41,6 +45,8 @@ import org.apache.jena.sparql.core.Var;
 import org.apache.jena.sparql.core.VarExprList;
 import org.apache.jena.sparql.expr.Expr;
 import org.apache.jena.sparql.expr.ExprAggregator;
+import org.apache.tinkerpop.gremlin.jsr223.JavaTranslator;
+import org.apache.tinkerpop.gremlin.process.traversal.Bytecode;
 import org.apache.tinkerpop.gremlin.process.traversal.Order;
 import org.apache.tinkerpop.gremlin.process.traversal.Scope;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
@@ -53,9 +59,23 @@ import org.apache.tinkerpop.gremlin.structure.Vertex;
 /**
  * The engine that compiles SPARQL to Gremlin traversals thus enabling SPARQL to be executed on any TinkerPop-enabled
  * graph system.
+ * <p/>
+ * Compiled traversals are cached per {@link Graph} as plans that are keyed by the {@link QueryTemplate} of the
+ * query, so that queries which only differ in their literals are parsed and compiled once. As the join order of a
+ * plan is based on the statistics of the graph at the time it was compiled, the cache should be cleared with
+ * {@link #clearPlanCache()} after the shape of the graph changed significantly.
  */
 public class SparqlToGremlinCompiler {
 
+    /**
+     * The maximum number of plans that are cached per graph.
+     */
+    public static final int PLAN_CACHE_SIZE = 1000;
+
+    private static final Map<Graph, Map<String, Optional<Bytecode>>> PLANS = new WeakHashMap<>();
+
+    private final Graph graph;
+
     private GraphTraversal<Vertex, ?> traversal;
 
     private List<Traversal> traversalList = new ArrayList<>();
@@ -63,12 +83,14 @@ public class SparqlToGremlinCompiler {
             List<String> optionalVariable = new ArrayList<String>();
             boolean optionalFlag = false;
 
-    private SparqlToGremlinCompiler(final GraphTraversal<Vertex, ?> traversal) {
-        this.traversal = traversal;
-    }
+    // the triple patterns and filters of the query which are compiled to a chain rather than a match() if possible
+    private final List<Triple> triples = new ArrayList<>();
+    private final List<Expr> expressions = new ArrayList<>();
+    private boolean chainable = true;
 
     private SparqlToGremlinCompiler(final GraphTraversalSource g) {
-        this(g.V());
+        this.graph = g.getGraph();
+        this.traversal = g.V();
     }
 
     /**
@@ -88,7 +110,83 @@ public class SparqlToGremlinCompiler {
      * @param sparqlQuery the query to compile to Gremlin
      */
     public static GraphTraversal<Vertex, ?> compile(final GraphTraversalSource g, final String sparqlQuery) {
-        return compile(g, QueryFactory.create(Prefixes.prepend(sparqlQuery), Syntax.syntaxSPARQL));
+        final QueryTemplate template = QueryTemplate.of(sparqlQuery);
+        final Optional<Bytecode> plan = getPlan(g, template);
+        return plan.isPresent() ?
+                (GraphTraversal<Vertex, ?>) JavaTranslator.of(g).translate(template.bind(plan.get())) :
+                compile(g, QueryFactory.create(Prefixes.prepend(sparqlQuery), Syntax.syntaxSPARQL));
+    }
+
+    /**
+     * Removes all cached plans.
+     */
+    public static void clearPlanCache() {
+        synchronized (PLANS) {
+            PLANS.clear();
+        }
+    }
+
+    /**
+     * Gets the cached plan of the query for the graph if there is one.
+     */
+    static Optional<Bytecode> getCachedPlan(final Graph graph, final String sparqlQuery) {
+        final Map<String, Optional<Bytecode>> plans;
+        synchronized (PLANS) {
+            plans = PLANS.get(graph);
+        }
+        if (null == plans)
+            return Optional.empty();
+        synchronized (plans) {
+            return plans.getOrDefault(QueryTemplate.of(sparqlQuery).getText(), Optional.empty());
+        }
+    }
+
+    private static Optional<Bytecode> getPlan(final GraphTraversalSource g, final QueryTemplate template) {
+        final Map<String, Optional<Bytecode>> plans;
+        synchronized (PLANS) {
+            plans = PLANS.computeIfAbsent(g.getGraph(), graph -> new LinkedHashMap<String, Optional<Bytecode>>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<String, Optional<Bytecode>> eldest) {
+                    return size() > PLAN_CACHE_SIZE;
+                }
+            });
+        }
+
+        Optional<Bytecode> plan;
+        synchronized (plans) {
+            plan = plans.get(template.getText());
+        }
+        if (null == plan) {
+            plan = createPlan(g, template);
+            synchronized (plans) {
+                plans.put(template.getText(), plan);
+            }
+        }
+        return plan;
+    }
+
+    /**
+     * Compiles the text of the template to the step instructions of a plan. The plan is empty if the literals can
+     * not be bound to it or if the traversal can not be reconstructed from its instructions, in which case every
+     * query of the template is compiled on its own.
+     */
+    private static Optional<Bytecode> createPlan(final GraphTraversalSource g, final QueryTemplate template) {
+        final Bytecode plan;
+        try {
+            plan = steps(compile(g, QueryFactory.create(Prefixes.prepend(template.getText()), Syntax.syntaxSPARQL)).asAdmin().getBytecode());
+            if (!template.isBoundBy(plan) || !plan.equals(steps(JavaTranslator.of(g).translate(plan).getBytecode())))
+                return Optional.empty();
+        } catch (final RuntimeException e) {
+            // the query is compiled as is and reports its own error
+            return Optional.empty();
+        }
+        return Optional.of(plan);
+    }
+
+    private static Bytecode steps(final Bytecode bytecode) {
+        final Bytecode steps = new Bytecode();
+        bytecode.getStepInstructions().forEach(instruction -> steps.addStep(instruction.getOperator(), instruction.getArguments()));
+        return steps;
     }
 
     private GraphTraversal<Vertex, ?> compile(final Query query) {
@@ -115,7 +213,12 @@ public class SparqlToGremlinCompiler {
          // creates a map of ordering keys and their ordering direction
         final Map<String, Order> orderingIndex = createOrderIndexFromQuery(query);
 
-        if (traversalList.size() > 0)
+        // a chain is only equivalent to a match() if there is a projection as the latter otherwise returns a map
+        final GraphTraversal<Vertex, ?> chain = chainable && !query.isQueryResultStar() && optionalTraversals.isEmpty() ?
+                ChainTraversalBuilder.transform(traversal, triples, expressions, graph) : null;
+        if (null != chain)
+            traversal = chain;
+        else if (traversalList.size() > 0)
             traversal = traversal.match(arrayOfAllTraversals);
 
         if (optionalTraversals.size() > 0) {
@@ -245,8 +348,10 @@ public class SparqlToGremlinCompiler {
                 opBGP.getPattern().getList().forEach(triple -> optionalVariable.add(triple.getObject().toString()));
                 
             }
-            else        
+            else {
                 opBGP.getPattern().getList().forEach(triple -> traversalList.add(TraversalBuilder.transform(triple)));
+                triples.addAll(opBGP.getPattern().getList());
+            }
         }
 
         /**
@@ -259,6 +364,7 @@ public class SparqlToGremlinCompiler {
                 if (expr != null) {
                     traversal = __.where(WhereTraversalBuilder.transform(expr));
                     traversalList.add(traversal);
+                    expressions.add(expr);
                 }
             }
         }
@@ -269,6 +375,7 @@ public class SparqlToGremlinCompiler {
          */
         @Override
         public void visit(final OpLeftJoin opLeftJoin) {
+            chainable = false;
             optionalFlag = true;
             optionalVisit(opLeftJoin.getRight());
             if (opLeftJoin.getExprs() != null) {
@@ -294,6 +401,7 @@ public class SparqlToGremlinCompiler {
          */
         @Override
         public void visit(final OpUnion opUnion) {
+            chainable = false;
             final Traversal unionTemp[] = new Traversal[2];
             final Traversal unionTemp1[] = new Traversal[traversalList.size() / 2];
             final Traversal unionTemp2[] = new Traversal[traversalList.size() / 2];
@@ -53,31 +53,63 @@ class TraversalBuilder {
 
     private static GraphTraversal<?, ?> matchProperty(final GraphTraversal<?, ?> traversal, final String propertyName,
                                                       final PropertyType type, final Node object) {
+        return object.isConcrete() && isFilter(propertyName, type)
+                ? filter(traversal, propertyName, object)
+                : project(traversal, propertyName, type).as(object.getName());
+    }
+
+    /**
+     * Determines if a triple pattern with the given property name and a concrete object filters its subject.
+     */
+    static boolean isFilter(final String propertyName, final PropertyType type) {
+        switch (propertyName) {
+            case "id":
+            case "label":
+            case "key":
+            case "value":
+                return true;
+            default:
+                return type.equals(PropertyType.VALUE);
+        }
+    }
+
+    /**
+     * Appends the filter of a triple pattern with a concrete object to the traversal.
+     */
+    static GraphTraversal<?, ?> filter(final GraphTraversal<?, ?> traversal, final String propertyName,
+                                       final Node object) {
+        switch (propertyName) {
+            case "id":
+                return traversal.hasId(object.getLiteralValue());
+            case "label":
+                return traversal.hasLabel(object.getLiteralValue().toString());
+            case "key":
+                return traversal.hasKey(object.getLiteralValue().toString());
+            case "value":
+                return traversal.hasValue(object.getLiteralValue().toString());
+            default:
+                return traversal.has(propertyName, object.getLiteralValue());
+        }
+    }
+
+    /**
+     * Appends the step that maps the subject of a triple pattern with a variable object to that object.
+     */
+    static GraphTraversal<?, ?> project(final GraphTraversal<?, ?> traversal, final String propertyName,
+                                        final PropertyType type) {
         switch (propertyName) {
             case "id":
-                return object.isConcrete()
-                        ? traversal.hasId(object.getLiteralValue())
-                        : traversal.id().as(object.getName());
+                return traversal.id();
             case "label":
-                return object.isConcrete()
-                        ? traversal.hasLabel(object.getLiteralValue().toString())
-                        : traversal.label().as(object.getName());
+                return traversal.label();
             case "key":
-                return object.isConcrete()
-                        ? traversal.hasKey(object.getLiteralValue().toString())
-                        : traversal.key().as(object.getName());
+                return traversal.key();
             case "value":
-                return object.isConcrete()
-                        ? traversal.hasValue(object.getLiteralValue().toString())
-                        : traversal.value().as(object.getName());
+                return traversal.value();
             default:
-                if (type.equals(PropertyType.PROPERTY)) {
-                    return traversal.properties(propertyName).as(object.getName());
-                } else {
-                    return object.isConcrete()
-                            ? traversal.has(propertyName, object.getLiteralValue())
-                            : traversal.values(propertyName).as(object.getName());
-                }
+                return type.equals(PropertyType.PROPERTY)
+                        ? traversal.properties(propertyName)
+                        : traversal.values(propertyName);
         }
     }
 }
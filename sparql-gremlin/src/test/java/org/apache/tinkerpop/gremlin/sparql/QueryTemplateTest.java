@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.sparql;
+
+import org.apache.jena.graph.NodeFactory;
+import org.apache.tinkerpop.gremlin.process.traversal.Bytecode;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class QueryTemplateTest {
+
+    @Test
+    public void shouldShareTextForQueriesThatDifferInLiterals() {
+        final QueryTemplate marko = QueryTemplate.of("SELECT ?a WHERE { ?a v:name \"marko\" . ?a v:age 29 }");
+        final QueryTemplate josh = QueryTemplate.of("SELECT ?a\nWHERE {\n  ?a v:name 'josh' . # a comment\n  ?a v:age 32\n}");
+        assertEquals(marko.getText(), josh.getText());
+        assertEquals(Arrays.asList("marko", 29), marko.getParameters());
+        assertEquals(Arrays.asList("josh", 32), josh.getParameters());
+    }
+
+    @Test
+    public void shouldKeepLiteralsThatArePartOfThePlan() {
+        final String query = "SELECT ?a WHERE { ?a v:label \"person\" . ?a v:name \"marko\"@en . ?a v:age 29.5 . " +
+                "?a v:lang \"ja\\\"va\" . ?a v:id \"1\"^^<http://www.w3.org/2001/XMLSchema#int> . " +
+                "?a <http://tinkerpop.apache.org/traversal/value#label> 'software' } LIMIT 10 OFFSET 2";
+        final QueryTemplate template = QueryTemplate.of(query);
+        assertEquals(query, template.getText());
+        assertEquals(Collections.emptyList(), template.getParameters());
+        assertNotEquals(QueryTemplate.of("SELECT ?a WHERE { ?a v:label \"software\" }").getText(),
+                QueryTemplate.of("SELECT ?a WHERE { ?a v:label \"person\" }").getText());
+    }
+
+    @Test
+    public void shouldBindLiteralsToPlan() {
+        final QueryTemplate template = QueryTemplate.of("SELECT ?a WHERE { ?a v:name 'marko' . ?a v:age ?age . FILTER (?age > 29) }");
+        final QueryTemplate placeholders = QueryTemplate.of(template.getText());
+        assertEquals(template.getText(), placeholders.getText());
+
+        final Object name = placeholders.getParameters().get(0);
+        final Object age = NodeFactory.createLiteral("1", QueryTemplate.NUMBER_PLACEHOLDER).getLiteralValue();
+        final Bytecode plan = __.has("name", name).values("age").where(__.is(P.gt(age))).hasLabel(age.toString()).asAdmin().getBytecode();
+        assertTrue(template.isBoundBy(plan));
+        assertEquals(__.has("name", "marko").values("age").where(__.is(P.gt(29))).hasLabel("29").asAdmin().getBytecode(),
+                template.bind(plan));
+        assertFalse(template.isBoundBy(__.has("name", name).asAdmin().getBytecode()));
+    }
+
+    @Test
+    public void shouldNotBindLiteralsKeptInText() {
+        final QueryTemplate template = QueryTemplate.of("SELECT ?a WHERE { ?a v:label \"9000000000000000000\" . ?a v:name 'marko' . ?a v:age 29 }");
+        assertEquals(Arrays.asList("marko", 29), template.getParameters());
+
+        final Object name = QueryTemplate.of(template.getText()).getParameters().get(0);
+        final Object age = NodeFactory.createLiteral("1", QueryTemplate.NUMBER_PLACEHOLDER).getLiteralValue();
+        final Bytecode plan = __.hasLabel("9000000000000000000").has("name", name).has("age", age).asAdmin().getBytecode();
+        assertTrue(template.isBoundBy(plan));
+        assertEquals(__.hasLabel("9000000000000000000").has("name", "marko").has("age", 29).asAdmin().getBytecode(),
+                template.bind(plan));
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.sparql;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Bytecode;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.apache.tinkerpop.gremlin.process.traversal.P.gt;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.collection.IsIterableContainingInAnyOrder.containsInAnyOrder;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SparqlToGremlinCompilerTest {
+
+    private static final Graph graph = TinkerFactory.createModern();
+    private static final GraphTraversalSource g = graph.traversal();
+
+    @Before
+    public void setup() {
+        SparqlToGremlinCompiler.clearPlanCache();
+    }
+
+    @Test
+    public void shouldStartChainAtMostSelectiveVariable() {
+        final String query = "SELECT ?a WHERE { ?a v:name ?n . ?a e:knows ?b . ?b v:name \"josh\" }";
+        assertEquals(g.V().has("name", "josh").as("b").in("knows").as("a").values("name").as("n").select("a").asAdmin().getBytecode(),
+                SparqlToGremlinCompiler.compile(graph, query).asAdmin().getBytecode());
+        assertEquals(g.V(1).next(), SparqlToGremlinCompiler.compile(graph, query).next());
+    }
+
+    @Test
+    public void shouldApplyFiltersAsSoonAsTheirVariablesAreBound() {
+        final String query = "SELECT ?name WHERE { ?a v:name ?name . ?a v:age ?age . FILTER (?age > 30) }";
+        assertEquals(g.V().as("a").values("age").as("age").where(__.as("age").is(gt(30))).
+                        select("a").values("name").as("name").select("name").asAdmin().getBytecode(),
+                SparqlToGremlinCompiler.compile(graph, query).asAdmin().getBytecode());
+        final List<?> names = SparqlToGremlinCompiler.compile(graph, query).toList();
+        assertThat(names, containsInAnyOrder("josh", "peter"));
+        assertTrue(SparqlToGremlinCompiler.getCachedPlan(graph, query).isPresent());
+    }
+
+    @Test
+    public void shouldJoinOnBoundVariables() {
+        final List<?> names = SparqlToGremlinCompiler.compile(graph,
+                "SELECT ?name WHERE { ?a e:created ?c . ?b e:created ?c . ?a e:knows ?b . ?b v:name ?name }").toList();
+        assertThat(names, containsInAnyOrder("josh"));
+    }
+
+    @Test
+    public void shouldUseMatchIfPatternsAreNotChainable() {
+        assertTrue(hasMatch(SparqlToGremlinCompiler.compile(graph, "SELECT * WHERE { ?a v:name ?name }").asAdmin().getBytecode()));
+        assertTrue(hasMatch(SparqlToGremlinCompiler.compile(graph,
+                "SELECT ?name ?age WHERE { ?a v:name ?name . OPTIONAL { ?a v:age ?age } }").asAdmin().getBytecode()));
+        assertTrue(hasMatch(SparqlToGremlinCompiler.compile(graph,
+                "SELECT ?a ?b WHERE { ?a v:name \"marko\" . ?b v:name \"josh\" }").asAdmin().getBytecode()));
+    }
+
+    @Test
+    public void shouldReusePlanForQueriesThatDifferInLiterals() {
+        final String query = "SELECT ?c WHERE { ?a v:name \"%s\" . ?a e:knows ?b . ?b v:name ?c }";
+        assertThat(SparqlToGremlinCompiler.compile(graph, String.format(query, "marko")).toList(), containsInAnyOrder("vadas", "josh"));
+        assertEquals(0, SparqlToGremlinCompiler.compile(graph, String.format(query, "josh")).toList().size());
+        assertEquals(g.V().has("name", "peter").as("a").out("knows").as("b").values("name").as("c").select("c").asAdmin().getBytecode(),
+                SparqlToGremlinCompiler.compile(graph, String.format(query, "peter")).asAdmin().getBytecode());
+        assertTrue(SparqlToGremlinCompiler.getCachedPlan(graph, String.format(query, "vadas")).isPresent());
+    }
+
+    private static boolean hasMatch(final Bytecode bytecode) {
+        return bytecode.getStepInstructions().stream().anyMatch(instruction -> instruction.getOperator().equals("match"));
+    }
+}
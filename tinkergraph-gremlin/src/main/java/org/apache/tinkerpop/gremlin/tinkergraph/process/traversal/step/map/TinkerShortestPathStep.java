@@ -0,0 +1,270 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.map;
+
+import org.apache.tinkerpop.gremlin.process.computer.search.path.ShortestPathVertexProgram;
+import org.apache.tinkerpop.gremlin.process.computer.traversal.step.map.ShortestPathVertexProgramStep;
+import org.apache.tinkerpop.gremlin.process.traversal.Compare;
+import org.apache.tinkerpop.gremlin.process.traversal.Contains;
+import org.apache.tinkerpop.gremlin.process.traversal.Path;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.HasContainerHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.TraversalParent;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.FlatMapStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.ImmutablePath;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalUtil;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+import org.apache.tinkerpop.gremlin.util.NumberHelper;
+import org.apache.tinkerpop.gremlin.util.iterator.EmptyIterator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * An OLTP implementation of the {@code shortestPath()}-step that computes all shortest paths from each incoming
+ * vertex by running Dijkstra's algorithm directly over the adjacency of the {@link Vertex}. Unlike
+ * {@link ShortestPathVertexProgram}, distances must not be negative.
+ */
+public final class TinkerShortestPathStep extends FlatMapStep<Vertex, Path> implements TraversalParent {
+
+    private Traversal.Admin<Vertex, ?> targetVertexFilter;
+    private Traversal.Admin<Vertex, Edge> edgeTraversal;
+    private Traversal.Admin<Edge, Number> distanceTraversal;
+    private final Number maxDistance;
+    private final boolean includeEdges;
+    private final boolean distanceEqualsNumberOfHops;
+    private final boolean targetsUnfiltered;
+    private final int numberOfTargets;
+
+    public TinkerShortestPathStep(final ShortestPathVertexProgramStep originalStep) {
+        super(originalStep.getTraversal());
+        this.targetVertexFilter = this.integrateChild(originalStep.getTargetVertexFilter().getPure());
+        this.edgeTraversal = this.integrateChild(originalStep.getEdgeTraversal().getPure());
+        this.distanceTraversal = this.integrateChild(originalStep.getDistanceTraversal().getPure());
+        this.maxDistance = originalStep.getMaxDistance();
+        this.includeEdges = originalStep.getIncludeEdges();
+        this.distanceEqualsNumberOfHops =
+                originalStep.getDistanceTraversal().equals(ShortestPathVertexProgram.DEFAULT_DISTANCE_TRAVERSAL);
+        this.targetsUnfiltered =
+                originalStep.getTargetVertexFilter().equals(ShortestPathVertexProgram.DEFAULT_VERTEX_FILTER_TRAVERSAL);
+        this.numberOfTargets = countTargetIds(this.targetVertexFilter);
+        originalStep.getLabels().forEach(this::addLabel);
+    }
+
+    @Override
+    protected Iterator<Path> flatMap(final Traverser.Admin<Vertex> traverser) {
+        final Vertex source = traverser.get();
+        final Map<Vertex, Number> distances = new HashMap<>();
+        final Map<Vertex, List<Object[]>> predecessors = new HashMap<>();
+        final Set<Vertex> settled = new HashSet<>();
+        final List<Vertex> targets = new ArrayList<>();
+        final PriorityQueue<Object[]> queue =
+                new PriorityQueue<>((a, b) -> NumberHelper.compare((Number) a[1], (Number) b[1]));
+
+        // the distance of the last explicitly identified target once all of them were found
+        Number stopDistance = null;
+
+        distances.put(source, 0);
+        queue.add(new Object[]{source, 0});
+
+        while (!queue.isEmpty()) {
+            final Object[] entry = queue.poll();
+            final Vertex vertex = (Vertex) entry[0];
+            final Number distance = (Number) entry[1];
+            if (!settled.add(vertex)) continue;
+
+            // distances never decrease, hence all remaining vertices exceed the maximum distance as well
+            if (this.maxDistance != null && NumberHelper.compare(distance, this.maxDistance) > 0) break;
+
+            // vertices at the distance of the last target may still reach a target on an edge of zero distance
+            if (stopDistance != null && NumberHelper.compare(distance, stopDistance) > 0) break;
+
+            if (this.targetsUnfiltered || TraversalUtil.test(vertex, this.targetVertexFilter)) {
+                targets.add(vertex);
+                // stop as soon as all explicitly identified targets were found
+                if (targets.size() == this.numberOfTargets) stopDistance = distance;
+            }
+
+            final Iterator<Edge> edges = getEdges(vertex);
+            while (edges.hasNext()) {
+                final Edge edge = edges.next();
+                final Vertex other = edge.outVertex().equals(vertex) ? edge.inVertex() : edge.outVertex();
+                final boolean otherSettled = settled.contains(other);
+                if (otherSettled && (this.distanceEqualsNumberOfHops || other.equals(source))) continue;
+
+                final Number edgeDistance = getDistance(edge);
+                if (otherSettled) {
+                    // a settled vertex can only be reached on another shortest path over an edge of zero distance
+                    if (NumberHelper.compare(edgeDistance, 0) == 0 && NumberHelper.compare(distance, distances.get(other)) == 0)
+                        predecessors.get(other).add(new Object[]{vertex, edge});
+                    continue;
+                }
+
+                final Number newDistance = NumberHelper.add(distance, edgeDistance);
+                final Number currentDistance = distances.get(other);
+                final int cmp = null == currentDistance ? -1 : NumberHelper.compare(newDistance, currentDistance);
+                if (cmp < 0) {
+                    distances.put(other, newDistance);
+                    final List<Object[]> list = new ArrayList<>(1);
+                    list.add(new Object[]{vertex, edge});
+                    predecessors.put(other, list);
+                    queue.add(new Object[]{other, newDistance});
+                } else if (cmp == 0) {
+                    predecessors.get(other).add(new Object[]{vertex, edge});
+                }
+            }
+        }
+
+        if (targets.isEmpty()) return EmptyIterator.instance();
+
+        final List<Path> paths = new ArrayList<>();
+        for (final Vertex target : targets) {
+            collectPaths(target, predecessors, new ArrayList<>(), new HashSet<>(), paths);
+        }
+        return paths.iterator();
+    }
+
+    private void collectPaths(final Vertex vertex, final Map<Vertex, List<Object[]>> predecessors,
+                              final List<Object> reversed, final Set<Vertex> visited, final List<Path> paths) {
+        final List<Object[]> list = predecessors.get(vertex);
+        reversed.add(vertex);
+        visited.add(vertex);
+        if (null == list) {
+            Path path = ImmutablePath.make();
+            for (int i = reversed.size() - 1; i >= 0; i--) {
+                path = path.extend(reversed.get(i), Collections.emptySet());
+            }
+            paths.add(path);
+        } else {
+            for (final Object[] predecessor : list) {
+                // edges of zero distance may lead back to a vertex that is already on the path
+                if (visited.contains(predecessor[0])) continue;
+                if (this.includeEdges) reversed.add(predecessor[1]);
+                collectPaths((Vertex) predecessor[0], predecessors, reversed, visited, paths);
+                if (this.includeEdges) reversed.remove(reversed.size() - 1);
+            }
+        }
+        reversed.remove(reversed.size() - 1);
+        visited.remove(vertex);
+    }
+
+    private Iterator<Edge> getEdges(final Vertex vertex) {
+        // walk the adjacency directly for the common case of a plain toE() edge traversal
+        final List<Step> steps = this.edgeTraversal.getSteps();
+        if (steps.size() == 1 && steps.get(0) instanceof VertexStep) {
+            final VertexStep<?> vertexStep = (VertexStep<?>) steps.get(0);
+            if (vertexStep.returnsEdge())
+                return vertex.edges(vertexStep.getDirection(), vertexStep.getEdgeLabels());
+        }
+        return TraversalUtil.applyAll(vertex, this.edgeTraversal);
+    }
+
+    private Number getDistance(final Edge edge) {
+        if (this.distanceEqualsNumberOfHops) return 1;
+        this.distanceTraversal.reset();
+        this.distanceTraversal.addStart(this.distanceTraversal.getTraverserGenerator().generate(edge, this.distanceTraversal.getStartStep(), 1L));
+        final Number distance = this.distanceTraversal.tryNext().orElse(0);
+        if (NumberHelper.compare(distance, 0) < 0)
+            throw new IllegalStateException("The shortestPath()-step does not support negative distances in OLTP: " + edge);
+        return distance;
+    }
+
+    /**
+     * Determines the number of targets if the target filter only consists of an id filter, otherwise returns -1.
+     */
+    private static int countTargetIds(final Traversal.Admin<Vertex, ?> targetVertexFilter) {
+        final List<Step> steps = targetVertexFilter.getSteps();
+        if (steps.size() != 1 || !(steps.get(0) instanceof HasContainerHolder)) return -1;
+        final List<HasContainer> hasContainers = ((HasContainerHolder) steps.get(0)).getHasContainers();
+        if (hasContainers.size() != 1) return -1;
+        final HasContainer hasContainer = hasContainers.get(0);
+        if (!hasContainer.getKey().equals(T.id.getAccessor())) return -1;
+        if (hasContainer.getBiPredicate() == Compare.eq) return 1;
+        if (hasContainer.getBiPredicate() == Contains.within && hasContainer.getValue() instanceof Collection)
+            return new HashSet<>((Collection<?>) hasContainer.getValue()).size();
+        return -1;
+    }
+
+    public Number getMaxDistance() {
+        return this.maxDistance;
+    }
+
+    public boolean getIncludeEdges() {
+        return this.includeEdges;
+    }
+
+    @Override
+    public List<Traversal.Admin<?, ?>> getLocalChildren() {
+        return Arrays.asList(this.targetVertexFilter, this.edgeTraversal, this.distanceTraversal);
+    }
+
+    @Override
+    public Set<TraverserRequirement> getRequirements() {
+        return this.getSelfAndChildRequirements();
+    }
+
+    @Override
+    public TinkerShortestPathStep clone() {
+        final TinkerShortestPathStep clone = (TinkerShortestPathStep) super.clone();
+        clone.targetVertexFilter = this.targetVertexFilter.clone();
+        clone.edgeTraversal = this.edgeTraversal.clone();
+        clone.distanceTraversal = this.distanceTraversal.clone();
+        return clone;
+    }
+
+    @Override
+    public void setTraversal(final Traversal.Admin<?, ?> parentTraversal) {
+        super.setTraversal(parentTraversal);
+        this.integrateChild(this.targetVertexFilter);
+        this.integrateChild(this.edgeTraversal);
+        this.integrateChild(this.distanceTraversal);
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.stepString(this, this.targetVertexFilter, this.edgeTraversal, this.distanceTraversal,
+                this.maxDistance, this.includeEdges);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = super.hashCode() ^ this.targetVertexFilter.hashCode() ^ this.edgeTraversal.hashCode() ^
+                this.distanceTraversal.hashCode() ^ Boolean.hashCode(this.includeEdges);
+        if (this.maxDistance != null)
+            result ^= this.maxDistance.hashCode();
+        return result;
+    }
+}
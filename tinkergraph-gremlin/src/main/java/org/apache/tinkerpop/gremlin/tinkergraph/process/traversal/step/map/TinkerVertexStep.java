@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.map;
+
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.HasContainerHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Mutating;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.util.AndP;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerVertex;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A {@link VertexStep} of edges that tests the containers of the {@code has()} steps that followed it. For the edge
+ * labels of the step that have a vertex-centric index, only the edges with a value of the indexed key in the range
+ * that the containers allow are tested, and if the edges are ordered by the indexed key and limited, only the first
+ * edges in that order are emitted for each vertex. The order and the limit are still applied by the steps that
+ * follow, as the edges of all vertices must be ordered and limited together.
+ */
+public final class TinkerVertexStep<E extends Element> extends VertexStep<E> implements HasContainerHolder {
+
+    private List<HasContainer> hasContainers = new ArrayList<>();
+    private String orderKey = null;
+    private boolean descending = false;
+    private long limit = -1L;
+    private Boolean mutating = null;
+
+    public TinkerVertexStep(final VertexStep<E> originalVertexStep) {
+        super(originalVertexStep.getTraversal(), originalVertexStep.getReturnClass(), originalVertexStep.getDirection(), originalVertexStep.getEdgeLabels());
+        originalVertexStep.getLabels().forEach(this::addLabel);
+        this.parameters = originalVertexStep.getParameters();
+    }
+
+    /**
+     * Emits at most the limit of edges for each vertex, which are the first edges in the order of the key if it is
+     * not {@code null} or any edges otherwise.
+     */
+    public void setLimit(final String orderKey, final boolean descending, final long limit) {
+        this.orderKey = orderKey;
+        this.descending = descending;
+        this.limit = limit;
+    }
+
+    public String getOrderKey() {
+        return this.orderKey;
+    }
+
+    public boolean isDescending() {
+        return this.descending;
+    }
+
+    public long getLimit() {
+        return this.limit;
+    }
+
+    @Override
+    protected Iterator<E> flatMap(final Traverser.Admin<Vertex> traverser) {
+        final Vertex vertex = traverser.get();
+        if (!(vertex instanceof TinkerVertex) || 0 == this.getEdgeLabels().length ||
+                TinkerHelper.inComputerMode((TinkerGraph) vertex.graph()))
+            return IteratorUtils.filter(super.flatMap(traverser), edge -> HasContainer.testAll(edge, this.hasContainers));
+
+        final TinkerGraph graph = (TinkerGraph) vertex.graph();
+        final Direction[] directions = Direction.BOTH == this.getDirection() ?
+                new Direction[]{Direction.OUT, Direction.IN} :
+                new Direction[]{this.getDirection()};
+        final List<Iterator<Edge>> iterators = new ArrayList<>(directions.length * this.getEdgeLabels().length);
+        for (final Direction direction : directions) {
+            for (final String label : this.getEdgeLabels()) {
+                iterators.add(getEdges(graph, (TinkerVertex) vertex, direction, label));
+            }
+        }
+        final Iterator<Edge> edges = IteratorUtils.concat(iterators.toArray(new Iterator[iterators.size()]));
+        return (Iterator<E>) (null == this.orderKey && this.limit >= 0 ? limit(edges, this.limit) : edges);
+    }
+
+    /**
+     * Gets the edges of the label in the direction that match the containers, which come from the vertex-centric index
+     * if the label is indexed by a key that the containers bound or that the edges are ordered by.
+     */
+    private Iterator<Edge> getEdges(final TinkerGraph graph, final TinkerVertex vertex, final Direction direction, final String label) {
+        final String key = TinkerHelper.getVertexCentricIndexKey(graph, label);
+        final Number[] range = null == key ? null : TinkerHelper.getRange(this.hasContainers, key);
+        final boolean ordered = null != key && key.equals(this.orderKey) && this.limit >= 0;
+        if (null == range && !ordered)
+            return filter(TinkerHelper.getEdges(vertex, direction, label));
+
+        Iterator<Edge> sorted = TinkerHelper.queryVertexCentricIndex(vertex, direction, label,
+                null == range ? null : range[0], null == range ? null : range[1], ordered && this.descending);
+        Iterator<Edge> unsorted = TinkerHelper.queryVertexCentricIndexUnsorted(vertex, direction, label);
+        // the index is a live view which removed edges and changed values of the key would modify while it is iterated
+        if (this.isMutating()) {
+            sorted = IteratorUtils.list(sorted).iterator();
+            unsorted = IteratorUtils.list(unsorted).iterator();
+        }
+        return IteratorUtils.concat(ordered ? limit(filter(sorted), this.limit) : filter(sorted), filter(unsorted));
+    }
+
+    private boolean isMutating() {
+        if (null == this.mutating)
+            this.mutating = TraversalHelper.hasStepOfAssignableClassRecursively(Mutating.class, TraversalHelper.getRootTraversal(this.getTraversal()));
+        return this.mutating;
+    }
+
+    private Iterator<Edge> filter(final Iterator<? extends Edge> edges) {
+        return IteratorUtils.filter((Iterator<Edge>) edges, edge -> HasContainer.testAll(edge, this.hasContainers));
+    }
+
+    private static Iterator<Edge> limit(final Iterator<Edge> edges, final long limit) {
+        return IteratorUtils.limit(edges, (int) Math.min(limit, Integer.MAX_VALUE));
+    }
+
+    @Override
+    public List<HasContainer> getHasContainers() {
+        return Collections.unmodifiableList(this.hasContainers);
+    }
+
+    @Override
+    public void addHasContainer(final HasContainer hasContainer) {
+        if (hasContainer.getPredicate() instanceof AndP) {
+            for (final P<?> predicate : ((AndP<?>) hasContainer.getPredicate()).getPredicates()) {
+                this.addHasContainer(new HasContainer(hasContainer.getKey(), predicate));
+            }
+        } else
+            this.hasContainers.add(hasContainer);
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.stepString(this, this.getDirection(), Arrays.asList(this.getEdgeLabels()),
+                this.getReturnClass().getSimpleName().toLowerCase(), this.hasContainers,
+                this.limit < 0 ? null : (null == this.orderKey ? "" : this.orderKey + (this.descending ? ",desc," : ",asc,")) + this.limit);
+    }
+
+    @Override
+    public TinkerVertexStep<E> clone() {
+        final TinkerVertexStep<E> clone = (TinkerVertexStep<E>) super.clone();
+        clone.hasContainers = new ArrayList<>(this.hasContainers);
+        return clone;
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode() ^ this.hasContainers.hashCode() ^ Objects.hashCode(this.orderKey) ^
+                Boolean.hashCode(this.descending) ^ Long.hashCode(this.limit);
+    }
+}
@@ -19,13 +19,19 @@
 package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.sideEffect;
 
 import org.apache.tinkerpop.gremlin.process.traversal.Compare;
+import org.apache.tinkerpop.gremlin.process.traversal.Contains;
 import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.TextP;
 import org.apache.tinkerpop.gremlin.process.traversal.step.HasContainerHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Mutating;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
 import org.apache.tinkerpop.gremlin.process.traversal.util.AndP;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.util.CloseableIterator;
 import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
@@ -36,11 +42,15 @@ import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.Spliterator;
 import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
@@ -49,6 +59,7 @@ import java.util.stream.Collectors;
 public final class TinkerGraphStep<S, E extends Element> extends GraphStep<S, E> implements HasContainerHolder, AutoCloseable {
 
     private final List<HasContainer> hasContainers = new ArrayList<>();
+    private Boolean mutating = null;
     /**
      * List of iterators opened by this step.
      */
@@ -66,17 +77,28 @@ public final class TinkerGraphStep<S, E extends Element> extends GraphStep<S, E>
     }
 
     private Iterator<? extends Edge> edges() {
+        if (!(this.getTraversal().getGraph().get() instanceof TinkerGraph))
+            return scan(Edge.class);
+
         final TinkerGraph graph = (TinkerGraph) this.getTraversal().getGraph().get();
         final HasContainer indexedContainer = getIndexKey(Edge.class);
+        final Set<String> labels = getIndexedLabels();
+        final List<Edge> candidates = null != this.ids && 0 == this.ids.length && null == indexedContainer ?
+                getIndexedCandidates(graph, Edge.class) : null;
         Iterator<Edge> iterator;
         // ids are present, filter on them first
         if (null == this.ids)
             iterator = Collections.emptyIterator();
         else if (this.ids.length > 0)
-            iterator = this.iteratorList(graph.edges(this.ids));
+            iterator = this.iteratorStream(graph.edges(this.ids));
+        else if (null != candidates && (null == labels || candidates.size() <= labels.stream().mapToLong(label -> TinkerHelper.countEdgeLabelIndex(graph, label)).sum()))
+            iterator = this.iteratorStream(candidates.iterator());
+        else if (null != labels && (null == indexedContainer || labels.stream().mapToLong(label -> TinkerHelper.countEdgeLabelIndex(graph, label)).sum() <
+                TinkerHelper.countEdgeIndex(graph, indexedContainer.getKey(), indexedContainer.getPredicate().getValue())))
+            iterator = this.iteratorStream(IteratorUtils.<String, Edge>flatMap(labels.iterator(), label -> (Iterator) TinkerHelper.queryEdgeLabelIndex(graph, label).iterator()));
         else
             iterator = null == indexedContainer ?
-                    this.iteratorList(graph.edges()) :
+                    this.iteratorStream(graph.edges()) :
                     TinkerHelper.queryEdgeIndex(graph, indexedContainer.getKey(), indexedContainer.getPredicate().getValue()).stream()
                                 .filter(edge -> HasContainer.testAll(edge, this.hasContainers))
                                 .collect(Collectors.<Edge>toList()).iterator();
@@ -88,17 +110,28 @@ public final class TinkerGraphStep<S, E extends Element> extends GraphStep<S, E>
     }
 
     private Iterator<? extends Vertex> vertices() {
+        if (!(this.getTraversal().getGraph().get() instanceof TinkerGraph))
+            return scan(Vertex.class);
+
         final TinkerGraph graph = (TinkerGraph) this.getTraversal().getGraph().get();
         final HasContainer indexedContainer = getIndexKey(Vertex.class);
+        final Set<String> labels = getIndexedLabels();
+        final List<Vertex> candidates = null != this.ids && 0 == this.ids.length && null == indexedContainer ?
+                getIndexedCandidates(graph, Vertex.class) : null;
         Iterator<? extends Vertex> iterator;
         // ids are present, filter on them first
         if (null == this.ids)
             iterator = Collections.emptyIterator();
         else if (this.ids.length > 0)
-            iterator = this.iteratorList(graph.vertices(this.ids));
+            iterator = this.iteratorStream(graph.vertices(this.ids));
+        else if (null != candidates && (null == labels || candidates.size() <= labels.stream().mapToLong(label -> TinkerHelper.countVertexLabelIndex(graph, label)).sum()))
+            iterator = this.iteratorStream(candidates.iterator());
+        else if (null != labels && (null == indexedContainer || labels.stream().mapToLong(label -> TinkerHelper.countVertexLabelIndex(graph, label)).sum() <
+                TinkerHelper.countVertexIndex(graph, indexedContainer.getKey(), indexedContainer.getPredicate().getValue())))
+            iterator = this.iteratorStream(IteratorUtils.<String, Vertex>flatMap(labels.iterator(), label -> (Iterator) TinkerHelper.queryVertexLabelIndex(graph, label).iterator()));
         else
             iterator = (null == indexedContainer ?
-                    this.iteratorList(graph.vertices()) :
+                    this.iteratorStream(graph.vertices()) :
                     IteratorUtils.filter(TinkerHelper.queryVertexIndex(graph, indexedContainer.getKey(), indexedContainer.getPredicate().getValue()).iterator(),
                                          vertex -> HasContainer.testAll(vertex, this.hasContainers)));
 
@@ -107,6 +140,47 @@ public final class TinkerGraphStep<S, E extends Element> extends GraphStep<S, E>
         return iterator;
     }
 
+    /**
+     * Filters the elements of a graph without the indices of {@link TinkerGraph}, like the
+     * {@link org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerTransactionGraph}, which are found by their ids
+     * or by iterating all elements of the graph. The elements are not held by the stores of {@link TinkerGraph}, so
+     * the iterators are not tracked like those of {@link #iteratorStream(Iterator)}.
+     */
+    private <T extends Element> Iterator<T> scan(final Class<T> elementClass) {
+        if (null == this.ids)
+            return Collections.emptyIterator();
+
+        final Graph graph = this.getTraversal().getGraph().get();
+        final Iterator<T> elements = IteratorUtils.filter((Iterator<T>) (Vertex.class.isAssignableFrom(elementClass) ?
+                graph.vertices(this.ids) : graph.edges(this.ids)), e -> HasContainer.testAll(e, this.hasContainers));
+        return this.isMutating() ? IteratorUtils.list(elements).iterator() : elements;
+    }
+
+    /**
+     * Splits the elements of the graph directly for a full scan and tests them against the containers in each
+     * partition. The elements that the ids or indices find are handed out in batches instead.
+     */
+    @Override
+    public Spliterator<E> spliterator() {
+        if (!(this.getTraversal().getGraph().get() instanceof TinkerGraph))
+            return super.spliterator();
+
+        final TinkerGraph graph = (TinkerGraph) this.getTraversal().getGraph().get();
+        if (null == this.ids || this.ids.length > 0 || this.isMutating() || TinkerHelper.inComputerMode(graph) ||
+                null != getIndexKey(this.returnClass) || null != getIndexedLabels() ||
+                !graph.getSpatialIndexedKeys(this.returnClass).isEmpty() ||
+                this.hasContainers.stream().anyMatch(hasContainer -> hasContainer.getPredicate() instanceof TextP))
+            return super.spliterator();
+
+        this.done = true;
+        final Spliterator<E> elements = (Spliterator<E>) (Vertex.class.isAssignableFrom(this.returnClass) ?
+                TinkerHelper.getVertices(graph).values().spliterator() :
+                TinkerHelper.getEdges(graph).values().spliterator());
+        return this.hasContainers.isEmpty() ?
+                elements :
+                StreamSupport.stream(elements, false).filter(e -> HasContainer.testAll(e, this.hasContainers)).spliterator();
+    }
+
     private HasContainer getIndexKey(final Class<? extends Element> indexedClass) {
         final Set<String> indexedKeys = ((TinkerGraph) this.getTraversal().getGraph().get()).getIndexedKeys(indexedClass);
 
@@ -116,6 +190,75 @@ public final class TinkerGraphStep<S, E extends Element> extends GraphStep<S, E>
 
     }
 
+    /**
+     * Gets the fewest candidates that the text index finds for a {@link TextP} container or the spatial index finds
+     * for the range containers of an indexed pair of keys, or {@code null} if neither index can answer any of them.
+     * The candidates are tested against all containers as both indices may find elements that do not match.
+     */
+    private <T extends Element> List<T> getIndexedCandidates(final TinkerGraph graph, final Class<T> indexedClass) {
+        final boolean vertices = Vertex.class.isAssignableFrom(indexedClass);
+        List<T> matches = null;
+        for (final HasContainer hasContainer : this.hasContainers) {
+            if (hasContainer.getPredicate() instanceof TextP) {
+                final List<T> candidates = (List<T>) (vertices ?
+                        TinkerHelper.queryVertexTextIndex(graph, hasContainer.getKey(), hasContainer.getBiPredicate(), hasContainer.getValue()) :
+                        TinkerHelper.queryEdgeTextIndex(graph, hasContainer.getKey(), hasContainer.getBiPredicate(), hasContainer.getValue()));
+                if (null != candidates && (null == matches || candidates.size() < matches.size()))
+                    matches = candidates;
+            }
+        }
+        for (final List<String> keys : graph.getSpatialIndexedKeys(indexedClass)) {
+            final Number[] x = TinkerHelper.getRange(this.hasContainers, keys.get(0));
+            final Number[] y = TinkerHelper.getRange(this.hasContainers, keys.get(1));
+            if (null != x && null != y) {
+                final List<T> candidates = (List<T>) (vertices ?
+                        TinkerHelper.queryVertexSpatialIndex(graph, keys.get(0), low(x), high(x), keys.get(1), low(y), high(y)) :
+                        TinkerHelper.queryEdgeSpatialIndex(graph, keys.get(0), low(x), high(x), keys.get(1), low(y), high(y)));
+                if (null != candidates && (null == matches || candidates.size() < matches.size()))
+                    matches = candidates;
+            }
+        }
+        return matches;
+    }
+
+    private static double low(final Number[] range) {
+        return null == range[0] ? Double.NEGATIVE_INFINITY : range[0].doubleValue();
+    }
+
+    private static double high(final Number[] range) {
+        return null == range[1] ? Double.POSITIVE_INFINITY : range[1].doubleValue();
+    }
+
+    /**
+     * Gets the labels that the elements must have according to the first label container that the label index can
+     * answer or {@code null} if there is none.
+     */
+    private Set<String> getIndexedLabels() {
+        for (final HasContainer hasContainer : this.hasContainers) {
+            final Set<String> labels = getLabels(hasContainer);
+            if (null != labels)
+                return labels;
+        }
+        return null;
+    }
+
+    /**
+     * Gets the labels that a {@code hasLabel()} container with an {@code eq} or {@code within} predicate matches or
+     * {@code null} if the container is anything else.
+     */
+    public static Set<String> getLabels(final HasContainer hasContainer) {
+        if (!hasContainer.getKey().equals(T.label.getAccessor()))
+            return null;
+
+        final Object value = hasContainer.getPredicate().getValue();
+        if (hasContainer.getBiPredicate() == Compare.eq && value instanceof String)
+            return Collections.singleton((String) value);
+        else if (hasContainer.getBiPredicate() == Contains.within && value instanceof Collection &&
+                ((Collection<?>) value).stream().allMatch(label -> label instanceof String))
+            return new LinkedHashSet<>((Collection<String>) value);
+        return null;
+    }
+
     @Override
     public String toString() {
         if (this.hasContainers.isEmpty())
@@ -126,6 +269,29 @@ public final class TinkerGraphStep<S, E extends Element> extends GraphStep<S, E>
                     StringFactory.stepString(this, this.returnClass.getSimpleName().toLowerCase(), Arrays.toString(this.ids), this.hasContainers);
     }
 
+    /**
+     * Filters the elements as they are iterated unless the traversal adds or removes elements, in which case they
+     * are copied first as the traversal would otherwise iterate the elements that it adds itself. The elements come
+     * from weakly consistent views of the graph so they may be modified by others while they are iterated.
+     */
+    private <E extends Element> Iterator<E> iteratorStream(final Iterator<E> iterator) {
+        if (this.isMutating())
+            return iteratorList(iterator);
+
+        if (this.hasContainers.isEmpty())
+            return iterator;
+
+        // the step closes the underlying iterator as well in case the filtered one is not iterated to the end
+        this.iterators.add(iterator);
+        return new TinkerGraphIterator<>(IteratorUtils.filter(iterator, e -> HasContainer.testAll(e, this.hasContainers)));
+    }
+
+    private boolean isMutating() {
+        if (null == this.mutating)
+            this.mutating = TraversalHelper.hasStepOfAssignableClassRecursively(Mutating.class, TraversalHelper.getRootTraversal(this.getTraversal()));
+        return this.mutating;
+    }
+
     private <E extends Element> Iterator<E> iteratorList(final Iterator<E> iterator) {
         final List<E> list = new ArrayList<>();
         while (iterator.hasNext()) {
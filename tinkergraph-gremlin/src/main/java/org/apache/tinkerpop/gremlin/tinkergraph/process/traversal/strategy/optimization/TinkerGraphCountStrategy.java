@@ -23,6 +23,7 @@ import org.apache.tinkerpop.gremlin.process.traversal.Step;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.step.TraversalParent;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.HasStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.CountGlobalStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.NoOpBarrierStep;
@@ -31,24 +32,29 @@ import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.IdentitySt
 import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.SideEffectStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.CollectingBarrierStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.EmptyStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
 import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.map.TinkerCountGlobalStep;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.sideEffect.TinkerGraphStep;
 
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
 /**
  * This strategy will do a direct {@link org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper#getVertices}
  * size call if the traversal is a count of the vertices and edges of the graph or a one-to-one map chain thereof.
+ * Counts of the vertices and edges with certain labels are answered by the size of the label index.
  *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  * @example <pre>
- * g.V().count()               // is replaced by TinkerCountGlobalStep
- * g.V().map(out()).count()    // is replaced by TinkerCountGlobalStep
- * g.E().label().count()       // is replaced by TinkerCountGlobalStep
+ * g.V().count()                  // is replaced by TinkerCountGlobalStep
+ * g.V().map(out()).count()       // is replaced by TinkerCountGlobalStep
+ * g.E().label().count()          // is replaced by TinkerCountGlobalStep
+ * g.V().hasLabel('person').count() // is replaced by TinkerCountGlobalStep
  * </pre>
  */
 public final class TinkerGraphCountStrategy extends AbstractTraversalStrategy<TraversalStrategy.ProviderOptimizationStrategy> implements TraversalStrategy.ProviderOptimizationStrategy {
@@ -68,8 +74,22 @@ public final class TinkerGraphCountStrategy extends AbstractTraversalStrategy<Tr
                 0 != ((GraphStep) steps.get(0)).getIds().length ||
                 !(steps.get(steps.size() - 1) instanceof CountGlobalStep))
             return;
+        // the labels that the counted elements must have or null if the elements are not filtered by label
+        Set<String> labels = null;
         for (int i = 1; i < steps.size() - 1; i++) {
             final Step current = steps.get(i);
+            if (current instanceof HasStep) {
+                for (final HasContainer hasContainer : ((HasStep<?>) current).getHasContainers()) {
+                    final Set<String> containerLabels = TinkerGraphStep.getLabels(hasContainer);
+                    if (null == containerLabels)
+                        return;
+                    if (null == labels)
+                        labels = new HashSet<>(containerLabels);
+                    else
+                        labels.retainAll(containerLabels);
+                }
+                continue;
+            }
             if (!(//current instanceof MapStep ||  // MapSteps will not necessarily emit an element as demonstrated in https://issues.apache.org/jira/browse/TINKERPOP-1958
                     current instanceof IdentityStep ||
                     current instanceof NoOpBarrierStep ||
@@ -80,7 +100,7 @@ public final class TinkerGraphCountStrategy extends AbstractTraversalStrategy<Tr
         }
         final Class<? extends Element> elementClass = ((GraphStep<?, ?>) steps.get(0)).getReturnClass();
         TraversalHelper.removeAllSteps(traversal);
-        traversal.addStep(new TinkerCountGlobalStep<>(traversal, elementClass));
+        traversal.addStep(new TinkerCountGlobalStep<>(traversal, elementClass, labels));
     }
 
     @Override
@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization;
+
+import org.apache.tinkerpop.gremlin.process.computer.traversal.step.map.ShortestPathVertexProgramStep;
+import org.apache.tinkerpop.gremlin.process.computer.traversal.strategy.decoration.VertexProgramStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.map.TinkerShortestPathStep;
+
+/**
+ * This strategy replaces the {@link ShortestPathVertexProgramStep} with a {@link TinkerShortestPathStep} when the
+ * traversal is not executed on a {@link org.apache.tinkerpop.gremlin.process.computer.GraphComputer}, which allows
+ * {@code shortestPath()} to be used in OLTP.
+ *
+ * @example <pre>
+ * g.V(1).shortestPath()                                         // is replaced by TinkerShortestPathStep
+ * g.V(1).shortestPath().with(ShortestPath.target, __.hasId(6))  // is replaced by TinkerShortestPathStep
+ * </pre>
+ */
+public final class TinkerGraphShortestPathStrategy extends AbstractTraversalStrategy<TraversalStrategy.ProviderOptimizationStrategy> implements TraversalStrategy.ProviderOptimizationStrategy {
+
+    private static final TinkerGraphShortestPathStrategy INSTANCE = new TinkerGraphShortestPathStrategy();
+
+    private TinkerGraphShortestPathStrategy() {
+    }
+
+    @Override
+    public void apply(final Traversal.Admin<?, ?> traversal) {
+        if (TraversalHelper.onGraphComputer(traversal) ||
+                traversal.getStrategies().getStrategy(VertexProgramStrategy.class).isPresent())
+            return;
+
+        for (final ShortestPathVertexProgramStep originalStep : TraversalHelper.getStepsOfClass(ShortestPathVertexProgramStep.class, traversal)) {
+            TraversalHelper.replaceStep((Step) originalStep, new TinkerShortestPathStep(originalStep), traversal);
+        }
+    }
+
+    public static TinkerGraphShortestPathStrategy instance() {
+        return INSTANCE;
+    }
+}
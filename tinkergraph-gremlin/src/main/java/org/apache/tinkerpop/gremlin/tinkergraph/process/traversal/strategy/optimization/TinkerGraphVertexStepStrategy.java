@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.lambda.ValueTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.step.HasContainerHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.HasStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.RangeGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.OrderGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.map.TinkerVertexStep;
+import org.javatuples.Pair;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * This strategy replaces a {@link VertexStep} of edges that is followed by {@code has()} steps or a limit with a
+ * {@link TinkerVertexStep} that tests the containers of the {@code has()} steps itself, so that it can use the
+ * vertex-centric indices of {@link org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph} for range
+ * predicates on the indexed key. If the edges are limited, possibly after being ordered by a key, the limit is passed
+ * to the {@link TinkerVertexStep} as well, which then emits no more edges for a vertex than the limit.
+ *
+ * @example <pre>
+ * g.V(1).outE('transfer').has('amount', gt(1000))                // is replaced by TinkerVertexStep
+ * g.V(1).outE('transfer').order().by('ts', desc).limit(10)       // is replaced by TinkerVertexStep, order() and limit()
+ * g.V(1).outE('transfer').has('amount', gt(1000)).limit(10)      // is replaced by TinkerVertexStep and limit()
+ * </pre>
+ */
+public final class TinkerGraphVertexStepStrategy extends AbstractTraversalStrategy<TraversalStrategy.ProviderOptimizationStrategy> implements TraversalStrategy.ProviderOptimizationStrategy {
+
+    private static final TinkerGraphVertexStepStrategy INSTANCE = new TinkerGraphVertexStepStrategy();
+
+    private TinkerGraphVertexStepStrategy() {
+    }
+
+    @Override
+    public void apply(final Traversal.Admin<?, ?> traversal) {
+        if (TraversalHelper.onGraphComputer(traversal))
+            return;
+
+        for (final VertexStep originalVertexStep : TraversalHelper.getStepsOfClass(VertexStep.class, traversal)) {
+            if (!originalVertexStep.returnsEdge())
+                continue;
+
+            Step<?, ?> currentStep = originalVertexStep.getNextStep();
+            while (currentStep instanceof HasStep) {
+                currentStep = currentStep.getNextStep();
+            }
+            final boolean filtered = currentStep != originalVertexStep.getNextStep();
+
+            // the key that the edges are ordered by before they are limited, which is null if they are not ordered
+            String orderKey = null;
+            boolean descending = false;
+            long limit = -1L;
+            if (currentStep instanceof RangeGlobalStep) {
+                limit = ((RangeGlobalStep<?>) currentStep).getHighRange();
+            } else if (currentStep instanceof OrderGlobalStep && currentStep.getNextStep() instanceof RangeGlobalStep) {
+                final List<Pair<Traversal.Admin, Comparator>> comparators = ((OrderGlobalStep) currentStep).getComparators();
+                if (1 == comparators.size() && comparators.get(0).getValue0() instanceof ValueTraversal &&
+                        comparators.get(0).getValue0().getSteps().isEmpty() &&
+                        (comparators.get(0).getValue1() == Order.asc || comparators.get(0).getValue1() == Order.desc)) {
+                    orderKey = ((ValueTraversal<?, ?>) comparators.get(0).getValue0()).getPropertyKey();
+                    descending = comparators.get(0).getValue1() == Order.desc;
+                    limit = ((RangeGlobalStep<?>) currentStep.getNextStep()).getHighRange();
+                }
+            }
+            if (!filtered && limit < 0)
+                continue;
+
+            final TinkerVertexStep<?> tinkerVertexStep = new TinkerVertexStep<>(originalVertexStep);
+            TraversalHelper.replaceStep(originalVertexStep, tinkerVertexStep, traversal);
+            if (limit >= 0)
+                tinkerVertexStep.setLimit(orderKey, descending, limit);
+            currentStep = tinkerVertexStep.getNextStep();
+            while (currentStep instanceof HasStep) {
+                for (final HasContainer hasContainer : ((HasContainerHolder) currentStep).getHasContainers()) {
+                    tinkerVertexStep.addHasContainer(hasContainer);
+                }
+                TraversalHelper.copyLabels(currentStep, currentStep.getPreviousStep(), false);
+                traversal.removeStep(currentStep);
+                currentStep = currentStep.getNextStep();
+            }
+        }
+    }
+
+    public static TinkerGraphVertexStepStrategy instance() {
+        return INSTANCE;
+    }
+}
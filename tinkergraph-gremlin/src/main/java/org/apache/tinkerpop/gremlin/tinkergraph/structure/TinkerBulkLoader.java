@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.util.DefaultBulkLoader;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The bulk loader of a {@link TinkerGraph}. The indices of the graph stay in place while it is open, but the elements
+ * that the loader adds are not indexed one property write at a time. Instead, the loader keeps the elements it added
+ * and closing it merges their current properties of the indexed keys into the indices, so the cost of the merge
+ * depends on the size of the load rather than on the size of the graph.
+ */
+final class TinkerBulkLoader extends DefaultBulkLoader {
+
+    private final TinkerGraph graph;
+    private final Set<TinkerVertex> vertices = ConcurrentHashMap.newKeySet();
+    private final Set<TinkerEdge> edges = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The thread that is adding an element, whose property writes are deferred as the element is not known to the
+     * loader before it is created.
+     */
+    private volatile Thread adding = null;
+
+    TinkerBulkLoader(final TinkerGraph graph, final int batchSize) {
+        super(graph, batchSize);
+        this.graph = graph;
+    }
+
+    @Override
+    public Vertex addVertex(final Object externalId, final Object... keyValues) {
+        this.adding = Thread.currentThread();
+        try {
+            return super.addVertex(externalId, keyValues);
+        } finally {
+            this.adding = null;
+        }
+    }
+
+    @Override
+    public Edge addEdge(final String label, final Object outVertexExternalId, final Object inVertexExternalId,
+                        final Object... keyValues) {
+        this.adding = Thread.currentThread();
+        try {
+            return super.addEdge(label, outVertexExternalId, inVertexExternalId, keyValues);
+        } finally {
+            this.adding = null;
+        }
+    }
+
+    /**
+     * Determines if the index entries of the element are deferred, which is the case for all elements that were
+     * added by this loader.
+     */
+    boolean defer(final Element element) {
+        final boolean vertex = element instanceof TinkerVertex;
+        if (Thread.currentThread() != this.adding)
+            return vertex ? this.vertices.contains(element) : this.edges.contains(element);
+
+        if (vertex)
+            this.vertices.add((TinkerVertex) element);
+        else
+            this.edges.add((TinkerEdge) element);
+        return true;
+    }
+
+    @Override
+    protected void onClose() {
+        // the loader is detached first so that elements which are changed during the merge are indexed directly
+        this.graph.bulkLoader = null;
+        final TinkerIndex<TinkerVertex> vertexIndex = this.graph.vertexIndex;
+        if (null != vertexIndex) vertexIndex.merge(this.vertices);
+        final TinkerIndex<TinkerEdge> edgeIndex = this.graph.edgeIndex;
+        if (null != edgeIndex) edgeIndex.merge(this.edges);
+        this.vertices.clear();
+        this.edges.clear();
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+/**
+ * A HyperLogLog sketch which estimates the number of distinct values that were added to it in a fixed amount of
+ * memory. With 2^12 registers the standard error of the estimate is about 1.6%, while small cardinalities are counted
+ * almost exactly with linear counting.
+ */
+final class TinkerCardinalitySketch {
+
+    private static final int PRECISION = 12;
+    private static final int REGISTERS = 1 << PRECISION;
+    private static final double ALPHA = 0.7213d / (1.0d + 1.079d / REGISTERS);
+
+    private final byte[] registers = new byte[REGISTERS];
+
+    void add(final Object value) {
+        final long hash = hash(null == value ? 0 : value.hashCode());
+        final int register = (int) (hash >>> (Long.SIZE - PRECISION));
+        // the rank is the position of the first set bit after the register bits, where a sentinel bit bounds it
+        final byte rank = (byte) (Long.numberOfLeadingZeros((hash << PRECISION) | (1L << (PRECISION - 1))) + 1);
+        if (rank > this.registers[register])
+            this.registers[register] = rank;
+    }
+
+    long estimate() {
+        double sum = 0.0d;
+        int zeros = 0;
+        for (final byte rank : this.registers) {
+            sum += 1.0d / (1L << rank);
+            if (0 == rank) zeros++;
+        }
+        final double estimate = ALPHA * REGISTERS * REGISTERS / sum;
+        return Math.round(estimate <= 2.5d * REGISTERS && zeros > 0 ?
+                REGISTERS * Math.log((double) REGISTERS / zeros) :
+                estimate);
+    }
+
+    /**
+     * Spreads the bits of the hash code over a long with the finalizer of MurmurHash3 as hash codes like those of
+     * integers are anything but uniformly distributed.
+     */
+    private static long hash(final int hashCode) {
+        long hash = hashCode;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb93fe53a87c3L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
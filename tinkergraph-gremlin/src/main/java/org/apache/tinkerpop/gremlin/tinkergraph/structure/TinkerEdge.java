@@ -29,18 +29,22 @@ import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Iterator;
-import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
 public final class TinkerEdge extends TinkerElement implements Edge {
 
-    protected Map<String, Property> properties;
+    /**
+     * The slots of the properties hold the values of the properties rather than {@link Property} objects. If the
+     * graph stores properties off-heap, the slots are held in the record of {@link TinkerOffHeapStore} at the
+     * address {@code propertyRecord} instead.
+     */
+    protected TinkerPropertySchema propertySchema;
+    protected Object[] propertyValues = TinkerPropertySchema.NO_VALUES;
+    protected volatile long propertyRecord = TinkerOffHeapStore.NO_RECORD;
     protected final Vertex inVertex;
     protected final Vertex outVertex;
     private final boolean allowNullPropertyValues;
@@ -49,6 +53,7 @@ public final class TinkerEdge extends TinkerElement implements Edge {
         super(id, label);
         this.outVertex = outVertex;
         this.inVertex = inVertex;
+        this.propertySchema = ((TinkerGraph) outVertex.graph()).propertySchema;
         this.allowNullPropertyValues = outVertex.graph().features().edge().supportsNullPropertyValues();
         TinkerHelper.autoUpdateIndex(this, T.label.getAccessor(), this.label, null);
     }
@@ -63,23 +68,28 @@ public final class TinkerEdge extends TinkerElement implements Edge {
             return Property.empty();
         }
 
-        final Property oldProperty = super.property(key);
-        final Property<V> newProperty = new TinkerProperty<>(this, key, value);
-        if (null == this.properties) this.properties = new HashMap<>();
-        this.properties.put(key, newProperty);
-        TinkerHelper.autoUpdateIndex(this, key, value, oldProperty.isPresent() ? oldProperty.value() : null);
-        return newProperty;
-
+        final int slot = this.propertySchema.slot(key);
+        final Object oldValue;
+        if (slot < 0) {
+            oldValue = null;
+            writeValue(this.propertySchema.add(key), this.propertySchema.size(), value);
+        } else {
+            oldValue = readValue(slot);
+            writeValue(this.propertySchema, slot, value);
+        }
+        TinkerHelper.autoUpdateIndex(this, key, value, oldValue);
+        return new TinkerProperty<>(this, key, value);
     }
 
     @Override
     public <V> Property<V> property(final String key) {
-        return null == this.properties ? Property.<V>empty() : this.properties.getOrDefault(key, Property.<V>empty());
+        final int slot = this.propertySchema.slot(key);
+        return slot < 0 ? Property.<V>empty() : new TinkerProperty<>(this, key, (V) readValue(slot));
     }
 
     @Override
     public Set<String> keys() {
-        return null == this.properties ? Collections.emptySet() : this.properties.keySet();
+        return this.propertySchema.keys();
     }
 
     @Override
@@ -98,9 +108,12 @@ public final class TinkerEdge extends TinkerElement implements Edge {
                 edges.remove(this);
         }
 
+        final TinkerGraph graph = (TinkerGraph) this.graph();
+        if (null != graph.vertexCentricIndex)
+            graph.vertexCentricIndex.removeEdge(this);
         TinkerHelper.removeElementIndex(this);
         ((TinkerGraph) this.graph()).edges.remove(this.id());
-        this.properties = null;
+        writeValues(this.propertySchema.root(), TinkerPropertySchema.NO_VALUES);
         this.removed = true;
     }
 
@@ -140,11 +153,79 @@ public final class TinkerEdge extends TinkerElement implements Edge {
 
     @Override
     public <V> Iterator<Property<V>> properties(final String... propertyKeys) {
-        if (null == this.properties) return Collections.emptyIterator();
+        if (0 == this.propertySchema.size()) return Collections.emptyIterator();
         if (propertyKeys.length == 1) {
-            final Property<V> property = this.properties.get(propertyKeys[0]);
-            return null == property ? Collections.emptyIterator() : IteratorUtils.of(property);
-        } else
-            return (Iterator) this.properties.entrySet().stream().filter(entry -> ElementHelper.keyExists(entry.getKey(), propertyKeys)).map(entry -> entry.getValue()).collect(Collectors.toList()).iterator();
+            final int slot = this.propertySchema.slot(propertyKeys[0]);
+            return slot < 0 ? Collections.emptyIterator() : IteratorUtils.of(new TinkerProperty<>(this, propertyKeys[0], (V) readValue(slot)));
+        } else {
+            return new TinkerPropertyIterator<Property<V>>(this.propertySchema, readValues(), propertyKeys) {
+                @Override
+                Property<V> property(final String key, final Object value) {
+                    return new TinkerProperty<>(TinkerEdge.this, key, (V) value);
+                }
+            };
+        }
+    }
+
+    /**
+     * Removes the property of the key if this edge has it.
+     */
+    void removeProperty(final String key) {
+        final int slot = this.propertySchema.slot(key);
+        if (slot < 0) return;
+
+        final TinkerOffHeapStore offHeapStore = ((TinkerGraph) this.graph()).offHeapStore;
+        if (null == offHeapStore) {
+            this.propertyValues = TinkerPropertySchema.remove(this.propertyValues, slot);
+        } else {
+            final long record = this.propertyRecord;
+            this.propertyRecord = offHeapStore.removeValue(record, slot);
+            offHeapStore.free(record);
+        }
+        this.propertySchema = this.propertySchema.remove(slot);
+    }
+
+    /**
+     * Gets the values in the slots of the properties, which are a copy if they are read from off-heap.
+     */
+    Object[] readValues() {
+        final TinkerOffHeapStore offHeapStore = ((TinkerGraph) this.graph()).offHeapStore;
+        return null == offHeapStore ? this.propertyValues : offHeapStore.readValues(this);
+    }
+
+    Object readValue(final int slot) {
+        final TinkerOffHeapStore offHeapStore = ((TinkerGraph) this.graph()).offHeapStore;
+        return null == offHeapStore ? this.propertyValues[slot] : offHeapStore.readValue(this, slot);
+    }
+
+    /**
+     * Replaces the value of the given slot or, if it is the slot after the last one, adds it, which only encodes that
+     * value if the properties are stored off-heap.
+     */
+    private void writeValue(final TinkerPropertySchema schema, final int slot, final Object value) {
+        final TinkerOffHeapStore offHeapStore = ((TinkerGraph) this.graph()).offHeapStore;
+        if (null == offHeapStore) {
+            if (slot == this.propertyValues.length)
+                this.propertyValues = TinkerPropertySchema.add(this.propertyValues, value);
+            else
+                this.propertyValues[slot] = value;
+        } else {
+            final long record = this.propertyRecord;
+            this.propertyRecord = offHeapStore.writeValues(record, slot, value);
+            offHeapStore.free(record);
+        }
+        this.propertySchema = schema;
+    }
+
+    private void writeValues(final TinkerPropertySchema schema, final Object[] values) {
+        final TinkerOffHeapStore offHeapStore = ((TinkerGraph) this.graph()).offHeapStore;
+        if (null == offHeapStore) {
+            this.propertyValues = values;
+        } else {
+            final long record = this.propertyRecord;
+            this.propertyRecord = offHeapStore.writeValues(values);
+            offHeapStore.free(record);
+        }
+        this.propertySchema = schema;
     }
 }
@@ -38,7 +38,9 @@ import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 import org.apache.tinkerpop.gremlin.tinkergraph.process.computer.TinkerGraphComputer;
 import org.apache.tinkerpop.gremlin.tinkergraph.process.computer.TinkerGraphComputerView;
 import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization.TinkerGraphCountStrategy;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization.TinkerGraphShortestPathStrategy;
 import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization.TinkerGraphStepStrategy;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization.TinkerGraphVertexStepStrategy;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
 import java.io.File;
@@ -70,7 +72,9 @@ public final class TinkerGraph implements Graph {
     static {
         TraversalStrategies.GlobalCache.registerStrategies(TinkerGraph.class, TraversalStrategies.GlobalCache.getStrategies(Graph.class).clone().addStrategies(
                 TinkerGraphStepStrategy.instance(),
-                TinkerGraphCountStrategy.instance()));
+                TinkerGraphVertexStepStrategy.instance(),
+                TinkerGraphCountStrategy.instance(),
+                TinkerGraphShortestPathStrategy.instance()));
     }
 
     private static final Configuration EMPTY_CONFIGURATION = new BaseConfiguration() {{
@@ -84,17 +88,42 @@ public final class TinkerGraph implements Graph {
     public static final String GREMLIN_TINKERGRAPH_GRAPH_LOCATION = "gremlin.tinkergraph.graphLocation";
     public static final String GREMLIN_TINKERGRAPH_GRAPH_FORMAT = "gremlin.tinkergraph.graphFormat";
     public static final String GREMLIN_TINKERGRAPH_ALLOW_NULL_PROPERTY_VALUES = "gremlin.tinkergraph.allowNullPropertyValues";
+    public static final String GREMLIN_TINKERGRAPH_PRIMITIVE_ID_STORAGE = "gremlin.tinkergraph.primitiveIdStorage";
+    public static final String GREMLIN_TINKERGRAPH_OFF_HEAP_PROPERTIES = "gremlin.tinkergraph.offHeapProperties";
+    public static final String GREMLIN_TINKERGRAPH_OFF_HEAP_PROPERTY_SEGMENT_SIZE = "gremlin.tinkergraph.offHeapPropertySegmentSize";
 
     private final TinkerGraphFeatures features = new TinkerGraphFeatures();
 
     protected AtomicLong currentId = new AtomicLong(-1L);
-    protected Map<Object, Vertex> vertices = new ConcurrentHashMap<>();
-    protected Map<Object, Edge> edges = new ConcurrentHashMap<>();
+    protected Map<Object, Vertex> vertices;
+    protected Map<Object, Edge> edges;
 
     protected TinkerGraphVariables variables = null;
     protected TinkerGraphComputerView graphComputerView = null;
-    protected TinkerIndex<TinkerVertex> vertexIndex = null;
-    protected TinkerIndex<TinkerEdge> edgeIndex = null;
+    protected volatile TinkerIndex<TinkerVertex> vertexIndex = null;
+    protected volatile TinkerIndex<TinkerEdge> edgeIndex = null;
+
+    /**
+     * Keeps the keys of {@link #vertexIndex} and {@link #edgeIndex} from being created or dropped while an index is
+     * rebuilt, as the rebuilt index takes the keys of the index it replaces when the rebuild starts.
+     */
+    private final Object indexLock = new Object();
+    protected TinkerTextIndex<TinkerVertex> vertexTextIndex = null;
+    protected TinkerTextIndex<TinkerEdge> edgeTextIndex = null;
+    protected TinkerSpatialIndex<TinkerVertex> vertexSpatialIndex = null;
+    protected TinkerSpatialIndex<TinkerEdge> edgeSpatialIndex = null;
+    protected TinkerVertexCentricIndex vertexCentricIndex = null;
+    protected final TinkerLabelIndex<TinkerVertex> vertexLabelIndex = new TinkerLabelIndex<>();
+    protected final TinkerLabelIndex<TinkerEdge> edgeLabelIndex = new TinkerLabelIndex<>();
+    protected final TinkerPropertySchema propertySchema = TinkerPropertySchema.create();
+
+    /**
+     * The store of the properties of the elements if {@link #GREMLIN_TINKERGRAPH_OFF_HEAP_PROPERTIES} is enabled and
+     * otherwise {@code null}.
+     */
+    protected final TinkerOffHeapStore offHeapStore;
+    protected volatile TinkerGraphStatistics statistics = new TinkerGraphStatistics(this);
+    protected volatile TinkerBulkLoader bulkLoader = null;
 
     protected final IdManager<?> vertexIdManager;
     protected final IdManager<?> edgeIdManager;
@@ -118,6 +147,13 @@ public final class TinkerGraph implements Graph {
                 configuration.getString(GREMLIN_TINKERGRAPH_DEFAULT_VERTEX_PROPERTY_CARDINALITY, VertexProperty.Cardinality.single.name()));
         allowNullPropertyValues = configuration.getBoolean(GREMLIN_TINKERGRAPH_ALLOW_NULL_PROPERTY_VALUES, false);
 
+        final boolean primitiveIdStorage = configuration.getBoolean(GREMLIN_TINKERGRAPH_PRIMITIVE_ID_STORAGE, false);
+        vertices = createElementMap(primitiveIdStorage, vertexIdManager, GREMLIN_TINKERGRAPH_VERTEX_ID_MANAGER);
+        edges = createElementMap(primitiveIdStorage, edgeIdManager, GREMLIN_TINKERGRAPH_EDGE_ID_MANAGER);
+        offHeapStore = configuration.getBoolean(GREMLIN_TINKERGRAPH_OFF_HEAP_PROPERTIES, false) ?
+                new TinkerOffHeapStore(configuration.getInt(GREMLIN_TINKERGRAPH_OFF_HEAP_PROPERTY_SEGMENT_SIZE, 1 << 24)) :
+                null;
+
         graphLocation = configuration.getString(GREMLIN_TINKERGRAPH_GRAPH_LOCATION, null);
         graphFormat = configuration.getString(GREMLIN_TINKERGRAPH_GRAPH_FORMAT, null);
 
@@ -172,8 +208,9 @@ public final class TinkerGraph implements Graph {
             idValue = vertexIdManager.getNextId(this);
         }
 
-        final Vertex vertex = new TinkerVertex(idValue, label, this);
+        final TinkerVertex vertex = new TinkerVertex(idValue, label, this);
         this.vertices.put(vertex.id(), vertex);
+        this.vertexLabelIndex.add(vertex);
 
         ElementHelper.attachProperties(vertex, VertexProperty.Cardinality.list, keyValues);
         return vertex;
@@ -198,6 +235,33 @@ public final class TinkerGraph implements Graph {
         return this.variables;
     }
 
+    /**
+     * Gets the statistics of the graph. The element and label counts are exact while the property and degree
+     * statistics come from a snapshot that is sampled on first access and is recomputed in the background once the
+     * number of vertices and edges differs by more than ten percent from it. Property changes alone do not cause a
+     * recomputation.
+     */
+    @Override
+    public Statistics statistics() {
+        final TinkerGraphStatistics current = this.statistics;
+        current.refresh();
+        return current;
+    }
+
+    /**
+     * Gets a {@link BulkLoader} which defers indexing the elements it adds until it is closed and then merges them
+     * into the indices, which stay available for the other elements meanwhile. Only one loader may be open at a time
+     * and the graph should not be modified by other means while it is. The batch size has no effect as the graph is
+     * not transactional.
+     */
+    @Override
+    public synchronized BulkLoader bulkLoader(final int batchSize) {
+        if (null != this.bulkLoader)
+            throw new IllegalStateException("A bulk loader is already open on this graph");
+        this.bulkLoader = new TinkerBulkLoader(this, batchSize);
+        return this.bulkLoader;
+    }
+
     @Override
     public <I extends Io> I io(final Io.Builder<I> builder) {
         if (builder.requiresVersion(GryoVersion.V1_0) || builder.requiresVersion(GraphSONVersion.V1_0))
@@ -220,7 +284,16 @@ public final class TinkerGraph implements Graph {
         this.currentId.set(-1L);
         this.vertexIndex = null;
         this.edgeIndex = null;
+        this.vertexTextIndex = null;
+        this.edgeTextIndex = null;
+        this.vertexSpatialIndex = null;
+        this.edgeSpatialIndex = null;
+        this.vertexCentricIndex = null;
+        this.vertexLabelIndex.clear();
+        this.edgeLabelIndex.clear();
+        this.statistics = new TinkerGraphStatistics(this);
         this.graphComputerView = null;
+        if (null != this.offHeapStore) this.offHeapStore.clear();
     }
 
     /**
@@ -306,6 +379,12 @@ public final class TinkerGraph implements Graph {
         final Iterator<T> iterator;
         if (0 == ids.length) {
             iterator = new TinkerGraphIterator<T>(elements.values().iterator());
+        } else if (1 == ids.length) {
+            // the common lookup of a single element needs none of the list and iterator wrappers below
+            if (null == ids[0])
+                throw Graph.Exceptions.idArgsMustBeEitherIdOrElement();
+            final T element = elements.get(clazz.isAssignableFrom(ids[0].getClass()) ? clazz.cast(ids[0]).id() : idManager.convert(ids[0]));
+            return new TinkerGraphIterator<T>(null == element ? Collections.emptyIterator() : IteratorUtils.of(element));
         } else {
             final List<Object> idList = Arrays.asList(ids);
             validateHomogenousIds(idList);
@@ -415,6 +494,8 @@ public final class TinkerGraph implements Graph {
 
     public class TinkerGraphEdgeFeatures implements Features.EdgeFeatures {
 
+        private final TinkerGraphEdgePropertyFeatures edgePropertyFeatures = new TinkerGraphEdgePropertyFeatures();
+
         private TinkerGraphEdgeFeatures() {
         }
 
@@ -432,6 +513,27 @@ public final class TinkerGraph implements Graph {
         public boolean willAllowId(final Object id) {
             return edgeIdManager.allow(id);
         }
+
+        @Override
+        public Features.EdgePropertyFeatures properties() {
+            return edgePropertyFeatures;
+        }
+    }
+
+    public class TinkerGraphEdgePropertyFeatures implements Features.EdgePropertyFeatures {
+
+        private TinkerGraphEdgePropertyFeatures() {
+        }
+
+        @Override
+        public boolean supportsSerializableValues() {
+            return null == offHeapStore;
+        }
+
+        @Override
+        public boolean supportsBooleanArrayValues() {
+            return null == offHeapStore;
+        }
     }
 
     public class TinkerGraphGraphFeatures implements Features.GraphFeatures {
@@ -454,6 +556,16 @@ public final class TinkerGraph implements Graph {
             return false;
         }
 
+        @Override
+        public boolean supportsStatistics() {
+            return true;
+        }
+
+        @Override
+        public boolean supportsBulkLoading() {
+            return true;
+        }
+
     }
 
     public class TinkerGraphVertexPropertyFeatures implements Features.VertexPropertyFeatures {
@@ -461,6 +573,16 @@ public final class TinkerGraph implements Graph {
         private TinkerGraphVertexPropertyFeatures() {
         }
 
+        @Override
+        public boolean supportsSerializableValues() {
+            return null == offHeapStore;
+        }
+
+        @Override
+        public boolean supportsBooleanArrayValues() {
+            return null == offHeapStore;
+        }
+
         @Override
         public boolean supportsNullPropertyValues() {
             return allowNullPropertyValues;
@@ -489,14 +611,16 @@ public final class TinkerGraph implements Graph {
      * @param <E>          The type of the element class
      */
     public <E extends Element> void createIndex(final String key, final Class<E> elementClass) {
-        if (Vertex.class.isAssignableFrom(elementClass)) {
-            if (null == this.vertexIndex) this.vertexIndex = new TinkerIndex<>(this, TinkerVertex.class);
-            this.vertexIndex.createKeyIndex(key);
-        } else if (Edge.class.isAssignableFrom(elementClass)) {
-            if (null == this.edgeIndex) this.edgeIndex = new TinkerIndex<>(this, TinkerEdge.class);
-            this.edgeIndex.createKeyIndex(key);
-        } else {
-            throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+        synchronized (this.indexLock) {
+            if (Vertex.class.isAssignableFrom(elementClass)) {
+                if (null == this.vertexIndex) this.vertexIndex = new TinkerIndex<>(this, TinkerVertex.class);
+                this.vertexIndex.createKeyIndex(key);
+            } else if (Edge.class.isAssignableFrom(elementClass)) {
+                if (null == this.edgeIndex) this.edgeIndex = new TinkerIndex<>(this, TinkerEdge.class);
+                this.edgeIndex.createKeyIndex(key);
+            } else {
+                throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+            }
         }
     }
 
@@ -508,12 +632,34 @@ public final class TinkerGraph implements Graph {
      * @param <E>          The type of the element class
      */
     public <E extends Element> void dropIndex(final String key, final Class<E> elementClass) {
-        if (Vertex.class.isAssignableFrom(elementClass)) {
-            if (null != this.vertexIndex) this.vertexIndex.dropKeyIndex(key);
-        } else if (Edge.class.isAssignableFrom(elementClass)) {
-            if (null != this.edgeIndex) this.edgeIndex.dropKeyIndex(key);
-        } else {
-            throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+        synchronized (this.indexLock) {
+            if (Vertex.class.isAssignableFrom(elementClass)) {
+                if (null != this.vertexIndex) this.vertexIndex.dropKeyIndex(key);
+            } else if (Edge.class.isAssignableFrom(elementClass)) {
+                if (null != this.edgeIndex) this.edgeIndex.dropKeyIndex(key);
+            } else {
+                throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+            }
+        }
+    }
+
+    /**
+     * Rebuild the index for said element class ({@link Vertex} or {@link Edge}) from the current elements of the
+     * graph. The new index is built alongside the current one, which keeps serving queries and is updated by writers
+     * in the meantime, and then replaces it in a single step. Creating or dropping an index waits for the rebuild.
+     *
+     * @param elementClass the element class of the index to rebuild
+     * @param <E>          The type of the element class
+     */
+    public <E extends Element> void rebuildIndex(final Class<E> elementClass) {
+        synchronized (this.indexLock) {
+            if (Vertex.class.isAssignableFrom(elementClass)) {
+                if (null != this.vertexIndex) this.vertexIndex = this.vertexIndex.rebuild();
+            } else if (Edge.class.isAssignableFrom(elementClass)) {
+                if (null != this.edgeIndex) this.edgeIndex = this.edgeIndex.rebuild();
+            } else {
+                throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+            }
         }
     }
 
@@ -534,10 +680,176 @@ public final class TinkerGraph implements Graph {
         }
     }
 
+    /**
+     * Create a text index for said element class ({@link Vertex} or {@link Edge}) and said property key, which indexes
+     * the trigrams of its {@code String} values so that {@code has()} steps with the {@code TextP.containing()},
+     * {@code TextP.startingWith()} and {@code TextP.endingWith()} predicates only test the elements that have all
+     * trigrams of the searched string. A search for a string shorter than three characters with
+     * {@code TextP.containing()} still tests all elements. When the index is created, all existing elements are
+     * indexed.
+     *
+     * @param key          the property key to index
+     * @param elementClass the element class to index
+     * @param <E>          The type of the element class
+     */
+    public <E extends Element> void createTextIndex(final String key, final Class<E> elementClass) {
+        if (Vertex.class.isAssignableFrom(elementClass)) {
+            if (null == this.vertexTextIndex) this.vertexTextIndex = new TinkerTextIndex<>(this, TinkerVertex.class);
+            this.vertexTextIndex.createKeyIndex(key);
+        } else if (Edge.class.isAssignableFrom(elementClass)) {
+            if (null == this.edgeTextIndex) this.edgeTextIndex = new TinkerTextIndex<>(this, TinkerEdge.class);
+            this.edgeTextIndex.createKeyIndex(key);
+        } else {
+            throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+        }
+    }
+
+    /**
+     * Drop the text index for the specified element class ({@link Vertex} or {@link Edge}) and key.
+     *
+     * @param key          the property key to stop indexing
+     * @param elementClass the element class of the index to drop
+     * @param <E>          The type of the element class
+     */
+    public <E extends Element> void dropTextIndex(final String key, final Class<E> elementClass) {
+        if (Vertex.class.isAssignableFrom(elementClass)) {
+            if (null != this.vertexTextIndex) this.vertexTextIndex.dropKeyIndex(key);
+        } else if (Edge.class.isAssignableFrom(elementClass)) {
+            if (null != this.edgeTextIndex) this.edgeTextIndex.dropKeyIndex(key);
+        } else {
+            throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+        }
+    }
+
+    /**
+     * Return all the keys currently being text indexed for said element class ({@link Vertex} or {@link Edge}).
+     *
+     * @param elementClass the element class to get the text indexed keys for
+     * @param <E>          The type of the element class
+     * @return the set of keys currently being text indexed
+     */
+    public <E extends Element> Set<String> getTextIndexedKeys(final Class<E> elementClass) {
+        if (Vertex.class.isAssignableFrom(elementClass)) {
+            return null == this.vertexTextIndex ? Collections.emptySet() : this.vertexTextIndex.getIndexedKeys();
+        } else if (Edge.class.isAssignableFrom(elementClass)) {
+            return null == this.edgeTextIndex ? Collections.emptySet() : this.edgeTextIndex.getIndexedKeys();
+        } else {
+            throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+        }
+    }
+
+    /**
+     * Create a spatial index for said element class ({@link Vertex} or {@link Edge}) and said pair of property keys,
+     * such as a latitude and a longitude, so that {@code has()} steps with range predicates on both keys, like
+     * {@code has("lat", between(a, b)).has("lon", between(c, d))}, only test the elements in the box of both ranges
+     * rather than all elements. When the index is created, all existing elements are indexed.
+     *
+     * @param xKey         the first property key of the pair to index
+     * @param yKey         the second property key of the pair to index
+     * @param elementClass the element class to index
+     * @param <E>          The type of the element class
+     */
+    public <E extends Element> void createSpatialIndex(final String xKey, final String yKey, final Class<E> elementClass) {
+        if (Vertex.class.isAssignableFrom(elementClass)) {
+            if (null == this.vertexSpatialIndex) this.vertexSpatialIndex = new TinkerSpatialIndex<>(this, TinkerVertex.class);
+            this.vertexSpatialIndex.createKeyIndex(xKey, yKey);
+        } else if (Edge.class.isAssignableFrom(elementClass)) {
+            if (null == this.edgeSpatialIndex) this.edgeSpatialIndex = new TinkerSpatialIndex<>(this, TinkerEdge.class);
+            this.edgeSpatialIndex.createKeyIndex(xKey, yKey);
+        } else {
+            throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+        }
+    }
+
+    /**
+     * Drop the spatial index for the specified element class ({@link Vertex} or {@link Edge}) and pair of keys.
+     *
+     * @param xKey         the first property key of the pair to stop indexing
+     * @param yKey         the second property key of the pair to stop indexing
+     * @param elementClass the element class of the index to drop
+     * @param <E>          The type of the element class
+     */
+    public <E extends Element> void dropSpatialIndex(final String xKey, final String yKey, final Class<E> elementClass) {
+        if (Vertex.class.isAssignableFrom(elementClass)) {
+            if (null != this.vertexSpatialIndex) this.vertexSpatialIndex.dropKeyIndex(xKey, yKey);
+        } else if (Edge.class.isAssignableFrom(elementClass)) {
+            if (null != this.edgeSpatialIndex) this.edgeSpatialIndex.dropKeyIndex(xKey, yKey);
+        } else {
+            throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+        }
+    }
+
+    /**
+     * Return all the pairs of keys currently being spatially indexed for said element class ({@link Vertex} or
+     * {@link Edge}).
+     *
+     * @param elementClass the element class to get the spatially indexed pairs of keys for
+     * @param <E>          The type of the element class
+     * @return the set of pairs of keys currently being spatially indexed
+     */
+    public <E extends Element> Set<List<String>> getSpatialIndexedKeys(final Class<E> elementClass) {
+        if (Vertex.class.isAssignableFrom(elementClass)) {
+            return null == this.vertexSpatialIndex ? Collections.emptySet() : this.vertexSpatialIndex.getIndexedKeys();
+        } else if (Edge.class.isAssignableFrom(elementClass)) {
+            return null == this.edgeSpatialIndex ? Collections.emptySet() : this.edgeSpatialIndex.getIndexedKeys();
+        } else {
+            throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+        }
+    }
+
+    /**
+     * Create a vertex-centric index which keeps the edges with said label of each vertex sorted by said property key,
+     * so that {@code outE()}, {@code inE()} and {@code bothE()} steps with range predicates on the key, like
+     * {@code outE("transfer").has("amount", gt(1000))}, or ordered by the key and limited, like
+     * {@code outE("transfer").order().by("ts").limit(10)}, do not iterate all edges of the label. The edges of a
+     * label are sorted by one key so creating an index for a label that is already indexed by another key replaces
+     * it. When the index is created, all existing edges of the label are indexed.
+     *
+     * @param label the edge label to index
+     * @param key   the property key to sort the edges of the label by
+     */
+    public void createVertexCentricIndex(final String label, final String key) {
+        if (null == this.vertexCentricIndex) this.vertexCentricIndex = new TinkerVertexCentricIndex(this);
+        this.vertexCentricIndex.createKeyIndex(label, key);
+    }
+
+    /**
+     * Drop the vertex-centric index for the specified edge label.
+     *
+     * @param label the edge label to stop indexing
+     */
+    public void dropVertexCentricIndex(final String label) {
+        if (null != this.vertexCentricIndex) this.vertexCentricIndex.dropKeyIndex(label);
+    }
+
+    /**
+     * Return the edge labels that currently have a vertex-centric index with the key that their edges are sorted by.
+     *
+     * @return the map of the indexed edge labels to their keys
+     */
+    public Map<String, String> getVertexCentricIndexedKeys() {
+        return null == this.vertexCentricIndex ? Collections.emptyMap() : this.vertexCentricIndex.getIndexedKeys();
+    }
+
+    /**
+     * Creates the map that holds the vertices or edges by their identifier, which stores primitive identifiers if
+     * {@link #GREMLIN_TINKERGRAPH_PRIMITIVE_ID_STORAGE} is enabled and the identifiers are numeric.
+     */
+    private static <T extends Element> Map<Object, T> createElementMap(final boolean primitiveIdStorage, final IdManager<?> idManager,
+                                                                       final String configKey) {
+        if (!primitiveIdStorage)
+            return new ConcurrentHashMap<>();
+        else if (idManager == DefaultIdManager.LONG || idManager == DefaultIdManager.INTEGER)
+            return new TinkerLongIdMap<>(idManager == DefaultIdManager.INTEGER);
+        else
+            throw new IllegalStateException(String.format("The %s requires the %s to be %s or %s",
+                    GREMLIN_TINKERGRAPH_PRIMITIVE_ID_STORAGE, configKey, DefaultIdManager.LONG.name(), DefaultIdManager.INTEGER.name()));
+    }
+
     /**
      * Construct an {@link TinkerGraph.IdManager} from the TinkerGraph {@code Configuration}.
      */
-    private static IdManager<?> selectIdManager(final Configuration config, final String configKey, final Class<? extends Element> clazz) {
+    static IdManager<?> selectIdManager(final Configuration config, final String configKey, final Class<? extends Element> clazz) {
         final String vertexIdManagerConfigValue = config.getString(configKey, DefaultIdManager.ANY.name());
         try {
             return DefaultIdManager.valueOf(vertexIdManagerConfigValue);
@@ -0,0 +1,260 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The {@link Graph.Statistics} of a {@link TinkerGraph}. The number of elements and of elements with a label are read
+ * from the graph and its label index, so they are always exact. The presence and the distinct values of property keys
+ * and the degree histograms come from a snapshot that is computed with a pass over the vertices and edges, where the
+ * distinct values are estimated with a {@link TinkerCardinalitySketch}.
+ * <p/>
+ * The first snapshot is computed from a sample of at most {@link #SAMPLE_SIZE} vertices and edges, spread evenly over
+ * all of them, when the statistics are first accessed. Once that snapshot was sampled or the number of elements differs by more than ten percent from
+ * the snapshot, a snapshot of all elements is computed in the background while the previous one is still used.
+ */
+public final class TinkerGraphStatistics implements Graph.Statistics {
+
+    static final int SAMPLE_SIZE = 10000;
+
+    private static final ExecutorService REFRESH_SERVICE = Executors.newSingleThreadExecutor(
+            new BasicThreadFactory.Builder().namingPattern("tinkergraph-statistics-%d").daemon(true).build());
+
+    private final TinkerGraph graph;
+    private volatile Snapshot snapshot = null;
+    private CompletableFuture<Void> refresh = null;
+
+    TinkerGraphStatistics(final TinkerGraph graph) {
+        this.graph = graph;
+    }
+
+    /**
+     * Computes a sampled snapshot if there is none yet and starts the computation of a full snapshot if the current
+     * one is sampled or stale.
+     *
+     * @return the pending computation of the full snapshot or a completed future if the snapshot is up to date
+     */
+    synchronized CompletableFuture<Void> refresh() {
+        if (null != this.refresh && !this.refresh.isDone())
+            return this.refresh;
+        if (null == this.snapshot)
+            this.snapshot = new Snapshot(this.graph, SAMPLE_SIZE);
+
+        final long size = this.graph.vertices.size() + this.graph.edges.size();
+        if (!this.snapshot.sampled && Math.abs(size - this.snapshot.size) * 10 <= this.snapshot.size)
+            return CompletableFuture.completedFuture(null);
+
+        // a pass that fails because of concurrent changes to the graph is simply tried again on the next refresh
+        this.refresh = CompletableFuture.runAsync(() -> this.snapshot = new Snapshot(this.graph, Long.MAX_VALUE), REFRESH_SERVICE);
+        return this.refresh;
+    }
+
+    private Snapshot snapshot() {
+        if (null == this.snapshot)
+            this.refresh();
+        return this.snapshot;
+    }
+
+    private ElementStatistics getElementStatistics(final Class<? extends Element> elementClass) {
+        if (Vertex.class.isAssignableFrom(elementClass))
+            return this.snapshot().vertexStatistics;
+        else if (Edge.class.isAssignableFrom(elementClass))
+            return this.snapshot().edgeStatistics;
+        else
+            throw new IllegalArgumentException("Statistics are only available for vertices and edges: " + elementClass);
+    }
+
+    @Override
+    public long count(final Class<? extends Element> elementClass) {
+        if (Vertex.class.isAssignableFrom(elementClass))
+            return this.graph.vertices.size();
+        else if (Edge.class.isAssignableFrom(elementClass))
+            return this.graph.edges.size();
+        else
+            throw new IllegalArgumentException("Statistics are only available for vertices and edges: " + elementClass);
+    }
+
+    @Override
+    public long count(final Class<? extends Element> elementClass, final String label) {
+        if (Vertex.class.isAssignableFrom(elementClass))
+            return TinkerHelper.countVertexLabelIndex(this.graph, label);
+        else if (Edge.class.isAssignableFrom(elementClass))
+            return TinkerHelper.countEdgeLabelIndex(this.graph, label);
+        else
+            throw new IllegalArgumentException("Statistics are only available for vertices and edges: " + elementClass);
+    }
+
+    @Override
+    public long propertyCount(final Class<? extends Element> elementClass, final String key) {
+        return this.getElementStatistics(elementClass).propertyCounts.getOrDefault(key, 0L);
+    }
+
+    @Override
+    public long distinctValueCount(final Class<? extends Element> elementClass, final String key) {
+        return this.getElementStatistics(elementClass).distinctValueCounts.getOrDefault(key, 0L);
+    }
+
+    @Override
+    public Map<Long, Long> degreeHistogram(final Direction direction) {
+        return Collections.unmodifiableMap(this.snapshot().degreeHistograms.get(direction));
+    }
+
+    @Override
+    public String toString() {
+        return "tinkergraphstatistics[vertices:" + this.graph.vertices.size() + " edges:" + this.graph.edges.size() + "]";
+    }
+
+    /**
+     * The statistics of a pass over at most {@code limit} vertices and at most {@code limit} edges, which are every
+     * n-th element from a random start if there are more elements, where the counts of a sample are scaled up to the
+     * number of elements of the graph.
+     */
+    private static final class Snapshot {
+
+        private final ElementStatistics vertexStatistics;
+        private final ElementStatistics edgeStatistics;
+        private final Map<Direction, Map<Long, Long>> degreeHistograms = new EnumMap<>(Direction.class);
+        private final long size;
+        private final boolean sampled;
+
+        private Snapshot(final TinkerGraph graph, final long limit) {
+            this.vertexStatistics = new ElementStatistics(graph.vertices.size());
+            this.edgeStatistics = new ElementStatistics(graph.edges.size());
+            this.size = this.vertexStatistics.total + this.edgeStatistics.total;
+            for (final Direction direction : Direction.values()) {
+                this.degreeHistograms.put(direction, new HashMap<>());
+            }
+
+            final long vertexStride = stride(this.vertexStatistics.total, limit);
+            long vertexPosition = ThreadLocalRandom.current().nextLong(vertexStride);
+            for (final Vertex vertex : graph.vertices.values()) {
+                if (this.vertexStatistics.seen == limit) break;
+                if (vertexPosition++ % vertexStride != 0) continue;
+                final TinkerVertex tinkerVertex = (TinkerVertex) vertex;
+                this.vertexStatistics.seen++;
+                for (int slot = 0; slot < tinkerVertex.propertySchema.size(); slot++) {
+                    final String key = tinkerVertex.propertySchema.key(slot);
+                    this.vertexStatistics.addPropertyKey(key);
+                    for (final VertexProperty<?> property : tinkerVertex.getProperties(slot)) {
+                        this.vertexStatistics.addValue(key, property.value());
+                    }
+                }
+                final long outDegree = degree(tinkerVertex.outEdges);
+                final long inDegree = degree(tinkerVertex.inEdges);
+                this.degreeHistograms.get(Direction.OUT).merge(outDegree, 1L, Long::sum);
+                this.degreeHistograms.get(Direction.IN).merge(inDegree, 1L, Long::sum);
+                this.degreeHistograms.get(Direction.BOTH).merge(outDegree + inDegree, 1L, Long::sum);
+            }
+
+            final long edgeStride = stride(this.edgeStatistics.total, limit);
+            long edgePosition = ThreadLocalRandom.current().nextLong(edgeStride);
+            for (final Edge edge : graph.edges.values()) {
+                if (this.edgeStatistics.seen == limit) break;
+                if (edgePosition++ % edgeStride != 0) continue;
+                final TinkerEdge tinkerEdge = (TinkerEdge) edge;
+                this.edgeStatistics.seen++;
+                for (int slot = 0; slot < tinkerEdge.propertySchema.size(); slot++) {
+                    final String key = tinkerEdge.propertySchema.key(slot);
+                    this.edgeStatistics.addPropertyKey(key);
+                    this.edgeStatistics.addValue(key, tinkerEdge.readValue(slot));
+                }
+            }
+
+            this.vertexStatistics.complete();
+            this.edgeStatistics.complete();
+            final double scale = this.vertexStatistics.scale();
+            this.degreeHistograms.values().forEach(histogram -> histogram.replaceAll((degree, count) -> Math.round(count * scale)));
+            this.sampled = this.vertexStatistics.seen < this.vertexStatistics.total || this.edgeStatistics.seen < this.edgeStatistics.total;
+        }
+
+        /**
+         * Gets the number of elements from which one is sampled so that the sample is spread over all elements rather
+         * than taken from the start of the iteration order, which follows the ids for the maps of the graph.
+         */
+        private static long stride(final long total, final long limit) {
+            return total <= limit ? 1L : (total + limit - 1) / limit;
+        }
+
+        private static long degree(final Map<String, Set<Edge>> edges) {
+            if (null == edges) return 0L;
+            long degree = 0L;
+            for (final Set<Edge> set : edges.values()) {
+                degree += set.size();
+            }
+            return degree;
+        }
+    }
+
+    private static final class ElementStatistics {
+
+        private final long total;
+        private long seen = 0L;
+        private final Map<String, Long> propertyCounts = new HashMap<>();
+        private final Map<String, Long> distinctValueCounts = new HashMap<>();
+        private final Map<String, TinkerCardinalitySketch> sketches = new HashMap<>();
+
+        private ElementStatistics(final long total) {
+            this.total = total;
+        }
+
+        private void addPropertyKey(final String key) {
+            this.propertyCounts.merge(key, 1L, Long::sum);
+        }
+
+        private void addValue(final String key, final Object value) {
+            this.sketches.computeIfAbsent(key, k -> new TinkerCardinalitySketch()).add(value);
+        }
+
+        private double scale() {
+            return 0 == this.seen ? 1.0d : (double) this.total / this.seen;
+        }
+
+        /**
+         * Estimates the distinct values and scales the counts of a sample up to all elements. The distinct values of
+         * a key are only scaled up if most of its sampled values are distinct as keys with few values are likely to
+         * have seen all of them. The sketches are released as the snapshot only retains the counts.
+         */
+        private void complete() {
+            final double scale = this.scale();
+            this.sketches.forEach((key, sketch) -> {
+                final long distinct = sketch.estimate();
+                this.distinctValueCounts.put(key, distinct * 2 > this.propertyCounts.get(key) ? Math.round(distinct * scale) : distinct);
+            });
+            this.sketches.clear();
+            this.propertyCounts.replaceAll((key, count) -> Math.round(count * scale));
+        }
+    }
+}
@@ -20,13 +20,17 @@ package org.apache.tinkerpop.gremlin.tinkergraph.structure;
 
 import org.apache.tinkerpop.gremlin.process.computer.GraphFilter;
 import org.apache.tinkerpop.gremlin.process.computer.VertexComputeKey;
+import org.apache.tinkerpop.gremlin.process.traversal.Compare;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
 import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.VertexProperty;
 import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
 import org.apache.tinkerpop.gremlin.tinkergraph.process.computer.TinkerGraphComputerView;
+import org.apache.tinkerpop.gremlin.util.NumberHelper;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -37,6 +41,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.BiPredicate;
 import java.util.stream.Stream;
 
 /**
@@ -64,8 +69,11 @@ public final class TinkerHelper {
         edge = new TinkerEdge(idValue, outVertex, label, inVertex);
         ElementHelper.attachProperties(edge, keyValues);
         graph.edges.put(edge.id(), edge);
+        graph.edgeLabelIndex.add((TinkerEdge) edge);
         TinkerHelper.addOutEdge(outVertex, label, edge);
         TinkerHelper.addInEdge(inVertex, label, edge);
+        if (null != graph.vertexCentricIndex)
+            graph.vertexCentricIndex.addEdge((TinkerEdge) edge);
         return edge;
 
     }
@@ -98,6 +106,121 @@ public final class TinkerHelper {
         return null == graph.edgeIndex ? Collections.emptyList() : graph.edgeIndex.get(key, value);
     }
 
+    /**
+     * Gets the vertices that may match the text predicate on the key from the text index or {@code null} if the text
+     * index cannot answer the predicate, in which case all vertices must be tested.
+     */
+    public static List<TinkerVertex> queryVertexTextIndex(final TinkerGraph graph, final String key, final BiPredicate<?, ?> predicate, final Object value) {
+        return null == graph.vertexTextIndex ? null : graph.vertexTextIndex.get(key, predicate, value);
+    }
+
+    /**
+     * Gets the edges that may match the text predicate on the key from the text index or {@code null} if the text
+     * index cannot answer the predicate, in which case all edges must be tested.
+     */
+    public static List<TinkerEdge> queryEdgeTextIndex(final TinkerGraph graph, final String key, final BiPredicate<?, ?> predicate, final Object value) {
+        return null == graph.edgeTextIndex ? null : graph.edgeTextIndex.get(key, predicate, value);
+    }
+
+    /**
+     * Gets the vertices that may have values of the pair of keys in the box of the given ranges from the spatial
+     * index or {@code null} if the pair of keys is not spatially indexed.
+     */
+    public static List<TinkerVertex> queryVertexSpatialIndex(final TinkerGraph graph, final String xKey, final double xMin, final double xMax,
+                                                             final String yKey, final double yMin, final double yMax) {
+        return null == graph.vertexSpatialIndex ? null : graph.vertexSpatialIndex.get(xKey, xMin, xMax, yKey, yMin, yMax);
+    }
+
+    /**
+     * Gets the edges that may have values of the pair of keys in the box of the given ranges from the spatial index
+     * or {@code null} if the pair of keys is not spatially indexed.
+     */
+    public static List<TinkerEdge> queryEdgeSpatialIndex(final TinkerGraph graph, final String xKey, final double xMin, final double xMax,
+                                                         final String yKey, final double yMin, final double yMax) {
+        return null == graph.edgeSpatialIndex ? null : graph.edgeSpatialIndex.get(xKey, xMin, xMax, yKey, yMin, yMax);
+    }
+
+    /**
+     * Gets the key by which the vertex-centric index sorts the edges of the label or {@code null} if the label is not
+     * indexed.
+     */
+    public static String getVertexCentricIndexKey(final TinkerGraph graph, final String label) {
+        return null == graph.vertexCentricIndex ? null : graph.vertexCentricIndex.getKey(label);
+    }
+
+    /**
+     * Gets the narrowest range of values of the key that the containers with numeric comparisons allow, where an
+     * exclusive bound is taken as inclusive and a {@code null} bound is open, or {@code null} if no container bounds
+     * the key.
+     */
+    public static Number[] getRange(final List<HasContainer> hasContainers, final String key) {
+        Number[] range = null;
+        for (final HasContainer hasContainer : hasContainers) {
+            if (!hasContainer.getKey().equals(key) || !(hasContainer.getValue() instanceof Number))
+                continue;
+
+            final Number value = (Number) hasContainer.getValue();
+            final BiPredicate<?, ?> predicate = hasContainer.getBiPredicate();
+            final boolean lower = predicate == Compare.gt || predicate == Compare.gte || predicate == Compare.eq;
+            final boolean upper = predicate == Compare.lt || predicate == Compare.lte || predicate == Compare.eq;
+            if (Double.isNaN(value.doubleValue()) || !(lower || upper))
+                continue;
+
+            if (null == range) range = new Number[2];
+            if (lower && (null == range[0] || NumberHelper.compare(value, range[0]) > 0)) range[0] = value;
+            if (upper && (null == range[1] || NumberHelper.compare(value, range[1]) < 0)) range[1] = value;
+        }
+        return range;
+    }
+
+    /**
+     * Gets a live view of the edges of the vertex with the label in the {@link Direction#OUT} or {@link Direction#IN}
+     * direction that have a numeric value of the key of the vertex-centric index between the bounds, in the order of
+     * their values. A {@code null} bound is open and both bounds are inclusive.
+     */
+    public static Iterator<Edge> queryVertexCentricIndex(final TinkerVertex vertex, final Direction direction, final String label,
+                                                         final Number low, final Number high, final boolean descending) {
+        return TinkerVertexCentricIndex.getSortedEdges(vertex, direction, label, low, high, descending);
+    }
+
+    /**
+     * Gets a live view of the edges of the vertex with the label in the {@link Direction#OUT} or {@link Direction#IN}
+     * direction that the vertex-centric index could not sort as they have no numeric value of its key.
+     */
+    public static Iterator<Edge> queryVertexCentricIndexUnsorted(final TinkerVertex vertex, final Direction direction, final String label) {
+        return TinkerVertexCentricIndex.getUnsortedEdges(vertex, direction, label);
+    }
+
+    /**
+     * Gets a live view of the vertices with the label from the label index which is always maintained.
+     */
+    public static Set<TinkerVertex> queryVertexLabelIndex(final TinkerGraph graph, final String label) {
+        return graph.vertexLabelIndex.get(label);
+    }
+
+    /**
+     * Gets a live view of the edges with the label from the label index which is always maintained.
+     */
+    public static Set<TinkerEdge> queryEdgeLabelIndex(final TinkerGraph graph, final String label) {
+        return graph.edgeLabelIndex.get(label);
+    }
+
+    public static long countVertexLabelIndex(final TinkerGraph graph, final String label) {
+        return graph.vertexLabelIndex.count(label);
+    }
+
+    public static long countEdgeLabelIndex(final TinkerGraph graph, final String label) {
+        return graph.edgeLabelIndex.count(label);
+    }
+
+    public static long countVertexIndex(final TinkerGraph graph, final String key, final Object value) {
+        return null == graph.vertexIndex ? 0L : graph.vertexIndex.count(key, value);
+    }
+
+    public static long countEdgeIndex(final TinkerGraph graph, final String key, final Object value) {
+        return null == graph.edgeIndex ? 0L : graph.edgeIndex.count(key, value);
+    }
+
     public static boolean inComputerMode(final TinkerGraph graph) {
         return null != graph.graphComputerView;
     }
@@ -115,43 +238,88 @@ public final class TinkerHelper {
     }
 
     public static Map<String, List<VertexProperty>> getProperties(final TinkerVertex vertex) {
-        return null == vertex.properties ? Collections.emptyMap() : vertex.properties;
+        if (0 == vertex.propertySchema.size()) return Collections.emptyMap();
+        final Map<String, List<VertexProperty>> properties = new HashMap<>();
+        for (int slot = 0; slot < vertex.propertySchema.size(); slot++) {
+            properties.put(vertex.propertySchema.key(slot), (List) vertex.getProperties(slot));
+        }
+        return properties;
+    }
+
+    public static List<VertexProperty> getProperties(final TinkerVertex vertex, final String key) {
+        final int slot = vertex.propertySchema.slot(key);
+        return slot < 0 ? Collections.emptyList() : (List) vertex.getProperties(slot);
     }
 
     public static void autoUpdateIndex(final TinkerEdge edge, final String key, final Object newValue, final Object oldValue) {
         final TinkerGraph graph = (TinkerGraph) edge.graph();
-        if (graph.edgeIndex != null)
+        if (graph.edgeIndex != null && !deferIndex(graph, edge))
             graph.edgeIndex.autoUpdate(key, newValue, oldValue, edge);
+        if (graph.edgeTextIndex != null)
+            graph.edgeTextIndex.update(key, edge);
+        if (graph.edgeSpatialIndex != null)
+            graph.edgeSpatialIndex.update(key, edge);
+        if (graph.vertexCentricIndex != null)
+            graph.vertexCentricIndex.update(edge, key, newValue, oldValue);
     }
 
     public static void autoUpdateIndex(final TinkerVertex vertex, final String key, final Object newValue, final Object oldValue) {
         final TinkerGraph graph = (TinkerGraph) vertex.graph();
-        if (graph.vertexIndex != null)
+        if (graph.vertexIndex != null && !deferIndex(graph, vertex))
             graph.vertexIndex.autoUpdate(key, newValue, oldValue, vertex);
+        if (graph.vertexTextIndex != null)
+            graph.vertexTextIndex.update(key, vertex);
+        if (graph.vertexSpatialIndex != null)
+            graph.vertexSpatialIndex.update(key, vertex);
+    }
+
+    private static boolean deferIndex(final TinkerGraph graph, final Element element) {
+        final TinkerBulkLoader bulkLoader = graph.bulkLoader;
+        return null != bulkLoader && bulkLoader.defer(element);
     }
 
     public static void removeElementIndex(final TinkerVertex vertex) {
         final TinkerGraph graph = (TinkerGraph) vertex.graph();
+        graph.vertexLabelIndex.remove(vertex);
         if (graph.vertexIndex != null)
             graph.vertexIndex.removeElement(vertex);
+        if (graph.vertexTextIndex != null)
+            graph.vertexTextIndex.removeElement(vertex);
+        if (graph.vertexSpatialIndex != null)
+            graph.vertexSpatialIndex.removeElement(vertex);
     }
 
     public static void removeElementIndex(final TinkerEdge edge) {
         final TinkerGraph graph = (TinkerGraph) edge.graph();
+        graph.edgeLabelIndex.remove(edge);
         if (graph.edgeIndex != null)
             graph.edgeIndex.removeElement(edge);
+        if (graph.edgeTextIndex != null)
+            graph.edgeTextIndex.removeElement(edge);
+        if (graph.edgeSpatialIndex != null)
+            graph.edgeSpatialIndex.removeElement(edge);
     }
 
     public static void removeIndex(final TinkerVertex vertex, final String key, final Object value) {
         final TinkerGraph graph = (TinkerGraph) vertex.graph();
         if (graph.vertexIndex != null)
             graph.vertexIndex.remove(key, value, vertex);
+        if (graph.vertexTextIndex != null)
+            graph.vertexTextIndex.update(key, vertex);
+        if (graph.vertexSpatialIndex != null)
+            graph.vertexSpatialIndex.update(key, vertex);
     }
 
     public static void removeIndex(final TinkerEdge edge, final String key, final Object value) {
         final TinkerGraph graph = (TinkerGraph) edge.graph();
         if (graph.edgeIndex != null)
             graph.edgeIndex.remove(key, value, edge);
+        if (graph.edgeTextIndex != null)
+            graph.edgeTextIndex.update(key, edge);
+        if (graph.edgeSpatialIndex != null)
+            graph.edgeSpatialIndex.update(key, edge);
+        if (graph.vertexCentricIndex != null)
+            graph.vertexCentricIndex.update(edge, key, null, value);
     }
 
     public static Iterator<TinkerEdge> getEdges(final TinkerVertex vertex, final Direction direction, final String... edgeLabels) {
@@ -24,6 +24,8 @@ import org.apache.tinkerpop.gremlin.structure.Property;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -37,25 +39,49 @@ import java.util.concurrent.ConcurrentHashMap;
 final class TinkerIndex<T extends Element> {
 
     protected Map<String, Map<Object, Set<T>>> index = new ConcurrentHashMap<>();
+
+    /**
+     * The keys and values under which each element is indexed as an array of alternating keys and values, which lets
+     * an element be removed from the index by its own entries rather than by scanning the index.
+     */
+    private final Map<T, Object[]> entries = new ConcurrentHashMap<>();
     protected final Class<T> indexClass;
     private final Set<String> indexedKeys = new HashSet<>();
     private final TinkerGraph graph;
 
+    /**
+     * The index that is being built to replace this one by {@link #rebuild()}, to which the changes of elements are
+     * forwarded while it is built.
+     */
+    private volatile TinkerIndex<T> rebuilding = null;
+
+    /**
+     * The entries of an element that was removed while this index was rebuilt, which keeps the scan of the rebuild
+     * from indexing the element again after its removal was forwarded.
+     */
+    private static final Object[] REMOVED = new Object[0];
+
     public TinkerIndex(final TinkerGraph graph, final Class<T> indexClass) {
         this.graph = graph;
         this.indexClass = indexClass;
     }
 
     protected void put(final String key, final Object value, final T element) {
+        final Object indexableValue = indexable(value);
+        addToKeyMap(key, indexableValue, element);
+        this.entries.compute(element, (k, entries) -> addEntry(entries, key, indexableValue));
+    }
+
+    private void addToKeyMap(final String key, final Object indexableValue, final T element) {
         Map<Object, Set<T>> keyMap = this.index.get(key);
         if (null == keyMap) {
             this.index.putIfAbsent(key, new ConcurrentHashMap<>());
             keyMap = this.index.get(key);
         }
-        Set<T> objects = keyMap.get(value);
+        Set<T> objects = keyMap.get(indexableValue);
         if (null == objects) {
-            keyMap.putIfAbsent(value, ConcurrentHashMap.newKeySet());
-            objects = keyMap.get(value);
+            keyMap.putIfAbsent(indexableValue, ConcurrentHashMap.newKeySet());
+            objects = keyMap.get(indexableValue);
         }
         objects.add(element);
     }
@@ -87,33 +113,45 @@ final class TinkerIndex<T extends Element> {
     }
 
     public void remove(final String key, final Object value, final T element) {
-        final Map<Object, Set<T>> keyMap = this.index.get(key);
-        if (null != keyMap) {
-            final Set<T> objects = keyMap.get(indexable(value));
-            if (null != objects) {
-                objects.remove(element);
-                if (objects.size() == 0) {
-                    keyMap.remove(value);
-                }
-            }
-        }
+        removeEntry(key, indexable(value), element);
+        forwardToRebuilding(element);
     }
 
     public void removeElement(final T element) {
         if (this.indexClass.isAssignableFrom(element.getClass())) {
-            for (Map<Object, Set<T>> map : index.values()) {
-                for (Set<T> set : map.values()) {
-                    set.remove(element);
+            final Object[] entries = this.entries.remove(element);
+            if (null != entries) {
+                for (int i = 0; i < entries.length; i = i + 2) {
+                    removeFromKeyMap((String) entries[i], entries[i + 1], element);
                 }
             }
+
+            final TinkerIndex<T> rebuilding = this.rebuilding;
+            if (null != rebuilding) rebuilding.removeRebuiltElement(element);
         }
     }
 
+    /**
+     * Removes the element from this index while it is rebuilt and leaves {@link #REMOVED} as its entries so that the
+     * scan does not index it again.
+     */
+    private void removeRebuiltElement(final T element) {
+        this.entries.compute(element, (k, entries) -> {
+            if (null != entries) {
+                for (int i = 0; i < entries.length; i = i + 2) {
+                    removeFromKeyMap((String) entries[i], entries[i + 1], element);
+                }
+            }
+            return REMOVED;
+        });
+    }
+
     public void autoUpdate(final String key, final Object newValue, final Object oldValue, final T element) {
         if (this.indexedKeys.contains(key)) {
-            this.remove(key, oldValue, element);
+            this.removeEntry(key, indexable(oldValue), element);
             this.put(key, newValue, element);
         }
+        forwardToRebuilding(element);
     }
 
     public void createKeyIndex(final String key) {
@@ -138,9 +176,128 @@ final class TinkerIndex<T extends Element> {
         if (this.index.containsKey(key))
             this.index.remove(key).clear();
 
+        for (final T element : this.entries.keySet()) {
+            this.entries.computeIfPresent(element, (k, entries) -> removeEntries(entries, key, null));
+        }
         this.indexedKeys.remove(key);
     }
 
+    /**
+     * Builds a new index of the keys of this index from the elements of the graph. Writers are not blocked while the
+     * elements are scanned as the changes they make to this index are forwarded to the new index, where they
+     * re-index the changed element from its current properties. The caller swaps the returned index in for this one
+     * and must keep the keys of this index from being created or dropped until it has done so.
+     */
+    TinkerIndex<T> rebuild() {
+        final TinkerIndex<T> rebuilt = new TinkerIndex<>(this.graph, this.indexClass);
+        rebuilt.indexedKeys.addAll(this.indexedKeys);
+        this.rebuilding = rebuilt;
+
+        (Vertex.class.isAssignableFrom(this.indexClass) ?
+                this.graph.vertices.values().parallelStream() :
+                this.graph.edges.values().parallelStream())
+                .forEach(e -> rebuilt.indexedKeys.forEach(key -> rebuilt.reindex((T) e, key)));
+        rebuilt.entries.values().removeIf(entries -> entries == REMOVED);
+        return rebuilt;
+    }
+
+    /**
+     * Indexes the elements by the current values of their properties of the indexed keys, replacing the entries they
+     * may already have. This merges the elements whose index updates were deferred without scanning the graph.
+     */
+    void merge(final Collection<T> elements) {
+        elements.parallelStream().forEach(e -> this.indexedKeys.forEach(key -> this.reindex(e, key)));
+    }
+
+    /**
+     * Replaces the entries of the element for the key with the values of its current properties of the key. The
+     * properties are read while the entries of the element are locked, so that whichever of the scan of
+     * {@link #rebuild()} and the forwarded change of a writer re-indexes the element last indexes its latest values.
+     * The scan may read the properties while a writer is half way through changing them, in which case the entries
+     * are left as they are, as the writer forwards its change once it is made.
+     */
+    private void reindex(final T element, final String key) {
+        this.entries.compute(element, (k, entries) -> {
+            if (REMOVED == entries) return REMOVED;
+            final List<Object> values = new ArrayList<>();
+            if (!((TinkerElement) element).removed) {
+                try {
+                    element.properties(key).forEachRemaining(property -> values.add(indexable(property.value())));
+                } catch (RuntimeException e) {
+                    return entries;
+                }
+            }
+            Object[] reindexed = entries;
+            if (null != entries) {
+                for (int i = 0; i < entries.length; i = i + 2) {
+                    if (entries[i].equals(key))
+                        removeFromKeyMap(key, entries[i + 1], element);
+                }
+                reindexed = removeEntries(entries, key, null);
+            }
+            for (final Object indexableValue : values) {
+                addToKeyMap(key, indexableValue, element);
+                reindexed = addEntry(reindexed, key, indexableValue);
+            }
+            return reindexed;
+        });
+    }
+
+    /**
+     * Re-indexes the element in the index that is being rebuilt after any of its properties changed, indexed or not,
+     * as a change of any property may have been read half way through by the scan of {@link #rebuild()}.
+     */
+    private void forwardToRebuilding(final T element) {
+        final TinkerIndex<T> rebuilding = this.rebuilding;
+        if (null != rebuilding) rebuilding.indexedKeys.forEach(key -> rebuilding.reindex(element, key));
+    }
+
+    private void removeEntry(final String key, final Object indexableValue, final T element) {
+        removeFromKeyMap(key, indexableValue, element);
+        this.entries.computeIfPresent(element, (k, entries) -> removeEntries(entries, key, indexableValue));
+    }
+
+    private void removeFromKeyMap(final String key, final Object indexableValue, final T element) {
+        final Map<Object, Set<T>> keyMap = this.index.get(key);
+        if (null != keyMap) {
+            final Set<T> objects = keyMap.get(indexableValue);
+            if (null != objects) {
+                objects.remove(element);
+                if (objects.size() == 0) {
+                    keyMap.remove(indexableValue);
+                }
+            }
+        }
+    }
+
+    private static Object[] addEntry(final Object[] entries, final String key, final Object indexableValue) {
+        if (null == entries) return new Object[]{key, indexableValue};
+        for (int i = 0; i < entries.length; i = i + 2) {
+            if (entries[i].equals(key) && entries[i + 1].equals(indexableValue)) return entries;
+        }
+        final Object[] copy = Arrays.copyOf(entries, entries.length + 2);
+        copy[entries.length] = key;
+        copy[entries.length + 1] = indexableValue;
+        return copy;
+    }
+
+    /**
+     * Gets the entries without the entry of the key and value or without all entries of the key if the value is
+     * {@code null}, which is {@code null} itself if no entries remain so that the element is dropped.
+     */
+    private static Object[] removeEntries(final Object[] entries, final String key, final Object indexableValue) {
+        int retained = 0;
+        final Object[] copy = new Object[entries.length];
+        for (int i = 0; i < entries.length; i = i + 2) {
+            if (!entries[i].equals(key) || (null != indexableValue && !entries[i + 1].equals(indexableValue))) {
+                copy[retained++] = entries[i];
+                copy[retained++] = entries[i + 1];
+            }
+        }
+        if (retained == entries.length) return entries;
+        return 0 == retained ? null : Arrays.copyOf(copy, retained);
+    }
+
     /**
      * Provides a way for an index to have a {@code null} value as {@code ConcurrentHashMap} will not allow a
      * {@code null} key.
@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Element;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An index of the elements of a {@link TinkerGraph} by their label. Unlike the {@link TinkerIndex} of property keys
+ * it is always present and maintained as elements are added and removed, which is cheap given that the label of an
+ * element can not change.
+ */
+final class TinkerLabelIndex<T extends Element> {
+
+    private final Map<String, Set<T>> index = new ConcurrentHashMap<>();
+
+    void add(final T element) {
+        this.index.computeIfAbsent(element.label(), k -> ConcurrentHashMap.newKeySet()).add(element);
+    }
+
+    void remove(final T element) {
+        final Set<T> elements = this.index.get(element.label());
+        if (null != elements)
+            elements.remove(element);
+    }
+
+    /**
+     * Gets a live view of the elements with the label.
+     */
+    Set<T> get(final String label) {
+        final Set<T> elements = this.index.get(label);
+        return null == elements ? Collections.emptySet() : Collections.unmodifiableSet(elements);
+    }
+
+    long count(final String label) {
+        final Set<T> elements = this.index.get(label);
+        return null == elements ? 0L : elements.size();
+    }
+
+    void clear() {
+        this.index.clear();
+    }
+}
@@ -0,0 +1,311 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A map of the elements of a {@link TinkerGraph} by their numeric identifier which stores the identifiers as
+ * primitive {@code long} values in an open-addressing table rather than as boxed keys of hash nodes. It is used in
+ * place of a {@code ConcurrentHashMap} when the {@link TinkerGraph.DefaultIdManager#LONG} or
+ * {@link TinkerGraph.DefaultIdManager#INTEGER} manager is configured along with
+ * {@link TinkerGraph#GREMLIN_TINKERGRAPH_PRIMITIVE_ID_STORAGE}.
+ * <p/>
+ * Writes are serialized while reads never lock. A slot is published by writing its key before its value, and the
+ * slot of a removed element is marked as deleted rather than reused until the table is rebuilt, so that a reader
+ * never pairs the key of one element with the value of another. Iteration is weakly consistent in the same way as
+ * it is for a {@code ConcurrentHashMap}.
+ */
+final class TinkerLongIdMap<T> extends AbstractMap<Object, T> {
+
+    private static final Object REMOVED = new Object();
+    private static final int MIN_BITS = 4;
+
+    private final boolean integerKeys;
+    private volatile Table table = new Table(MIN_BITS);
+    private volatile int size = 0;
+
+    /**
+     * @param integerKeys determines if identifiers are {@code Integer} rather than {@code Long} values
+     */
+    TinkerLongIdMap(final boolean integerKeys) {
+        this.integerKeys = integerKeys;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return 0 == this.size;
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return null != get(key);
+    }
+
+    @Override
+    public T get(final Object key) {
+        return isKey(key) ? get(((Number) key).longValue()) : null;
+    }
+
+    /**
+     * Gets the element with the identifier without boxing it.
+     */
+    T get(final long key) {
+        final Table t = this.table;
+        final int index = t.find(key);
+        return index < 0 ? null : (T) t.values.get(index);
+    }
+
+    @Override
+    public synchronized T put(final Object key, final T value) {
+        if (!isKey(key))
+            throw new IllegalArgumentException(String.format("Expected an identifier of type %s but received %s",
+                    this.integerKeys ? Integer.class : Long.class, null == key ? null : key.getClass()));
+        if (null == value) throw new NullPointerException("value");
+
+        final long k = ((Number) key).longValue();
+        final int existing = this.table.find(k);
+        if (existing >= 0) return (T) this.table.values.getAndSet(existing, value);
+
+        if ((this.table.used + 1) * 4L > this.table.capacity() * 3L) rebuild(this.size + 1);
+
+        final Table t = this.table;
+        int index = t.slot(k);
+        while (null != t.values.get(index)) {
+            index = (index + 1) & t.mask;
+        }
+        t.keys[index] = k;
+        t.values.set(index, value);
+        t.used++;
+        this.size++;
+        return null;
+    }
+
+    @Override
+    public synchronized T remove(final Object key) {
+        if (!isKey(key)) return null;
+        final Table t = this.table;
+        final int index = t.find(((Number) key).longValue());
+        if (index < 0) return null;
+
+        final T value = (T) t.values.getAndSet(index, REMOVED);
+        this.size--;
+        return value;
+    }
+
+    @Override
+    public synchronized void clear() {
+        this.table = new Table(MIN_BITS);
+        this.size = 0;
+    }
+
+    @Override
+    public Set<Entry<Object, T>> entrySet() {
+        return new AbstractSet<Entry<Object, T>>() {
+            @Override
+            public Iterator<Entry<Object, T>> iterator() {
+                return new TableIterator<Entry<Object, T>>() {
+                    @Override
+                    Entry<Object, T> get(final long key, final T value) {
+                        return new SimpleImmutableEntry<>(box(key), value);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return TinkerLongIdMap.this.size;
+            }
+        };
+    }
+
+    @Override
+    public Set<Object> keySet() {
+        return new AbstractSet<Object>() {
+            @Override
+            public Iterator<Object> iterator() {
+                return new TableIterator<Object>() {
+                    @Override
+                    Object get(final long key, final T value) {
+                        return box(key);
+                    }
+                };
+            }
+
+            @Override
+            public boolean contains(final Object key) {
+                return containsKey(key);
+            }
+
+            @Override
+            public int size() {
+                return TinkerLongIdMap.this.size;
+            }
+        };
+    }
+
+    @Override
+    public Collection<T> values() {
+        return new AbstractCollection<T>() {
+            @Override
+            public Iterator<T> iterator() {
+                return new TableIterator<T>() {
+                    @Override
+                    T get(final long key, final T value) {
+                        return value;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return TinkerLongIdMap.this.size;
+            }
+        };
+    }
+
+    private boolean isKey(final Object key) {
+        return this.integerKeys ? key instanceof Integer : key instanceof Long;
+    }
+
+    private Object box(final long key) {
+        // not a conditional expression as its operands would be promoted to a Long
+        if (this.integerKeys)
+            return Integer.valueOf((int) key);
+        else
+            return Long.valueOf(key);
+    }
+
+    /**
+     * Copies the elements to a new table that is large enough for the given number of elements, which also discards
+     * the slots of removed elements.
+     */
+    private void rebuild(final int expectedSize) {
+        int bits = MIN_BITS;
+        while ((1L << bits) < expectedSize * 2L) {
+            bits++;
+        }
+
+        final Table old = this.table;
+        final Table t = new Table(bits);
+        for (int i = 0; i < old.capacity(); i++) {
+            final Object value = old.values.get(i);
+            if (null != value && REMOVED != value) {
+                int index = t.slot(old.keys[i]);
+                while (null != t.values.get(index)) {
+                    index = (index + 1) & t.mask;
+                }
+                t.keys[index] = old.keys[i];
+                t.values.set(index, value);
+                t.used++;
+            }
+        }
+        this.table = t;
+    }
+
+    private static final class Table {
+        private final int bits;
+        private final int mask;
+        private final long[] keys;
+        private final AtomicReferenceArray<Object> values;
+
+        /**
+         * The number of slots holding an element or marked as removed, which is only accessed by writers.
+         */
+        private int used = 0;
+
+        private Table(final int bits) {
+            this.bits = bits;
+            this.mask = (1 << bits) - 1;
+            this.keys = new long[1 << bits];
+            this.values = new AtomicReferenceArray<>(1 << bits);
+        }
+
+        private int capacity() {
+            return this.keys.length;
+        }
+
+        private int slot(final long key) {
+            return (int) ((key * 0x9E3779B97F4A7C15L) >>> (64 - this.bits));
+        }
+
+        /**
+         * Gets the slot of the element with the key or -1 if there is none.
+         */
+        private int find(final long key) {
+            int index = slot(key);
+            while (true) {
+                final Object value = this.values.get(index);
+                if (null == value) return -1;
+                if (REMOVED != value && this.keys[index] == key) return index;
+                index = (index + 1) & this.mask;
+            }
+        }
+    }
+
+    /**
+     * Iterates the table that was current when the iteration started. Should the table be rebuilt during the
+     * iteration each element is checked against the current table so that removed elements are not returned.
+     */
+    private abstract class TableIterator<E> implements Iterator<E> {
+        private final Table t = TinkerLongIdMap.this.table;
+        private int index = -1;
+        private long nextKey;
+        private T nextValue;
+
+        abstract E get(final long key, final T value);
+
+        @Override
+        public boolean hasNext() {
+            while (null == this.nextValue && this.index + 1 < this.t.capacity()) {
+                this.index++;
+                final Object value = this.t.values.get(this.index);
+                if (null != value && REMOVED != value) {
+                    final long key = this.t.keys[this.index];
+                    if (this.t == TinkerLongIdMap.this.table || value == TinkerLongIdMap.this.get(key)) {
+                        this.nextKey = key;
+                        this.nextValue = (T) value;
+                    }
+                }
+            }
+            return null != this.nextValue;
+        }
+
+        @Override
+        public E next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            final E e = get(this.nextKey, this.nextValue);
+            this.nextValue = null;
+            return e;
+        }
+    }
+}
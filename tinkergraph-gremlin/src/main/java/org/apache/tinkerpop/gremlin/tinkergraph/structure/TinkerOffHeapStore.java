@@ -0,0 +1,665 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Property;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoMapper;
+import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoVersion;
+import org.apache.tinkerpop.shaded.kryo.Kryo;
+import org.apache.tinkerpop.shaded.kryo.io.Input;
+import org.apache.tinkerpop.shaded.kryo.io.Output;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Holds the properties of the elements of a {@link TinkerGraph} in direct memory when
+ * {@link TinkerGraph#GREMLIN_TINKERGRAPH_OFF_HEAP_PROPERTIES} is enabled. The properties of an element are encoded into
+ * a single record and the element only keeps the address of that record, which is replaced whenever the properties
+ * change. A change of the properties of a single key only encodes that key while the others are copied from the
+ * previous record as they are. Numbers, booleans and strings have their own encoding while other values are written
+ * with Gryo.
+ * <p/>
+ * Records are allocated from segments of direct memory that grow up to the configured segment size. The space of a
+ * freed record goes to the free list of its power-of-two size class from which later records of that class are
+ * allocated, while a record that is larger than a segment gets a segment of its own. As a reader may still be
+ * decoding a record that an element just replaced, freed records are only reused once every reader that entered
+ * before they were freed has left, which is tracked by a global epoch.
+ * <p/>
+ * This is an off-heap store of properties rather than of the graph: the elements themselves, their adjacency and the
+ * indices stay on the heap, so it reduces the heap of graphs with many properties but not of graphs with many edges.
+ * The vertex properties decoded from the most recently read records are cached on the heap so that repeated reads of
+ * a vertex return the same objects rather than decoding new ones.
+ */
+final class TinkerOffHeapStore {
+
+    /**
+     * The address of the record of an element without properties.
+     */
+    static final long NO_RECORD = 0L;
+
+    private static final int FIRST_SEGMENT_SIZE = 1 << 16;
+
+    /**
+     * The bytes at the start of each segment which are never allocated so that no record has the address
+     * {@link #NO_RECORD}.
+     */
+    private static final int SEGMENT_HEADER = 8;
+    private static final int MIN_SIZE_CLASS = 4;
+
+    /**
+     * The number of records whose decoded vertex properties are cached, which must be a power of two.
+     */
+    private static final int DECODED_RECORDS = 1 << 12;
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte INTEGER = 2;
+    private static final byte LONG = 3;
+    private static final byte DOUBLE = 4;
+    private static final byte FLOAT = 5;
+    private static final byte BOOLEAN = 6;
+    private static final byte GRYO = 7;
+
+    private static final ThreadLocal<Kryo> KRYO = ThreadLocal.withInitial(() -> GryoMapperHolder.MAPPER.createMapper());
+
+    private final int maxSegmentSize;
+    private final long[][] freeLists = new long[32][];
+    private final int[] freeCounts = new int[32];
+
+    /**
+     * The segments by their index, which is copied when a segment is added so that readers need no lock.
+     */
+    private volatile ByteBuffer[] segments = new ByteBuffer[0];
+    private int current = -1;
+    private int position = 0;
+    private long allocated = 0L;
+
+    /**
+     * The epoch in which readers enter and the number of readers that entered in the epochs of either parity. The
+     * epoch only moves on once the readers of the previous epoch have left, so the records freed in that epoch can
+     * then no longer be read by anyone.
+     */
+    private final AtomicLong epoch = new AtomicLong();
+    private final AtomicLong[] readers = {new AtomicLong(), new AtomicLong()};
+
+    /**
+     * The records that were freed but may still be read, by the parity of the epoch in which they were freed.
+     */
+    private final long[][] retired = {new long[16], new long[16]};
+    private final int[] retiredCounts = new int[2];
+
+    /**
+     * The vertex properties decoded from recently read records, which is indexed by a hash of the address of the
+     * record. As records never change once written, an entry stays valid until its record is reused.
+     */
+    private volatile AtomicReferenceArray<DecodedRecord> decoded = new AtomicReferenceArray<>(DECODED_RECORDS);
+
+    TinkerOffHeapStore(final int maxSegmentSize) {
+        if (maxSegmentSize < FIRST_SEGMENT_SIZE)
+            throw new IllegalArgumentException(String.format("The segment size must be at least %s bytes", FIRST_SEGMENT_SIZE));
+        this.maxSegmentSize = maxSegmentSize;
+    }
+
+    /**
+     * Gets the number of bytes of direct memory held by the records.
+     */
+    synchronized long allocated() {
+        return this.allocated;
+    }
+
+    /**
+     * Writes the values of the slots of an {@link org.apache.tinkerpop.gremlin.structure.Edge} or of the
+     * meta-properties of a {@link VertexProperty} to a new record.
+     */
+    long writeValues(final Object[] values) {
+        if (0 == values.length) return NO_RECORD;
+        final RecordWriter writer = new RecordWriter();
+        writer.writeInt(values.length);
+        final int offsets = writer.skip(values.length * 4);
+        for (int i = 0; i < values.length; i++) {
+            writer.putInt(offsets + i * 4, writer.length);
+            writer.writeValue(values[i]);
+        }
+        return write(writer);
+    }
+
+    Object[] readValues(final TinkerEdge edge) {
+        final long epoch = enter();
+        try {
+            final long record = edge.propertyRecord;
+            if (NO_RECORD == record) return TinkerPropertySchema.NO_VALUES;
+            final ByteBuffer buffer = read(record);
+            final Object[] values = new Object[buffer.getInt()];
+            buffer.position(4 + values.length * 4);
+            for (int i = 0; i < values.length; i++) {
+                values[i] = readValue(buffer);
+            }
+            return values;
+        } finally {
+            exit(epoch);
+        }
+    }
+
+    Object readValue(final TinkerEdge edge, final int slot) {
+        final long epoch = enter();
+        try {
+            final ByteBuffer buffer = read(edge.propertyRecord);
+            buffer.position(buffer.getInt(4 + slot * 4));
+            return readValue(buffer);
+        } finally {
+            exit(epoch);
+        }
+    }
+
+    /**
+     * Writes the slots of a {@link TinkerVertex}, each of which holds a {@link TinkerVertexProperty} or a list of
+     * them, to a new record.
+     */
+    long writeVertexProperties(final Object[] slots) {
+        if (0 == slots.length) return NO_RECORD;
+        final RecordWriter writer = new RecordWriter();
+        writer.writeInt(slots.length);
+        final int offsets = writer.skip(slots.length * 4);
+        for (int i = 0; i < slots.length; i++) {
+            writer.putInt(offsets + i * 4, writer.length);
+            writeVertexProperties(writer, slots[i]);
+        }
+        return write(writer);
+    }
+
+    /**
+     * Writes the slots of the record of a {@link TinkerVertex} to a new record where the given slot is replaced or,
+     * if it is the slot after the last one, added, or removed if the value is {@code null}. Only that slot is encoded
+     * while the others are copied as they are and keep the vertex properties decoded from the previous record.
+     */
+    long writeVertexProperties(final long previous, final int slot, final Object value) {
+        final long record = rewrite(previous, slot, null == value ? null : writer -> writeVertexProperties(writer, value));
+        final DecodedRecord decoded = this.decoded.get(decodedIndex(previous));
+        if (NO_RECORD != previous && NO_RECORD != record && null != decoded && decoded.record == previous) {
+            final int count = decoded.slots.length();
+            final DecodedRecord carried = new DecodedRecord(record, null == value ? count - 1 : Math.max(count, slot + 1));
+            for (int i = 0; i < count; i++) {
+                if (i < slot)
+                    carried.slots.set(i, decoded.slots.get(i));
+                else if (i > slot)
+                    carried.slots.set(null == value ? i - 1 : i, decoded.slots.get(i));
+            }
+            this.decoded.set(decodedIndex(record), carried);
+        }
+        return record;
+    }
+
+    /**
+     * Writes the values of the record of an {@link org.apache.tinkerpop.gremlin.structure.Edge} to a new record where
+     * the given slot is replaced or, if it is the slot after the last one, added. Only that value is encoded while the
+     * others are copied as they are.
+     */
+    long writeValues(final long previous, final int slot, final Object value) {
+        return rewrite(previous, slot, writer -> writer.writeValue(value));
+    }
+
+    /**
+     * Writes the values of the record of an {@link org.apache.tinkerpop.gremlin.structure.Edge} to a new record
+     * without the given slot, copying the others as they are.
+     */
+    long removeValue(final long previous, final int slot) {
+        return rewrite(previous, slot, null);
+    }
+
+    /**
+     * Copies the encoded slots of the previous record to a new one except for the given slot, which is encoded anew
+     * or left out if there is no encoder.
+     */
+    private long rewrite(final long previous, final int slot, final Consumer<RecordWriter> encoder) {
+        final long epoch = enter();
+        try {
+            final ByteBuffer buffer = NO_RECORD == previous ? null : read(previous);
+            final int count = null == buffer ? 0 : buffer.getInt(0);
+            if (slot > count || (null == encoder && slot == count))
+                throw new IllegalArgumentException(String.format("Slot %s is not in a record of %s slots", slot, count));
+
+            final int slots = null == encoder ? count - 1 : Math.max(count, slot + 1);
+            if (0 == slots) return NO_RECORD;
+            final RecordWriter writer = new RecordWriter();
+            writer.writeInt(slots);
+            final int offsets = writer.skip(slots * 4);
+            for (int i = 0, j = 0; i < Math.max(count, slots); i++) {
+                if (i == slot && null == encoder) continue;
+                writer.putInt(offsets + j++ * 4, writer.length);
+                if (i == slot) {
+                    encoder.accept(writer);
+                } else {
+                    final int start = buffer.getInt(4 + i * 4);
+                    final int end = i + 1 < count ? buffer.getInt(4 + (i + 1) * 4) : buffer.limit();
+                    writer.copy(buffer, start, end - start);
+                }
+            }
+            return write(writer);
+        } finally {
+            exit(epoch);
+        }
+    }
+
+    /**
+     * Reads the slots of the vertex, which are a copy that the caller may change, as are the lists of its slots.
+     */
+    Object[] readVertexProperties(final TinkerVertex vertex) {
+        final long epoch = enter();
+        try {
+            final long record = vertex.propertyRecord;
+            if (NO_RECORD == record) return TinkerPropertySchema.NO_VALUES;
+            final ByteBuffer buffer = read(record);
+            final DecodedRecord decoded = decoded(record, buffer);
+            final Object[] slots = new Object[decoded.slots.length()];
+            for (int i = 0; i < slots.length; i++) {
+                slots[i] = copy(decoded.slot(i, buffer, vertex));
+            }
+            return slots;
+        } finally {
+            exit(epoch);
+        }
+    }
+
+    Object readVertexProperties(final TinkerVertex vertex, final int slot) {
+        final long epoch = enter();
+        try {
+            final long record = vertex.propertyRecord;
+            final ByteBuffer buffer = read(record);
+            return copy(decoded(record, buffer).slot(slot, buffer, vertex));
+        } finally {
+            exit(epoch);
+        }
+    }
+
+    /**
+     * Frees the record of an element, which must no longer refer to it. The record is only reused once the readers
+     * that may have read its address have left.
+     */
+    synchronized void free(final long record) {
+        if (NO_RECORD == record) return;
+        final int sizeClass = sizeClass(this.segments[(int) (record >>> 32)].getInt((int) record) + 4);
+        this.allocated -= 1L << sizeClass;
+
+        final int parity = (int) (this.epoch.get() & 1);
+        if (this.retiredCounts[parity] == this.retired[parity].length)
+            this.retired[parity] = Arrays.copyOf(this.retired[parity], this.retiredCounts[parity] * 2);
+        this.retired[parity][this.retiredCounts[parity]++] = record;
+        advance();
+    }
+
+    /**
+     * Releases all records by dropping the segments, whose memory is returned once they are garbage collected.
+     */
+    synchronized void clear() {
+        this.segments = new ByteBuffer[0];
+        Arrays.fill(this.freeLists, null);
+        Arrays.fill(this.freeCounts, 0);
+        Arrays.fill(this.retiredCounts, 0);
+        this.decoded = new AtomicReferenceArray<>(DECODED_RECORDS);
+        this.current = -1;
+        this.position = 0;
+        this.allocated = 0L;
+    }
+
+    /**
+     * Registers a reader in the current epoch, which is retried if the epoch moved on in the meantime as the reader
+     * could otherwise be counted in an epoch whose records were already released.
+     */
+    private long enter() {
+        while (true) {
+            final long epoch = this.epoch.get();
+            final AtomicLong readers = this.readers[(int) (epoch & 1)];
+            readers.incrementAndGet();
+            if (epoch == this.epoch.get()) return epoch;
+            readers.decrementAndGet();
+        }
+    }
+
+    private void exit(final long epoch) {
+        this.readers[(int) (epoch & 1)].decrementAndGet();
+    }
+
+    /**
+     * Moves on to the next epoch if no reader of the previous epoch is left, which releases the records freed in the
+     * previous epoch as the readers of the current epoch entered after those records were replaced.
+     */
+    private void advance() {
+        final long epoch = this.epoch.get();
+        final int previous = (int) ((epoch + 1) & 1);
+        if (this.readers[previous].get() != 0) return;
+
+        for (int i = 0; i < this.retiredCounts[previous]; i++) {
+            release(this.retired[previous][i]);
+        }
+        this.retiredCounts[previous] = 0;
+        this.epoch.set(epoch + 1);
+    }
+
+    private void release(final long record) {
+        final int index = (int) (record >>> 32);
+        final int sizeClass = sizeClass(this.segments[index].getInt((int) record) + 4);
+        final int decodedIndex = decodedIndex(record);
+        final DecodedRecord decoded = this.decoded.get(decodedIndex);
+        if (null != decoded && decoded.record == record) this.decoded.compareAndSet(decodedIndex, decoded, null);
+
+        if (isLarge(sizeClass)) {
+            this.segments[index] = null;
+        } else {
+            if (null == this.freeLists[sizeClass]) {
+                this.freeLists[sizeClass] = new long[16];
+            } else if (this.freeCounts[sizeClass] == this.freeLists[sizeClass].length) {
+                this.freeLists[sizeClass] = Arrays.copyOf(this.freeLists[sizeClass], this.freeCounts[sizeClass] * 2);
+            }
+            this.freeLists[sizeClass][this.freeCounts[sizeClass]++] = record;
+        }
+    }
+
+    /**
+     * Gets the cached vertex properties of the record or caches an empty entry for them.
+     */
+    private DecodedRecord decoded(final long record, final ByteBuffer buffer) {
+        final AtomicReferenceArray<DecodedRecord> cache = this.decoded;
+        final int index = decodedIndex(record);
+        final DecodedRecord decoded = cache.get(index);
+        if (null != decoded && decoded.record == record) return decoded;
+
+        final DecodedRecord added = new DecodedRecord(record, buffer.getInt(0));
+        cache.set(index, added);
+        return added;
+    }
+
+    private static int decodedIndex(final long record) {
+        return (int) ((record * 0x9E3779B97F4A7C15L) >>> (64 - Integer.numberOfTrailingZeros(DECODED_RECORDS)));
+    }
+
+    /**
+     * Copies a list of vertex properties of a slot as callers change the lists they read.
+     */
+    private static Object copy(final Object slot) {
+        return slot instanceof List ? new ArrayList<>((List<?>) slot) : slot;
+    }
+
+    private void writeVertexProperties(final RecordWriter writer, final Object slot) {
+        if (slot instanceof List) {
+            final List<TinkerVertexProperty<?>> list = (List) slot;
+            writer.writeInt(list.size());
+            for (final TinkerVertexProperty<?> vertexProperty : list) {
+                writeVertexProperty(writer, vertexProperty);
+            }
+        } else {
+            writer.writeInt(1);
+            writeVertexProperty(writer, (TinkerVertexProperty<?>) slot);
+        }
+    }
+
+    private void writeVertexProperty(final RecordWriter writer, final TinkerVertexProperty<?> vertexProperty) {
+        writer.writeValue(vertexProperty.id());
+        writer.writeValue(vertexProperty.value());
+        writer.writeInt(vertexProperty.propertySchema.id());
+        if (!vertexProperty.propertySchema.isShared()) {
+            // a schema of a single element has no id so its keys are written instead
+            writer.writeInt(vertexProperty.propertySchema.size());
+            for (int i = 0; i < vertexProperty.propertySchema.size(); i++) {
+                writer.writeValue(vertexProperty.propertySchema.key(i));
+            }
+        }
+        for (final Object value : vertexProperty.propertyValues) {
+            writer.writeValue(value);
+        }
+    }
+
+    private Object readVertexProperties(final ByteBuffer buffer, final TinkerVertex vertex, final String key) {
+        final int count = buffer.getInt();
+        if (1 == count) return readVertexProperty(buffer, vertex, key);
+
+        final List<VertexProperty> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            list.add(readVertexProperty(buffer, vertex, key));
+        }
+        return list;
+    }
+
+    private TinkerVertexProperty<?> readVertexProperty(final ByteBuffer buffer, final TinkerVertex vertex, final String key) {
+        final Object id = readValue(buffer);
+        final TinkerVertexProperty<?> vertexProperty = new TinkerVertexProperty<>(id, vertex, key, readValue(buffer));
+        final int schema = buffer.getInt();
+        if (TinkerPropertySchema.UNSHARED == schema) {
+            final String[] keys = new String[buffer.getInt()];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = (String) readValue(buffer);
+            }
+            vertexProperty.propertySchema = vertexProperty.propertySchema.unshared(keys);
+        } else {
+            vertexProperty.propertySchema = vertexProperty.propertySchema.root().schema(schema);
+        }
+        if (vertexProperty.propertySchema.size() > 0) {
+            vertexProperty.propertyValues = new Object[vertexProperty.propertySchema.size()];
+            for (int i = 0; i < vertexProperty.propertyValues.length; i++) {
+                vertexProperty.propertyValues[i] = readValue(buffer);
+            }
+        }
+        return vertexProperty;
+    }
+
+    private static Object readValue(final ByteBuffer buffer) {
+        final byte tag = buffer.get();
+        switch (tag) {
+            case NULL:
+                return null;
+            case STRING:
+                return new String(readBytes(buffer), StandardCharsets.UTF_8);
+            case INTEGER:
+                return buffer.getInt();
+            case LONG:
+                return buffer.getLong();
+            case DOUBLE:
+                return buffer.getDouble();
+            case FLOAT:
+                return buffer.getFloat();
+            case BOOLEAN:
+                return 1 == buffer.get();
+            case GRYO:
+                return KRYO.get().readClassAndObject(new Input(readBytes(buffer)));
+            default:
+                throw new IllegalStateException("Unknown value tag in off-heap record: " + tag);
+        }
+    }
+
+    private static byte[] readBytes(final ByteBuffer buffer) {
+        final byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Gets a view of the record in its segment from which its values are decoded in place, where positions are
+     * relative to the start of the record.
+     */
+    private ByteBuffer read(final long record) {
+        final ByteBuffer segment = this.segments[(int) (record >>> 32)].duplicate();
+        final int offset = (int) record;
+        segment.limit(offset + 4 + segment.getInt(offset));
+        segment.position(offset + 4);
+        return segment.slice();
+    }
+
+    private long write(final RecordWriter writer) {
+        final long record = allocate(writer.length);
+        final ByteBuffer segment = this.segments[(int) (record >>> 32)].duplicate();
+        segment.position((int) record);
+        segment.putInt(writer.length);
+        segment.put(writer.bytes, 0, writer.length);
+        return record;
+    }
+
+    private synchronized long allocate(final int length) {
+        advance();
+        final int sizeClass = sizeClass(length + 4);
+        final int size = 1 << sizeClass;
+        this.allocated += size;
+        if (isLarge(sizeClass))
+            return ((long) addSegment(SEGMENT_HEADER + size) << 32) | SEGMENT_HEADER;
+
+        if (this.freeCounts[sizeClass] > 0)
+            return this.freeLists[sizeClass][--this.freeCounts[sizeClass]];
+
+        if (this.current < 0 || this.position + size > this.segments[this.current].capacity()) {
+            final int previous = this.current < 0 ? FIRST_SEGMENT_SIZE / 2 : this.segments[this.current].capacity();
+            this.current = addSegment(Math.max(SEGMENT_HEADER + size, Math.min(this.maxSegmentSize, previous * 2)));
+            this.position = SEGMENT_HEADER;
+        }
+        final long record = ((long) this.current << 32) | this.position;
+        this.position += size;
+        return record;
+    }
+
+    private int addSegment(final int capacity) {
+        final ByteBuffer[] segments = Arrays.copyOf(this.segments, this.segments.length + 1);
+        segments[segments.length - 1] = ByteBuffer.allocateDirect(capacity);
+        this.segments = segments;
+        return segments.length - 1;
+    }
+
+    private boolean isLarge(final int sizeClass) {
+        return (1L << sizeClass) > this.maxSegmentSize - SEGMENT_HEADER;
+    }
+
+    private static int sizeClass(final int size) {
+        return Math.max(MIN_SIZE_CLASS, 32 - Integer.numberOfLeadingZeros(size - 1));
+    }
+
+    /**
+     * The vertex properties decoded from a record, where each slot is decoded when it is first read.
+     */
+    private final class DecodedRecord {
+        private final long record;
+        private final AtomicReferenceArray<Object> slots;
+
+        private DecodedRecord(final long record, final int slots) {
+            this.record = record;
+            this.slots = new AtomicReferenceArray<>(slots);
+        }
+
+        private Object slot(final int slot, final ByteBuffer buffer, final TinkerVertex vertex) {
+            final Object value = this.slots.get(slot);
+            if (null != value) return value;
+
+            buffer.position(buffer.getInt(4 + slot * 4));
+            final Object decoded = readVertexProperties(buffer, vertex, vertex.propertySchema.key(slot));
+            return this.slots.compareAndSet(slot, null, decoded) ? decoded : this.slots.get(slot);
+        }
+    }
+
+    /**
+     * Encodes a record on the heap before it is copied to direct memory.
+     */
+    private static final class RecordWriter {
+        private byte[] bytes = new byte[64];
+        private int length = 0;
+
+        private int skip(final int count) {
+            ensureCapacity(count);
+            final int start = this.length;
+            this.length += count;
+            return start;
+        }
+
+        private void writeInt(final int value) {
+            final int offset = skip(4);
+            putInt(offset, value);
+        }
+
+        private void putInt(final int offset, final int value) {
+            ByteBuffer.wrap(this.bytes).putInt(offset, value);
+        }
+
+        private void writeValue(final Object value) {
+            if (null == value) {
+                writeTag(NULL);
+            } else if (value instanceof String) {
+                writeBytes(STRING, ((String) value).getBytes(StandardCharsets.UTF_8));
+            } else if (value instanceof Integer) {
+                writeTag(INTEGER);
+                writeInt((Integer) value);
+            } else if (value instanceof Long) {
+                writeTag(LONG);
+                final int offset = skip(8);
+                ByteBuffer.wrap(this.bytes).putLong(offset, (Long) value);
+            } else if (value instanceof Double) {
+                writeTag(DOUBLE);
+                final int offset = skip(8);
+                ByteBuffer.wrap(this.bytes).putDouble(offset, (Double) value);
+            } else if (value instanceof Float) {
+                writeTag(FLOAT);
+                final int offset = skip(4);
+                ByteBuffer.wrap(this.bytes).putFloat(offset, (Float) value);
+            } else if (value instanceof Boolean) {
+                writeTag(BOOLEAN);
+                writeTag((Boolean) value ? (byte) 1 : (byte) 0);
+            } else {
+                final Output output = new Output(64, -1);
+                try {
+                    KRYO.get().writeClassAndObject(output, value);
+                } catch (Exception ex) {
+                    throw Property.Exceptions.dataTypeOfPropertyValueNotSupported(value, ex);
+                }
+                writeBytes(GRYO, output.toBytes());
+            }
+        }
+
+        private void copy(final ByteBuffer buffer, final int start, final int count) {
+            final int offset = skip(count);
+            final ByteBuffer source = buffer.duplicate();
+            source.position(start);
+            source.get(this.bytes, offset, count);
+        }
+
+        private void writeTag(final byte tag) {
+            final int offset = skip(1);
+            this.bytes[offset] = tag;
+        }
+
+        private void writeBytes(final byte tag, final byte[] value) {
+            writeTag(tag);
+            writeInt(value.length);
+            final int offset = skip(value.length);
+            System.arraycopy(value, 0, this.bytes, offset, value.length);
+        }
+
+        private void ensureCapacity(final int count) {
+            if (this.length + count > this.bytes.length)
+                this.bytes = Arrays.copyOf(this.bytes, Math.max(this.bytes.length * 2, this.length + count));
+        }
+    }
+
+    /**
+     * Creates the mapper for values without an encoding of their own when one is first needed.
+     */
+    private static final class GryoMapperHolder {
+        private static final GryoMapper MAPPER = GryoMapper.build().version(GryoVersion.V3_0).create();
+    }
+}
@@ -80,10 +80,10 @@ public final class TinkerProperty<V> implements Property<V> {
     @Override
     public void remove() {
         if (this.element instanceof Edge) {
-            ((TinkerEdge) this.element).properties.remove(this.key);
+            ((TinkerEdge) this.element).removeProperty(this.key);
             TinkerHelper.removeIndex((TinkerEdge) this.element, this.key, this.value);
         } else {
-            ((TinkerVertexProperty) this.element).properties.remove(this.key);
+            ((TinkerVertexProperty) this.element).removeProperty(this.key);
         }
     }
 }
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates the properties of an element that have one of the given keys, or all of them if no keys are given,
+ * without collecting them first. It reads the schema and slots that the element had when the iteration started and
+ * as an element copies its slots whenever it gains or loses a key, the properties may be removed while iterating.
+ */
+abstract class TinkerPropertyIterator<P> implements Iterator<P> {
+
+    private final TinkerPropertySchema schema;
+    private final Object[] values;
+    private final String[] keys;
+    private int slot = -1;
+    private Iterator<P> multiProperties = null;
+    private P next = null;
+
+    TinkerPropertyIterator(final TinkerPropertySchema schema, final Object[] values, final String... keys) {
+        this.schema = schema;
+        this.values = values;
+        this.keys = keys;
+    }
+
+    /**
+     * Gets the property of the key from the value in its slot.
+     */
+    abstract P property(final String key, final Object value);
+
+    /**
+     * Determines if the value in a slot is the list of the properties of a key with more than one property.
+     */
+    boolean isMultiProperty(final Object value) {
+        return false;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (null == this.next) {
+            if (null != this.multiProperties && this.multiProperties.hasNext()) {
+                this.next = this.multiProperties.next();
+            } else {
+                this.multiProperties = null;
+                if (++this.slot >= this.values.length) return false;
+
+                final String key = this.schema.key(this.slot);
+                if (ElementHelper.keyExists(key, this.keys)) {
+                    final Object value = this.values[this.slot];
+                    // the list is modified in place when one of its properties is removed so iterate a copy of it
+                    if (isMultiProperty(value))
+                        this.multiProperties = new ArrayList<>((List<P>) value).iterator();
+                    else
+                        this.next = property(key, value);
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public P next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        final P p = this.next;
+        this.next = null;
+        return p;
+    }
+}
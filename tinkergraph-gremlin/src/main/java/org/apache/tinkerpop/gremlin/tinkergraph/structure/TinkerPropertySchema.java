@@ -0,0 +1,224 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The property keys of the elements of a {@link TinkerGraph} which maps each key to the slot of the array in which an
+ * element holds the property. An element moves to another schema when it gains or loses a key and as these
+ * transitions are cached, all elements that acquired the same keys in the same order share one schema rather than
+ * each holding a map of its own. Each schema is numbered within the schemas derived from the same root so that it can
+ * be referred to from the records of {@link TinkerOffHeapStore}.
+ * <p/>
+ * As shared schemas are kept as long as the graph, an element whose keys would create too many of them moves to a
+ * schema of its own instead, which is neither cached nor numbered and is replaced by a copy whenever a key is added
+ * or removed. That happens when the element gains more keys than {@link #MAX_SHARED_KEYS}, when a schema already has
+ * {@link #MAX_TRANSITIONS} other transitions, or when the element loses any key but its last one, which would
+ * otherwise derive a schema for every order in which the remaining keys were added.
+ */
+final class TinkerPropertySchema {
+
+    static final Object[] NO_VALUES = new Object[0];
+
+    /**
+     * Schemas with up to this many keys find the slot of a key by scanning the keys rather than by a map.
+     */
+    private static final int MAX_SCANNED_KEYS = 8;
+
+    /**
+     * The most keys of a shared schema.
+     */
+    static final int MAX_SHARED_KEYS = 64;
+
+    /**
+     * The most schemas that are derived from a shared schema by adding a key.
+     */
+    static final int MAX_TRANSITIONS = 32;
+
+    /**
+     * The id of a schema which is held by a single element.
+     */
+    static final int UNSHARED = -1;
+
+    private final TinkerPropertySchema root;
+
+    /**
+     * The shared schema without the last key of this one, which is {@code null} for the root and unshared schemas.
+     */
+    private final TinkerPropertySchema parent;
+    private final int id;
+    private final String[] keys;
+    private final Set<String> keySet;
+    private final Map<String, Integer> slots;
+    private final Map<String, TinkerPropertySchema> transitions = new ConcurrentHashMap<>();
+
+    /**
+     * The shared schemas derived from the root by their id, which is only held by the root. The array is copied when
+     * a schema is added so that schemas are looked up without a lock.
+     */
+    private volatile TinkerPropertySchema[] schemas;
+
+    private TinkerPropertySchema(final TinkerPropertySchema root, final TinkerPropertySchema parent, final String[] keys,
+                                 final boolean shared) {
+        this.root = null == root ? this : root;
+        this.parent = parent;
+        this.schemas = null == root ? new TinkerPropertySchema[0] : null;
+        this.keys = keys;
+        this.keySet = 0 == keys.length ?
+                Collections.emptySet() :
+                Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(keys)));
+        if (keys.length > MAX_SCANNED_KEYS) {
+            this.slots = new HashMap<>(keys.length * 2);
+            for (int i = 0; i < keys.length; i++) {
+                this.slots.put(keys[i], i);
+            }
+        } else {
+            this.slots = null;
+        }
+
+        // the schema is published last so that it is complete once it can be looked up by its id
+        if (shared) {
+            synchronized (this.root) {
+                final TinkerPropertySchema[] schemas = Arrays.copyOf(this.root.schemas, this.root.schemas.length + 1);
+                this.id = schemas.length - 1;
+                schemas[this.id] = this;
+                this.root.schemas = schemas;
+            }
+        } else {
+            this.id = UNSHARED;
+        }
+    }
+
+    /**
+     * Creates the schema without keys from which the schemas of the elements of a graph are derived.
+     */
+    static TinkerPropertySchema create() {
+        return new TinkerPropertySchema(null, null, new String[0], true);
+    }
+
+    /**
+     * Creates a schema of the keys for a single element, which is derived from the root of this schema.
+     */
+    TinkerPropertySchema unshared(final String[] keys) {
+        return new TinkerPropertySchema(this.root, null, keys, false);
+    }
+
+    TinkerPropertySchema root() {
+        return this.root;
+    }
+
+    /**
+     * Gets the id of the schema among the schemas derived from its root or {@link #UNSHARED} if it is held by a single
+     * element.
+     */
+    int id() {
+        return this.id;
+    }
+
+    boolean isShared() {
+        return UNSHARED != this.id;
+    }
+
+    /**
+     * Gets the schema with the id among the schemas derived from the root of this schema.
+     */
+    TinkerPropertySchema schema(final int id) {
+        return this.root.schemas[id];
+    }
+
+    int size() {
+        return this.keys.length;
+    }
+
+    String key(final int slot) {
+        return this.keys[slot];
+    }
+
+    Set<String> keys() {
+        return this.keySet;
+    }
+
+    /**
+     * Gets the slot of the key or -1 if the schema does not have the key.
+     */
+    int slot(final String key) {
+        if (null != this.slots) {
+            final Integer slot = this.slots.get(key);
+            return null == slot ? -1 : slot;
+        }
+        for (int i = 0; i < this.keys.length; i++) {
+            if (this.keys[i].equals(key)) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the schema with the key added to the end of the keys of this schema. The key must not be in this schema.
+     */
+    TinkerPropertySchema add(final String key) {
+        final TinkerPropertySchema schema = this.transitions.get(key);
+        if (null != schema) return schema;
+
+        final String[] keys = Arrays.copyOf(this.keys, this.keys.length + 1);
+        keys[this.keys.length] = key;
+        if (!isShared() || keys.length > MAX_SHARED_KEYS || this.transitions.size() >= MAX_TRANSITIONS)
+            return unshared(keys);
+        return this.transitions.computeIfAbsent(key, k -> new TinkerPropertySchema(this.root, this, keys, true));
+    }
+
+    /**
+     * Gets the schema without the key in the given slot, which keeps the other keys in their order.
+     */
+    TinkerPropertySchema remove(final int slot) {
+        if (isShared() && slot == this.keys.length - 1)
+            return this.parent;
+
+        final String[] keys = new String[this.keys.length - 1];
+        System.arraycopy(this.keys, 0, keys, 0, slot);
+        System.arraycopy(this.keys, slot + 1, keys, slot, this.keys.length - slot - 1);
+        return 0 == keys.length ? this.root : unshared(keys);
+    }
+
+    /**
+     * Copies the values of an element to an array with one more slot for the value of an added key.
+     */
+    static Object[] add(final Object[] values, final Object value) {
+        final Object[] copy = Arrays.copyOf(values, values.length + 1);
+        copy[values.length] = value;
+        return copy;
+    }
+
+    /**
+     * Copies the values of an element to an array without the slot of a removed key.
+     */
+    static Object[] remove(final Object[] values, final int slot) {
+        if (1 == values.length) return NO_VALUES;
+        final Object[] copy = new Object[values.length - 1];
+        System.arraycopy(values, 0, copy, 0, slot);
+        System.arraycopy(values, slot + 1, copy, slot, values.length - slot - 1);
+        return copy;
+    }
+}
@@ -0,0 +1,259 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * An index of the numeric values of pairs of keys, such as a latitude and a longitude, which finds the candidates for
+ * range predicates on both keys of a pair. The values of an element are reduced to the upper 32 bits of an
+ * order-preserving encoding of their {@code double} value and interleaved into a Z-order value, so that the elements
+ * in a box of both keys lie in one range of Z-order values of which a scan skips the parts outside of the box.
+ * <p/>
+ * As the values are reduced, the candidates may include elements just outside of the box and must be tested against
+ * the predicates. Elements with more than one value of a key or a value that is not a number cannot be placed and are
+ * always candidates, while elements without a value of both keys never are.
+ */
+final class TinkerSpatialIndex<T extends Element> {
+
+    private static final long ODD_BITS = 0xAAAAAAAAAAAAAAAAL;
+    private static final long EVEN_BITS = 0x5555555555555555L;
+
+    private final Map<List<String>, Grid> grids = new ConcurrentHashMap<>();
+    private final Class<T> indexClass;
+    private final TinkerGraph graph;
+
+    TinkerSpatialIndex(final TinkerGraph graph, final Class<T> indexClass) {
+        this.graph = graph;
+        this.indexClass = indexClass;
+    }
+
+    /**
+     * Gets the candidates in the box of the values of the pair of keys or {@code null} if the pair is not indexed.
+     */
+    List<T> get(final String xKey, final double xMin, final double xMax, final String yKey, final double yMin, final double yMax) {
+        final Grid grid = this.grids.get(Arrays.asList(xKey, yKey));
+        return null == grid ? null : grid.get(xMin, xMax, yMin, yMax);
+    }
+
+    /**
+     * Places the element in the grids of the key again from the values of its current properties.
+     */
+    void update(final String key, final T element) {
+        for (final Grid grid : this.grids.values()) {
+            if (grid.xKey.equals(key) || grid.yKey.equals(key))
+                grid.update(element);
+        }
+    }
+
+    void removeElement(final T element) {
+        if (this.indexClass.isAssignableFrom(element.getClass())) {
+            for (final Grid grid : this.grids.values()) {
+                grid.remove(element);
+            }
+        }
+    }
+
+    void createKeyIndex(final String xKey, final String yKey) {
+        if (null == xKey)
+            throw Graph.Exceptions.argumentCanNotBeNull("xKey");
+        if (null == yKey)
+            throw Graph.Exceptions.argumentCanNotBeNull("yKey");
+        if (xKey.isEmpty() || yKey.isEmpty())
+            throw new IllegalArgumentException("The keys for the index cannot be empty strings");
+        if (xKey.equals(yKey))
+            throw new IllegalArgumentException("The keys for the index must differ");
+
+        final List<String> keys = Arrays.asList(xKey, yKey);
+        if (this.grids.containsKey(keys))
+            return;
+
+        final Grid grid = new Grid(xKey, yKey);
+        (Vertex.class.isAssignableFrom(this.indexClass) ?
+                this.graph.vertices.values().parallelStream() :
+                this.graph.edges.values().parallelStream())
+                .forEach(e -> grid.update((T) e));
+        this.grids.put(keys, grid);
+    }
+
+    void dropKeyIndex(final String xKey, final String yKey) {
+        this.grids.remove(Arrays.asList(xKey, yKey));
+    }
+
+    Set<List<String>> getIndexedKeys() {
+        return Collections.unmodifiableSet(this.grids.keySet());
+    }
+
+    /**
+     * Reduces a value to the upper 32 bits of its {@code double} value with the sign flipped for positive values and
+     * all bits flipped for negative ones, which orders the reduced values like the values.
+     */
+    private static long reduce(final double value) {
+        final long bits = Double.doubleToLongBits(0.0d == value ? 0.0d : value);
+        return (bits ^ ((bits >> 63) | Long.MIN_VALUE)) >>> 32;
+    }
+
+    /**
+     * Interleaves the bits of the reduced values with the bits of {@code x} in the odd positions.
+     */
+    private static long interleave(final long x, final long y) {
+        return (spread(x) << 1) | spread(y);
+    }
+
+    private static long spread(long value) {
+        value &= 0xFFFFFFFFL;
+        value = (value | (value << 16)) & 0x0000FFFF0000FFFFL;
+        value = (value | (value << 8)) & 0x00FF00FF00FF00FFL;
+        value = (value | (value << 4)) & 0x0F0F0F0F0F0F0F0FL;
+        value = (value | (value << 2)) & 0x3333333333333333L;
+        return (value | (value << 1)) & EVEN_BITS;
+    }
+
+    private static long compact(long value) {
+        value &= EVEN_BITS;
+        value = (value | (value >>> 1)) & 0x3333333333333333L;
+        value = (value | (value >>> 2)) & 0x0F0F0F0F0F0F0F0FL;
+        value = (value | (value >>> 4)) & 0x00FF00FF00FF00FFL;
+        value = (value | (value >>> 8)) & 0x0000FFFF0000FFFFL;
+        return (value | (value >>> 16)) & 0xFFFFFFFFL;
+    }
+
+    /**
+     * Gets the bits below the bit that belong to the same key.
+     */
+    private static long lowerBitsOfKey(final int bit) {
+        return (0 == (bit & 1) ? EVEN_BITS : ODD_BITS) & ((1L << bit) - 1);
+    }
+
+    /**
+     * Gets the smallest Z-order value in the box of {@code min} and {@code max} that is greater than {@code z}, which
+     * lies in the range of the box but outside of the box itself.
+     */
+    private static long nextInBox(final long z, long min, long max) {
+        long next = max;
+        for (int bit = 63; bit >= 0; bit--) {
+            final long mask = 1L << bit;
+            final boolean zBit = 0 != (z & mask);
+            final boolean minBit = 0 != (min & mask);
+            final boolean maxBit = 0 != (max & mask);
+            if (!zBit && !minBit && maxBit) {
+                next = (min | mask) & ~lowerBitsOfKey(bit);
+                max = (max & ~mask) | lowerBitsOfKey(bit);
+            } else if (!zBit && minBit) {
+                return min;
+            } else if (zBit && !minBit && !maxBit) {
+                return next;
+            } else if (zBit && !minBit) {
+                min = (min | mask) & ~lowerBitsOfKey(bit);
+            }
+        }
+        return next;
+    }
+
+    /**
+     * The index of one pair of keys.
+     */
+    private final class Grid {
+        private final String xKey;
+        private final String yKey;
+        private final ConcurrentSkipListMap<Long, Set<T>> cells = new ConcurrentSkipListMap<>(Long::compareUnsigned);
+        private final Map<T, Long> positions = new ConcurrentHashMap<>();
+        private final Set<T> unplaced = ConcurrentHashMap.newKeySet();
+
+        private Grid(final String xKey, final String yKey) {
+            this.xKey = xKey;
+            this.yKey = yKey;
+        }
+
+        private List<T> get(final double xMin, final double xMax, final double yMin, final double yMax) {
+            final List<T> candidates = new ArrayList<>(this.unplaced);
+            final long xLow = reduce(xMin);
+            final long xHigh = reduce(xMax);
+            final long yLow = reduce(yMin);
+            final long yHigh = reduce(yMax);
+            if (xLow > xHigh || yLow > yHigh) return candidates;
+
+            final long min = interleave(xLow, yLow);
+            final long max = interleave(xHigh, yHigh);
+            long z = min;
+            while (true) {
+                final Map.Entry<Long, Set<T>> cell = this.cells.ceilingEntry(z);
+                if (null == cell || Long.compareUnsigned(cell.getKey(), max) > 0) break;
+
+                final long position = cell.getKey();
+                final long x = compact(position >>> 1);
+                final long y = compact(position);
+                if (x >= xLow && x <= xHigh && y >= yLow && y <= yHigh) {
+                    candidates.addAll(cell.getValue());
+                    if (position == max) break;
+                    z = position + 1;
+                } else {
+                    z = nextInBox(position, min, max);
+                }
+            }
+            return candidates;
+        }
+
+        private void update(final T element) {
+            remove(element);
+            if (((TinkerElement) element).removed) return;
+
+            final List<Object> xs = new ArrayList<>(1);
+            final List<Object> ys = new ArrayList<>(1);
+            element.properties(this.xKey).forEachRemaining(property -> xs.add(property.value()));
+            element.properties(this.yKey).forEachRemaining(property -> ys.add(property.value()));
+            if (xs.isEmpty() || ys.isEmpty()) return;
+
+            if (xs.size() == 1 && ys.size() == 1 && isPlaceable(xs.get(0)) && isPlaceable(ys.get(0))) {
+                final long position = interleave(reduce(((Number) xs.get(0)).doubleValue()), reduce(((Number) ys.get(0)).doubleValue()));
+                this.positions.put(element, position);
+                this.cells.computeIfAbsent(position, p -> ConcurrentHashMap.newKeySet()).add(element);
+            } else {
+                this.unplaced.add(element);
+            }
+        }
+
+        private void remove(final T element) {
+            final Long position = this.positions.remove(element);
+            if (null != position) {
+                final Set<T> elements = this.cells.get(position);
+                if (null != elements) {
+                    elements.remove(element);
+                    if (elements.isEmpty()) this.cells.remove(position);
+                }
+            }
+            this.unplaced.remove(element);
+        }
+
+        private boolean isPlaceable(final Object value) {
+            return value instanceof Number && !Double.isNaN(((Number) value).doubleValue());
+        }
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Text;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiPredicate;
+
+/**
+ * An inverted index of the trigrams of the {@code String} values of the indexed keys, which finds the candidates for
+ * the {@link Text#containing}, {@link Text#startingWith} and {@link Text#endingWith} predicates. Values are padded
+ * with markers at their start and end before they are split so that the trigrams of a prefix or a suffix only match
+ * at the start or end of a value. The candidates are the elements that have all trigrams of the searched string,
+ * which may include elements that do not match so they must be tested against the predicate.
+ */
+final class TinkerTextIndex<T extends Element> {
+
+    private static final int GRAM_LENGTH = 3;
+    private static final String START = "\u0002\u0002";
+    private static final String END = "\u0003\u0003";
+
+    private final Map<String, Map<String, Set<T>>> index = new ConcurrentHashMap<>();
+
+    /**
+     * The values of each element under which it is indexed as an array of alternating keys and values.
+     */
+    private final Map<T, Object[]> entries = new ConcurrentHashMap<>();
+    private final Class<T> indexClass;
+    private final Set<String> indexedKeys = new HashSet<>();
+    private final TinkerGraph graph;
+
+    TinkerTextIndex(final TinkerGraph graph, final Class<T> indexClass) {
+        this.graph = graph;
+        this.indexClass = indexClass;
+    }
+
+    /**
+     * Gets the candidates for the predicate on the key or {@code null} if the index cannot answer it, which is when
+     * the key is not indexed, the predicate is not supported or the searched string is too short for a trigram.
+     */
+    List<T> get(final String key, final BiPredicate<?, ?> predicate, final Object value) {
+        if (!this.indexedKeys.contains(key) || !(value instanceof String)) return null;
+
+        final String search = (String) value;
+        final Set<String> grams;
+        if (predicate == Text.containing)
+            grams = grams(search);
+        else if (predicate == Text.startingWith)
+            grams = search.isEmpty() ? Collections.emptySet() : grams(START + search);
+        else if (predicate == Text.endingWith)
+            grams = search.isEmpty() ? Collections.emptySet() : grams(search + END);
+        else
+            return null;
+        if (grams.isEmpty()) return null;
+
+        final Map<String, Set<T>> keyMap = this.index.get(key);
+        if (null == keyMap) return Collections.emptyList();
+        final List<Set<T>> sets = new ArrayList<>(grams.size());
+        for (final String gram : grams) {
+            final Set<T> set = keyMap.get(gram);
+            if (null == set) return Collections.emptyList();
+            sets.add(set);
+        }
+
+        // intersect starting from the smallest set of elements
+        sets.sort(Comparator.comparingInt(Set::size));
+        final List<T> candidates = new ArrayList<>();
+        for (final T element : sets.get(0)) {
+            boolean all = true;
+            for (int i = 1; i < sets.size() && all; i++) {
+                all = sets.get(i).contains(element);
+            }
+            if (all) candidates.add(element);
+        }
+        return candidates;
+    }
+
+    /**
+     * Replaces the entries of the element for the key with the values of its current properties of the key.
+     */
+    void update(final String key, final T element) {
+        if (!this.indexedKeys.contains(key)) return;
+
+        final Object[] entries = this.entries.get(element);
+        if (null != entries) {
+            for (int i = 0; i < entries.length; i = i + 2) {
+                if (entries[i].equals(key))
+                    removeGrams(key, (String) entries[i + 1], element);
+            }
+            this.entries.computeIfPresent(element, (k, e) -> removeEntries(e, key));
+        }
+        if (!((TinkerElement) element).removed)
+            element.properties(key).forEachRemaining(property -> put(key, property.value(), element));
+    }
+
+    void removeElement(final T element) {
+        if (this.indexClass.isAssignableFrom(element.getClass())) {
+            final Object[] entries = this.entries.remove(element);
+            if (null != entries) {
+                for (int i = 0; i < entries.length; i = i + 2) {
+                    removeGrams((String) entries[i], (String) entries[i + 1], element);
+                }
+            }
+        }
+    }
+
+    void createKeyIndex(final String key) {
+        if (null == key)
+            throw Graph.Exceptions.argumentCanNotBeNull("key");
+        if (key.isEmpty())
+            throw new IllegalArgumentException("The key for the index cannot be an empty string");
+
+        if (this.indexedKeys.contains(key))
+            return;
+        this.indexedKeys.add(key);
+
+        (Vertex.class.isAssignableFrom(this.indexClass) ?
+                this.graph.vertices.values().parallelStream() :
+                this.graph.edges.values().parallelStream())
+                .forEach(e -> e.properties(key).forEachRemaining(property -> put(key, property.value(), (T) e)));
+    }
+
+    void dropKeyIndex(final String key) {
+        this.index.remove(key);
+        for (final T element : this.entries.keySet()) {
+            this.entries.computeIfPresent(element, (k, entries) -> removeEntries(entries, key));
+        }
+        this.indexedKeys.remove(key);
+    }
+
+    Set<String> getIndexedKeys() {
+        return this.indexedKeys;
+    }
+
+    private void put(final String key, final Object value, final T element) {
+        if (!(value instanceof String)) return;
+
+        final Map<String, Set<T>> keyMap = this.index.computeIfAbsent(key, k -> new ConcurrentHashMap<>());
+        for (final String gram : grams(START + value + END)) {
+            keyMap.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(element);
+        }
+        this.entries.compute(element, (k, entries) -> {
+            if (null == entries) return new Object[]{key, value};
+            final Object[] copy = Arrays.copyOf(entries, entries.length + 2);
+            copy[entries.length] = key;
+            copy[entries.length + 1] = value;
+            return copy;
+        });
+    }
+
+    private void removeGrams(final String key, final String value, final T element) {
+        final Map<String, Set<T>> keyMap = this.index.get(key);
+        if (null == keyMap) return;
+        for (final String gram : grams(START + value + END)) {
+            final Set<T> elements = keyMap.get(gram);
+            if (null != elements) {
+                elements.remove(element);
+                if (elements.isEmpty()) keyMap.remove(gram);
+            }
+        }
+    }
+
+    /**
+     * Gets the entries without the entries of the key, which is {@code null} if no entries remain.
+     */
+    private static Object[] removeEntries(final Object[] entries, final String key) {
+        int retained = 0;
+        final Object[] copy = new Object[entries.length];
+        for (int i = 0; i < entries.length; i = i + 2) {
+            if (!entries[i].equals(key)) {
+                copy[retained++] = entries[i];
+                copy[retained++] = entries[i + 1];
+            }
+        }
+        if (retained == entries.length) return entries;
+        return 0 == retained ? null : Arrays.copyOf(copy, retained);
+    }
+
+    private static Set<String> grams(final String string) {
+        if (string.length() < GRAM_LENGTH) return Collections.emptySet();
+        final Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= string.length(); i++) {
+            grams.add(string.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+}
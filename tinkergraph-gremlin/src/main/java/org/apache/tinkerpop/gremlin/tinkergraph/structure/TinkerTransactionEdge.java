@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Property;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerTransactionGraph.EdgeRecord;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An {@link Edge} of a {@link TinkerTransactionGraph}. It only holds the identity of the edge and its vertices and
+ * reads its properties from the transaction of the current thread.
+ */
+public final class TinkerTransactionEdge extends TinkerElement implements Edge {
+
+    private final TinkerTransactionGraph graph;
+    private final Vertex outVertex;
+    private final Vertex inVertex;
+
+    TinkerTransactionEdge(final EdgeRecord record, final TinkerTransactionGraph graph) {
+        super(record.id, record.label);
+        this.graph = graph;
+        this.outVertex = new TinkerTransactionVertex(record.outVertexId, record.outVertexLabel, graph);
+        this.inVertex = new TinkerTransactionVertex(record.inVertexId, record.inVertexLabel, graph);
+    }
+
+    @Override
+    public <V> Property<V> property(final String key, final V value) {
+        if (null == this.graph.readEdge(this.id)) throw elementAlreadyRemoved(Edge.class, this.id);
+        ElementHelper.validateProperty(key, value);
+
+        if (null == value) {
+            properties(key).forEachRemaining(Property::remove);
+            return Property.empty();
+        }
+
+        this.graph.writeEdge(this.id).properties.put(key, value);
+        return new TinkerTransactionProperty<>(this, key, value);
+    }
+
+    @Override
+    public <V> Property<V> property(final String key) {
+        final EdgeRecord record = this.graph.readEdge(this.id);
+        return null == record || !record.properties.containsKey(key) ?
+                Property.<V>empty() :
+                new TinkerTransactionProperty<>(this, key, (V) record.properties.get(key));
+    }
+
+    @Override
+    public Set<String> keys() {
+        final EdgeRecord record = this.graph.readEdge(this.id);
+        return null == record ? Collections.emptySet() : new HashSet<>(record.properties.keySet());
+    }
+
+    @Override
+    public void remove() {
+        this.graph.removeEdge(this.id);
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.edgeString(this);
+    }
+
+    @Override
+    public Vertex outVertex() {
+        return this.outVertex;
+    }
+
+    @Override
+    public Vertex inVertex() {
+        return this.inVertex;
+    }
+
+    @Override
+    public Iterator<Vertex> vertices(final Direction direction) {
+        switch (direction) {
+            case OUT:
+                return IteratorUtils.of(this.outVertex);
+            case IN:
+                return IteratorUtils.of(this.inVertex);
+            default:
+                return IteratorUtils.of(this.outVertex, this.inVertex);
+        }
+    }
+
+    @Override
+    public Graph graph() {
+        return this.graph;
+    }
+
+    @Override
+    public <V> Iterator<Property<V>> properties(final String... propertyKeys) {
+        final EdgeRecord record = this.graph.readEdge(this.id);
+        if (null == record) return Collections.emptyIterator();
+
+        final List<Property<V>> properties = new ArrayList<>();
+        for (final Map.Entry<String, Object> entry : record.properties.entrySet()) {
+            if (ElementHelper.keyExists(entry.getKey(), propertyKeys))
+                properties.add(new TinkerTransactionProperty<>(this, entry.getKey(), (V) entry.getValue()));
+        }
+        return properties.iterator();
+    }
+
+    void removeProperty(final String key) {
+        if (null != this.graph.readEdge(this.id))
+            this.graph.writeEdge(this.id).properties.remove(key);
+    }
+}
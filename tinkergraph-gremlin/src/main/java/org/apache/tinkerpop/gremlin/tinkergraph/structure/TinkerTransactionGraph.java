@@ -0,0 +1,1083 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.apache.commons.configuration2.Configuration;
+import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategies;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Transaction;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.structure.util.AbstractThreadLocalTransaction;
+import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+import org.apache.tinkerpop.gremlin.structure.util.TransactionException;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization.TinkerGraphShortestPathStrategy;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization.TinkerGraphStepStrategy;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization.TinkerGraphVertexStepStrategy;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * A transactional, in-memory implementation of the property graph interfaces which keeps multiple versions of each
+ * element. A transaction reads from the snapshot of the graph that was committed when it was opened, so readers
+ * never take a lock and never see the partial changes of other threads. Changes are made to private copies of the
+ * elements and are validated when committed: the commit fails with a {@link TransactionException} if another
+ * transaction committed after the snapshot was taken and changed the same property keys of a vertex, the same edge,
+ * or added or removed an element that this transaction depends on. Adding or removing an edge does not change its
+ * vertices, as the adjacency of the vertices is kept apart from them and the transaction only records the edges it
+ * added, so edges of the same vertex are added concurrently. Only the validation and publication of a commit is
+ * serialized, so writers otherwise proceed in parallel.
+ * <p/>
+ * Transactions are bound to the current thread and are opened automatically on the first read or write. Versions
+ * that are no longer visible to any open transaction are discarded as elements are committed. Unlike
+ * {@link TinkerGraph}, this graph does not support indices, {@link GraphComputer}, graph variables or persistence,
+ * so of the traversal strategies of {@link TinkerGraph} it only registers those that do not depend on them.
+ */
+@Graph.OptIn(Graph.OptIn.SUITE_STRUCTURE_STANDARD)
+@Graph.OptIn(Graph.OptIn.SUITE_PROCESS_STANDARD)
+@Graph.OptOut(
+        test = "org.apache.tinkerpop.gremlin.structure.io.IoCustomTest",
+        method = "shouldProperlySerializeCustomId",
+        specific = "graphson-v1-embedded",
+        reason = "The graph is written from another thread which does not see the uncommitted vertex of the test")
+@Graph.OptOut(
+        test = "org.apache.tinkerpop.gremlin.structure.io.IoCustomTest",
+        method = "shouldProperlySerializeCustomId",
+        specific = "graphson-v2-embedded",
+        reason = "The graph is written from another thread which does not see the uncommitted vertex of the test")
+@Graph.OptOut(
+        test = "org.apache.tinkerpop.gremlin.structure.io.IoCustomTest",
+        method = "shouldProperlySerializeCustomId",
+        specific = "graphson-v3",
+        reason = "The graph is written from another thread which does not see the uncommitted vertex of the test")
+@Graph.OptOut(
+        test = "org.apache.tinkerpop.gremlin.structure.io.IoCustomTest",
+        method = "shouldProperlySerializeCustomId",
+        specific = "gryo-v1",
+        reason = "The graph is written from another thread which does not see the uncommitted vertex of the test")
+@Graph.OptOut(
+        test = "org.apache.tinkerpop.gremlin.structure.io.IoCustomTest",
+        method = "shouldProperlySerializeCustomId",
+        specific = "gryo-v3",
+        reason = "The graph is written from another thread which does not see the uncommitted vertex of the test")
+public final class TinkerTransactionGraph implements Graph {
+
+    static {
+        TraversalStrategies.GlobalCache.registerStrategies(TinkerTransactionGraph.class, TraversalStrategies.GlobalCache.getStrategies(Graph.class).clone().addStrategies(
+                TinkerGraphStepStrategy.instance(),
+                TinkerGraphVertexStepStrategy.instance(),
+                TinkerGraphShortestPathStrategy.instance()));
+    }
+
+    private static final Configuration EMPTY_CONFIGURATION = new BaseConfiguration() {{
+        this.setProperty(Graph.GRAPH, TinkerTransactionGraph.class.getName());
+    }};
+
+    private final TinkerTransactionGraphFeatures features = new TinkerTransactionGraphFeatures();
+    private final TinkerTransaction transaction = new TinkerTransaction();
+    private final Configuration configuration;
+    private final TinkerGraph.IdManager<?> vertexIdManager;
+    private final TinkerGraph.IdManager<?> edgeIdManager;
+    private final TinkerGraph.IdManager<?> vertexPropertyIdManager;
+    private final VertexProperty.Cardinality defaultVertexPropertyCardinality;
+
+    private final AtomicLong currentId = new AtomicLong(-1L);
+    private final Map<Object, Version<VertexRecord>> vertices = new ConcurrentHashMap<>();
+    private final Map<Object, Version<EdgeRecord>> edges = new ConcurrentHashMap<>();
+
+    /**
+     * The ids of the committed edges of each vertex by label. An edge is added when it is committed and removed once
+     * its removal is visible to all snapshots, so readers filter the ids by the versions of the edges they see.
+     */
+    private final Map<Object, Map<String, Set<Object>>> outEdges = new ConcurrentHashMap<>();
+    private final Map<Object, Map<String, Set<Object>>> inEdges = new ConcurrentHashMap<>();
+
+    /**
+     * The elements with versions that could not be discarded when they were committed because an open snapshot
+     * still needed them.
+     */
+    private final Set<Object> staleVertices = ConcurrentHashMap.newKeySet();
+    private final Set<Object> staleEdges = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The version of the last committed transaction. It is only written while holding the {@link #commitLock} and
+     * only after all the element versions of that transaction have been installed.
+     */
+    private volatile long committedVersion = 0L;
+    private final Object commitLock = new Object();
+
+    /**
+     * The number of open transactions by the version of their snapshot.
+     */
+    private final ConcurrentNavigableMap<Long, Integer> openSnapshots = new ConcurrentSkipListMap<>();
+
+    private TinkerTransactionGraph(final Configuration configuration) {
+        this.configuration = configuration;
+        this.vertexIdManager = TinkerGraph.selectIdManager(configuration, TinkerGraph.GREMLIN_TINKERGRAPH_VERTEX_ID_MANAGER, Vertex.class);
+        this.edgeIdManager = TinkerGraph.selectIdManager(configuration, TinkerGraph.GREMLIN_TINKERGRAPH_EDGE_ID_MANAGER, Edge.class);
+        this.vertexPropertyIdManager = TinkerGraph.selectIdManager(configuration, TinkerGraph.GREMLIN_TINKERGRAPH_VERTEX_PROPERTY_ID_MANAGER, VertexProperty.class);
+        this.defaultVertexPropertyCardinality = VertexProperty.Cardinality.valueOf(
+                configuration.getString(TinkerGraph.GREMLIN_TINKERGRAPH_DEFAULT_VERTEX_PROPERTY_CARDINALITY, VertexProperty.Cardinality.single.name()));
+    }
+
+    /**
+     * Open a new {@code TinkerTransactionGraph} instance.
+     */
+    public static TinkerTransactionGraph open() {
+        return open(EMPTY_CONFIGURATION);
+    }
+
+    /**
+     * Open a new {@code TinkerTransactionGraph} instance. The id manager and default cardinality settings of
+     * {@link TinkerGraph} apply, where identifiers other than {@code UUID} are generated from a counter which is
+     * converted by the {@link TinkerGraph.IdManager}.
+     *
+     * @param configuration the configuration for the instance
+     * @return a newly opened {@link Graph}
+     */
+    public static TinkerTransactionGraph open(final Configuration configuration) {
+        return new TinkerTransactionGraph(configuration);
+    }
+
+    ////////////// STRUCTURE API METHODS //////////////////
+
+    @Override
+    public Vertex addVertex(final Object... keyValues) {
+        ElementHelper.legalPropertyKeyValueArray(keyValues);
+        final TransactionState state = state();
+        Object idValue = this.vertexIdManager.convert(ElementHelper.getIdValue(keyValues).orElse(null));
+        final String label = ElementHelper.getLabelValue(keyValues).orElse(Vertex.DEFAULT_LABEL);
+
+        if (null != idValue) {
+            if (null != readVertex(idValue))
+                throw Exceptions.vertexWithIdAlreadyExists(idValue);
+        } else {
+            idValue = nextId(this.vertexIdManager);
+        }
+
+        state.vertexWrites.put(idValue, new VertexRecord(idValue, label));
+        state.vertexKeys.put(idValue, null);
+        final Vertex vertex = new TinkerTransactionVertex(idValue, label, this);
+        ElementHelper.attachProperties(vertex, VertexProperty.Cardinality.list, keyValues);
+        return vertex;
+    }
+
+    @Override
+    public <C extends GraphComputer> C compute(final Class<C> graphComputerClass) {
+        throw Exceptions.graphComputerNotSupported();
+    }
+
+    @Override
+    public GraphComputer compute() {
+        throw Exceptions.graphComputerNotSupported();
+    }
+
+    @Override
+    public Iterator<Vertex> vertices(final Object... vertexIds) {
+        return createElementIterator(Vertex.class, this.vertices, state().vertexWrites, this.vertexIdManager,
+                this::readVertex, r -> new TinkerTransactionVertex(r.id, r.label, this), vertexIds);
+    }
+
+    @Override
+    public Iterator<Edge> edges(final Object... edgeIds) {
+        return createElementIterator(Edge.class, this.edges, state().edgeWrites, this.edgeIdManager,
+                this::readEdge, r -> new TinkerTransactionEdge(r, this), edgeIds);
+    }
+
+    @Override
+    public Transaction tx() {
+        return this.transaction;
+    }
+
+    @Override
+    public Variables variables() {
+        throw Exceptions.variablesNotSupported();
+    }
+
+    @Override
+    public Configuration configuration() {
+        return this.configuration;
+    }
+
+    /**
+     * Rolls back the transaction of the current thread, if one is open. Transactions of other threads are not
+     * affected.
+     */
+    @Override
+    public void close() {
+        if (this.transaction.isOpen()) this.transaction.rollback();
+    }
+
+    @Override
+    public Features features() {
+        return this.features;
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.graphString(this, "version:" + this.committedVersion);
+    }
+
+    ////////////// ELEMENT ACCESS ///////////////////
+
+    /**
+     * Gets the vertex as seen by the transaction of the current thread or {@code null} if it does not exist.
+     */
+    VertexRecord readVertex(final Object id) {
+        final TransactionState state = state();
+        if (state.vertexWrites.containsKey(id)) return state.vertexWrites.get(id);
+        return visible(this.vertices.get(id), state.startVersion);
+    }
+
+    /**
+     * Gets a copy of the vertex which is private to the transaction of the current thread and which may be modified
+     * in the properties of the key, which the commit validates against the changes of other transactions.
+     */
+    VertexRecord writeVertex(final Object id, final String key) {
+        final TransactionState state = state();
+        final VertexRecord record = readVertex(id);
+        if (null == record) throw TinkerElement.elementAlreadyRemoved(Vertex.class, id);
+        if (!state.vertexWrites.containsKey(id)) {
+            state.vertexWrites.put(id, record.copy());
+            state.vertexKeys.put(id, new HashSet<>());
+        }
+
+        final Set<String> keys = state.vertexKeys.get(id);
+        if (null != keys) keys.add(key);
+        return state.vertexWrites.get(id);
+    }
+
+    EdgeRecord readEdge(final Object id) {
+        final TransactionState state = state();
+        if (state.edgeWrites.containsKey(id)) return state.edgeWrites.get(id);
+        return visible(this.edges.get(id), state.startVersion);
+    }
+
+    EdgeRecord writeEdge(final Object id) {
+        final TransactionState state = state();
+        final EdgeRecord record = readEdge(id);
+        if (null == record) throw TinkerElement.elementAlreadyRemoved(Edge.class, id);
+        if (state.edgeWrites.containsKey(id)) return record;
+
+        final EdgeRecord copy = record.copy();
+        state.edgeWrites.put(id, copy);
+        return copy;
+    }
+
+    Edge addEdge(final Object outVertexId, final Vertex inVertex, final String label, final Object... keyValues) {
+        ElementHelper.validateLabel(label);
+        ElementHelper.legalPropertyKeyValueArray(keyValues);
+        final TransactionState state = state();
+        Object idValue = this.edgeIdManager.convert(ElementHelper.getIdValue(keyValues).orElse(null));
+        if (null != idValue) {
+            if (null != readEdge(idValue))
+                throw Exceptions.edgeWithIdAlreadyExists(idValue);
+        } else {
+            idValue = nextId(this.edgeIdManager);
+        }
+
+        final VertexRecord out = readVertex(outVertexId);
+        if (null == out) throw TinkerElement.elementAlreadyRemoved(Vertex.class, outVertexId);
+        final VertexRecord in = readVertex(inVertex.id());
+        if (null == in) throw TinkerElement.elementAlreadyRemoved(Vertex.class, inVertex.id());
+        final EdgeRecord record = new EdgeRecord(idValue, label, out.id, out.label, in.id, in.label);
+        state.edgeWrites.put(idValue, record);
+        state.addedOutEdges.computeIfAbsent(out.id, k -> new HashMap<>()).computeIfAbsent(label, k -> new HashSet<>()).add(idValue);
+        state.addedInEdges.computeIfAbsent(in.id, k -> new HashMap<>()).computeIfAbsent(label, k -> new HashSet<>()).add(idValue);
+
+        final Edge edge = new TinkerTransactionEdge(record, this);
+        ElementHelper.attachProperties(edge, keyValues);
+        return edge;
+    }
+
+    void removeVertex(final Object id) {
+        if (null == readVertex(id)) throw TinkerElement.elementAlreadyRemoved(Vertex.class, id);
+        for (final EdgeRecord edge : getEdges(id, Direction.BOTH)) {
+            // a self-loop is listed twice
+            if (null != readEdge(edge.id)) removeEdge(edge.id);
+        }
+        final TransactionState state = state();
+        state.vertexWrites.put(id, null);
+        state.vertexKeys.put(id, null);
+    }
+
+    void removeEdge(final Object id) {
+        if (null == readEdge(id)) throw TinkerElement.elementAlreadyRemoved(Edge.class, id);
+        state().edgeWrites.put(id, null);
+    }
+
+    /**
+     * Gets the edges of the vertex as seen by the transaction of the current thread, which are the committed edges
+     * of the snapshot followed by the edges the transaction added.
+     */
+    List<EdgeRecord> getEdges(final Object vertexId, final Direction direction, final String... labels) {
+        final TransactionState state = state();
+        if (null == readVertex(vertexId)) return Collections.emptyList();
+
+        final List<EdgeRecord> edges = new ArrayList<>();
+        if (direction != Direction.IN)
+            addEdges(edges, vertexId, Direction.OUT, this.outEdges.get(vertexId), state.addedOutEdges.get(vertexId), labels);
+        if (direction != Direction.OUT)
+            addEdges(edges, vertexId, Direction.IN, this.inEdges.get(vertexId), state.addedInEdges.get(vertexId), labels);
+        return edges;
+    }
+
+    private void addEdges(final List<EdgeRecord> edges, final Object vertexId, final Direction direction,
+                          final Map<String, Set<Object>> committed, final Map<String, Set<Object>> added,
+                          final String... labels) {
+        for (final String label : 0 == labels.length ? allLabels(committed, added) : Arrays.asList(labels)) {
+            final Set<Object> committedIds = null == committed ? null : committed.get(label);
+            if (null != committedIds) {
+                for (final Object edgeId : committedIds) {
+                    addEdge(edges, edgeId, vertexId, direction);
+                }
+            }
+            final Set<Object> addedIds = null == added ? null : added.get(label);
+            if (null != addedIds) {
+                for (final Object edgeId : addedIds) {
+                    // an edge that was removed and added again with the same id is listed by both
+                    if (null == committedIds || !committedIds.contains(edgeId))
+                        addEdge(edges, edgeId, vertexId, direction);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the edge if it is visible and still incident to the vertex, as its id may have been reused by an edge
+     * between other vertices.
+     */
+    private void addEdge(final List<EdgeRecord> edges, final Object edgeId, final Object vertexId, final Direction direction) {
+        final EdgeRecord edge = readEdge(edgeId);
+        if (null != edge && vertexId.equals(Direction.OUT == direction ? edge.outVertexId : edge.inVertexId))
+            edges.add(edge);
+    }
+
+    private static Set<String> allLabels(final Map<String, Set<Object>> committed, final Map<String, Set<Object>> added) {
+        final Set<String> labels = new HashSet<>();
+        if (null != committed) labels.addAll(committed.keySet());
+        if (null != added) labels.addAll(added.keySet());
+        return labels;
+    }
+
+    VertexProperty.Cardinality getCardinality() {
+        return this.defaultVertexPropertyCardinality;
+    }
+
+    Object getVertexPropertyId(final Object id) {
+        return null == id ? nextId(this.vertexPropertyIdManager) : this.vertexPropertyIdManager.convert(id);
+    }
+
+    /**
+     * Generates an identifier that is not used by any committed vertex or edge.
+     */
+    private Object nextId(final TinkerGraph.IdManager<?> idManager) {
+        if (idManager == TinkerGraph.DefaultIdManager.UUID) return UUID.randomUUID();
+        return Stream.generate(() -> idManager.convert(this.currentId.incrementAndGet()))
+                .filter(id -> !this.vertices.containsKey(id) && !this.edges.containsKey(id)).findAny().get();
+    }
+
+    private TransactionState state() {
+        this.transaction.readWrite();
+        return this.transaction.state.get();
+    }
+
+    private static <R> R visible(final Version<R> head, final long snapshot) {
+        Version<R> version = head;
+        while (null != version && version.version > snapshot) {
+            version = version.previous;
+        }
+        return null == version ? null : version.record;
+    }
+
+    /**
+     * Iterates the elements visible to the current transaction. The committed elements of the snapshot are resolved
+     * lazily against the changes of the transaction and are followed by the elements the transaction added before
+     * the iteration started.
+     */
+    private <T extends Element, R> Iterator<T> createElementIterator(final Class<T> clazz,
+                                                                      final Map<Object, Version<R>> elements,
+                                                                      final Map<Object, R> writes,
+                                                                      final TinkerGraph.IdManager<?> idManager,
+                                                                      final Function<Object, R> reader,
+                                                                      final Function<R, T> factory,
+                                                                      final Object... ids) {
+        if (0 == ids.length) {
+            final long snapshot = state().startVersion;
+            final List<Object> added = new ArrayList<>();
+            writes.forEach((id, record) -> {
+                if (null != record && null == visible(elements.get(id), snapshot)) added.add(id);
+            });
+            final Iterator<Object> committed = IteratorUtils.map(IteratorUtils.filter(elements.entrySet().iterator(),
+                    entry -> null != visible(entry.getValue(), snapshot)), Map.Entry::getKey);
+            return IteratorUtils.map(IteratorUtils.filter(IteratorUtils.map(IteratorUtils.concat(committed, added.iterator()), reader::apply),
+                    Objects::nonNull), factory::apply);
+        } else {
+            final List<Object> idList = Arrays.asList(ids);
+            validateHomogenousIds(idList);
+            return IteratorUtils.map(IteratorUtils.filter(IteratorUtils.map(idList.iterator(),
+                    id -> reader.apply(clazz.isAssignableFrom(id.getClass()) ? clazz.cast(id).id() : idManager.convert(id))), Objects::nonNull), factory::apply);
+        }
+    }
+
+    private void validateHomogenousIds(final List<Object> ids) {
+        final Iterator<Object> iterator = ids.iterator();
+        Object id = iterator.next();
+        if (id == null)
+            throw Graph.Exceptions.idArgsMustBeEitherIdOrElement();
+        final Class firstClass = id.getClass();
+        while (iterator.hasNext()) {
+            id = iterator.next();
+            if (id == null || !id.getClass().equals(firstClass))
+                throw Graph.Exceptions.idArgsMustBeEitherIdOrElement();
+        }
+    }
+
+    ////////////// VERSIONING ///////////////////
+
+    /**
+     * Takes a snapshot of the last committed version and registers it as open so that the versions it needs are not
+     * discarded. The registration is retried if a commit was published in the meantime as that commit may already
+     * have discarded versions of the snapshot.
+     */
+    private long openSnapshot() {
+        while (true) {
+            final long version = this.committedVersion;
+            this.openSnapshots.merge(version, 1, Integer::sum);
+            if (version == this.committedVersion) return version;
+            closeSnapshot(version);
+        }
+    }
+
+    private void closeSnapshot(final long version) {
+        this.openSnapshots.computeIfPresent(version, (k, count) -> count == 1 ? null : count - 1);
+    }
+
+    private void commit(final TransactionState state) {
+        try {
+            if (state.vertexWrites.isEmpty() && state.edgeWrites.isEmpty()) return;
+
+            synchronized (this.commitLock) {
+                validateVertices(state);
+                validateEdges(state);
+
+                final long version = this.committedVersion + 1;
+                installVertices(state, version);
+                installEdges(state, version);
+                this.committedVersion = version;
+            }
+        } finally {
+            closeSnapshot(state.startVersion);
+        }
+
+        final Map.Entry<Long, Integer> oldest = this.openSnapshots.firstEntry();
+        final long oldestVersion = null == oldest ? this.committedVersion : oldest.getKey();
+        prune(this.vertices, this.staleVertices, oldestVersion, this.staleVertices, null);
+        prune(this.edges, this.staleEdges, oldestVersion, this.staleEdges, this::removeAdjacent);
+        prune(this.vertices, state.vertexWrites.keySet(), oldestVersion, this.staleVertices, null);
+        prune(this.edges, state.edgeWrites.keySet(), oldestVersion, this.staleEdges, this::removeAdjacent);
+    }
+
+    private void rollback(final TransactionState state) {
+        closeSnapshot(state.startVersion);
+    }
+
+    /**
+     * Fails the commit if a vertex the transaction changed was added or removed after the snapshot or had the same
+     * property keys changed, or if a vertex the transaction removed gained edges after the snapshot.
+     */
+    private void validateVertices(final TransactionState state) {
+        for (final Map.Entry<Object, VertexRecord> write : state.vertexWrites.entrySet()) {
+            final Object id = write.getKey();
+            final Set<String> keys = state.vertexKeys.get(id);
+            for (Version<VertexRecord> version = this.vertices.get(id); null != version && version.version > state.startVersion; version = version.previous) {
+                if (null == keys || null == version.keys || !Collections.disjoint(keys, version.keys))
+                    throw conflict(Vertex.class, id);
+            }
+            if (null == write.getValue() && (hasNewerEdges(this.outEdges.get(id), state.startVersion) ||
+                    hasNewerEdges(this.inEdges.get(id), state.startVersion)))
+                throw conflict(Vertex.class, id);
+        }
+    }
+
+    /**
+     * Fails the commit if an edge the transaction changed was committed after the snapshot or if a vertex of an edge
+     * the transaction added was removed after the snapshot.
+     */
+    private void validateEdges(final TransactionState state) {
+        for (final Map.Entry<Object, EdgeRecord> write : state.edgeWrites.entrySet()) {
+            final Version<EdgeRecord> head = this.edges.get(write.getKey());
+            if (null != head && head.version > state.startVersion)
+                throw conflict(Edge.class, write.getKey());
+
+            final EdgeRecord record = write.getValue();
+            if (null != record && null == visible(head, state.startVersion)) {
+                requireVertex(state, record.outVertexId);
+                requireVertex(state, record.inVertexId);
+            }
+        }
+    }
+
+    private void requireVertex(final TransactionState state, final Object id) {
+        if (state.vertexWrites.containsKey(id)) return;
+        final Version<VertexRecord> head = this.vertices.get(id);
+        if (null == head || null == head.record)
+            throw conflict(Vertex.class, id);
+    }
+
+    private boolean hasNewerEdges(final Map<String, Set<Object>> adjacent, final long snapshot) {
+        if (null == adjacent) return false;
+        for (final Set<Object> edgeIds : adjacent.values()) {
+            for (final Object edgeId : edgeIds) {
+                final Version<EdgeRecord> head = this.edges.get(edgeId);
+                if (null != head && head.version > snapshot && null != head.record) return true;
+            }
+        }
+        return false;
+    }
+
+    private static TransactionException conflict(final Class<? extends Element> clazz, final Object id) {
+        return new TransactionException(String.format(
+                "%s with id %s was modified by a transaction that committed after this one started", clazz.getSimpleName(), id));
+    }
+
+    /**
+     * Installs the changed vertices, where the properties of other keys that were changed by transactions which
+     * committed after the snapshot are kept.
+     */
+    private void installVertices(final TransactionState state, final long version) {
+        state.vertexWrites.forEach((id, record) -> {
+            final Set<String> keys = state.vertexKeys.get(id);
+            this.vertices.compute(id, (k, head) -> {
+                if (null == keys || null == head || head.version <= state.startVersion)
+                    return new Version<>(version, record, keys, head);
+
+                final VertexRecord merged = head.record.copy();
+                for (final String key : keys) {
+                    final List<VertexPropertyRecord> properties = record.properties.get(key);
+                    if (null == properties) merged.properties.remove(key);
+                    else merged.properties.put(key, properties);
+                }
+                return new Version<>(version, merged, keys, head);
+            });
+        });
+    }
+
+    private void installEdges(final TransactionState state, final long version) {
+        state.edgeWrites.forEach((id, record) -> {
+            this.edges.compute(id, (k, head) -> new Version<>(version, record, null, head));
+            if (null != record) {
+                addAdjacent(this.outEdges, record.outVertexId, record.label, id);
+                addAdjacent(this.inEdges, record.inVertexId, record.label, id);
+            }
+        });
+    }
+
+    /**
+     * Adds the edge to the adjacency of the vertex. The change is made while holding the vertex entry so that a
+     * concurrent removal of the last edge of the label does not discard it.
+     */
+    private static void addAdjacent(final Map<Object, Map<String, Set<Object>>> adjacency, final Object vertexId,
+                                    final String label, final Object edgeId) {
+        adjacency.compute(vertexId, (k, labels) -> {
+            final Map<String, Set<Object>> map = null == labels ? new ConcurrentHashMap<>() : labels;
+            map.computeIfAbsent(label, l -> ConcurrentHashMap.newKeySet()).add(edgeId);
+            return map;
+        });
+    }
+
+    private void removeAdjacent(final Object edgeId, final EdgeRecord record) {
+        removeAdjacent(this.outEdges, record.outVertexId, record.label, edgeId);
+        removeAdjacent(this.inEdges, record.inVertexId, record.label, edgeId);
+    }
+
+    private static void removeAdjacent(final Map<Object, Map<String, Set<Object>>> adjacency, final Object vertexId,
+                                       final String label, final Object edgeId) {
+        adjacency.computeIfPresent(vertexId, (k, labels) -> {
+            labels.computeIfPresent(label, (l, edgeIds) -> {
+                edgeIds.remove(edgeId);
+                return edgeIds.isEmpty() ? null : edgeIds;
+            });
+            return labels.isEmpty() ? null : labels;
+        });
+    }
+
+    /**
+     * Discards the versions of the elements that are older than the newest version visible to the oldest open
+     * snapshot and removes elements whose removal is visible to all snapshots, which are passed to the callback with
+     * their last record if one is given. Elements which keep more than one version are remembered as stale so that
+     * they are pruned again on a later commit.
+     */
+    private static <R> void prune(final Map<Object, Version<R>> elements, final Set<Object> ids, final long oldestVersion,
+                                  final Set<Object> stale, final BiConsumer<Object, R> removed) {
+        for (final Object id : ids) {
+            final Version<R> head = elements.get(id);
+            Version<R> version = head;
+            while (null != version && version.version > oldestVersion) {
+                version = version.previous;
+            }
+            if (null != version) {
+                final Version<R> previous = version.previous;
+                version.previous = null;
+                if (version == head && null == head.record && elements.remove(id, head) &&
+                        null != removed && null != previous && null != previous.record)
+                    removed.accept(id, previous.record);
+            }
+
+            final Version<R> current = elements.get(id);
+            if (null != current && (null != current.previous || null == current.record))
+                stale.add(id);
+            else
+                stale.remove(id);
+        }
+    }
+
+    /**
+     * A committed version of an element where a {@code null} record marks the removal of the element.
+     */
+    static final class Version<R> {
+        final long version;
+        final R record;
+
+        /**
+         * The property keys of a vertex that the version changed or {@code null} if it added or removed the element.
+         */
+        final Set<String> keys;
+        volatile Version<R> previous;
+
+        Version(final long version, final R record, final Set<String> keys, final Version<R> previous) {
+            this.version = version;
+            this.record = record;
+            this.keys = keys;
+            this.previous = previous;
+        }
+    }
+
+    /**
+     * The state of a vertex. Once committed, a record is never modified again and transactions modify copies of it.
+     */
+    static final class VertexRecord {
+        final Object id;
+        final String label;
+        final Map<String, List<VertexPropertyRecord>> properties;
+
+        VertexRecord(final Object id, final String label) {
+            this(id, label, new HashMap<>());
+        }
+
+        private VertexRecord(final Object id, final String label, final Map<String, List<VertexPropertyRecord>> properties) {
+            this.id = id;
+            this.label = label;
+            this.properties = properties;
+        }
+
+        VertexPropertyRecord getProperty(final String key, final Object id) {
+            final List<VertexPropertyRecord> list = this.properties.get(key);
+            if (null != list) {
+                for (final VertexPropertyRecord property : list) {
+                    if (property.id.equals(id)) return property;
+                }
+            }
+            return null;
+        }
+
+        VertexRecord copy() {
+            final Map<String, List<VertexPropertyRecord>> properties = new HashMap<>(this.properties.size());
+            this.properties.forEach((key, list) -> {
+                final List<VertexPropertyRecord> copies = new ArrayList<>(list.size());
+                list.forEach(property -> copies.add(property.copy()));
+                properties.put(key, copies);
+            });
+            return new VertexRecord(this.id, this.label, properties);
+        }
+    }
+
+    static final class VertexPropertyRecord {
+        final Object id;
+        final String key;
+        final Object value;
+        final Map<String, Object> properties;
+
+        VertexPropertyRecord(final Object id, final String key, final Object value) {
+            this(id, key, value, new HashMap<>());
+        }
+
+        private VertexPropertyRecord(final Object id, final String key, final Object value, final Map<String, Object> properties) {
+            this.id = id;
+            this.key = key;
+            this.value = value;
+            this.properties = properties;
+        }
+
+        VertexPropertyRecord copy() {
+            return new VertexPropertyRecord(this.id, this.key, this.value, new HashMap<>(this.properties));
+        }
+    }
+
+    static final class EdgeRecord {
+        final Object id;
+        final String label;
+        final Object outVertexId;
+        final String outVertexLabel;
+        final Object inVertexId;
+        final String inVertexLabel;
+        final Map<String, Object> properties;
+
+        EdgeRecord(final Object id, final String label, final Object outVertexId, final String outVertexLabel,
+                   final Object inVertexId, final String inVertexLabel) {
+            this(id, label, outVertexId, outVertexLabel, inVertexId, inVertexLabel, new HashMap<>());
+        }
+
+        private EdgeRecord(final Object id, final String label, final Object outVertexId, final String outVertexLabel,
+                           final Object inVertexId, final String inVertexLabel, final Map<String, Object> properties) {
+            this.id = id;
+            this.label = label;
+            this.outVertexId = outVertexId;
+            this.outVertexLabel = outVertexLabel;
+            this.inVertexId = inVertexId;
+            this.inVertexLabel = inVertexLabel;
+            this.properties = properties;
+        }
+
+        EdgeRecord copy() {
+            return new EdgeRecord(this.id, this.label, this.outVertexId, this.outVertexLabel, this.inVertexId,
+                    this.inVertexLabel, new HashMap<>(this.properties));
+        }
+    }
+
+    /**
+     * The snapshot a transaction reads from and the elements it changed, where a {@code null} record marks a removal.
+     */
+    static final class TransactionState {
+        final long startVersion;
+        final Map<Object, VertexRecord> vertexWrites = new HashMap<>();
+
+        /**
+         * The property keys that the transaction changed of each written vertex or {@code null} if it added or
+         * removed the vertex.
+         */
+        final Map<Object, Set<String>> vertexKeys = new HashMap<>();
+        final Map<Object, EdgeRecord> edgeWrites = new HashMap<>();
+
+        /**
+         * The ids of the edges that the transaction added to each vertex by label.
+         */
+        final Map<Object, Map<String, Set<Object>>> addedOutEdges = new HashMap<>();
+        final Map<Object, Map<String, Set<Object>>> addedInEdges = new HashMap<>();
+
+        TransactionState(final long startVersion) {
+            this.startVersion = startVersion;
+        }
+    }
+
+    class TinkerTransaction extends AbstractThreadLocalTransaction {
+
+        protected final ThreadLocal<TransactionState> state = ThreadLocal.withInitial(() -> null);
+
+        public TinkerTransaction() {
+            super(TinkerTransactionGraph.this);
+        }
+
+        @Override
+        protected void doOpen() {
+            this.state.set(new TransactionState(openSnapshot()));
+        }
+
+        @Override
+        protected void doCommit() throws TransactionException {
+            try {
+                TinkerTransactionGraph.this.commit(this.state.get());
+            } finally {
+                this.state.remove();
+            }
+        }
+
+        @Override
+        protected void doRollback() throws TransactionException {
+            try {
+                TinkerTransactionGraph.this.rollback(this.state.get());
+            } finally {
+                this.state.remove();
+            }
+        }
+
+        @Override
+        public boolean isOpen() {
+            return this.state.get() != null;
+        }
+    }
+
+    public class TinkerTransactionGraphFeatures implements Features {
+
+        private final TinkerTransactionGraphGraphFeatures graphFeatures = new TinkerTransactionGraphGraphFeatures();
+        private final TinkerTransactionGraphEdgeFeatures edgeFeatures = new TinkerTransactionGraphEdgeFeatures();
+        private final TinkerTransactionGraphVertexFeatures vertexFeatures = new TinkerTransactionGraphVertexFeatures();
+
+        private TinkerTransactionGraphFeatures() {
+        }
+
+        @Override
+        public GraphFeatures graph() {
+            return graphFeatures;
+        }
+
+        @Override
+        public EdgeFeatures edge() {
+            return edgeFeatures;
+        }
+
+        @Override
+        public VertexFeatures vertex() {
+            return vertexFeatures;
+        }
+
+        @Override
+        public String toString() {
+            return StringFactory.featureString(this);
+        }
+    }
+
+    public class TinkerTransactionGraphGraphFeatures implements Features.GraphFeatures {
+
+        private final TinkerTransactionGraphVariableFeatures variableFeatures = new TinkerTransactionGraphVariableFeatures();
+
+        private TinkerTransactionGraphGraphFeatures() {
+        }
+
+        @Override
+        public boolean supportsComputer() {
+            return false;
+        }
+
+        @Override
+        public boolean supportsPersistence() {
+            return false;
+        }
+
+        @Override
+        public boolean supportsThreadedTransactions() {
+            return false;
+        }
+
+        @Override
+        public Features.VariableFeatures variables() {
+            return variableFeatures;
+        }
+    }
+
+    public class TinkerTransactionGraphVariableFeatures implements Features.VariableFeatures {
+
+        private TinkerTransactionGraphVariableFeatures() {
+        }
+
+        @Override
+        public boolean supportsVariables() {
+            return false;
+        }
+
+        @Override
+        public boolean supportsBooleanValues() {
+            return false;
+        }
+
+        @Override
+        public boolean supportsByteValues() {
+            return false;
+        }
+
+        @Override
+        public boolean supportsDoubleValues() {
+            return false;
+        }
+
+        @Override
+        public boolean supportsFloatValues() {
+            return false;
+        }
+
+        @Override
+        public boolean supportsIntegerValues() {
+            return false;
+        }
+
+        @Override
+        public boolean supportsLongValues() {
+            return false;
+        }
+
+        @Override
+        public boolean supportsMapValues() {
+            return false;
+        }
+
+        @Override
+        public boolean supportsMixedListValues() {
+            return false;
+        }
+
+        @Override
+        public boolean supportsBooleanArrayValues() {
+            return false;
+        }
+
+        @Override
+        public boolean supportsByteArrayValues() {
+            return false;
+        }
+
+        @Override
+        public boolean supportsDoubleArrayValues() {
+            return false;
+        }
+
+        @Override
+        public boolean supportsFloatArrayValues() {
+            return false;
+        }
+
+        @Override
+        public boolean supportsIntegerArrayValues() {
+            return false;
+        }
+
+        @Override
+        public boolean supportsStringArrayValues() {
+            return false;
+        }
+
+        @Override
+        public boolean supportsLongArrayValues() {
+            return false;
+        }
+
+        @Override
+        public boolean supportsSerializableValues() {
+            return false;
+        }
+
+        @Override
+        public boolean supportsStringValues() {
+            return false;
+        }
+
+        @Override
+        public boolean supportsUniformListValues() {
+            return false;
+        }
+    }
+
+    public class TinkerTransactionGraphVertexFeatures implements Features.VertexFeatures {
+
+        private final TinkerTransactionGraphVertexPropertyFeatures vertexPropertyFeatures = new TinkerTransactionGraphVertexPropertyFeatures();
+
+        private TinkerTransactionGraphVertexFeatures() {
+        }
+
+        @Override
+        public boolean supportsNullPropertyValues() {
+            return false;
+        }
+
+        @Override
+        public Features.VertexPropertyFeatures properties() {
+            return vertexPropertyFeatures;
+        }
+
+        @Override
+        public boolean supportsCustomIds() {
+            return false;
+        }
+
+        @Override
+        public boolean willAllowId(final Object id) {
+            return vertexIdManager.allow(id);
+        }
+
+        @Override
+        public VertexProperty.Cardinality getCardinality(final String key) {
+            return defaultVertexPropertyCardinality;
+        }
+    }
+
+    public class TinkerTransactionGraphEdgeFeatures implements Features.EdgeFeatures {
+
+        private TinkerTransactionGraphEdgeFeatures() {
+        }
+
+        @Override
+        public boolean supportsNullPropertyValues() {
+            return false;
+        }
+
+        @Override
+        public boolean supportsCustomIds() {
+            return false;
+        }
+
+        @Override
+        public boolean willAllowId(final Object id) {
+            return edgeIdManager.allow(id);
+        }
+    }
+
+    public class TinkerTransactionGraphVertexPropertyFeatures implements Features.VertexPropertyFeatures {
+
+        private TinkerTransactionGraphVertexPropertyFeatures() {
+        }
+
+        @Override
+        public boolean supportsNullPropertyValues() {
+            return false;
+        }
+
+        @Override
+        public boolean supportsCustomIds() {
+            return false;
+        }
+
+        @Override
+        public boolean willAllowId(final Object id) {
+            return vertexPropertyIdManager.allow(id);
+        }
+    }
+}
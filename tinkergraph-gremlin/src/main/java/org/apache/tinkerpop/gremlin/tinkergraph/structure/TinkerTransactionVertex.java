@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerTransactionGraph.EdgeRecord;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerTransactionGraph.VertexPropertyRecord;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerTransactionGraph.VertexRecord;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * A {@link Vertex} of a {@link TinkerTransactionGraph}. It only holds the identity of the vertex and reads its state
+ * from the transaction of the current thread.
+ */
+public final class TinkerTransactionVertex extends TinkerElement implements Vertex {
+
+    private final TinkerTransactionGraph graph;
+
+    TinkerTransactionVertex(final Object id, final String label, final TinkerTransactionGraph graph) {
+        super(id, label);
+        this.graph = graph;
+    }
+
+    @Override
+    public Graph graph() {
+        return this.graph;
+    }
+
+    @Override
+    public <V> VertexProperty<V> property(final String key) {
+        final VertexRecord record = this.graph.readVertex(this.id);
+        final List<VertexPropertyRecord> list = null == record ? null : record.properties.get(key);
+        if (null == list)
+            return VertexProperty.<V>empty();
+        else if (list.size() > 1)
+            throw Vertex.Exceptions.multiplePropertiesExistForProvidedKey(key);
+        else
+            return new TinkerTransactionVertexProperty<>(this, list.get(0));
+    }
+
+    @Override
+    public <V> VertexProperty<V> property(final VertexProperty.Cardinality cardinality, final String key, final V value, final Object... keyValues) {
+        if (null == this.graph.readVertex(this.id)) throw elementAlreadyRemoved(Vertex.class, this.id);
+        ElementHelper.legalPropertyKeyValueArray(keyValues);
+        ElementHelper.validateProperty(key, value);
+
+        // as null property values are not allowed the key can be removed but only if the cardinality is single. if
+        // it is list/set then we can just ignore the null.
+        if (null == value) {
+            final VertexProperty.Cardinality card = null == cardinality ? this.graph.getCardinality() : cardinality;
+            if (VertexProperty.Cardinality.single == card)
+                properties(key).forEachRemaining(VertexProperty::remove);
+            return VertexProperty.empty();
+        }
+
+        final Optional<Object> optionalId = ElementHelper.getIdValue(keyValues);
+        final Optional<VertexProperty<V>> optionalVertexProperty = ElementHelper.stageVertexProperty(this, cardinality, key, value, keyValues);
+        if (optionalVertexProperty.isPresent()) return optionalVertexProperty.get();
+
+        final VertexPropertyRecord record = new VertexPropertyRecord(this.graph.getVertexPropertyId(optionalId.orElse(null)), key, value);
+        this.graph.writeVertex(this.id, key).properties.computeIfAbsent(key, k -> new ArrayList<>()).add(record);
+        final VertexProperty<V> vertexProperty = new TinkerTransactionVertexProperty<>(this, record);
+        ElementHelper.attachProperties(vertexProperty, keyValues);
+        return vertexProperty;
+    }
+
+    @Override
+    public Set<String> keys() {
+        final VertexRecord record = this.graph.readVertex(this.id);
+        return null == record ? Collections.emptySet() : new HashSet<>(record.properties.keySet());
+    }
+
+    @Override
+    public Edge addEdge(final String label, final Vertex vertex, final Object... keyValues) {
+        if (null == vertex) throw Graph.Exceptions.argumentCanNotBeNull("vertex");
+        return this.graph.addEdge(this.id, vertex, label, keyValues);
+    }
+
+    @Override
+    public void remove() {
+        this.graph.removeVertex(this.id);
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.vertexString(this);
+    }
+
+    @Override
+    public Iterator<Edge> edges(final Direction direction, final String... edgeLabels) {
+        return IteratorUtils.map(getEdges(direction, edgeLabels).iterator(), record -> new TinkerTransactionEdge(record, this.graph));
+    }
+
+    @Override
+    public Iterator<Vertex> vertices(final Direction direction, final String... edgeLabels) {
+        final List<Vertex> vertices = new ArrayList<>();
+        if (direction != Direction.IN) {
+            getEdges(Direction.OUT, edgeLabels).forEach(record ->
+                    vertices.add(new TinkerTransactionVertex(record.inVertexId, record.inVertexLabel, this.graph)));
+        }
+        if (direction != Direction.OUT) {
+            getEdges(Direction.IN, edgeLabels).forEach(record ->
+                    vertices.add(new TinkerTransactionVertex(record.outVertexId, record.outVertexLabel, this.graph)));
+        }
+        return vertices.iterator();
+    }
+
+    @Override
+    public <V> Iterator<VertexProperty<V>> properties(final String... propertyKeys) {
+        final VertexRecord record = this.graph.readVertex(this.id);
+        if (null == record) return Collections.emptyIterator();
+
+        final List<VertexProperty<V>> properties = new ArrayList<>();
+        for (final Map.Entry<String, List<VertexPropertyRecord>> entry : record.properties.entrySet()) {
+            if (ElementHelper.keyExists(entry.getKey(), propertyKeys))
+                entry.getValue().forEach(property -> properties.add(new TinkerTransactionVertexProperty<>(this, property)));
+        }
+        return properties.iterator();
+    }
+
+    /**
+     * Copies the incident edges so that they may be removed while being iterated.
+     */
+    private List<EdgeRecord> getEdges(final Direction direction, final String... edgeLabels) {
+        return this.graph.getEdges(this.id, direction, edgeLabels);
+    }
+}
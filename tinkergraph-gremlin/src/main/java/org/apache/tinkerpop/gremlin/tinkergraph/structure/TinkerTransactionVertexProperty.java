@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Property;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerTransactionGraph.VertexPropertyRecord;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerTransactionGraph.VertexRecord;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A {@link VertexProperty} of a {@link TinkerTransactionGraph} which reads its meta-properties from the transaction
+ * of the current thread.
+ */
+public final class TinkerTransactionVertexProperty<V> extends TinkerElement implements VertexProperty<V> {
+
+    private final TinkerTransactionVertex vertex;
+    private final V value;
+
+    TinkerTransactionVertexProperty(final TinkerTransactionVertex vertex, final VertexPropertyRecord record) {
+        super(record.id, record.key);
+        this.vertex = vertex;
+        this.value = (V) record.value;
+    }
+
+    @Override
+    public String key() {
+        return this.label;
+    }
+
+    @Override
+    public V value() {
+        return this.value;
+    }
+
+    @Override
+    public boolean isPresent() {
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.propertyString(this);
+    }
+
+    @SuppressWarnings("EqualsWhichDoesntCheckParameterClass")
+    @Override
+    public boolean equals(final Object object) {
+        return ElementHelper.areEqual(this, object);
+    }
+
+    @Override
+    public Set<String> keys() {
+        final VertexPropertyRecord record = read();
+        return null == record ? Collections.emptySet() : new HashSet<>(record.properties.keySet());
+    }
+
+    @Override
+    public <U> Property<U> property(final String key) {
+        final VertexPropertyRecord record = read();
+        return null == record || !record.properties.containsKey(key) ?
+                Property.<U>empty() :
+                new TinkerTransactionProperty<>(this, key, (U) record.properties.get(key));
+    }
+
+    @Override
+    public <U> Property<U> property(final String key, final U value) {
+        if (null == read()) throw elementAlreadyRemoved(VertexProperty.class, this.id);
+        ElementHelper.validateProperty(key, value);
+
+        if (null == value) {
+            properties(key).forEachRemaining(Property::remove);
+            return Property.empty();
+        }
+
+        write().properties.put(key, value);
+        return new TinkerTransactionProperty<>(this, key, value);
+    }
+
+    @Override
+    public Vertex element() {
+        return this.vertex;
+    }
+
+    @Override
+    public void remove() {
+        if (null == read()) return;
+
+        final Map<String, List<VertexPropertyRecord>> properties = ((TinkerTransactionGraph) this.vertex.graph()).writeVertex(this.vertex.id(), this.label).properties;
+        final List<VertexPropertyRecord> list = properties.get(this.label);
+        list.removeIf(property -> property.id.equals(this.id));
+        if (list.isEmpty()) properties.remove(this.label);
+    }
+
+    @Override
+    public <U> Iterator<Property<U>> properties(final String... propertyKeys) {
+        final VertexPropertyRecord record = read();
+        if (null == record) return Collections.emptyIterator();
+
+        final List<Property<U>> properties = new ArrayList<>();
+        for (final Map.Entry<String, Object> entry : record.properties.entrySet()) {
+            if (ElementHelper.keyExists(entry.getKey(), propertyKeys))
+                properties.add(new TinkerTransactionProperty<>(this, entry.getKey(), (U) entry.getValue()));
+        }
+        return properties.iterator();
+    }
+
+    void removeProperty(final String key) {
+        if (null != read())
+            write().properties.remove(key);
+    }
+
+    private VertexPropertyRecord read() {
+        final VertexRecord record = ((TinkerTransactionGraph) this.vertex.graph()).readVertex(this.vertex.id());
+        return null == record ? null : record.getProperty(this.label, this.id);
+    }
+
+    private VertexPropertyRecord write() {
+        return ((TinkerTransactionGraph) this.vertex.graph()).writeVertex(this.vertex.id(), this.label).getProperty(this.label, this.id);
+    }
+}
@@ -29,28 +29,42 @@ import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
 public final class TinkerVertex extends TinkerElement implements Vertex {
 
-    protected Map<String, List<VertexProperty>> properties;
+    /**
+     * The slots of the properties hold a single {@link VertexProperty} or a {@code List} of them if the key has more
+     * than one property. If the graph stores properties off-heap, the slots are held in the record of
+     * {@link TinkerOffHeapStore} at the address {@code propertyRecord} instead, whose decoded vertex properties the
+     * store caches for recently read records.
+     */
+    protected TinkerPropertySchema propertySchema;
+    protected Object[] propertyValues = TinkerPropertySchema.NO_VALUES;
+    protected volatile long propertyRecord = TinkerOffHeapStore.NO_RECORD;
     protected Map<String, Set<Edge>> outEdges;
     protected Map<String, Set<Edge>> inEdges;
+
+    /**
+     * The edges of the labels with a vertex-centric index sorted by the indexed key, which are held apart from
+     * {@code outEdges} and {@code inEdges} by {@link TinkerVertexCentricIndex}.
+     */
+    protected Map<String, TinkerVertexCentricIndex.SortedEdges> outSortedEdges;
+    protected Map<String, TinkerVertexCentricIndex.SortedEdges> inSortedEdges;
     private final TinkerGraph graph;
     private boolean allowNullPropertyValues;
 
     protected TinkerVertex(final Object id, final String label, final TinkerGraph graph) {
         super(id, label);
         this.graph = graph;
+        this.propertySchema = graph.propertySchema;
         this.allowNullPropertyValues = graph.features().vertex().supportsNullPropertyValues();
     }
 
@@ -71,14 +85,14 @@ public final class TinkerVertex extends TinkerElement implements Vertex {
             else
                 throw Vertex.Exceptions.multiplePropertiesExistForProvidedKey(key);
         } else {
-            if (this.properties != null && this.properties.containsKey(key)) {
-                final List<VertexProperty> list = (List) this.properties.get(key);
-                if (list.size() > 1)
-                    throw Vertex.Exceptions.multiplePropertiesExistForProvidedKey(key);
-                else
-                    return list.get(0);
-            } else
+            final int slot = this.propertySchema.slot(key);
+            if (slot < 0)
                 return VertexProperty.<V>empty();
+            final Object value = readSlot(slot);
+            if (value instanceof List)
+                throw Vertex.Exceptions.multiplePropertiesExistForProvidedKey(key);
+            else
+                return (VertexProperty<V>) value;
         }
     }
 
@@ -112,22 +126,20 @@ public final class TinkerVertex extends TinkerElement implements Vertex {
 
             final VertexProperty<V> vertexProperty = new TinkerVertexProperty<V>(idValue, this, key, value);
 
-            if (null == this.properties) this.properties = new HashMap<>();
-            final List<VertexProperty> list = this.properties.getOrDefault(key, new ArrayList<>());
-            list.add(vertexProperty);
-            this.properties.put(key, list);
-            TinkerHelper.autoUpdateIndex(this, key, value, null);
+            // the meta-properties are attached before the vertex property is added so that it is written just once
             ElementHelper.attachProperties(vertexProperty, keyValues);
+            addProperty(key, vertexProperty);
+            TinkerHelper.autoUpdateIndex(this, key, value, null);
             return vertexProperty;
         }
     }
 
     @Override
     public Set<String> keys() {
-        if (null == this.properties) return Collections.emptySet();
+        if (0 == this.propertySchema.size()) return Collections.emptySet();
         return TinkerHelper.inComputerMode((TinkerGraph) graph()) ?
                 Vertex.super.keys() :
-                this.properties.keySet();
+                this.propertySchema.keys();
     }
 
     @Override
@@ -142,7 +154,7 @@ public final class TinkerVertex extends TinkerElement implements Vertex {
         final List<Edge> edges = new ArrayList<>();
         this.edges(Direction.BOTH).forEachRemaining(edges::add);
         edges.stream().filter(edge -> !((TinkerEdge) edge).removed).forEach(Edge::remove);
-        this.properties = null;
+        writeSlots(this.propertySchema.root(), TinkerPropertySchema.NO_VALUES);
         TinkerHelper.removeElementIndex(this);
         this.graph.vertices.remove(this.id);
         this.removed = true;
@@ -178,18 +190,162 @@ public final class TinkerVertex extends TinkerElement implements Vertex {
         if (TinkerHelper.inComputerMode((TinkerGraph) graph()))
             return (Iterator) ((TinkerGraph) graph()).graphComputerView.getProperties(TinkerVertex.this).stream().filter(p -> ElementHelper.keyExists(p.key(), propertyKeys)).iterator();
         else {
-            if (null == this.properties) return Collections.emptyIterator();
+            if (0 == this.propertySchema.size()) return Collections.emptyIterator();
             if (propertyKeys.length == 1) {
-                final List<VertexProperty> properties = this.properties.getOrDefault(propertyKeys[0], Collections.emptyList());
-                if (properties.size() == 1) {
-                    return IteratorUtils.of(properties.get(0));
-                } else if (properties.isEmpty()) {
+                final int slot = this.propertySchema.slot(propertyKeys[0]);
+                if (slot < 0)
                     return Collections.emptyIterator();
-                } else {
-                    return (Iterator) new ArrayList<>(properties).iterator();
-                }
-            } else
-                return (Iterator) this.properties.entrySet().stream().filter(entry -> ElementHelper.keyExists(entry.getKey(), propertyKeys)).flatMap(entry -> entry.getValue().stream()).collect(Collectors.toList()).iterator();
+                final Object value = readSlot(slot);
+                if (value instanceof List)
+                    return (Iterator) new ArrayList<>((List) value).iterator();
+                else
+                    return IteratorUtils.of((VertexProperty<V>) value);
+            } else {
+                return new TinkerPropertyIterator<VertexProperty<V>>(this.propertySchema, readSlots(), propertyKeys) {
+                    @Override
+                    VertexProperty<V> property(final String key, final Object value) {
+                        return (VertexProperty<V>) value;
+                    }
+
+                    @Override
+                    boolean isMultiProperty(final Object value) {
+                        return value instanceof List;
+                    }
+                };
+            }
+        }
+    }
+
+    /**
+     * Gets the properties of the key in the slot as a list.
+     */
+    <V> List<VertexProperty<V>> getProperties(final int slot) {
+        final Object value = readSlot(slot);
+        return value instanceof List ? (List) value : Collections.singletonList((VertexProperty<V>) value);
+    }
+
+    private void addProperty(final String key, final VertexProperty vertexProperty) {
+        final int slot = this.propertySchema.slot(key);
+        if (slot < 0) {
+            writeSlot(this.propertySchema.add(key), this.propertySchema.size(), vertexProperty);
+            return;
+        }
+
+        final Object value = readSlot(slot);
+        if (value instanceof List) {
+            ((List<VertexProperty>) value).add(vertexProperty);
+            writeSlot(this.propertySchema, slot, value);
+        } else {
+            final List<VertexProperty> list = new ArrayList<>(2);
+            list.add((VertexProperty) value);
+            list.add(vertexProperty);
+            writeSlot(this.propertySchema, slot, list);
+        }
+    }
+
+    /**
+     * Replaces the vertex property that has the id of the given one after its meta-properties changed, which is
+     * only needed when the properties are stored off-heap as the vertex then holds a copy of them.
+     */
+    void updateProperty(final TinkerVertexProperty vertexProperty) {
+        final int slot = this.propertySchema.slot(vertexProperty.key());
+        if (slot < 0) return;
+
+        final Object value = readSlot(slot);
+        if (value instanceof List) {
+            final List<VertexProperty> list = (List) value;
+            final int index = list.indexOf(vertexProperty);
+            if (index < 0) return;
+            list.set(index, vertexProperty);
+            writeSlot(this.propertySchema, slot, list);
+        } else if (value.equals(vertexProperty)) {
+            writeSlot(this.propertySchema, slot, vertexProperty);
+        }
+    }
+
+    /**
+     * Gets the vertex property that has the id of the given one or {@code null} if this vertex does not have it.
+     */
+    TinkerVertexProperty getProperty(final TinkerVertexProperty vertexProperty) {
+        final int slot = this.propertySchema.slot(vertexProperty.key());
+        if (slot < 0) return null;
+
+        for (final VertexProperty<?> property : getProperties(slot)) {
+            if (property.equals(vertexProperty)) return (TinkerVertexProperty) property;
+        }
+        return null;
+    }
+
+    /**
+     * Removes the vertex property from this vertex and returns {@code true} if this vertex has properties of its key.
+     */
+    boolean removeProperty(final VertexProperty vertexProperty) {
+        final int slot = this.propertySchema.slot(vertexProperty.key());
+        if (slot < 0) return false;
+
+        final Object value = readSlot(slot);
+        if (value instanceof List) {
+            final List<VertexProperty> list = (List) value;
+            list.remove(vertexProperty);
+            writeSlot(this.propertySchema, slot, list.size() == 1 ? list.get(0) : list);
+        } else if (value.equals(vertexProperty)) {
+            removeSlot(slot);
+        }
+        return true;
+    }
+
+    /**
+     * Gets the slots of the properties, which are a copy if they are read from off-heap.
+     */
+    Object[] readSlots() {
+        return null == this.graph.offHeapStore ?
+                this.propertyValues :
+                this.graph.offHeapStore.readVertexProperties(this);
+    }
+
+    private Object readSlot(final int slot) {
+        return null == this.graph.offHeapStore ?
+                this.propertyValues[slot] :
+                this.graph.offHeapStore.readVertexProperties(this, slot);
+    }
+
+    /**
+     * Replaces the given slot or, if it is the slot after the last one, adds it, which only encodes that slot if the
+     * properties are stored off-heap.
+     */
+    private void writeSlot(final TinkerPropertySchema schema, final int slot, final Object value) {
+        if (null == this.graph.offHeapStore) {
+            if (slot == this.propertyValues.length)
+                this.propertyValues = TinkerPropertySchema.add(this.propertyValues, value);
+            else
+                this.propertyValues[slot] = value;
+        } else {
+            final long record = this.propertyRecord;
+            this.propertyRecord = this.graph.offHeapStore.writeVertexProperties(record, slot, value);
+            this.graph.offHeapStore.free(record);
+        }
+        this.propertySchema = schema;
+    }
+
+    private void removeSlot(final int slot) {
+        if (null == this.graph.offHeapStore) {
+            this.propertyValues = TinkerPropertySchema.remove(this.propertyValues, slot);
+        } else {
+            final long record = this.propertyRecord;
+            this.propertyRecord = this.graph.offHeapStore.writeVertexProperties(record, slot, null);
+            this.graph.offHeapStore.free(record);
+        }
+        this.propertySchema = this.propertySchema.remove(slot);
+    }
+
+    private void writeSlots(final TinkerPropertySchema schema, final Object[] slots) {
+        if (null == this.graph.offHeapStore) {
+            this.propertyValues = slots;
+        } else {
+            final long record = this.propertyRecord;
+            this.propertyRecord = this.graph.offHeapStore.writeVertexProperties(slots);
+            this.graph.offHeapStore.free(record);
         }
+        this.propertySchema = schema;
     }
 }
@@ -0,0 +1,222 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.util.NumberHelper;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A vertex-centric index which keeps the edges of a vertex with an indexed label sorted by the value of a key of the
+ * edges alongside the adjacency of the vertex, so that range predicates on the key and the first edges in the order of
+ * the key are found without iterating all edges of the label. Only numeric values are sorted and the edges without a
+ * numeric value of the key are kept apart, as they are not ordered by the key and must always be tested.
+ */
+final class TinkerVertexCentricIndex {
+
+    /**
+     * The key by which the edges of each indexed label are sorted.
+     */
+    private final Map<String, String> keys = new ConcurrentHashMap<>();
+    private final TinkerGraph graph;
+
+    TinkerVertexCentricIndex(final TinkerGraph graph) {
+        this.graph = graph;
+    }
+
+    /**
+     * Gets the key by which the edges of the label are sorted or {@code null} if the label is not indexed.
+     */
+    String getKey(final String label) {
+        return this.keys.get(label);
+    }
+
+    /**
+     * Gets the edges of the label in the direction with a value of the key between the bounds in the order of their
+     * values, where a {@code null} bound is open.
+     */
+    static Iterator<Edge> getSortedEdges(final TinkerVertex vertex, final Direction direction, final String label,
+                                         final Number low, final Number high, final boolean descending) {
+        final SortedEdges sortedEdges = getSortedEdges(vertex, direction, label);
+        if (null == sortedEdges) return Collections.emptyIterator();
+
+        NavigableMap<Number, Set<Edge>> edges = sortedEdges.edges;
+        if (null != low && null != high) {
+            if (NumberHelper.compare(low, high) > 0) return Collections.emptyIterator();
+            edges = edges.subMap(low, true, high, true);
+        } else if (null != low) {
+            edges = edges.tailMap(low, true);
+        } else if (null != high) {
+            edges = edges.headMap(high, true);
+        }
+        if (descending) edges = edges.descendingMap();
+        return IteratorUtils.flatMap(edges.values().iterator(), Set::iterator);
+    }
+
+    /**
+     * Gets the edges of the label in the direction that have no numeric value of the key.
+     */
+    static Iterator<Edge> getUnsortedEdges(final TinkerVertex vertex, final Direction direction, final String label) {
+        final SortedEdges sortedEdges = getSortedEdges(vertex, direction, label);
+        return null == sortedEdges ? Collections.emptyIterator() : sortedEdges.unsorted.iterator();
+    }
+
+    void addEdge(final TinkerEdge edge) {
+        final String key = this.keys.get(edge.label());
+        if (null == key) return;
+
+        final Object value = edge.property(key).orElse(null);
+        sortedEdges((TinkerVertex) edge.outVertex, Direction.OUT, edge.label()).add(value, edge);
+        sortedEdges((TinkerVertex) edge.inVertex, Direction.IN, edge.label()).add(value, edge);
+    }
+
+    void removeEdge(final TinkerEdge edge) {
+        final String key = this.keys.get(edge.label());
+        if (null == key) return;
+
+        final Object value = edge.property(key).orElse(null);
+        final SortedEdges outEdges = getSortedEdges((TinkerVertex) edge.outVertex, Direction.OUT, edge.label());
+        if (null != outEdges) outEdges.remove(value, edge);
+        final SortedEdges inEdges = getSortedEdges((TinkerVertex) edge.inVertex, Direction.IN, edge.label());
+        if (null != inEdges) inEdges.remove(value, edge);
+    }
+
+    /**
+     * Moves the edge from its old value of the key to its new one if the edges of its label are sorted by the key.
+     * Edges are only sorted once they are added to their vertices, so changes while an edge is created are skipped.
+     */
+    void update(final TinkerEdge edge, final String key, final Object newValue, final Object oldValue) {
+        if (!key.equals(this.keys.get(edge.label()))) return;
+
+        final TinkerVertex outVertex = (TinkerVertex) edge.outVertex;
+        final Set<Edge> edges = null == outVertex.outEdges ? null : outVertex.outEdges.get(edge.label());
+        if (null == edges || !edges.contains(edge)) return;
+
+        final SortedEdges outEdges = sortedEdges(outVertex, Direction.OUT, edge.label());
+        outEdges.remove(oldValue, edge);
+        outEdges.add(newValue, edge);
+        final SortedEdges inEdges = sortedEdges((TinkerVertex) edge.inVertex, Direction.IN, edge.label());
+        inEdges.remove(oldValue, edge);
+        inEdges.add(newValue, edge);
+    }
+
+    void createKeyIndex(final String label, final String key) {
+        if (null == label)
+            throw Graph.Exceptions.argumentCanNotBeNull("label");
+        if (null == key)
+            throw Graph.Exceptions.argumentCanNotBeNull("key");
+        if (key.isEmpty())
+            throw new IllegalArgumentException("The key for the index cannot be an empty string");
+
+        if (key.equals(this.keys.get(label)))
+            return;
+        this.keys.put(label, key);
+
+        // each vertex only sorts its own edges so the vertices can be indexed in parallel
+        this.graph.vertices.values().parallelStream().forEach(v -> {
+            final TinkerVertex vertex = (TinkerVertex) v;
+            index(vertex, Direction.OUT, label, key, null == vertex.outEdges ? null : vertex.outEdges.get(label));
+            index(vertex, Direction.IN, label, key, null == vertex.inEdges ? null : vertex.inEdges.get(label));
+        });
+    }
+
+    void dropKeyIndex(final String label) {
+        if (null == this.keys.remove(label))
+            return;
+
+        this.graph.vertices.values().parallelStream().forEach(v -> {
+            final TinkerVertex vertex = (TinkerVertex) v;
+            if (null != vertex.outSortedEdges) vertex.outSortedEdges.remove(label);
+            if (null != vertex.inSortedEdges) vertex.inSortedEdges.remove(label);
+        });
+    }
+
+    Map<String, String> getIndexedKeys() {
+        return Collections.unmodifiableMap(this.keys);
+    }
+
+    private static void index(final TinkerVertex vertex, final Direction direction, final String label, final String key, final Set<Edge> edges) {
+        final Map<String, SortedEdges> sortedEdges = Direction.OUT == direction ? vertex.outSortedEdges : vertex.inSortedEdges;
+        if (null != sortedEdges) sortedEdges.remove(label);
+        if (null == edges || edges.isEmpty()) return;
+
+        final SortedEdges labelEdges = sortedEdges(vertex, direction, label);
+        for (final Edge edge : edges) {
+            labelEdges.add(edge.property(key).orElse(null), edge);
+        }
+    }
+
+    private static SortedEdges getSortedEdges(final TinkerVertex vertex, final Direction direction, final String label) {
+        final Map<String, SortedEdges> sortedEdges = Direction.OUT == direction ? vertex.outSortedEdges : vertex.inSortedEdges;
+        return null == sortedEdges ? null : sortedEdges.get(label);
+    }
+
+    private static SortedEdges sortedEdges(final TinkerVertex vertex, final Direction direction, final String label) {
+        if (Direction.OUT == direction) {
+            if (null == vertex.outSortedEdges) vertex.outSortedEdges = new HashMap<>();
+            return vertex.outSortedEdges.computeIfAbsent(label, l -> new SortedEdges());
+        } else {
+            if (null == vertex.inSortedEdges) vertex.inSortedEdges = new HashMap<>();
+            return vertex.inSortedEdges.computeIfAbsent(label, l -> new SortedEdges());
+        }
+    }
+
+    /**
+     * The edges of one label of a vertex in one direction.
+     */
+    static final class SortedEdges {
+        private final TreeMap<Number, Set<Edge>> edges = new TreeMap<>(NumberHelper::compare);
+        private final Set<Edge> unsorted = new HashSet<>();
+
+        private void add(final Object value, final Edge edge) {
+            if (isSortable(value))
+                this.edges.computeIfAbsent((Number) value, v -> new HashSet<>()).add(edge);
+            else
+                this.unsorted.add(edge);
+        }
+
+        private void remove(final Object value, final Edge edge) {
+            if (isSortable(value)) {
+                final Set<Edge> edges = this.edges.get(value);
+                if (null != edges) {
+                    edges.remove(edge);
+                    if (edges.isEmpty()) this.edges.remove(value);
+                }
+            } else {
+                this.unsorted.remove(edge);
+            }
+        }
+
+        private static boolean isSortable(final Object value) {
+            return value instanceof Number && !Double.isNaN(((Number) value).doubleValue());
+        }
+    }
+}
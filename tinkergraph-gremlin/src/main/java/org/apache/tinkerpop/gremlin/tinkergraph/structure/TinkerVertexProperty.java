@@ -28,19 +28,23 @@ import org.apache.tinkerpop.gremlin.tinkergraph.process.computer.TinkerGraphComp
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Iterator;
-import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.stream.Collectors;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
 public class TinkerVertexProperty<V> extends TinkerElement implements VertexProperty<V> {
 
-    protected Map<String, Property> properties;
+    /**
+     * The slots of the meta-properties hold the values of the properties rather than {@link Property} objects. If the
+     * graph stores properties off-heap, they are stored with the vertex and this object may be one that the vertex
+     * decoded from an older record, so changes are written back to the vertex and reads refresh from it. The values
+     * are never changed in place as the decoded objects are shared by the readers of a record.
+     */
+    protected TinkerPropertySchema propertySchema;
+    protected Object[] propertyValues = TinkerPropertySchema.NO_VALUES;
     private final TinkerVertex vertex;
     private final String key;
     private final V value;
@@ -68,6 +72,7 @@ public class TinkerVertexProperty<V> extends TinkerElement implements VertexProp
         this.vertex = vertex;
         this.key = key;
         this.value = value;
+        this.propertySchema = ((TinkerGraph) vertex.graph()).propertySchema;
         ElementHelper.legalPropertyKeyValueArray(propertyKeyValues);
         ElementHelper.attachProperties(this, propertyKeyValues);
     }
@@ -105,12 +110,15 @@ public class TinkerVertexProperty<V> extends TinkerElement implements VertexProp
 
     @Override
     public Set<String> keys() {
-        return null == this.properties ? Collections.emptySet() : this.properties.keySet();
+        refresh();
+        return this.propertySchema.keys();
     }
 
     @Override
     public <U> Property<U> property(final String key) {
-        return null == this.properties ? Property.<U>empty() : this.properties.getOrDefault(key, Property.<U>empty());
+        refresh();
+        final int slot = this.propertySchema.slot(key);
+        return slot < 0 ? Property.<U>empty() : new TinkerProperty<>(this, key, (U) this.propertyValues[slot]);
     }
 
     @Override
@@ -122,10 +130,28 @@ public class TinkerVertexProperty<V> extends TinkerElement implements VertexProp
             return Property.empty();
         }
 
-        final Property<U> property = new TinkerProperty<>(this, key, value);
-        if (this.properties == null) this.properties = new HashMap<>();
-        this.properties.put(key, property);
-        return property;
+        refresh();
+        final TinkerPropertySchema schema = this.propertySchema;
+        final Object[] values = this.propertyValues;
+        final int slot = schema.slot(key);
+        if (slot < 0) {
+            this.propertySchema = schema.add(key);
+            this.propertyValues = TinkerPropertySchema.add(values, value);
+        } else {
+            this.propertyValues = values.clone();
+            this.propertyValues[slot] = value;
+        }
+        if (isOffHeap()) {
+            try {
+                this.vertex.updateProperty(this);
+            } catch (RuntimeException ex) {
+                // the value could not be stored so the vertex property keeps what the vertex still holds
+                this.propertySchema = schema;
+                this.propertyValues = values;
+                throw ex;
+            }
+        }
+        return new TinkerProperty<>(this, key, value);
     }
 
     @Override
@@ -135,12 +161,7 @@ public class TinkerVertexProperty<V> extends TinkerElement implements VertexProp
 
     @Override
     public void remove() {
-        if (null != this.vertex.properties && this.vertex.properties.containsKey(this.key)) {
-            this.vertex.properties.get(this.key).remove(this);
-            if (this.vertex.properties.get(this.key).size() == 0) {
-                this.vertex.properties.remove(this.key);
-                TinkerHelper.removeIndex(this.vertex, this.key, this.value);
-            }
+        if (this.vertex.removeProperty(this)) {
             final AtomicBoolean delete = new AtomicBoolean(true);
             this.vertex.properties(this.key).forEachRemaining(property -> {
                 final Object currentPropertyValue = property.value();
@@ -148,18 +169,57 @@ public class TinkerVertexProperty<V> extends TinkerElement implements VertexProp
                     delete.set(false);
             });
             if (delete.get()) TinkerHelper.removeIndex(this.vertex, this.key, this.value);
-            this.properties = null;
+            this.propertySchema = this.propertySchema.root();
+            this.propertyValues = TinkerPropertySchema.NO_VALUES;
             this.removed = true;
         }
     }
 
     @Override
     public <U> Iterator<Property<U>> properties(final String... propertyKeys) {
-        if (null == this.properties) return Collections.emptyIterator();
+        refresh();
+        if (0 == this.propertySchema.size()) return Collections.emptyIterator();
         if (propertyKeys.length == 1) {
-            final Property<U> property = this.properties.get(propertyKeys[0]);
-            return null == property ? Collections.emptyIterator() : IteratorUtils.of(property);
-        } else
-            return (Iterator) this.properties.entrySet().stream().filter(entry -> ElementHelper.keyExists(entry.getKey(), propertyKeys)).map(entry -> entry.getValue()).collect(Collectors.toList()).iterator();
+            final int slot = this.propertySchema.slot(propertyKeys[0]);
+            return slot < 0 ? Collections.emptyIterator() : IteratorUtils.of(new TinkerProperty<>(this, propertyKeys[0], (U) this.propertyValues[slot]));
+        } else {
+            return new TinkerPropertyIterator<Property<U>>(this.propertySchema, this.propertyValues, propertyKeys) {
+                @Override
+                Property<U> property(final String key, final Object value) {
+                    return new TinkerProperty<>(TinkerVertexProperty.this, key, (U) value);
+                }
+            };
+        }
+    }
+
+    /**
+     * Removes the meta-property of the key if this vertex property has it.
+     */
+    void removeProperty(final String key) {
+        refresh();
+        final int slot = this.propertySchema.slot(key);
+        if (slot >= 0) {
+            this.propertySchema = this.propertySchema.remove(slot);
+            this.propertyValues = TinkerPropertySchema.remove(this.propertyValues, slot);
+            if (isOffHeap()) this.vertex.updateProperty(this);
+        }
+    }
+
+    private boolean isOffHeap() {
+        return null != ((TinkerGraph) this.vertex.graph()).offHeapStore;
+    }
+
+    /**
+     * Reloads the meta-properties from the vertex if properties are stored off-heap, as another copy of this vertex
+     * property may have changed them.
+     */
+    private void refresh() {
+        if (!this.removed && isOffHeap()) {
+            final TinkerVertexProperty<?> current = this.vertex.getProperty(this);
+            if (null != current) {
+                this.propertySchema = current.propertySchema;
+                this.propertyValues = current.propertyValues;
+            }
+        }
     }
 }
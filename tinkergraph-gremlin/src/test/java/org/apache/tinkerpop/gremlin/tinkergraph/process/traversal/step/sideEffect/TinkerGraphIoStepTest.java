@@ -21,13 +21,22 @@ package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.sideEffe
 import org.apache.tinkerpop.gremlin.TestHelper;
 import org.apache.tinkerpop.gremlin.process.traversal.IO;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
 import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.io.binary.GraphBinaryBulkReader;
+import org.apache.tinkerpop.gremlin.structure.io.binary.GraphBinaryBulkWriter;
 import org.apache.tinkerpop.gremlin.structure.io.util.CustomId;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerFactory;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.junit.Assert.assertEquals;
@@ -95,4 +104,75 @@ public class TinkerGraphIoStepTest {
 
         assertEquals(1, emptyG.V().has("custom", new CustomId("a", uuid)).count().next().intValue());
     }
+
+    @Test
+    public void shouldWriteReadGraphBinary() throws Exception {
+        final GraphTraversalSource crew = TinkerFactory.createTheCrew().traversal();
+        final File file = TestHelper.generateTempFile(TinkerGraphIoStepTest.class, "shouldWriteReadGraphBinary", ".gbin");
+        crew.io(file.getAbsolutePath()).write().iterate();
+
+        final GraphTraversalSource emptyG = emptyCrew().traversal();
+        emptyG.io(file.getAbsolutePath()).read().iterate();
+        assertSameCrew(crew, emptyG);
+    }
+
+    @Test
+    public void shouldWriteReadGraphBinaryInSmallBlocksInParallel() throws Exception {
+        final GraphTraversalSource crew = TinkerFactory.createTheCrew().traversal();
+        final File file = TestHelper.generateTempFile(TinkerGraphIoStepTest.class, "shouldWriteReadGraphBinaryInSmallBlocksInParallel", ".bin");
+        crew.io(file.getAbsolutePath()).with(IO.writer, GraphBinaryBulkWriter.build().blockSize(64).create()).write().iterate();
+
+        final GraphTraversalSource emptyG = emptyCrew().traversal();
+        emptyG.io(file.getAbsolutePath()).with(IO.reader, GraphBinaryBulkReader.build().workers(2).create()).read().iterate();
+        assertSameCrew(crew, emptyG);
+
+        final Graph sequentialGraph = emptyCrew();
+        sequentialGraph.traversal().io(file.getAbsolutePath()).with(IO.reader, IO.graphbinary).read().iterate();
+        assertSameCrew(crew, sequentialGraph.traversal());
+    }
+
+    @Test
+    public void shouldWriteReadGraphBinaryWithLongIds() throws Exception {
+        final List<Vertex> vertices = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            vertices.add(g.addV("node").property("index", i).next());
+        }
+        for (int i = 0; i < 100; i++) {
+            vertices.get(i).addEdge("link", vertices.get((i * 7 + 3) % 100), "weight", 0.5d);
+            vertices.get(i).addEdge("link", vertices.get((i * 13 + 1) % 100));
+        }
+
+        final File file = TestHelper.generateTempFile(TinkerGraphIoStepTest.class, "shouldWriteReadGraphBinaryWithLongIds", ".gbin");
+        g.io(file.getAbsolutePath()).with(IO.writer, GraphBinaryBulkWriter.build().blockSize(256).create()).write().iterate();
+
+        final GraphTraversalSource emptyG = TinkerGraph.open().traversal();
+        emptyG.io(file.getAbsolutePath()).read().iterate();
+        assertEquals(g.V().id().order().toList(), emptyG.V().id().order().toList());
+        assertEquals(g.E().id().order().toList(), emptyG.E().id().order().toList());
+        assertEquals(g.E().project("o", "i").by(__.outV().values("index")).by(__.inV().values("index")).toList(),
+                emptyG.E().project("o", "i").by(__.outV().values("index")).by(__.inV().values("index")).toList());
+        assertEquals(g.E().values("weight").sum().next(), emptyG.E().values("weight").sum().next());
+    }
+
+    private static TinkerGraph emptyCrew() {
+        final TinkerGraph graph = TinkerFactory.createTheCrew();
+        graph.clear();
+        return graph;
+    }
+
+    private static void assertSameCrew(final GraphTraversalSource expected, final GraphTraversalSource actual) {
+        assertEquals(expected.V().id().order().toList(), actual.V().id().order().toList());
+        assertEquals(expected.E().id().order().toList(), actual.E().id().order().toList());
+        assertEquals(expected.V().properties().id().order().toList(), actual.V().properties().id().order().toList());
+        for (final Object id : expected.V().id().toList()) {
+            assertEquals(expected.V(id).label().next(), actual.V(id).label().next());
+            assertEquals(expected.V(id).valueMap().next(), actual.V(id).valueMap().next());
+            final List<Map<String, Object>> meta = expected.V(id).properties().as("p").properties().as("m").select("p", "m").by(T.value).by(T.value).toList();
+            assertEquals(meta, actual.V(id).properties().as("p").properties().as("m").select("p", "m").by(T.value).by(T.value).toList());
+        }
+        for (final Object id : expected.E().id().toList()) {
+            assertEquals(expected.E(id).project("o", "i", "l", "p").by(__.outV().id()).by(__.inV().id()).by(T.label).by(__.valueMap()).next(),
+                    actual.E(id).project("o", "i", "l", "p").by(__.outV().id()).by(__.inV().id()).by(T.label).by(__.valueMap()).next());
+        }
+    }
 }
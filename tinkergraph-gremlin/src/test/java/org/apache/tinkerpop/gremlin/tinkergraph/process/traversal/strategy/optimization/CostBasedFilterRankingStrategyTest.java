@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.HasStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization.CostBasedFilterRankingStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerFactory;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.apache.tinkerpop.gremlin.process.traversal.P.gt;
+import static org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__.as;
+import static org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__.in;
+import static org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__.out;
+import static org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__.outE;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.StringContains.containsString;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Verifies that {@link CostBasedFilterRankingStrategy} does not change the results of a traversal when it reorders
+ * filters according to the statistics of a {@link TinkerGraph}.
+ */
+@RunWith(Parameterized.class)
+public class CostBasedFilterRankingStrategyTest {
+
+    private static final TinkerGraph MODERN = TinkerFactory.createModern();
+
+    @Parameterized.Parameter(value = 0)
+    public String name;
+
+    @Parameterized.Parameter(value = 1)
+    public Function<GraphTraversalSource, GraphTraversal<?, ?>> traversal;
+
+    @Test
+    public void shouldProduceSameResultsAsWithoutStrategy() {
+        final List<?> expected = traversal.apply(MODERN.traversal()).toList();
+        final List<?> actual = traversal.apply(MODERN.traversal().withStrategies(CostBasedFilterRankingStrategy.instance())).toList();
+        assertEquals(expected.size(), actual.size());
+        assertTrue(expected.containsAll(actual));
+        assertTrue(actual.containsAll(expected));
+    }
+
+    @Test
+    public void shouldOrderHasContainersBySelectivity() {
+        final GraphTraversal<Vertex, Vertex> t = MODERN.traversal().withStrategies(CostBasedFilterRankingStrategy.instance()).
+                V().out().hasLabel("software").has("name", "lop");
+        t.asAdmin().applyStrategies();
+        final HasStep<?> hasStep = TraversalHelper.getLastStepOfAssignableClass(HasStep.class, t.asAdmin()).get();
+        assertEquals(Arrays.asList("name", T.label.getAccessor()),
+                hasStep.getHasContainers().stream().map(HasContainer::getKey).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void shouldPrintSelectivityEstimatesInExplanation() {
+        final String explanation = MODERN.traversal().withStrategies(CostBasedFilterRankingStrategy.instance()).
+                V().out().hasLabel("software").has("name", "lop").explain().prettyPrint();
+        assertThat(explanation, containsString("Estimated Selectivity"));
+        assertThat(explanation, containsString("0.1667"));
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Iterable<Object[]> data() {
+        return Arrays.asList(new Object[][]{
+                {"V().out().hasLabel(software).has(name,lop)", (Function<GraphTraversalSource, GraphTraversal<?, ?>>) g -> g.V().out().hasLabel("software").has("name", "lop")},
+                {"V().has(age,gt(27)).has(name,josh)", (Function<GraphTraversalSource, GraphTraversal<?, ?>>) g -> g.V().has("age", gt(27)).has("name", "josh")},
+                {"V().where(out()).where(in())", (Function<GraphTraversalSource, GraphTraversal<?, ?>>) g -> g.V().where(out()).where(in())},
+                {"V().not(in()).where(outE(created))", (Function<GraphTraversalSource, GraphTraversal<?, ?>>) g -> g.V().not(in()).where(outE("created"))},
+                {"V().out().where(out()).has(lang)", (Function<GraphTraversalSource, GraphTraversal<?, ?>>) g -> g.V().out().where(out()).has("lang")},
+                {"V().match(a.out.b, a.out(created).c, b.has(name,josh))", (Function<GraphTraversalSource, GraphTraversal<?, ?>>) g -> g.V().match(
+                        as("a").out().as("b"),
+                        as("a").out("created").as("c"),
+                        as("b").has("name", "josh")).select("a", "b", "c")}});
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization;
+
+import org.apache.tinkerpop.gremlin.process.computer.traversal.step.map.ShortestPath;
+import org.apache.tinkerpop.gremlin.process.traversal.Path;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.map.TinkerShortestPathStep;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerFactory;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Verifies that the OLTP {@link TinkerShortestPathStep} finds the same paths as the OLAP
+ * {@link org.apache.tinkerpop.gremlin.process.computer.search.path.ShortestPathVertexProgram}.
+ */
+@RunWith(Parameterized.class)
+public class TinkerGraphShortestPathStrategyTest {
+
+    private static final TinkerGraph MODERN = TinkerFactory.createModern();
+    private static final TinkerGraph CREW = TinkerFactory.createTheCrew();
+    private static final TinkerGraph ZERO = createZeroDistanceGraph();
+
+    @Parameterized.Parameter(value = 0)
+    public String name;
+
+    @Parameterized.Parameter(value = 1)
+    public TinkerGraph graph;
+
+    @Parameterized.Parameter(value = 2)
+    public Function<GraphTraversalSource, GraphTraversal<Vertex, Path>> traversal;
+
+    @Test
+    public void shouldFindSameShortestPathsAsGraphComputer() {
+        final GraphTraversal<Vertex, Path> oltp = traversal.apply(graph.traversal());
+        oltp.asAdmin().applyStrategies();
+        assertTrue(TraversalHelper.hasStepOfClass(TinkerShortestPathStep.class, oltp.asAdmin()));
+
+        final GraphTraversal<Vertex, Path> olap = traversal.apply(graph.traversal().withComputer());
+        olap.asAdmin().applyStrategies();
+        assertFalse(TraversalHelper.hasStepOfClass(TinkerShortestPathStep.class, olap.asAdmin()));
+
+        final List<Path> expected = olap.toList();
+        final List<Path> actual = oltp.toList();
+        assertEquals(expected.size(), actual.size());
+        assertEquals(toObjectLists(expected), toObjectLists(actual));
+    }
+
+    /**
+     * Creates a graph in which b and c are equally distant from a, as they are connected by an edge of zero distance,
+     * so that there are two shortest paths from a to each of b, c and d.
+     */
+    private static TinkerGraph createZeroDistanceGraph() {
+        final TinkerGraph graph = TinkerGraph.open();
+        final Vertex a = graph.addVertex(T.id, 1, "name", "a");
+        final Vertex b = graph.addVertex(T.id, 2, "name", "b");
+        final Vertex c = graph.addVertex(T.id, 3, "name", "c");
+        final Vertex d = graph.addVertex(T.id, 4, "name", "d");
+        a.addEdge("link", b, "weight", 1);
+        a.addEdge("link", c, "weight", 1);
+        b.addEdge("link", c, "weight", 0);
+        c.addEdge("link", d, "weight", 1);
+        return graph;
+    }
+
+    private static Set<List<Object>> toObjectLists(final List<Path> paths) {
+        return paths.stream().map(Path::objects).collect(Collectors.toCollection(HashSet::new));
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Iterable<Object[]> generateTestParameters() {
+        return Arrays.asList(new Object[][]{
+                {"g.V().shortestPath()", MODERN, (Function<GraphTraversalSource, GraphTraversal<Vertex, Path>>) g ->
+                        g.V().shortestPath()},
+                {"g.V().shortestPath().with(includeEdges)", MODERN, (Function<GraphTraversalSource, GraphTraversal<Vertex, Path>>) g ->
+                        g.V().shortestPath().with(ShortestPath.includeEdges, true)},
+                {"g.V().shortestPath().with(edges,OUT)", MODERN, (Function<GraphTraversalSource, GraphTraversal<Vertex, Path>>) g ->
+                        g.V().shortestPath().with(ShortestPath.edges, Direction.OUT)},
+                {"g.V().shortestPath().with(edges,inE())", MODERN, (Function<GraphTraversalSource, GraphTraversal<Vertex, Path>>) g ->
+                        g.V().shortestPath().with(ShortestPath.edges, __.inE())},
+                {"g.V(marko).shortestPath().with(target,software)", MODERN, (Function<GraphTraversalSource, GraphTraversal<Vertex, Path>>) g ->
+                        g.V().has("name", "marko").shortestPath().with(ShortestPath.target, __.hasLabel("software"))},
+                {"g.V().shortestPath().with(target,hasId(6))", MODERN, (Function<GraphTraversalSource, GraphTraversal<Vertex, Path>>) g ->
+                        g.V().shortestPath().with(ShortestPath.target, __.hasId(6))},
+                {"g.V().shortestPath().with(maxDistance,1)", MODERN, (Function<GraphTraversalSource, GraphTraversal<Vertex, Path>>) g ->
+                        g.V().shortestPath().with(ShortestPath.maxDistance, 1)},
+                {"g.V(vadas).shortestPath().with(distance,weight).with(maxDistance,1.3)", MODERN, (Function<GraphTraversalSource, GraphTraversal<Vertex, Path>>) g ->
+                        g.V().has("name", "vadas").shortestPath().with(ShortestPath.distance, "weight").with(ShortestPath.maxDistance, 1.3)},
+                {"g.V(marko).shortestPath().with(distance,weight).with(target,josh)", MODERN, (Function<GraphTraversalSource, GraphTraversal<Vertex, Path>>) g ->
+                        g.V().has("name", "marko").shortestPath().with(ShortestPath.distance, "weight").with(ShortestPath.target, __.has("name", "josh"))},
+                {"g.V(daniel).shortestPath().with(edges,bothE(uses)).with(target,stephen)", CREW, (Function<GraphTraversalSource, GraphTraversal<Vertex, Path>>) g ->
+                        g.V().has("name", "daniel").shortestPath().with(ShortestPath.edges, __.bothE("uses")).with(ShortestPath.target, __.has("name", "stephen"))},
+                {"g.V().shortestPath().with(edges,bothE(uses)).with(includeEdges)", CREW, (Function<GraphTraversalSource, GraphTraversal<Vertex, Path>>) g ->
+                        g.V().shortestPath().with(ShortestPath.edges, __.bothE("uses")).with(ShortestPath.includeEdges, true)},
+                {"g.V(a).shortestPath().with(distance,weight)", ZERO, (Function<GraphTraversalSource, GraphTraversal<Vertex, Path>>) g ->
+                        g.V().has("name", "a").shortestPath().with(ShortestPath.distance, "weight")},
+                {"g.V(a).shortestPath().with(distance,weight).with(target,hasId(2))", ZERO, (Function<GraphTraversalSource, GraphTraversal<Vertex, Path>>) g ->
+                        g.V().has("name", "a").shortestPath().with(ShortestPath.distance, "weight").with(ShortestPath.target, __.hasId(2))},
+                {"g.V().shortestPath().with(distance,weight).with(includeEdges)", ZERO, (Function<GraphTraversalSource, GraphTraversal<Vertex, Path>>) g ->
+                        g.V().shortestPath().with(ShortestPath.distance, "weight").with(ShortestPath.includeEdges, true)},
+        });
+    }
+}
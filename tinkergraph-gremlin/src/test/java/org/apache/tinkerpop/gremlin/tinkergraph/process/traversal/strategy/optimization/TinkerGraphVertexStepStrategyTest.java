@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategies;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.HasStep;
+import org.apache.tinkerpop.gremlin.process.traversal.util.DefaultTraversalStrategies;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.map.TinkerVertexStep;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.apache.tinkerpop.gremlin.process.traversal.Order.desc;
+import static org.apache.tinkerpop.gremlin.process.traversal.P.between;
+import static org.apache.tinkerpop.gremlin.process.traversal.P.gt;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(Parameterized.class)
+public class TinkerGraphVertexStepStrategyTest {
+
+    @Parameterized.Parameter(value = 0)
+    public Traversal original;
+
+    /**
+     * The number of containers of the {@link TinkerVertexStep} or {@code -1} if the traversal must not change.
+     */
+    @Parameterized.Parameter(value = 1)
+    public int hasContainers;
+
+    @Parameterized.Parameter(value = 2)
+    public String orderKey;
+
+    @Parameterized.Parameter(value = 3)
+    public boolean descending;
+
+    @Parameterized.Parameter(value = 4)
+    public long limit;
+
+    @Test
+    public void doTest() {
+        final TraversalStrategies strategies = new DefaultTraversalStrategies();
+        strategies.addStrategies(TinkerGraphVertexStepStrategy.instance());
+        final String before = this.original.toString();
+        this.original.asAdmin().setStrategies(strategies);
+        this.original.asAdmin().applyStrategies();
+
+        final List<TinkerVertexStep> steps = TraversalHelper.getStepsOfAssignableClassRecursively(TinkerVertexStep.class, this.original.asAdmin());
+        if (this.hasContainers < 0) {
+            assertTrue(steps.isEmpty());
+            assertEquals(before, this.original.toString());
+        } else {
+            assertEquals(1, steps.size());
+            assertEquals(this.hasContainers, steps.get(0).getHasContainers().size());
+            assertEquals(this.orderKey, steps.get(0).getOrderKey());
+            assertEquals(this.descending, steps.get(0).isDescending());
+            assertEquals(this.limit, steps.get(0).getLimit());
+            assertFalse(TraversalHelper.hasStepOfAssignableClassRecursively(HasStep.class, this.original.asAdmin()));
+        }
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Iterable<Object[]> generateTestParameters() {
+        return Arrays.asList(new Object[][]{
+                {__.outE("transfer").has("amount", gt(1000)), 1, null, false, -1L},
+                {__.outE("transfer").has("amount", between(10, 20)).has("currency", "usd"), 3, null, false, -1L},
+                {__.bothE().has("amount", gt(1000)).as("a"), 1, null, false, -1L},
+                {__.outE("transfer").has("amount", gt(1000)).limit(10), 1, null, false, 10L},
+                {__.outE("transfer").range(5, 10), 0, null, false, 10L},
+                {__.outE("transfer").order().by("ts").limit(10), 0, "ts", false, 10L},
+                {__.inE("transfer").has("amount", gt(1000)).order().by("ts", desc).limit(10), 1, "ts", true, 10L},
+                {__.inE("transfer").has("amount", gt(1000)).order().by("ts").by("amount").limit(10), 1, null, false, -1L},
+                {__.local(__.outE("transfer").order().by("ts").limit(2)), 0, "ts", false, 2L},
+                //
+                {__.outE("transfer"), -1, null, false, -1L},
+                {__.outE("transfer").order().by("ts"), -1, null, false, -1L},
+                {__.outE("transfer").order().by(__.values("ts")).limit(2), -1, null, false, -1L},
+                {__.outE("transfer").range(5, -1), -1, null, false, -1L},
+                {__.out("transfer").has("name", "marko"), -1, null, false, -1L},
+        });
+    }
+}
@@ -32,9 +32,14 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 /**
  * @author Stephen Mallette (http://stephen.genoprime.com)
@@ -155,4 +160,67 @@ public class TinkerGraphIdManagerTest {
             assertEquals(vertexPropertyId, vp.id());
         }
     }
+
+    public static class PrimitiveIdStorageTest {
+
+        @Test
+        public void shouldStoreElementsWithLongIds() {
+            final Configuration conf = new BaseConfiguration();
+            conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_VERTEX_ID_MANAGER, TinkerGraph.DefaultIdManager.LONG.name());
+            conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_EDGE_ID_MANAGER, TinkerGraph.DefaultIdManager.LONG.name());
+            conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_PRIMITIVE_ID_STORAGE, true);
+            final TinkerGraph graph = TinkerGraph.open(conf);
+            assertTrue(graph.vertices instanceof TinkerLongIdMap);
+            assertTrue(graph.edges instanceof TinkerLongIdMap);
+
+            // enough vertices to rebuild the table a few times with removals along the way
+            for (int i = 0; i < 1000; i++) {
+                final Vertex v = graph.addVertex(T.id, i);
+                v.addEdge("self", v);
+                if (i % 3 == 0) v.remove();
+            }
+
+            assertEquals(666, graph.vertices.size());
+            assertEquals(666, graph.edges.size());
+            assertEquals(5L, graph.vertices(5).next().id());
+            assertEquals(5L, graph.vertices(5L).next().id());
+            assertFalse(graph.vertices(6).hasNext());
+            assertNull(graph.vertices.get("5"));
+
+            final Set<Object> ids = new HashSet<>();
+            graph.vertices().forEachRemaining(v -> ids.add(v.id()));
+            assertEquals(666, ids.size());
+            assertFalse(ids.contains(999L));
+            assertTrue(ids.contains(998L));
+
+            graph.clear();
+            assertFalse(graph.vertices().hasNext());
+            assertEquals(0L, graph.addVertex().id());
+        }
+
+        @Test
+        public void shouldStoreElementsWithIntegerIds() {
+            final Configuration conf = new BaseConfiguration();
+            conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_VERTEX_ID_MANAGER, TinkerGraph.DefaultIdManager.INTEGER.name());
+            conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_EDGE_ID_MANAGER, TinkerGraph.DefaultIdManager.INTEGER.name());
+            conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_PRIMITIVE_ID_STORAGE, true);
+            final TinkerGraph graph = TinkerGraph.open(conf);
+            final Vertex v = graph.addVertex(T.id, 100L);
+            final Edge e = v.addEdge("self", v, T.id, 200L);
+
+            assertEquals(100, v.id());
+            assertEquals(200, e.id());
+            assertEquals(v, graph.vertices(100).next());
+            assertEquals(e, graph.edges(200L).next());
+            assertEquals(100, graph.vertices.keySet().iterator().next());
+        }
+
+        @Test(expected = IllegalStateException.class)
+        public void shouldRequireNumericIdManagerForPrimitiveIdStorage() {
+            final Configuration conf = new BaseConfiguration();
+            conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_VERTEX_ID_MANAGER, TinkerGraph.DefaultIdManager.LONG.name());
+            conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_PRIMITIVE_ID_STORAGE, true);
+            TinkerGraph.open(conf);
+        }
+    }
 }
@@ -23,14 +23,20 @@ import org.apache.commons.configuration2.Configuration;
 import org.apache.tinkerpop.gremlin.GraphHelper;
 import org.apache.tinkerpop.gremlin.TestHelper;
 import org.apache.tinkerpop.gremlin.process.computer.Computer;
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
 import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Text;
+import org.apache.tinkerpop.gremlin.process.traversal.TextP;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.verification.ReservedKeysVerificationStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.util.Metrics;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalMetrics;
+import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Property;
 import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.VertexProperty;
@@ -47,6 +53,7 @@ import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoClassResolverV1d0;
 import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoMapper;
 import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoVersion;
 import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoWriter;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization.TinkerGraphVertexStepStrategy;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 import org.apache.tinkerpop.shaded.jackson.databind.ObjectMapper;
 import org.apache.tinkerpop.shaded.kryo.ClassResolver;
@@ -66,6 +73,7 @@ import java.io.FileOutputStream;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -73,7 +81,10 @@ import java.util.Map;
 import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -81,7 +92,10 @@ import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.core.StringContains.containsString;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.junit.Assume.assumeThat;
@@ -213,6 +227,643 @@ public class TinkerGraphTest {
         }, 35)).has("name", "stephen").count().next());
     }
 
+    @Test
+    public void shouldRemoveAVertexWithMultiPropertiesFromAnIndex() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createIndex("name", Vertex.class);
+        g.createIndex("age", Vertex.class);
+
+        final Vertex v = g.addVertex("name", "marko", "age", 29);
+        v.property(VertexProperty.Cardinality.list, "name", "marko a. rodriguez");
+        g.addVertex("name", "marko", "age", 29);
+        assertEquals(2L, TinkerHelper.countVertexIndex(g, "name", "marko"));
+        assertEquals(1L, TinkerHelper.countVertexIndex(g, "name", "marko a. rodriguez"));
+
+        v.property("age", 30);
+        assertEquals(1L, TinkerHelper.countVertexIndex(g, "age", 29));
+        assertEquals(1L, TinkerHelper.countVertexIndex(g, "age", 30));
+
+        v.remove();
+        assertEquals(1L, TinkerHelper.countVertexIndex(g, "name", "marko"));
+        assertEquals(0L, TinkerHelper.countVertexIndex(g, "name", "marko a. rodriguez"));
+        assertEquals(1L, TinkerHelper.countVertexIndex(g, "age", 29));
+        assertEquals(0L, TinkerHelper.countVertexIndex(g, "age", 30));
+    }
+
+    @Test
+    public void shouldRebuildIndices() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createIndex("name", Vertex.class);
+        g.createIndex("weight", Edge.class);
+
+        final Vertex marko = g.addVertex("name", "marko");
+        final Vertex stephen = g.addVertex("name", "stephen");
+        final Edge e = marko.addEdge("knows", stephen, "weight", 0.5d);
+
+        g.rebuildIndex(Vertex.class);
+        g.rebuildIndex(Edge.class);
+        assertEquals(new HashSet<>(Collections.singletonList("name")), g.getIndexedKeys(Vertex.class));
+        assertEquals(new HashSet<>(Collections.singletonList("weight")), g.getIndexedKeys(Edge.class));
+        assertEquals(1L, TinkerHelper.countVertexIndex(g, "name", "marko"));
+        assertEquals(1L, TinkerHelper.countEdgeIndex(g, "weight", 0.5d));
+
+        stephen.property("name", "stephen m");
+        e.property("weight", 1.0d);
+        assertEquals(0L, TinkerHelper.countVertexIndex(g, "name", "stephen"));
+        assertEquals(1L, TinkerHelper.countVertexIndex(g, "name", "stephen m"));
+        assertEquals(0L, TinkerHelper.countEdgeIndex(g, "weight", 0.5d));
+        assertEquals(1L, TinkerHelper.countEdgeIndex(g, "weight", 1.0d));
+
+        marko.remove();
+        assertEquals(0L, TinkerHelper.countVertexIndex(g, "name", "marko"));
+        assertEquals(0L, TinkerHelper.countEdgeIndex(g, "weight", 1.0d));
+    }
+
+    @Test
+    public void shouldRebuildIndicesWhileWritersChangeElements() throws Exception {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createIndex("name", Vertex.class);
+        final int size = 2000;
+        final List<Vertex> vertices = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            vertices.add(g.addVertex("name", "v" + i + "-0"));
+        }
+
+        // each writer renames its half of the vertices in rounds and removes every tenth vertex in the last round
+        final int rounds = 20;
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final List<Thread> writers = new ArrayList<>();
+        for (int w = 0; w < 2; w++) {
+            final int first = w;
+            writers.add(new Thread(() -> {
+                try {
+                    for (int r = 1; r <= rounds; r++) {
+                        for (int i = first; i < size; i = i + 2) {
+                            if (r == rounds && i % 10 == 0)
+                                vertices.get(i).remove();
+                            else
+                                vertices.get(i).property("name", "v" + i + "-" + r);
+                        }
+                    }
+                } catch (Throwable t) {
+                    failure.set(t);
+                }
+            }));
+        }
+        final Thread creator = new Thread(() -> g.createIndex("age", Vertex.class));
+
+        writers.forEach(Thread::start);
+        g.rebuildIndex(Vertex.class);
+        creator.start();
+        while (writers.stream().anyMatch(Thread::isAlive)) {
+            g.rebuildIndex(Vertex.class);
+        }
+        for (final Thread writer : writers) {
+            writer.join();
+        }
+        creator.join();
+        g.rebuildIndex(Vertex.class);
+
+        assertNull(failure.get());
+        assertEquals(new HashSet<>(Arrays.asList("name", "age")), g.getIndexedKeys(Vertex.class));
+        for (int i = 0; i < size; i++) {
+            assertEquals(0L, TinkerHelper.countVertexIndex(g, "name", "v" + i + "-" + (rounds - 1)));
+            assertEquals(i % 10 == 0 ? 0L : 1L, TinkerHelper.countVertexIndex(g, "name", "v" + i + "-" + rounds));
+        }
+    }
+
+    @Test
+    public void shouldUseTextIndex() {
+        final TinkerGraph g = TinkerGraph.open();
+        final Vertex marko = g.addVertex("name", "marko");
+        g.addVertex("name", "markus");
+        g.addVertex("name", "peter mark");
+        g.addVertex("name", "josh", "age", 32);
+        g.createTextIndex("name", Vertex.class);
+        assertEquals(Collections.singleton("name"), g.getTextIndexedKeys(Vertex.class));
+
+        // the candidates hold all elements with the trigrams of the string and the predicate removes the others
+        assertEquals(2, TinkerHelper.queryVertexTextIndex(g, "name", Text.startingWith, "mar").size());
+        assertEquals(1, TinkerHelper.queryVertexTextIndex(g, "name", Text.endingWith, "ark").size());
+        assertEquals(0, TinkerHelper.queryVertexTextIndex(g, "name", Text.containing, "xyz").size());
+        assertNull(TinkerHelper.queryVertexTextIndex(g, "name", Text.containing, "ar"));
+        assertNull(TinkerHelper.queryVertexTextIndex(g, "age", Text.containing, "mar"));
+
+        final GraphTraversalSource t = g.traversal();
+        assertEquals(3L, t.V().has("name", TextP.containing("ark")).count().next().longValue());
+        assertEquals(3L, t.V().has("name", TextP.containing("ar")).count().next().longValue());
+        assertEquals(2L, t.V().has("name", TextP.startingWith("mar")).count().next().longValue());
+        assertEquals(1L, t.V().has("name", TextP.endingWith("ark")).count().next().longValue());
+        assertEquals(1L, t.V().has("name", TextP.startingWith("ma")).has("name", TextP.endingWith("us")).count().next().longValue());
+
+        marko.property("name", "marko a. rodriguez");
+        assertEquals(0L, t.V().has("name", TextP.endingWith("rko")).count().next().longValue());
+        assertEquals(1L, t.V().has("name", TextP.endingWith("guez")).count().next().longValue());
+        marko.property(VertexProperty.Cardinality.list, "name", "okram");
+        marko.properties("name").forEachRemaining(p -> {
+            if (p.value().equals("marko a. rodriguez")) p.remove();
+        });
+        assertEquals(0L, t.V().has("name", TextP.containing("rodriguez")).count().next().longValue());
+        assertEquals(1L, t.V().has("name", TextP.startingWith("okr")).count().next().longValue());
+
+        marko.remove();
+        assertEquals(0, TinkerHelper.queryVertexTextIndex(g, "name", Text.startingWith, "okr").size());
+
+        g.dropTextIndex("name", Vertex.class);
+        assertNull(TinkerHelper.queryVertexTextIndex(g, "name", Text.startingWith, "mar"));
+        assertEquals(1L, t.V().has("name", TextP.startingWith("mar")).count().next().longValue());
+    }
+
+    @Test
+    public void shouldUseSpatialIndex() {
+        final TinkerGraph g = TinkerGraph.open();
+        final Random random = new Random(1234567890L);
+        for (int i = 0; i < 2000; i++) {
+            g.addVertex("lat", random.nextDouble() * 180d - 90d, "lon", random.nextDouble() * 360d - 180d);
+        }
+        final Vertex multi = g.addVertex("lat", 10.5d, "lon", 20.5d);
+        multi.property(VertexProperty.Cardinality.list, "lat", 11.5d);
+        g.addVertex("lat", 12.5d);
+        g.createSpatialIndex("lat", "lon", Vertex.class);
+        assertEquals(Collections.singleton(Arrays.asList("lat", "lon")), g.getSpatialIndexedKeys(Vertex.class));
+
+        final GraphTraversalSource t = g.traversal();
+        for (int i = 0; i < 50; i++) {
+            final double lat = random.nextDouble() * 180d - 90d;
+            final double lon = random.nextDouble() * 360d - 180d;
+            final double size = random.nextDouble() * 20d;
+            final long expected = IteratorUtils.count(IteratorUtils.filter(g.vertices(), v ->
+                    IteratorUtils.count(IteratorUtils.filter(v.properties("lat"), p -> (double) p.value() >= lat && (double) p.value() < lat + size)) > 0 &&
+                    IteratorUtils.count(IteratorUtils.filter(v.properties("lon"), p -> (double) p.value() >= lon && (double) p.value() < lon + size)) > 0));
+            assertEquals(expected, t.V().has("lat", P.between(lat, lat + size)).has("lon", P.between(lon, lon + size)).count().next().longValue());
+
+            // the candidates must hold all matches but far fewer elements than the graph
+            final List<TinkerVertex> candidates = TinkerHelper.queryVertexSpatialIndex(g, "lat", lat, lat + size, "lon", lon, lon + size);
+            assertThat(candidates.size(), greaterThan((int) expected - 1));
+            assertThat(1000, greaterThan(candidates.size()));
+        }
+
+        // the vertex with two latitudes cannot be placed so it is always a candidate
+        assertEquals(1L, t.V().has("lat", P.gte(11d)).has("lat", P.lte(12d)).has("lon", P.inside(20d, 21d)).count().next().longValue());
+        assertEquals(1L, t.V().has("lat", 12.5d).count().next().longValue());
+
+        multi.properties("lat").forEachRemaining(p -> {
+            if (p.value().equals(11.5d)) p.remove();
+        });
+        multi.property("lon", -20.5d);
+        assertEquals(0L, t.V().has("lat", P.inside(10d, 11d)).has("lon", P.inside(20d, 21d)).count().next().longValue());
+        assertEquals(1L, t.V().has("lat", P.inside(10d, 11d)).has("lon", P.inside(-21d, -20d)).count().next().longValue());
+        assertEquals(1, TinkerHelper.queryVertexSpatialIndex(g, "lat", 10.5d, 10.5d, "lon", -20.5d, -20.5d).size());
+
+        multi.remove();
+        assertEquals(0, TinkerHelper.queryVertexSpatialIndex(g, "lat", 10.5d, 10.5d, "lon", -20.5d, -20.5d).size());
+
+        g.dropSpatialIndex("lat", "lon", Vertex.class);
+        assertNull(TinkerHelper.queryVertexSpatialIndex(g, "lat", 10.5d, 10.5d, "lon", -20.5d, -20.5d));
+    }
+
+    @Test
+    public void shouldUseVertexCentricIndex() {
+        final TinkerGraph g = TinkerGraph.open();
+        final Random random = new Random(1234567890L);
+        final Vertex hub = g.addVertex("name", "hub");
+        final Vertex other = g.addVertex("name", "other");
+        final List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            values.add(i);
+        }
+        Collections.shuffle(values, random);
+        for (final int value : values) {
+            hub.addEdge("transfer", g.addVertex(), "ts", (long) value, "amount", value % 7);
+            if (value % 10 == 0) g.addVertex().addEdge("transfer", hub, "ts", value + 0.5d);
+            if (value % 100 == 0) other.addEdge("transfer", hub, "ts", value);
+        }
+        hub.addEdge("transfer", other, "amount", 3);
+        hub.addEdge("knows", other, "ts", 5L);
+        g.createVertexCentricIndex("transfer", "ts");
+        assertEquals(Collections.singletonMap("transfer", "ts"), g.getVertexCentricIndexedKeys());
+
+        final GraphTraversalSource indexed = g.traversal();
+        final GraphTraversalSource scanned = g.traversal().withoutStrategies(TinkerGraphVertexStepStrategy.class);
+        final List<Function<GraphTraversalSource, GraphTraversal<?, ?>>> traversals = Arrays.asList(
+                t -> t.V(hub).outE("transfer").has("ts", P.between(100, 120)).values("ts").order().by(Order.asc),
+                t -> t.V(hub).outE("transfer", "knows").has("ts", P.lte(5)).has("amount", P.gt(2)).values("ts").order().by(Order.asc),
+                t -> t.V(hub).bothE("transfer").has("ts", P.gt(1990)).values("ts").order().by(Order.asc),
+                t -> t.V(hub).inE("transfer").has("ts", P.eq(210.5d)).values("ts"),
+                t -> t.V(hub).outE("transfer").order().by("ts").limit(10).values("ts"),
+                t -> t.V(hub).outE("transfer").has("amount", 3).order().by("ts", Order.desc).limit(10).values("ts"),
+                t -> t.V(hub).bothE("transfer").order().by("ts", Order.desc).range(3, 8).values("ts"),
+                t -> t.V(hub, other).inE("transfer").order().by("ts").limit(5).values("ts"),
+                t -> t.V(hub).outE("transfer").has("ts", P.lt(1000)).limit(10).count());
+        for (final Function<GraphTraversalSource, GraphTraversal<?, ?>> traversal : traversals) {
+            assertEquals(traversal.apply(scanned).toList(), traversal.apply(indexed).toList());
+        }
+
+        // only the edges in the range are iterated
+        assertEquals(21, IteratorUtils.count(TinkerHelper.queryVertexCentricIndex((TinkerVertex) hub, Direction.OUT, "transfer", 100, 120, false)));
+        assertEquals(1, IteratorUtils.count(TinkerHelper.queryVertexCentricIndexUnsorted((TinkerVertex) hub, Direction.OUT, "transfer")));
+
+        final Edge edge = indexed.V(hub).outE("transfer").has("ts", 500L).next();
+        edge.property("ts", -1L);
+        assertEquals(edge, indexed.V(hub).outE("transfer").has("ts").order().by("ts").limit(1).next());
+        edge.property("ts").remove();
+        assertEquals(2, IteratorUtils.count(TinkerHelper.queryVertexCentricIndexUnsorted((TinkerVertex) hub, Direction.OUT, "transfer")));
+        edge.property("ts", 3000L);
+        assertEquals(edge, indexed.V(hub).outE("transfer").order().by("ts", Order.desc).limit(1).next());
+        edge.remove();
+        assertEquals(0L, indexed.V(hub).outE("transfer").has("ts", P.gt(2500)).count().next().longValue());
+        final Edge added = hub.addEdge("transfer", other, "ts", 2600L);
+        assertEquals(added, indexed.V(hub).outE("transfer").has("ts", P.gt(2500)).next());
+
+        g.dropVertexCentricIndex("transfer");
+        assertEquals(0, IteratorUtils.count(TinkerHelper.queryVertexCentricIndex((TinkerVertex) hub, Direction.OUT, "transfer", null, null, false)));
+        assertEquals(1L, indexed.V(hub).outE("transfer").has("ts", P.gt(2500)).count().next().longValue());
+    }
+
+    @Test
+    public void shouldMutateEdgesFoundByVertexCentricIndex() {
+        final TinkerGraph g = TinkerGraph.open();
+        final Vertex a = g.addVertex("name", "a");
+        for (int i = 0; i < 50; i++) {
+            a.addEdge("transfer", g.addVertex(), "amount", i * 100);
+        }
+        a.addEdge("transfer", g.addVertex(), "name", "unknown");
+        g.createVertexCentricIndex("transfer", "amount");
+        final GraphTraversalSource t = g.traversal();
+
+        assertEquals(39L, t.V(a).outE("transfer").has("amount", P.gt(1000)).property("amount", 100000).count().next().longValue());
+        assertEquals(39L, t.V(a).outE("transfer").has("amount", 100000).count().next().longValue());
+        assertEquals(1L, t.V(a).outE("transfer").has("amount", P.gt(0)).order().by("amount").limit(1).property("amount", -1).count().next().longValue());
+        assertEquals(Arrays.asList(-1, 0), t.V(a).outE("transfer").has("amount", P.lt(100)).values("amount").order().toList());
+
+        t.V(a).outE("transfer").has("amount", P.gt(1000)).drop().iterate();
+        assertEquals(0L, t.V(a).outE("transfer").has("amount", P.gt(1000)).count().next().longValue());
+        assertEquals(12L, t.V(a).outE("transfer").count().next().longValue());
+        t.V(a).outE("transfer").has("amount", P.lte(1000)).drop().iterate();
+        assertEquals(Collections.singletonList("unknown"), t.V(a).outE("transfer").values("name").toList());
+    }
+
+    @Test
+    public void shouldUseLabelIndex() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.addVertex(T.label, "person", "name", "marko", "age", 29);
+        final Vertex stephen = g.addVertex(T.label, "person", "name", "stephen", "age", 35);
+        final Vertex lop = g.addVertex(T.label, "software", "name", "lop");
+        g.addVertex(T.label, "software", "name", "ripple");
+        stephen.addEdge("created", lop);
+
+        // only vertices with the label should reach the predicate when the label index is used
+        assertEquals(2, g.traversal().V().hasLabel("person").has("name", P.test((t, u) -> {
+            assertTrue(t.equals("marko") || t.equals("stephen"));
+            return true;
+        }, "x")).count().next().intValue());
+        assertEquals(3, g.traversal().V().hasLabel("person", "software").has("name", P.neq("lop")).count().next().intValue());
+        assertEquals(4, g.traversal().V().hasLabel(P.neq("x")).count().next().intValue());
+        assertEquals(1, g.traversal().E().hasLabel("created").count().next().intValue());
+
+        // the smaller of the label index and a property index is used
+        g.createIndex("name", Vertex.class);
+        assertEquals(1, g.traversal().V().hasLabel("person").has("name", "stephen").has("age", P.test((t, u) -> {
+            assertEquals(35, t);
+            return true;
+        }, 35)).count().next().intValue());
+
+        stephen.remove();
+        assertEquals(1, g.traversal().V().hasLabel("person").count().next().intValue());
+        assertEquals(1, IteratorUtils.count(g.traversal().V().hasLabel("person").toList()));
+        assertEquals(0, g.traversal().E().hasLabel("created").count().next().intValue());
+        assertEquals(0, g.traversal().E().hasLabel("created").toList().size());
+
+        g.clear();
+        assertEquals(0, g.traversal().V().hasLabel("software").count().next().intValue());
+        assertEquals(0, g.traversal().V().hasLabel("software").toList().size());
+    }
+
+    @Test
+    public void shouldAddVerticesWithLabelIndexWhileTraversing() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.addVertex(T.label, "person");
+        g.addVertex(T.label, "person");
+
+        // the index is copied before the traversal iterates so the added vertices are not traversed
+        assertEquals(2, g.traversal().V().hasLabel("person").addV("person").toList().size());
+        assertEquals(4, g.traversal().V().hasLabel("person").count().next().intValue());
+    }
+
+    @Test
+    public void shouldProvideStatistics() throws Exception {
+        final TinkerGraph graph = TinkerFactory.createModern();
+        final Graph.Statistics statistics = graph.statistics();
+        assertEquals(6, statistics.count(Vertex.class));
+        assertEquals(4, statistics.count(Vertex.class, "person"));
+        assertEquals(2, statistics.count(Vertex.class, "software"));
+        assertEquals(6, statistics.count(Edge.class));
+        assertEquals(2, statistics.count(Edge.class, "knows"));
+        assertEquals(4, statistics.propertyCount(Vertex.class, "age"));
+        assertEquals(6, statistics.distinctValueCount(Vertex.class, "name"));
+        assertEquals(1, statistics.distinctValueCount(Vertex.class, "lang"));
+        assertEquals(3, statistics.degreeHistogram(Direction.OUT).get(0L).longValue());
+        assertEquals(1.0d, statistics.averageDegree(Direction.IN), 0.0001d);
+
+        // counts are always exact while small changes to properties are served from the last snapshot
+        graph.addVertex(T.label, "person", "name", "daniel");
+        assertEquals(7, graph.statistics().count(Vertex.class));
+        assertEquals(5, graph.statistics().count(Vertex.class, "person"));
+        assertEquals(6, graph.statistics().distinctValueCount(Vertex.class, "name"));
+
+        // larger changes refresh the snapshot in the background
+        graph.addVertex(T.label, "person", "name", "stephen");
+        ((TinkerGraphStatistics) graph.statistics()).refresh().get();
+        assertEquals(8, graph.statistics().distinctValueCount(Vertex.class, "name"));
+        assertEquals(8, graph.statistics().propertyCount(Vertex.class, "name"));
+
+        graph.clear();
+        assertEquals(0, graph.statistics().count(Vertex.class));
+        assertEquals(0, graph.statistics().propertyCount(Vertex.class, "name"));
+    }
+
+    @Test
+    public void shouldSampleStatisticsOfLargeGraph() throws Exception {
+        final TinkerGraph graph = TinkerGraph.open();
+        final int vertices = TinkerGraphStatistics.SAMPLE_SIZE * 3;
+        for (int i = 0; i < vertices; i++) {
+            final Vertex v = graph.addVertex("uid", i, "kind", i % 2);
+            if (i >= vertices - TinkerGraphStatistics.SAMPLE_SIZE) v.property("late", i);
+        }
+
+        // the first snapshot is estimated from a sample while all vertices are counted in the background
+        final TinkerGraphStatistics statistics = (TinkerGraphStatistics) graph.statistics();
+        assertEquals(vertices, statistics.count(Vertex.class));
+        assertEquals(vertices, statistics.propertyCount(Vertex.class, "uid"));
+        assertEquals(2, statistics.distinctValueCount(Vertex.class, "kind"));
+        assertEquals(vertices, statistics.distinctValueCount(Vertex.class, "uid"), vertices * 0.05d);
+        assertEquals(vertices, statistics.degreeHistogram(Direction.OUT).get(0L).longValue());
+        // the vertices are iterated in the order of their ids so the sample must not be the first of them
+        assertEquals(TinkerGraphStatistics.SAMPLE_SIZE, statistics.propertyCount(Vertex.class, "late"), TinkerGraphStatistics.SAMPLE_SIZE * 0.05d);
+
+        statistics.refresh().get();
+        assertTrue(statistics.refresh().isDone());
+        assertEquals(vertices, statistics.propertyCount(Vertex.class, "uid"));
+        assertEquals(2, statistics.distinctValueCount(Vertex.class, "kind"));
+        assertEquals(vertices, statistics.distinctValueCount(Vertex.class, "uid"), vertices * 0.05d);
+    }
+
+    @Test
+    public void shouldSharePropertySchemaOfElementsWithSameKeys() {
+        final TinkerGraph g = TinkerGraph.open();
+        final TinkerVertex v1 = (TinkerVertex) g.addVertex("name", "marko", "age", 29);
+        final TinkerVertex v2 = (TinkerVertex) g.addVertex("name", "stephen", "age", 35);
+        final TinkerEdge e = (TinkerEdge) v1.addEdge("knows", v2, "name", "friend", "age", 10);
+        assertSame(v1.propertySchema, v2.propertySchema);
+        assertSame(v1.propertySchema, e.propertySchema);
+
+        v2.property("age").remove();
+        v2.property("age", 36);
+        assertSame(v1.propertySchema, v2.propertySchema);
+        assertEquals(36, (int) v2.value("age"));
+        assertEquals("stephen", v2.value("name"));
+
+        v1.property("name").remove();
+        assertEquals(Collections.singleton("age"), v1.keys());
+        assertEquals(29, (int) v1.value("age"));
+        assertEquals(Arrays.asList("name", "age"), new ArrayList<>(v2.keys()));
+
+        e.property("age").remove();
+        assertEquals("friend", e.value("name"));
+        assertFalse(e.property("age").isPresent());
+        assertEquals(1L, IteratorUtils.count(e.properties()));
+    }
+
+    @Test
+    public void shouldMoveElementsToUnsharedPropertySchemaPastLimits() {
+        final TinkerGraph g = TinkerGraph.open();
+        final TinkerVertex wide = (TinkerVertex) g.addVertex();
+        for (int i = 0; i <= TinkerPropertySchema.MAX_SHARED_KEYS; i++) {
+            wide.property("key" + i, i);
+        }
+        assertFalse(wide.propertySchema.isShared());
+        assertEquals(TinkerPropertySchema.MAX_SHARED_KEYS + 1, wide.keys().size());
+        assertEquals(TinkerPropertySchema.MAX_SHARED_KEYS, (int) wide.value("key" + TinkerPropertySchema.MAX_SHARED_KEYS));
+
+        // keys that each start a new chain of schemas only derive a limited number of schemas from the root
+        for (int i = 0; i < TinkerPropertySchema.MAX_TRANSITIONS * 2; i++) {
+            g.addVertex("first" + i, i);
+        }
+        final TinkerVertex v = (TinkerVertex) g.addVertex("another", 1);
+        assertFalse(v.propertySchema.isShared());
+        v.property("another").remove();
+        assertSame(g.propertySchema, v.propertySchema);
+
+        // removing the last key goes back along the shared chain while removing any other key leaves it
+        final TinkerVertex v1 = (TinkerVertex) g.addVertex("first0", 0, "age", 29, "name", "marko");
+        final TinkerPropertySchema shared = v1.propertySchema;
+        v1.property("name").remove();
+        assertTrue(v1.propertySchema.isShared());
+        v1.property("name", "marko");
+        assertSame(shared, v1.propertySchema);
+        v1.property("first0").remove();
+        assertFalse(v1.propertySchema.isShared());
+        assertEquals(Arrays.asList("age", "name"), new ArrayList<>(v1.keys()));
+        assertEquals("marko", v1.value("name"));
+    }
+
+    @Test
+    public void shouldStoreUnsharedPropertySchemaOfMetaPropertiesOffHeap() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_OFF_HEAP_PROPERTIES, true);
+        final TinkerGraph g = TinkerGraph.open(conf);
+        final Vertex v = g.addVertex();
+        final VertexProperty<String> vp = v.property("name", "marko", "since", 2010, "until", 2020);
+        vp.property("since").remove();
+        v.property("age", 29);
+
+        final TinkerVertexProperty<String> read = (TinkerVertexProperty<String>) v.<String>property("name");
+        assertFalse(read.propertySchema.isShared());
+        assertEquals(Collections.singleton("until"), read.keys());
+        assertEquals(2020, (int) read.value("until"));
+    }
+
+    @Test
+    public void shouldRemovePropertiesWhileIteratingThem() {
+        final TinkerGraph g = TinkerGraph.open();
+        final Vertex v = g.addVertex("name", "marko", "age", 29, "location", "santa fe");
+        v.property(VertexProperty.Cardinality.list, "location", "brussels");
+        final Edge e = v.addEdge("self", v, "weight", 0.5d, "since", 2010);
+
+        final List<Object> values = new ArrayList<>();
+        v.properties("location", "age").forEachRemaining(p -> {
+            values.add(p.value());
+            p.remove();
+        });
+        assertEquals(Arrays.asList(29, "santa fe", "brussels"), values);
+        assertEquals(Collections.singleton("name"), v.keys());
+
+        e.properties().forEachRemaining(Property::remove);
+        assertTrue(e.keys().isEmpty());
+    }
+
+    @Test
+    public void shouldRemoveVerticesWhileTraversingThem() {
+        final TinkerGraph g = TinkerFactory.createModern();
+        assertEquals(6L, g.traversal().V().sideEffect(t -> t.get().remove()).count().next().longValue());
+        assertEquals(0L, IteratorUtils.count(g.vertices()));
+    }
+
+    @Test
+    public void shouldHoldMultiPropertiesInSlotOfKey() {
+        final TinkerGraph g = TinkerGraph.open();
+        final Vertex v = g.addVertex("name", "marko");
+        final VertexProperty<String> vp = v.property(VertexProperty.Cardinality.list, "name", "marko a. rodriguez", "since", 2010);
+        v.property(VertexProperty.Cardinality.list, "name", "okram");
+        assertEquals(3L, IteratorUtils.count(v.properties("name")));
+        assertEquals(2010, (int) vp.value("since"));
+
+        try {
+            v.property("name");
+            fail("There are multiple properties for the key");
+        } catch (IllegalStateException ignored) {
+            // expected
+        }
+
+        v.properties("name").forEachRemaining(p -> {
+            if (!p.equals(vp)) p.remove();
+        });
+        assertEquals("marko a. rodriguez", v.value("name"));
+        assertEquals(1L, g.traversal().V().has("name", "marko a. rodriguez").count().next().longValue());
+        assertEquals(0L, g.traversal().V().has("name", "marko").count().next().longValue());
+
+        vp.remove();
+        assertFalse(v.property("name").isPresent());
+        assertTrue(v.keys().isEmpty());
+    }
+
+    @Test
+    public void shouldStorePropertiesOffHeap() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_OFF_HEAP_PROPERTIES, true);
+        final TinkerGraph g = TinkerGraph.open(conf);
+        final Vertex v1 = g.addVertex("name", "marko", "age", 29, "weight", 0.5d, "alive", true, "born", 1985L);
+        final Vertex v2 = g.addVertex("name", "vadas");
+        final Edge e = v1.addEdge("knows", v2, "weight", 0.5f, "tags", Arrays.asList("a", "b"));
+        assertThat(g.offHeapStore.allocated(), greaterThan(0L));
+
+        assertEquals("marko", v1.value("name"));
+        assertEquals(29, (int) v1.value("age"));
+        assertEquals(0.5d, v1.value("weight"), 0.0d);
+        assertTrue(v1.value("alive"));
+        assertEquals(1985L, (long) v1.value("born"));
+        assertEquals(0.5f, e.value("weight"), 0.0f);
+        assertEquals(Arrays.asList("a", "b"), e.value("tags"));
+
+        // the vertex property decoded from the record is cached and meta-properties are written back to the vertex
+        final VertexProperty<String> vp = v1.property("name");
+        assertSame(vp, v1.property("name"));
+        vp.property("since", 2010);
+        assertEquals(2010, (int) v1.property("name").value("since"));
+        v1.property("name").property("since").remove();
+        assertFalse(vp.property("since").isPresent());
+
+        v1.property("age", 30);
+        e.property("weight", 1.0f);
+        assertEquals(30, (int) v1.value("age"));
+        assertEquals(1.0f, e.value("weight"), 0.0f);
+        assertEquals(1L, g.traversal().V().has("age", 30).count().next().longValue());
+
+        v1.remove();
+        v2.remove();
+        assertEquals(0L, g.offHeapStore.allocated());
+
+        g.addVertex("name", "josh");
+        g.clear();
+        assertEquals(0L, g.offHeapStore.allocated());
+    }
+
+    @Test
+    public void shouldOnlyEncodeChangedPropertiesOffHeap() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_OFF_HEAP_PROPERTIES, true);
+        final TinkerGraph g = TinkerGraph.open(conf);
+        final Vertex v = g.addVertex("name", "marko", "age", 29);
+        final Vertex other = g.addVertex();
+        final Edge e = v.addEdge("knows", other, "weight", 0.5d, "since", 2010);
+
+        // the other slots are copied to the new record and keep their decoded vertex properties
+        final VertexProperty<String> name = v.property("name");
+        v.property("age", 30);
+        v.property("city", "santa fe", "since", 2010, "until", 2015);
+        assertSame(name, v.property("name"));
+        assertEquals(30, (int) v.value("age"));
+        assertEquals(2015, (int) v.property("city").value("until"));
+
+        v.property(VertexProperty.Cardinality.list, "name", "marko a. rodriguez");
+        assertEquals(Arrays.asList("marko", "marko a. rodriguez"), IteratorUtils.list(v.values("name")));
+        v.properties("name").forEachRemaining(p -> {
+            if (p.value().equals("marko")) p.remove();
+        });
+        assertEquals("marko a. rodriguez", v.value("name"));
+        assertEquals(new HashSet<>(Arrays.asList("name", "age", "city")), v.keys());
+
+        e.property("weight", 1.0d);
+        e.property("note", "friends");
+        assertEquals(1.0d, e.value("weight"), 0.0d);
+        assertEquals(2010, (int) e.value("since"));
+        assertEquals("friends", e.value("note"));
+    }
+
+    @Test
+    public void shouldNotReuseOffHeapRecordsWhileTheyAreRead() throws Exception {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_OFF_HEAP_PROPERTIES, true);
+        final TinkerGraph g = TinkerGraph.open(conf);
+        final Vertex v = g.addVertex();
+        final Edge e1 = v.addEdge("knows", v, "name", "e1-00000");
+        final Edge e2 = v.addEdge("knows", v, "name", "e2-00000");
+        final int updates = 20000;
+
+        // the records of both edges have the same size so each reuses the records the other one freed
+        final AtomicBoolean done = new AtomicBoolean(false);
+        final AtomicReference<Object> invalid = new AtomicReference<>();
+        final Thread reader = new Thread(() -> {
+            try {
+                while (!done.get() && null == invalid.get()) {
+                    final String name = e1.value("name");
+                    if (!name.startsWith("e1-")) invalid.set(name);
+                }
+            } catch (Exception ex) {
+                invalid.set(ex);
+            }
+        });
+        reader.start();
+        for (int i = 1; i <= updates; i++) {
+            e1.property("name", String.format("e1-%05d", i));
+            e2.property("name", String.format("e2-%05d", i));
+        }
+        done.set(true);
+        reader.join();
+
+        assertNull(invalid.get());
+        assertEquals(String.format("e1-%05d", updates), e1.value("name"));
+    }
+
+    @Test
+    public void shouldNotStoreValuesWithoutSerializerOffHeap() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_OFF_HEAP_PROPERTIES, true);
+        final TinkerGraph g = TinkerGraph.open(conf);
+        assertFalse(g.features().vertex().properties().supportsSerializableValues());
+        assertFalse(g.features().edge().properties().supportsSerializableValues());
+
+        final Vertex v = g.addVertex("name", "marko");
+        try {
+            v.property("color", Color.RED);
+            fail("Values of classes that are not registered with Gryo cannot be stored off-heap");
+        } catch (IllegalArgumentException ex) {
+            assertEquals(Property.Exceptions.dataTypeOfPropertyValueNotSupported(Color.RED).getMessage(), ex.getMessage());
+        }
+        assertEquals(Collections.singleton("name"), v.keys());
+        assertEquals("marko", v.value("name"));
+    }
+
     @Test
     public void shouldUpdateVertexIndicesInExistingGraph() {
         final TinkerGraph g = TinkerGraph.open();
@@ -315,6 +966,64 @@ public class TinkerGraphTest {
         }, 0.5)).has("oid", "1").count().next());
     }
 
+    @Test
+    public void shouldBulkLoadWithDeferredIndices() {
+        final TinkerGraph graph = TinkerGraph.open();
+        graph.createIndex("name", Vertex.class);
+        graph.createIndex("weight", Edge.class);
+        graph.addVertex(T.label, "person", "name", "stephen");
+        assertThat(graph.features().graph().supportsBulkLoading(), is(true));
+
+        try (final Graph.BulkLoader loader = graph.bulkLoader()) {
+            final Vertex marko = loader.addVertex("a", T.label, "person", "name", "marko");
+            loader.addVertex("b", T.label, "person", "name", "vadas");
+            loader.addEdge("knows", "a", "b", "weight", 0.5d);
+            marko.property("name", "okram");
+
+            // the indices stay in place for the elements that were not loaded while the loaded ones are deferred
+            assertEquals(Collections.singleton("name"), graph.getIndexedKeys(Vertex.class));
+            assertEquals(1, graph.vertexIndex.count("name", "stephen"));
+            assertEquals(0, graph.vertexIndex.count("name", "vadas"));
+            assertEquals(0, graph.edgeIndex.count("weight", 0.5d));
+            assertEquals(1, IteratorUtils.count(graph.traversal().V().has("name", "stephen")));
+
+            // a rebuild indexes the loaded elements as they are now, which the merge replaces when they change later
+            graph.rebuildIndex(Vertex.class);
+            assertEquals(1, graph.vertexIndex.count("name", "okram"));
+            marko.property("name", "marko");
+
+            try {
+                loader.addEdge("knows", "a", "c");
+                fail("The external id was not added");
+            } catch (IllegalArgumentException iae) {
+                // expected
+            }
+
+            try {
+                graph.bulkLoader();
+                fail("Only one loader may be open");
+            } catch (IllegalStateException ise) {
+                // expected
+            }
+        }
+
+        assertEquals(Collections.singleton("name"), graph.getIndexedKeys(Vertex.class));
+        assertEquals(Collections.singleton("weight"), graph.getIndexedKeys(Edge.class));
+        assertEquals(1, graph.vertexIndex.count("name", "marko"));
+        assertEquals(0, graph.vertexIndex.count("name", "okram"));
+        assertEquals(1, graph.vertexIndex.count("name", "stephen"));
+        assertEquals(1, graph.edgeIndex.count("weight", 0.5d));
+        assertEquals(1, IteratorUtils.count(graph.traversal().V().has("name", "marko").out("knows").has("name", "vadas")));
+
+        // the graph may be loaded again once the previous loader is closed and later writes are indexed directly
+        try (final Graph.BulkLoader loader = graph.bulkLoader(1)) {
+            loader.addVertex("a", "name", "josh");
+        }
+        assertEquals(1, graph.vertexIndex.count("name", "josh"));
+        graph.traversal().V().has("name", "josh").property("name", "peter").iterate();
+        assertEquals(1, graph.vertexIndex.count("name", "peter"));
+    }
+
     @Test
     public void shouldSerializeTinkerGraphToGryo() throws Exception {
         final TinkerGraph graph = TinkerFactory.createModern();
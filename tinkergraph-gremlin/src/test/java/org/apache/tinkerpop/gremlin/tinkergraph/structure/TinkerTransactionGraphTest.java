@@ -0,0 +1,245 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.util.TransactionException;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TinkerTransactionGraphTest {
+
+    @Test
+    public void shouldReadFromSnapshotOfTransaction() throws Exception {
+        final TinkerTransactionGraph graph = TinkerTransactionGraph.open();
+        final GraphTraversalSource g = graph.traversal();
+        final Vertex v = graph.addVertex(T.id, 1, "name", "marko");
+        graph.tx().commit();
+
+        // open a transaction on this thread before another thread commits its change
+        assertEquals("marko", g.V(1).values("name").next());
+        inThread(() -> {
+            g.V(1).property("name", "stephen").addV().iterate();
+            assertEquals(2L, g.V().count().next().longValue());
+            graph.tx().commit();
+            return null;
+        });
+
+        assertEquals("marko", v.value("name"));
+        assertEquals(1L, g.V().count().next().longValue());
+        graph.tx().commit();
+
+        assertEquals("stephen", v.value("name"));
+        assertEquals(2L, g.V().count().next().longValue());
+    }
+
+    @Test
+    public void shouldNotSeeChangesOfOtherTransactionsUntilCommitted() throws Exception {
+        final TinkerTransactionGraph graph = TinkerTransactionGraph.open();
+        final GraphTraversalSource g = graph.traversal();
+        g.addV("person").property(T.id, 1).addE("knows").to(__.addV().property(T.id, 2)).iterate();
+        assertEquals(1L, g.E().count().next().longValue());
+
+        assertEquals(0L, inThread(() -> g.V().count().next()).longValue());
+        graph.tx().rollback();
+        assertEquals(0L, g.V().count().next().longValue());
+        assertEquals(0L, inThread(() -> g.V().count().next()).longValue());
+    }
+
+    @Test
+    public void shouldFailCommitOnConflictingWrite() throws Exception {
+        final TinkerTransactionGraph graph = TinkerTransactionGraph.open();
+        final GraphTraversalSource g = graph.traversal();
+        graph.addVertex(T.id, 1, "name", "marko");
+        graph.tx().commit();
+
+        g.V(1).property("name", "stephen").iterate();
+        inThread(() -> {
+            g.V(1).property("name", "daniel").iterate();
+            graph.tx().commit();
+            return null;
+        });
+
+        try {
+            graph.tx().commit();
+            fail("The commit should have failed as the vertex was modified by another transaction");
+        } catch (TransactionException te) {
+            assertTrue(te.getMessage().contains("Vertex with id 1"));
+        }
+
+        assertFalse(graph.tx().isOpen());
+        assertEquals("daniel", g.V(1).values("name").next());
+    }
+
+    @Test
+    public void shouldFailCommitOnEdgeToRemovedVertex() throws Exception {
+        final TinkerTransactionGraph graph = TinkerTransactionGraph.open();
+        final GraphTraversalSource g = graph.traversal();
+        graph.addVertex(T.id, 1);
+        graph.addVertex(T.id, 2);
+        graph.tx().commit();
+
+        g.V(1).addE("knows").to(__.V(2)).iterate();
+        inThread(() -> {
+            g.V(2).drop().iterate();
+            graph.tx().commit();
+            return null;
+        });
+
+        try {
+            graph.tx().commit();
+            fail("The commit should have failed as the vertex was removed by another transaction");
+        } catch (TransactionException ignored) {
+            // expected
+        }
+
+        assertEquals(1L, g.V().count().next().longValue());
+        assertEquals(0L, g.E().count().next().longValue());
+    }
+
+    @Test
+    public void shouldCommitEdgesAndPropertiesOfDifferentKeysOfSameVertex() throws Exception {
+        final TinkerTransactionGraph graph = TinkerTransactionGraph.open();
+        final GraphTraversalSource g = graph.traversal();
+        graph.addVertex(T.id, 1, "name", "marko");
+        graph.addVertex(T.id, 2);
+        graph.addVertex(T.id, 3);
+        graph.tx().commit();
+
+        g.V(1).property("name", "stephen").addE("knows").to(__.V(2)).iterate();
+        inThread(() -> {
+            g.V(1).property("age", 29).addE("knows").to(__.V(3)).iterate();
+            graph.tx().commit();
+            return null;
+        });
+        graph.tx().commit();
+
+        assertEquals(Arrays.asList(2, 3), g.V(1).out("knows").id().order().toList());
+        assertEquals("stephen", g.V(1).values("name").next());
+        assertEquals(29, g.V(1).values("age").next());
+        assertEquals(1L, g.V(3).inE("knows").count().next().longValue());
+    }
+
+    @Test
+    public void shouldFailCommitOnRemovedVertexWithNewEdge() throws Exception {
+        final TinkerTransactionGraph graph = TinkerTransactionGraph.open();
+        final GraphTraversalSource g = graph.traversal();
+        graph.addVertex(T.id, 1);
+        graph.addVertex(T.id, 2);
+        graph.tx().commit();
+
+        g.V(1).drop().iterate();
+        inThread(() -> {
+            g.V(2).addE("knows").to(__.V(1)).iterate();
+            graph.tx().commit();
+            return null;
+        });
+
+        try {
+            graph.tx().commit();
+            fail("The commit should have failed as the vertex gained an edge in another transaction");
+        } catch (TransactionException te) {
+            assertTrue(te.getMessage().contains("Vertex with id 1"));
+        }
+
+        assertEquals(1L, g.V(2).outE("knows").count().next().longValue());
+    }
+
+    @Test
+    public void shouldCommitWritesOfDifferentElementsInParallel() throws Exception {
+        final TinkerTransactionGraph graph = TinkerTransactionGraph.open();
+        final GraphTraversalSource g = graph.traversal();
+        final int threads = 8;
+        final int verticesPerThread = 250;
+
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                final int thread = i;
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < verticesPerThread; j++) {
+                        g.addV("thread" + thread).property("index", j).iterate();
+                        graph.tx().commit();
+                    }
+                }));
+            }
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(threads * verticesPerThread, g.V().count().next().intValue());
+        assertEquals(verticesPerThread, g.V().hasLabel("thread3").count().next().intValue());
+    }
+
+    @Test
+    public void shouldKeepSnapshotOfLongRunningReader() throws Exception {
+        final TinkerTransactionGraph graph = TinkerTransactionGraph.open();
+        final GraphTraversalSource g = graph.traversal();
+        graph.addVertex(T.id, 1, "count", 0);
+        graph.tx().commit();
+
+        assertEquals(0, g.V(1).values("count").next());
+        inThread(() -> {
+            for (int i = 1; i <= 100; i++) {
+                g.V(1).property("count", i).iterate();
+                graph.tx().commit();
+            }
+            g.V(1).drop().iterate();
+            graph.tx().commit();
+            return null;
+        });
+
+        assertEquals(0, g.V(1).values("count").next());
+        graph.tx().rollback();
+        assertFalse(g.V(1).hasNext());
+
+        // the versions of the vertex that were kept for the reader are discarded on the next commit
+        graph.addVertex(T.id, 1, "count", 101);
+        graph.tx().commit();
+        assertEquals(101, g.V(1).values("count").next());
+    }
+
+    private static <T> T inThread(final Callable<T> callable) throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            return executor.submit(callable).get();
+        } finally {
+            executor.shutdown();
+        }
+    }
+}